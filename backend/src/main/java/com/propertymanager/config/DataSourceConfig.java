@@ -0,0 +1,156 @@
+package com.propertymanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The primary's pool, configured by {@code spring.datasource.*} as before, plus a pool of its
+ * own for each read replica in {@code app.datasource.replica.urls}. See
+ * {@link ReplicaRoutingDataSource} for which transactions go where.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${app.datasource.replica.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximum-pool-size:5}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica.connection-timeout-ms:2000}")
+    private long replicaConnectionTimeoutMs;
+
+    @Value("${app.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${app.datasource.replica.read-your-writes-seconds:10}")
+    private long readYourWritesSeconds;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (!url.isBlank()) {
+                String name = "replica-" + (replicas.size() + 1);
+                replicas.add(new ReplicaRoutingDataSource.Replica(name, replicaPool(name, url.trim(), primaryDataSource)));
+            }
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                Duration.ofSeconds(readYourWritesSeconds), Duration.ofSeconds(maxLagSeconds));
+    }
+
+    /**
+     * The data source everything uses. Connections are only taken when the first statement
+     * runs, by which time the routing can tell whether the transaction is read-only.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ReplicaRoutingDataSource routingDataSource) {
+        boolean replicas = !routingDataSource.getReplicas().isEmpty();
+        JpaTransactionManager transactionManager = new JpaTransactionManager() {
+            @Override
+            public void afterPropertiesSet() {
+                // Takes its dialect from the entity manager factory, so it is replaced afterwards
+                super.afterPropertiesSet();
+                if (replicas) {
+                    setJpaDialect(new ReplicaJpaDialect());
+                }
+            }
+        };
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+        return transactionManager;
+    }
+
+    /**
+     * A pool that starts, and fails fast, whether or not the replica is up, so that an
+     * unreachable replica is ejected rather than holding up start-up or requests.
+     */
+    private HikariDataSource replicaPool(String name, String url, HikariDataSource primary) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setDriverClassName(primary.getDriverClassName());
+        pool.setUsername(replicaUsername);
+        pool.setPassword(replicaPassword);
+        pool.setMaximumPoolSize(replicaPoolSize);
+        pool.setConnectionTimeout(replicaConnectionTimeoutMs);
+        pool.setInitializationFailTimeout(-1);
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    /**
+     * Keeps read-only transactions, which may read from a replica that is behind, from putting
+     * what they load into the second-level cache, where it could outlive the lag by the cache's
+     * TTL. They still read from the cache, and read-write transactions and reads outside a
+     * transaction, which go to the primary, fill it.
+     */
+    static class ReplicaJpaDialect extends HibernateJpaDialect {
+
+        private record TransactionData(Object delegate, Session session, CacheMode previousCacheMode) {
+        }
+
+        @Override
+        public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+                throws PersistenceException, SQLException {
+            Object data = super.beginTransaction(entityManager, definition);
+            if (!definition.isReadOnly()) {
+                return data;
+            }
+            Session session = entityManager.unwrap(Session.class);
+            CacheMode previousCacheMode = session.getCacheMode();
+            session.setCacheMode(CacheMode.GET);
+            return new TransactionData(data, session, previousCacheMode);
+        }
+
+        @Override
+        public void cleanupTransaction(Object transactionData) {
+            if (transactionData instanceof TransactionData data) {
+                data.session().setCacheMode(data.previousCacheMode());
+                super.cleanupTransaction(data.delegate());
+            } else {
+                super.cleanupTransaction(transactionData);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.propertymanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableScheduling
+public class JobConfig {
+
+    @Value("${app.jobs.threads:2}")
+    private int jobThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Bulk jobs run on this pool, polled for by the job runner. It has no queue: the runner
+     * only claims a job when a thread is free, leaving the rest for other nodes to claim. In
+     * virtual-thread mode its threads are virtual, but there are still only as many.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobThreads);
+        executor.setMaxPoolSize(jobThreads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("job-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("job-", 1).factory());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,229 @@
+package com.propertymanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the healthy read replicas in turn and everything else,
+ * including reads outside a read-only transaction, to the primary. Must sit behind a
+ * {@link LazyConnectionDataSourceProxy}: a transaction asks for its connection before its
+ * read-only flag is set, and the proxy puts that off until the first statement.
+ * <p>
+ * A signed-in user who commits a write reads from the primary for the read-your-writes window
+ * afterwards, so that they see their change before the replicas do. The window is kept per
+ * node, so it holds for as long as the user's requests reach the same node.
+ * <p>
+ * Replicas are checked on a schedule and ejected while they are unreachable or further behind
+ * the primary than the maximum lag, or as soon as a connection cannot be had from one; reads
+ * go to the other replicas, or the primary, until a later check finds it healthy again.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * Seconds since the replica last replayed a transaction from the primary, or 0 when it
+     * has replayed everything it has received. A database that is not in recovery, such as a
+     * stand-in copy, is never behind.
+     */
+    static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    /**
+     * A replica's pool and whether reads may be sent to it. Replicas start out of service
+     * until their first check.
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    // Users who committed a write within the window, by name
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration readYourWrites,
+                                    Duration maxLag) {
+        this(primary, replicas, readYourWrites, maxLag, Ticker.systemTicker());
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration readYourWrites,
+                             Duration maxLag, Ticker ticker) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(100_000)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            eject(replica, e.toString());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections use the credentials of the pool they come from");
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return the replica to read from, or null for the primary
+     */
+    Replica route() {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit(user);
+            return null;
+        }
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts the user's read-your-writes window when their transaction commits. Any read-write
+     * transaction that runs a statement counts, since whether it wrote is not known here.
+     */
+    private void recordWriteOnCommit(String user) {
+        if (user == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Puts each replica in or out of service by whether it answers and how far it lags.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String problem = check(replica);
+            if (problem != null) {
+                eject(replica, problem);
+            } else if (!replica.healthy) {
+                logger.info("Replica {} is in service", replica.name);
+                replica.healthy = true;
+            }
+        }
+    }
+
+    /**
+     * @return why the replica should not be read from, or null if it is healthy
+     */
+    private String check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LAG_QUERY);
+             ResultSet resultSet = statement.executeQuery()) {
+            double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                return String.format("%.1fs behind the primary", lagSeconds);
+            }
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            return e.toString();
+        }
+    }
+
+    private void eject(Replica replica, String reason) {
+        if (replica.healthy) {
+            logger.warn("Taking replica {} out of service: {}", replica.name, reason);
+            replica.healthy = false;
+        }
+    }
+
+    /**
+     * Closes the replica pools, which belong to this data source. The primary's pool is a
+     * bean of its own.
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.propertymanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SavedSearchConfig {
+
+    @Value("${app.saved-search.queue-size:1000}")
+    private int queueSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Committed property changes are percolated against saved searches on this thread, after
+     * the writing request has given its connection back, so that a write never needs a second
+     * connection to record its matches. Changes beyond its queue are not percolated.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor percolationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueSize);
+        executor.setThreadNamePrefix("percolate-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("percolate-", 1).factory());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,74 @@
+package com.propertymanager.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes the hits, misses and puts of each second-level cache region, and its hit ratio,
+ * through Actuator, for example {@code /actuator/metrics/hibernate.second.level.cache.hit.ratio}
+ * with {@code ?tag=region:com.propertymanager.model.Property}. The figures come from
+ * Hibernate's statistics and stay at zero while {@code hibernate.generate_statistics} is off.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    static final String REQUESTS = "hibernate.second.level.cache.requests";
+    static final String PUTS = "hibernate.second.level.cache.puts";
+    static final String HIT_RATIO = "hibernate.second.level.cache.hit.ratio";
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String region : sessionFactory.getCache().getCacheRegionNames()) {
+            Tags tags = Tags.of("region", region);
+            FunctionCounter.builder(REQUESTS, statistics, stats -> count(stats, region, CacheRegionStatistics::getHitCount))
+                    .tags(tags.and("result", "hit"))
+                    .description("Second-level cache lookups that found the entry")
+                    .register(registry);
+            FunctionCounter.builder(REQUESTS, statistics, stats -> count(stats, region, CacheRegionStatistics::getMissCount))
+                    .tags(tags.and("result", "miss"))
+                    .description("Second-level cache lookups that went to the database")
+                    .register(registry);
+            FunctionCounter.builder(PUTS, statistics, stats -> count(stats, region, CacheRegionStatistics::getPutCount))
+                    .tags(tags)
+                    .description("Entries put into the second-level cache")
+                    .register(registry);
+            Gauge.builder(HIT_RATIO, statistics, stats -> hitRatio(stats, region))
+                    .tags(tags)
+                    .description("Share of second-level cache lookups that found the entry since start-up")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * @return hits over lookups, or NaN before the first lookup
+     */
+    static double hitRatio(Statistics statistics, String region) {
+        long hits = count(statistics, region, CacheRegionStatistics::getHitCount);
+        long lookups = hits + count(statistics, region, CacheRegionStatistics::getMissCount);
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+
+    // Looked up on every read, as clearing the statistics replaces the per-region counters
+    private static long count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> counter) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : counter.applyAsLong(regionStatistics);
+    }
+}
@@ -1,13 +1,18 @@
 package com.propertymanager.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.lang.NonNull;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
@@ -15,6 +20,39 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${upload.path:/uploads}")
     private String uploadPath;
 
+    @Value("${app.export.threads:2}")
+    private int exportThreads;
+
+    @Value("${app.export.timeout-minutes:30}")
+    private long exportTimeoutMinutes;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Streaming responses such as exports are written on this pool rather than on request
+     * threads. It is small and bounded because each export holds a database connection;
+     * further exports queue until a thread frees up, in virtual-thread mode too.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamingResponseExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportThreads);
+        executor.setMaxPoolSize(exportThreads);
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("stream-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("stream-", 1).factory());
+        }
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingResponseExecutor());
+        configurer.setDefaultTimeout(TimeUnit.MINUTES.toMillis(exportTimeoutMinutes));
+    }
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         registry.addMapping("/**")
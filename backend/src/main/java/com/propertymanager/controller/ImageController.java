@@ -14,7 +14,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 @RestController
 @RequestMapping("/api/images")
@@ -29,13 +29,10 @@ public class ImageController {
 
     @PostMapping("/upload/{propertyId}")
     public List<Image> uploadImages(@RequestParam("files") MultipartFile[] files, @PathVariable Long propertyId) throws IOException {
-        List<Image> uploadedImages = new ArrayList<>();
-        for (MultipartFile file : files) {
-            if (!file.isEmpty()) {
-                uploadedImages.add(imageService.saveImage(file, propertyId));
-            }
-        }
-        return uploadedImages;
+        List<MultipartFile> nonEmptyFiles = Arrays.stream(files)
+                .filter(file -> !file.isEmpty())
+                .toList();
+        return nonEmptyFiles.isEmpty() ? List.of() : imageService.saveImages(nonEmptyFiles, propertyId);
     }
 
     @GetMapping("/{filename:.+}")
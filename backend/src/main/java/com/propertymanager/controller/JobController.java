@@ -0,0 +1,74 @@
+package com.propertymanager.controller;
+
+import com.propertymanager.model.BulkPropertyRequest;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.JobReport;
+import com.propertymanager.service.JobService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Bulk property jobs. Submissions answer 202 Accepted with the queued job; poll
+ * {@code /api/jobs/{id}} for its progress, throughput and errors.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+@PreAuthorize("hasRole('ADMIN')")
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobReport> submitImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                  InputStream body, Principal principal) throws IOException {
+        ExportFormat format = ExportFormat.fromMediaType(contentType);
+        return accepted(jobService.submitImport(owner(principal), format, body));
+    }
+
+    @PostMapping(value = "/reprice", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobReport> submitReprice(@RequestBody BulkPropertyRequest request, Principal principal) {
+        return accepted(jobService.submitReprice(owner(principal), request.criteria(), request.percentChange()));
+    }
+
+    @PostMapping(value = "/delete", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobReport> submitDelete(@RequestBody BulkPropertyRequest request, Principal principal) {
+        return accepted(jobService.submitDelete(owner(principal), request.criteria()));
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobReport> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(jobService.getJob(id));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<JobReport>> getJobs(Principal principal) {
+        return ResponseEntity.ok(jobService.getJobs(owner(principal)));
+    }
+
+    private ResponseEntity<JobReport> accepted(JobReport job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/jobs/" + job.id())
+                .body(job);
+    }
+
+    private String owner(Principal principal) {
+        return principal != null ? principal.getName() : null;
+    }
+}
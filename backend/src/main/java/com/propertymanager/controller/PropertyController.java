@@ -1,18 +1,52 @@
 package com.propertymanager.controller;
 
+import com.propertymanager.model.AddressSuggestion;
+import com.propertymanager.model.CursorPage;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.PriceStatistics;
 import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyImportResult;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySearchParameters;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.model.SearchSlice;
+import com.propertymanager.search.PropertyChangeStream;
+import com.propertymanager.search.PropertySearchCache;
+import com.propertymanager.service.PropertyExporter;
+import com.propertymanager.service.PropertyImporter;
 import com.propertymanager.service.PropertyService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.PositiveOrZero;
-import org.springframework.data.domain.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/properties")
@@ -20,57 +54,72 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class PropertyController {
 
+    private static final Logger logger = LoggerFactory.getLogger(PropertyController.class);
+
     private final PropertyService propertyService;
+    private final PropertySearchCache searchCache;
+    private final PropertyExporter propertyExporter;
+    private final PropertyImporter propertyImporter;
+    private final PropertyChangeStream changeStream;
 
-    public PropertyController(PropertyService propertyService) {
+    public PropertyController(PropertyService propertyService, PropertySearchCache searchCache,
+                              PropertyExporter propertyExporter, PropertyImporter propertyImporter,
+                              PropertyChangeStream changeStream) {
         this.propertyService = propertyService;
+        this.searchCache = searchCache;
+        this.propertyExporter = propertyExporter;
+        this.propertyImporter = propertyImporter;
+        this.changeStream = changeStream;
     }
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<Property>> getAllProperties(
-            @RequestParam(required = false) String address,
-            @RequestParam(required = false) String minPrice,
-            @RequestParam(required = false) String maxPrice,
-            @RequestParam(required = false) String minSize,
-            @RequestParam(required = false) String maxSize,
-            @RequestParam(required = false) String bedrooms,
-            @RequestParam(required = false) String maxRooms,
-            @RequestParam(required = false) String minBathrooms,
-            @RequestParam(required = false) String maxBathrooms,
+    public ResponseEntity<?> getAllProperties(
+            @ModelAttribute PropertySearchParameters filters,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(defaultValue = "false") boolean estimateTotal,
+            @RequestHeader(value = PropertySearchCache.HEADER, required = false) String cacheDirective,
             @PageableDefault(size = 12) Pageable pageable) {
         
-        // Convert string parameters to appropriate types
-        Double minPriceValue = parseDouble(minPrice);
-        Double maxPriceValue = parseDouble(maxPrice);
-        Double minSizeValue = parseDouble(minSize);
-        Double maxSizeValue = parseDouble(maxSize);
-        Integer bedroomsValue = parseInteger(bedrooms);
-        Integer maxRoomsValue = parseInteger(maxRooms);
-        Integer minBathroomsValue = parseInteger(minBathrooms);
-        Integer maxBathroomsValue = parseInteger(maxBathrooms);
-        
-        // Validate price range
-        if (minPriceValue != null && maxPriceValue != null && minPriceValue > maxPriceValue) {
-            throw new IllegalArgumentException("Maximum price must be greater than or equal to minimum price");
-        }
+        PropertySearchCriteria criteria = filters.toCriteria();
         
         // Log the received parameters for debugging
-        System.out.println("Received parameters: address=" + address + 
-                         ", minPrice=" + minPrice + "(" + minPriceValue + ")" +
-                         ", maxPrice=" + maxPrice + "(" + maxPriceValue + ")" +
-                         ", bedrooms=" + bedrooms + "(" + bedroomsValue + ")");
+        logger.debug("Received parameters: {}, parsed as {}", filters, criteria);
         
-        Page<Property> properties = propertyService.searchProperties(
-            address, minPriceValue, maxPriceValue, minSizeValue, maxSizeValue,
-            bedroomsValue, maxRoomsValue, minBathroomsValue, maxBathroomsValue,
-            pageable);
-        return ResponseEntity.ok(properties);
+        return search(criteria, cursor, slice, estimateTotal, cacheDirective, pageable);
+    }
+
+    @GetMapping(value = "/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AddressSuggestion>> suggestAddresses(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(propertyService.suggestAddresses(prefix, limit));
     }
 
+    @GetMapping(value = "/{id}/similar", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<PropertySummary>> getSimilarProperties(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(propertyService.findSimilarProperties(id, limit));
+    }
+
+    /**
+     * Returns the property with a strong ETag made from its id and version. A request whose
+     * If-None-Match still holds is answered with 304 after reading only the version, without
+     * loading the property and its images. The version is read from the database rather than
+     * the second-level cache, which each node holds for itself and which can lag a write made
+     * on another node.
+     */
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Property> getPropertyById(@PathVariable Long id) {
+    public ResponseEntity<Property> getPropertyById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(eTag(id, propertyService.getPropertyVersion(id)))) {
+            return null;
+        }
         Property property = propertyService.getPropertyById(id);
-        return ResponseEntity.ok(property);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(eTag(id, property.getVersion()))
+                .body(property);
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
@@ -80,6 +129,20 @@ public class PropertyController {
         return ResponseEntity.ok(savedProperty);
     }
 
+    /**
+     * Imports properties from a CSV or NDJSON body with the export's columns (ids are
+     * ignored), chosen by Content-Type. Valid rows are inserted in committed batches as the
+     * body is read; the response counts them and lists the rows that were rejected and why.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PropertyImportResult> importProperties(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        ExportFormat format = ExportFormat.fromMediaType(contentType);
+        return ResponseEntity.ok(propertyImporter.importFrom(format, body));
+    }
+
     @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Property> updateProperty(@PathVariable Long id, @Valid @RequestBody Property property) {
@@ -87,6 +150,25 @@ public class PropertyController {
         return ResponseEntity.ok(updatedProperty);
     }
 
+    /**
+     * Applies a JSON merge patch to the property's own fields in a single statement. The patch
+     * must name the version it was made against, by the ETag in If-Match or a version field;
+     * {@code If-Match: *} patches whatever version is current. Answers 204 with the new ETag,
+     * or 409 when the property has changed in the meantime.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> patchProperty(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> body) {
+        PropertyPatch patch = PropertyPatch.of(body);
+        Property patched = propertyService.patchProperty(id, expectedVersion(id, ifMatch, patch), patch);
+        return ResponseEntity.noContent()
+                .eTag(eTag(patched.getId(), patched.getVersion()))
+                .build();
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteProperty(@PathVariable Long id) {
@@ -95,60 +177,174 @@ public class PropertyController {
     }
 
     @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<Property>> searchProperties(
-            @RequestParam(required = false) String address,
-            @RequestParam(required = false) String minPrice,
-            @RequestParam(required = false) String maxPrice,
-            @RequestParam(required = false) String minSize,
-            @RequestParam(required = false) String maxSize,
-            @RequestParam(required = false) String bedrooms,
-            @RequestParam(required = false) String maxRooms,
-            @RequestParam(required = false) String minBathrooms,
-            @RequestParam(required = false) String maxBathrooms,
+    public ResponseEntity<?> searchProperties(
+            @ModelAttribute PropertySearchParameters filters,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean slice,
+            @RequestParam(defaultValue = "false") boolean estimateTotal,
+            @RequestHeader(value = PropertySearchCache.HEADER, required = false) String cacheDirective,
             @PageableDefault(size = 12) Pageable pageable) {
         
-        // Convert string parameters to appropriate types
-        Double minPriceValue = parseDouble(minPrice);
-        Double maxPriceValue = parseDouble(maxPrice);
-        Double minSizeValue = parseDouble(minSize);
-        Double maxSizeValue = parseDouble(maxSize);
-        Integer bedroomsValue = parseInteger(bedrooms);
-        Integer maxRoomsValue = parseInteger(maxRooms);
-        Integer minBathroomsValue = parseInteger(minBathrooms);
-        Integer maxBathroomsValue = parseInteger(maxBathrooms);
-        
-        // Validate price range
-        if (minPriceValue != null && maxPriceValue != null && minPriceValue > maxPriceValue) {
-            throw new IllegalArgumentException("Maximum price must be greater than or equal to minimum price");
+        PropertySearchCriteria criteria = filters.toCriteria();
+        return search(criteria, cursor, slice, estimateTotal, cacheDirective, pageable);
+    }
+
+    /**
+     * Returns facet histograms for the same filters as {@link #searchProperties}, each
+     * facet ignoring its own filter. {@code facets} lists the facets to count (price,
+     * bedrooms, bathrooms) and defaults to all of them.
+     */
+    @GetMapping(value = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PropertyFacets> getFacets(
+            @ModelAttribute PropertySearchParameters filters,
+            @RequestParam(required = false) List<String> facets) {
+
+        PropertySearchCriteria criteria = filters.toCriteria();
+
+        Set<SearchFacet> requested = facets == null || facets.isEmpty()
+                ? EnumSet.allOf(SearchFacet.class)
+                : facets.stream().map(SearchFacet::fromParameter)
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(SearchFacet.class)));
+        return ResponseEntity.ok(propertyService.getFacets(criteria, requested));
+    }
+
+    /**
+     * Returns median and 90th percentile price and price per square foot, with a price
+     * histogram, for the same filters as {@link #searchProperties}. {@code areas} restricts
+     * the statistics to a union of postcode areas or towns (such as {@code sw,manchester}).
+     */
+    @GetMapping(value = "/statistics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PriceStatistics> getPriceStatistics(
+            @ModelAttribute PropertySearchParameters filters,
+            @RequestParam(required = false) List<String> areas) {
+
+        PropertySearchCriteria criteria = filters.toCriteria();
+
+        Set<String> requested = areas == null
+                ? Set.of()
+                : areas.stream().filter(StringUtils::hasText).collect(Collectors.toSet());
+        return ResponseEntity.ok(propertyService.getPriceStatistics(criteria, requested));
+    }
+
+    /**
+     * Streams every property matching the same filters as {@link #searchProperties}, in id
+     * order, as NDJSON (the default) or CSV. Rows are written as the database cursor yields
+     * them, with no paging and no count, so the response starts before the query finishes.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProperties(
+            @ModelAttribute PropertySearchParameters filters,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        PropertySearchCriteria criteria = filters.toCriteria();
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        // Reject bad filters now, while the response can still be a 400
+        propertyService.validateSearchCriteria(criteria);
+
+        StreamingResponseBody body = out -> propertyExporter.export(criteria, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("properties." + exportFormat.fileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Pushes committed creates, updates and deletes as Server-Sent Events, for properties
+     * matching the same filters as {@link #searchProperties} before or after the change.
+     * Clients reconnecting with {@code Last-Event-ID} are sent the changes they missed, or a
+     * {@code reset} event when those are no longer held and they should reload.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @ModelAttribute PropertySearchParameters filters,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        PropertySearchCriteria criteria = filters.toCriteria();
+        propertyService.validateSearchCriteria(criteria);
+        return changeStream.subscribe(criteria.normalized(), lastEventId);
+    }
+
+    /**
+     * Runs a search in offset mode, or in keyset mode when a cursor parameter is present
+     * (an empty cursor requests the first page). With {@code slice=true} the offset page is
+     * returned without an exact total, optionally with the planner's estimate instead.
+     * Offset pages go through the search cache unless the request sends
+     * {@code X-Search-Cache: bypass}; the response header reports HIT, MISS or BYPASS.
+     * Every mode returns {@link PropertySummary} rows; {@code GET /{id}} has the full detail.
+     */
+    private ResponseEntity<?> search(PropertySearchCriteria criteria, String cursor, boolean slice,
+                                     boolean estimateTotal, String cacheDirective, Pageable pageable) {
+        // Pages still run their query, but an unchanged page is answered with 304 unwritten
+        if (cursor != null) {
+            CursorPage<PropertySummary> page = propertyService.searchPropertySummariesByCursor(
+                criteria, cursor, pageable.getPageSize(), pageable.getSort());
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(pageETag(page.content(), page.hasNext(), page.next()))
+                    .body(page);
         }
-        
-        Page<Property> results = propertyService.searchProperties(
-            address, minPriceValue, maxPriceValue, minSizeValue, maxSizeValue,
-            bedroomsValue, maxRoomsValue, minBathroomsValue, maxBathroomsValue,
-            pageable);
-        
-        return ResponseEntity.ok(results);
+        if (slice) {
+            SearchSlice<PropertySummary> results =
+                    propertyService.searchPropertySummariesSlice(criteria, pageable, estimateTotal);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(pageETag(results.content(), results.hasNext(), results.estimatedTotal()))
+                    .body(results);
+        }
+        PropertySearchCache.Result result = searchCache.search(criteria, pageable,
+                PropertySearchCache.BYPASS.equalsIgnoreCase(cacheDirective));
+        return ResponseEntity.ok()
+                .header(PropertySearchCache.HEADER, result.outcome().name())
+                .cacheControl(CacheControl.noCache())
+                .eTag(pageETag(result.page().getContent(), result.page().getTotalElements()))
+                .body(result.page());
+    }
+
+    private static String eTag(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
     }
-    
-    private Double parseDouble(String value) {
-        if (value == null || value.trim().isEmpty()) {
+
+    /**
+     * @return the version named by If-Match or the patch, or null for {@code If-Match: *}
+     */
+    private static Long expectedVersion(Long id, String ifMatch, PropertyPatch patch) {
+        if (ifMatch == null) {
+            if (patch.version() == null) {
+                throw new IllegalArgumentException("Send the property's ETag in If-Match, or its version in the patch");
+            }
+            return patch.version();
+        }
+        String tag = ifMatch.trim();
+        if ("*".equals(tag)) {
             return null;
         }
-        try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            return null; // Just ignore invalid number formats
+        String prefix = "\"" + id + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
         }
+        throw new IllegalArgumentException("If-Match must be an ETag of property " + id);
     }
-    
-    private Integer parseInteger(String value) {
-        if (value == null || value.trim().isEmpty()) {
-            return null;
+
+    /**
+     * A weak ETag for a page of results, hashed from the ids and versions of its rows and
+     * from the paging fields that can change without them. Filters and page position are
+     * already part of the URL the ETag is held against.
+     */
+    private static String pageETag(List<PropertySummary> content, Object... paging) {
+        StringBuilder tuples = new StringBuilder();
+        for (Object field : paging) {
+            tuples.append(field).append(';');
         }
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            return null; // Just ignore invalid number formats
+        for (PropertySummary summary : content) {
+            tuples.append(summary.id()).append(':').append(summary.version()).append(',');
         }
+        return "W/\"" + DigestUtils.md5DigestAsHex(tuples.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
     }
-} 
\ No newline at end of file
+}
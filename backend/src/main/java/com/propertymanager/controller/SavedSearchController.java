@@ -0,0 +1,61 @@
+package com.propertymanager.controller;
+
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SavedSearch;
+import com.propertymanager.model.SavedSearchMatch;
+import com.propertymanager.model.SavedSearchRequest;
+import com.propertymanager.service.SavedSearchService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Saved searches of the signed-in user, and the properties that have matched them since
+ * they were saved.
+ */
+@RestController
+@RequestMapping("/api/saved-searches")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    public SavedSearchController(SavedSearchService savedSearchService) {
+        this.savedSearchService = savedSearchService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SavedSearch> createSavedSearch(@Valid @RequestBody SavedSearchRequest request,
+                                                         Principal principal) {
+        PropertySearchCriteria criteria = request.criteria() != null ? request.criteria() : new PropertySearchCriteria();
+        return ResponseEntity.ok(savedSearchService.createSavedSearch(owner(principal), request.name(), criteria));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<SavedSearch>> getSavedSearches(Principal principal) {
+        return ResponseEntity.ok(savedSearchService.getSavedSearches(owner(principal)));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(@PathVariable Long id, Principal principal) {
+        savedSearchService.deleteSavedSearch(id, owner(principal));
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping(value = "/{id}/matches", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Page<SavedSearchMatch>> getMatches(@PathVariable Long id, Principal principal,
+                                                             @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(savedSearchService.getMatches(id, owner(principal), pageable));
+    }
+
+    private String owner(Principal principal) {
+        return principal != null ? principal.getName() : null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.propertymanager.job;
+
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobParameters;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.service.PropertyService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Deletes every matching property, with its images.
+ */
+@Component
+public class DeleteJobHandler extends MatchingPropertiesJobHandler {
+
+    private final PropertyService propertyService;
+
+    public DeleteJobHandler(PropertyRepository propertyRepository, PropertyService propertyService) {
+        super(propertyRepository);
+        this.propertyService = propertyService;
+    }
+
+    @Override
+    public Job.Type type() {
+        return Job.Type.DELETE;
+    }
+
+    @Override
+    void apply(List<Long> ids, JobParameters parameters) {
+        propertyService.deleteProperties(ids);
+    }
+}
@@ -0,0 +1,81 @@
+package com.propertymanager.job;
+
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobParameters;
+import com.propertymanager.model.Property;
+import com.propertymanager.service.PropertyImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports an upload stored when the job was submitted, one batch of valid rows per chunk.
+ * The cursor is the last row read, so a resumed job skips the rows already committed.
+ * Invalid rows, and rows the database refuses, are reported by row number as the synchronous
+ * import does, without failing the job.
+ */
+@Component
+public class ImportJobHandler implements JobHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobHandler.class);
+
+    private final PropertyImporter propertyImporter;
+
+    public ImportJobHandler(PropertyImporter propertyImporter) {
+        this.propertyImporter = propertyImporter;
+    }
+
+    @Override
+    public Job.Type type() {
+        return Job.Type.IMPORT;
+    }
+
+    @Override
+    public Work open(Job job) throws IOException {
+        JobParameters parameters = job.getParameters();
+        InputStream in = Files.newInputStream(Path.of(parameters.inputPath()));
+        PropertyImporter.Rows rows;
+        try {
+            rows = propertyImporter.openRows(parameters.format(), in);
+            rows.skip(job.getCursor());
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        return new Work() {
+            @Override
+            public boolean runChunk(Job current) throws IOException {
+                List<Property> batch = new ArrayList<>();
+                List<Job.ItemError> errors = new ArrayList<>();
+                long before = rows.rowNumber();
+                PropertyImporter.RejectedRows rejected = (row, message) -> errors.add(new Job.ItemError(row, message));
+                rows.readBatch(batch, rejected);
+                if (!batch.isEmpty()) {
+                    propertyImporter.insert(batch, rows, rejected);
+                }
+                current.recordChunk(rows.rowNumber(), rows.rowNumber() - before, errors);
+                return !rows.finished();
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    @Override
+    public void finished(Job job) {
+        try {
+            Files.deleteIfExists(Path.of(job.getParameters().inputPath()));
+        } catch (IOException e) {
+            logger.warn("Could not delete the upload of import job {}", job.getId(), e);
+        }
+    }
+}
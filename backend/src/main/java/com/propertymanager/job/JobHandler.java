@@ -0,0 +1,45 @@
+package com.propertymanager.job;
+
+import com.propertymanager.model.Job;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Carries out the jobs of one type for the {@link JobRunner}.
+ */
+public interface JobHandler {
+
+    Job.Type type();
+
+    /**
+     * Prepares to carry on a job from its cursor. Called outside any transaction, once per
+     * run, including when a job is resumed by another node.
+     */
+    Work open(Job job) throws IOException;
+
+    /**
+     * Releases anything the job kept between runs, once it has succeeded or failed.
+     */
+    default void finished(Job job) {
+    }
+
+    /**
+     * A job's remaining work, done a chunk at a time.
+     */
+    @FunctionalInterface
+    interface Work extends Closeable {
+
+        /**
+         * Processes the next chunk inside the caller's transaction and records it on the
+         * job, so that the chunk and its progress commit together.
+         *
+         * @return whether there may be more to do
+         */
+        boolean runChunk(Job job) throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+}
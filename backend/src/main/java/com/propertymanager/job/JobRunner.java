@@ -0,0 +1,226 @@
+package com.propertymanager.job;
+
+import com.propertymanager.model.Job;
+import com.propertymanager.repository.JobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Claims jobs from the database and works through them on a bounded pool, one chunk per
+ * transaction. The job row is locked while each chunk runs and its progress is committed
+ * with the chunk, so a node that stops mid-job loses at most the chunk in flight. Once its
+ * heartbeat is older than {@code app.jobs.stale-after-seconds}, any node, including the
+ * same one restarted, claims the job again and carries on from its cursor.
+ */
+@Component
+public class JobRunner {
+    private static final Logger logger = LoggerFactory.getLogger(JobRunner.class);
+
+    private final JobRepository jobRepository;
+    private final Map<Job.Type, JobHandler> handlers = new EnumMap<>(Job.Type.class);
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor jobExecutor;
+    private final Semaphore freeWorkers;
+    private final Duration staleAfter;
+    private final boolean enabled;
+    // Unique per process, so that a restarted node never mistakes an old claim for its own
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    public JobRunner(JobRepository jobRepository,
+                     List<JobHandler> handlers,
+                     PlatformTransactionManager transactionManager,
+                     @Qualifier("jobExecutor") TaskExecutor jobExecutor,
+                     @Value("${app.jobs.threads:2}") int threads,
+                     @Value("${app.jobs.stale-after-seconds:120}") long staleAfterSeconds,
+                     @Value("${app.jobs.enabled:true}") boolean enabled) {
+        this.jobRepository = jobRepository;
+        handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jobExecutor = jobExecutor;
+        this.freeWorkers = new Semaphore(threads);
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Claims waiting jobs while there are free workers. Runs on a schedule and straight after
+     * each submission.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        while (freeWorkers.tryAcquire()) {
+            Optional<Long> claimed;
+            try {
+                claimed = claim();
+            } catch (RuntimeException e) {
+                freeWorkers.release();
+                logger.warn("Could not claim a job", e);
+                return;
+            }
+            if (claimed.isEmpty()) {
+                freeWorkers.release();
+                return;
+            }
+            Long id = claimed.get();
+            try {
+                jobExecutor.execute(() -> {
+                    try {
+                        run(id);
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                // A worker hands back its permit just before its thread returns to the pool
+                logger.warn("Could not start job {}; putting it back in the queue", id, e);
+                unclaim(id);
+                freeWorkers.release();
+                return;
+            }
+        }
+    }
+
+    Optional<Long> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            return jobRepository.findClaimableId(now.minus(staleAfter)).map(id -> {
+                Job job = jobRepository.findById(id).orElseThrow();
+                if (job.getStatus() == Job.Status.RUNNING) {
+                    logger.info("Taking over job {} from {}", id, job.getWorker());
+                }
+                job.setStatus(Job.Status.RUNNING);
+                job.setWorker(workerId);
+                job.setHeartbeatAt(now);
+                if (job.getStartedAt() == null) {
+                    job.setStartedAt(now);
+                }
+                return id;
+            });
+        });
+    }
+
+    /**
+     * Puts a job this worker claimed but could not start back in the queue, so that it is not
+     * left running until its heartbeat goes stale.
+     */
+    private void unclaim(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findByIdForUpdate(id)
+                    .filter(job -> workerId.equals(job.getWorker()))
+                    .ifPresent(job -> {
+                        job.setStatus(Job.Status.QUEUED);
+                        job.setWorker(null);
+                    }));
+        } catch (RuntimeException e) {
+            // Claimed again once its heartbeat goes stale
+            logger.warn("Could not put job {} back in the queue", id, e);
+        }
+    }
+
+    /**
+     * Runs a claimed job chunk by chunk until it is done, fails, is taken over by another
+     * worker or this thread is interrupted by shutdown.
+     */
+    void run(Long id) {
+        Job job = jobRepository.findById(id).orElse(null);
+        if (job == null) {
+            return;
+        }
+        JobHandler handler = handlers.get(job.getType());
+        try (JobHandler.Work work = handler.open(job)) {
+            logger.info("Running job {} ({}) from {}", id, job.getType(), job.getCursor());
+            Boolean more = true;
+            while (Boolean.TRUE.equals(more)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    logger.info("Stopping job {} for shutdown", id);
+                    return;
+                }
+                more = transactionTemplate.execute(status -> runChunk(id, work));
+            }
+            if (more == null) {
+                logger.warn("Job {} was taken over by another worker", id);
+                return;
+            }
+            logger.info("Job {} succeeded", id);
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.info("Job {} was interrupted by shutdown", id, e);
+                return;
+            }
+            logger.error("Job {} failed", id, e);
+            if (!fail(id, e)) {
+                return;
+            }
+        }
+        handler.finished(job);
+    }
+
+    /**
+     * @return whether there is more to do, or null if this worker no longer owns the job
+     */
+    private Boolean runChunk(Long id, JobHandler.Work work) {
+        Job job = jobRepository.findByIdForUpdate(id).orElse(null);
+        if (job == null || job.getStatus() != Job.Status.RUNNING || !workerId.equals(job.getWorker())) {
+            return null;
+        }
+        boolean more;
+        try {
+            more = work.runChunk(job);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!more) {
+            job.setStatus(Job.Status.SUCCEEDED);
+            job.setTotalItems(job.getProcessedItems());
+            job.setFinishedAt(LocalDateTime.now());
+            job.setWorker(null);
+        }
+        return more;
+    }
+
+    /**
+     * @return whether the job was marked failed, which it is not if another worker owns it
+     */
+    private boolean fail(Long id, Exception cause) {
+        Throwable reason = NestedExceptionUtils.getMostSpecificCause(cause);
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> jobRepository.findByIdForUpdate(id)
+                .filter(job -> workerId.equals(job.getWorker()))
+                .map(job -> {
+                    job.setStatus(Job.Status.FAILED);
+                    job.setMessage(reason.getMessage() != null ? reason.getMessage() : reason.toString());
+                    job.setFinishedAt(LocalDateTime.now());
+                    job.setWorker(null);
+                    return true;
+                })
+                .orElse(false)));
+    }
+
+    String workerId() {
+        return workerId;
+    }
+}
@@ -0,0 +1,39 @@
+package com.propertymanager.job;
+
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobParameters;
+import com.propertymanager.repository.PropertyRepository;
+
+import java.util.List;
+
+/**
+ * Works through the properties matching a job's criteria in id order, {@value #CHUNK_SIZE}
+ * at a time, keeping the last id done as the job's cursor. Keyset paging means rows the job
+ * changes or deletes never shift the chunks still to come.
+ */
+abstract class MatchingPropertiesJobHandler implements JobHandler {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final PropertyRepository propertyRepository;
+
+    MatchingPropertiesJobHandler(PropertyRepository propertyRepository) {
+        this.propertyRepository = propertyRepository;
+    }
+
+    @Override
+    public Work open(Job job) {
+        JobParameters parameters = job.getParameters();
+        return current -> {
+            List<Long> ids = propertyRepository.findIdsAfter(parameters.criteria(), current.getCursor(), CHUNK_SIZE);
+            if (ids.isEmpty()) {
+                return false;
+            }
+            apply(ids, parameters);
+            current.recordChunk(ids.get(ids.size() - 1), ids.size(), List.of());
+            return ids.size() == CHUNK_SIZE;
+        };
+    }
+
+    abstract void apply(List<Long> ids, JobParameters parameters);
+}
@@ -0,0 +1,33 @@
+package com.propertymanager.job;
+
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobParameters;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.service.PropertyService;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Changes the price of every matching property by the job's percentage.
+ */
+@Component
+public class RepriceJobHandler extends MatchingPropertiesJobHandler {
+
+    private final PropertyService propertyService;
+
+    public RepriceJobHandler(PropertyRepository propertyRepository, PropertyService propertyService) {
+        super(propertyRepository);
+        this.propertyService = propertyService;
+    }
+
+    @Override
+    public Job.Type type() {
+        return Job.Type.REPRICE;
+    }
+
+    @Override
+    void apply(List<Long> ids, JobParameters parameters) {
+        propertyService.repriceProperties(ids, parameters.percentChange());
+    }
+}
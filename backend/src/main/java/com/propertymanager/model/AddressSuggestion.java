@@ -0,0 +1,7 @@
+package com.propertymanager.model;
+
+/**
+ * An address completion and the number of properties it occurs in.
+ */
+public record AddressSuggestion(String text, int count) {
+}
@@ -0,0 +1,10 @@
+package com.propertymanager.model;
+
+/**
+ * Body of a request to reprice or delete every property matching the filters. The price
+ * change is only read by repricing.
+ */
+public record BulkPropertyRequest(
+        PropertySearchCriteria criteria,
+        Double percentChange) {
+}
@@ -0,0 +1,14 @@
+package com.propertymanager.model;
+
+import java.util.List;
+
+/**
+ * One page of results from keyset (cursor) pagination.
+ *
+ * @param content the rows on this page
+ * @param size    the requested page size
+ * @param hasNext whether more rows follow this page
+ * @param next    the cursor to pass back for the following page, or null on the last page
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String next) {
+}
@@ -0,0 +1,53 @@
+package com.propertymanager.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Formats in which search results can be exported, and properties imported.
+ */
+public enum ExportFormat {
+    /** One JSON object per line. */
+    NDJSON("application/x-ndjson"),
+    /** RFC 4180 CSV with a header row. */
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    ExportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Parses a format name as used in request parameters, case-insensitively.
+     *
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static ExportFormat fromParameter(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown export format: " + name));
+    }
+
+    /**
+     * Finds the format for a request's Content-Type, ignoring any parameters such as charset.
+     *
+     * @throws IllegalArgumentException if the media type is not a known format
+     */
+    public static ExportFormat fromMediaType(String contentType) {
+        String mediaType = contentType == null ? "" : contentType.split(";", 2)[0].trim();
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.equalsIgnoreCase(mediaType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported import format: " + contentType));
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
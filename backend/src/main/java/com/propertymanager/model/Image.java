@@ -10,6 +10,8 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Represents an image associated with a property.
@@ -17,6 +19,8 @@ import lombok.EqualsAndHashCode;
  */
 @Entity
 @Table(name = "images")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,9 +28,16 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(exclude = "property")
 public class Image {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "images_id_seq")
+    @SequenceGenerator(name = "images_id_seq", sequenceName = "images_id_seq", allocationSize = 50)
+    @Column(columnDefinition = "BIGINT DEFAULT nextval('images_id_seq')")
     private Long id;
 
+    @Version
+    @JsonIgnore
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
+
     @NotBlank(message = "File name is required")
     @Column(nullable = false)
     private String fileName;
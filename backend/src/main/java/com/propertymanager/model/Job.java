@@ -0,0 +1,184 @@
+package com.propertymanager.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A bulk operation on properties, worked through a chunk at a time by the job runner. Each
+ * chunk commits together with the progress recorded here, so {@link #cursor} always marks
+ * where a job picked up after a restart should carry on: the last property id for repricing
+ * and deletion, the last row read for imports.
+ */
+@Entity
+@Table(name = "jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Job {
+
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public enum Type { IMPORT, REPRICE, DELETE }
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    /**
+     * An item the job could not process: a row number for imports, a property id otherwise.
+     */
+    public record ItemError(long item, String message) {
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(columnDefinition = "BIGINT")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    /**
+     * Username of the submitter, or null when authentication is disabled.
+     */
+    @Column(length = 50)
+    private String owner;
+
+    @Convert(converter = ParametersConverter.class)
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private JobParameters parameters;
+
+    /**
+     * Items the job expects to process, or null when that is only known at the end.
+     */
+    private Long totalItems;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long processedItems = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long failedItems = 0;
+
+    @Builder.Default
+    @Column(name = "cursor_position", nullable = false)
+    private long cursor = 0;
+
+    @Builder.Default
+    @Convert(converter = ErrorsConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private List<ItemError> errors = new ArrayList<>();
+
+    /**
+     * Why the job stopped, when it failed.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    /**
+     * The node working on the job; cleared when it finishes.
+     */
+    @Column(length = 100)
+    private String worker;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    /**
+     * When the worker last committed a chunk. A running job whose heartbeat has gone stale
+     * is taken over by another node.
+     */
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Records a committed chunk: moves the cursor and adds to the counts, keeping the first
+     * {@value #MAX_REPORTED_ERRORS} errors.
+     */
+    public void recordChunk(long cursor, long processed, List<ItemError> chunkErrors) {
+        this.cursor = cursor;
+        this.processedItems += processed;
+        this.failedItems += chunkErrors.size();
+        if (errors.size() < MAX_REPORTED_ERRORS && !chunkErrors.isEmpty()) {
+            List<ItemError> kept = new ArrayList<>(errors);
+            kept.addAll(chunkErrors.subList(0, Math.min(chunkErrors.size(), MAX_REPORTED_ERRORS - errors.size())));
+            // A new list, so that Hibernate sees the converted column change
+            errors = kept;
+        }
+        heartbeatAt = LocalDateTime.now();
+    }
+
+    @Converter
+    public static class ParametersConverter implements AttributeConverter<JobParameters, String> {
+        @Override
+        public String convertToDatabaseColumn(JobParameters parameters) {
+            return write(parameters);
+        }
+
+        @Override
+        public JobParameters convertToEntityAttribute(String json) {
+            return read(json, new TypeReference<>() { });
+        }
+    }
+
+    @Converter
+    public static class ErrorsConverter implements AttributeConverter<List<ItemError>, String> {
+        @Override
+        public String convertToDatabaseColumn(List<ItemError> errors) {
+            return write(errors);
+        }
+
+        @Override
+        public List<ItemError> convertToEntityAttribute(String json) {
+            return json == null ? new ArrayList<>() : read(json, new TypeReference<>() { });
+        }
+    }
+
+    private static String write(Object value) {
+        try {
+            return value == null ? null : JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write job column", e);
+        }
+    }
+
+    private static <T> T read(String json, TypeReference<T> type) {
+        try {
+            return json == null ? null : JSON.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read job column", e);
+        }
+    }
+}
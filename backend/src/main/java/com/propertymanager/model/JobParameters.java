@@ -0,0 +1,29 @@
+package com.propertymanager.model;
+
+/**
+ * What a job was asked to do, stored with it so that any node can carry it on. Only the
+ * fields its type uses are set.
+ *
+ * @param criteria      the properties to reprice or delete
+ * @param percentChange the price change for repricing, as a percentage
+ * @param format        the format of an import's upload
+ * @param inputPath     where the upload of an import was stored
+ */
+public record JobParameters(
+        PropertySearchCriteria criteria,
+        Double percentChange,
+        ExportFormat format,
+        String inputPath) {
+
+    public static JobParameters forImport(ExportFormat format, String inputPath) {
+        return new JobParameters(null, null, format, inputPath);
+    }
+
+    public static JobParameters forReprice(PropertySearchCriteria criteria, double percentChange) {
+        return new JobParameters(criteria, percentChange, null, null);
+    }
+
+    public static JobParameters forDelete(PropertySearchCriteria criteria) {
+        return new JobParameters(criteria, null, null, null);
+    }
+}
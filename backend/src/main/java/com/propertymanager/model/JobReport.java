@@ -0,0 +1,49 @@
+package com.propertymanager.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The state of a job as reported to its submitter.
+ *
+ * @param progress        the fraction of items processed, or null while the total is unknown
+ * @param itemsPerSecond  processed items over the time since the job started
+ * @param errorsTruncated whether more items failed than {@code errors} lists
+ */
+public record JobReport(
+        Long id,
+        Job.Type type,
+        Job.Status status,
+        Long totalItems,
+        long processedItems,
+        long failedItems,
+        Double progress,
+        Double itemsPerSecond,
+        List<Job.ItemError> errors,
+        boolean errorsTruncated,
+        String message,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+
+    public static JobReport of(Job job, LocalDateTime now) {
+        Double progress = null;
+        if (job.getStatus() == Job.Status.SUCCEEDED) {
+            progress = 1.0;
+        } else if (job.getTotalItems() != null) {
+            progress = job.getTotalItems() == 0 ? 0.0
+                    : Math.min(1.0, (double) job.getProcessedItems() / job.getTotalItems());
+        }
+        Double itemsPerSecond = null;
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : now;
+            double seconds = Duration.between(job.getStartedAt(), end).toMillis() / 1000.0;
+            itemsPerSecond = seconds > 0 ? job.getProcessedItems() / seconds : 0.0;
+        }
+        return new JobReport(job.getId(), job.getType(), job.getStatus(), job.getTotalItems(),
+                job.getProcessedItems(), job.getFailedItems(), progress, itemsPerSecond,
+                List.copyOf(job.getErrors()), job.getFailedItems() > job.getErrors().size(),
+                job.getMessage(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
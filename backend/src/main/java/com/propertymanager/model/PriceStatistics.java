@@ -0,0 +1,34 @@
+package com.propertymanager.model;
+
+import java.util.List;
+
+/**
+ * Price distribution of the properties matching a filter. Percentiles are estimates within
+ * the sketch accuracy (1%) of an actual price at that rank; they are null when nothing
+ * matches. Price per square foot covers only the properties with a known size.
+ *
+ * @param count                    the number of priced properties matched
+ * @param medianPrice              the 50th percentile price
+ * @param p90Price                 the 90th percentile price
+ * @param pricedBySizeCount        the number of those properties with a known size
+ * @param medianPricePerSquareFoot the 50th percentile price per square foot
+ * @param p90PricePerSquareFoot    the 90th percentile price per square foot
+ * @param priceBands               counts per price band, in ascending order, using the
+ *                                 same bands as the price facet
+ * @param source                   whether the answer was merged from the per-area
+ *                                 sketches or computed from the matching rows
+ */
+public record PriceStatistics(long count,
+                              Double medianPrice,
+                              Double p90Price,
+                              long pricedBySizeCount,
+                              Double medianPricePerSquareFoot,
+                              Double p90PricePerSquareFoot,
+                              List<PropertyFacets.PriceBand> priceBands,
+                              Source source) {
+
+    public enum Source {
+        SKETCH,
+        SCAN
+    }
+}
@@ -0,0 +1,15 @@
+package com.propertymanager.model;
+
+/**
+ * One property as written by the export: its own columns, without images or audit fields.
+ */
+public record PropertyExportRow(Long id,
+                                String address,
+                                String description,
+                                Double price,
+                                Integer bedrooms,
+                                Integer bathrooms,
+                                Double squareFootage,
+                                Double latitude,
+                                Double longitude) {
+}
@@ -0,0 +1,34 @@
+package com.propertymanager.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet histograms for a search. Each histogram counts the properties matching every
+ * filter except the facet's own, so the client can show how many results each choice
+ * would give. Facets that were not requested are null.
+ *
+ * @param total      the number of properties matching all filters
+ * @param bedrooms   counts per bedroom value
+ * @param bathrooms  counts per bathroom value
+ * @param priceBands counts per price band, in ascending order
+ */
+public record PropertyFacets(long total,
+                             Map<Integer, Long> bedrooms,
+                             Map<Integer, Long> bathrooms,
+                             List<PriceBand> priceBands) {
+
+    /**
+     * Upper bounds of the price bands used by the price facet and the price statistics;
+     * a final open band follows.
+     */
+    public static final double[] PRICE_BAND_BOUNDS =
+            {100_000, 200_000, 300_000, 500_000, 750_000, 1_000_000, 2_000_000};
+
+    /**
+     * A price range with its count. {@code min} is inclusive and {@code max} exclusive;
+     * the first band has no minimum and the last no maximum.
+     */
+    public record PriceBand(Double min, Double max, long count) {
+    }
+}
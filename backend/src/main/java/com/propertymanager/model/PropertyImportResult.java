@@ -0,0 +1,20 @@
+package com.propertymanager.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1, not counting a CSV header row.
+ *
+ * @param imported        the number of rows inserted
+ * @param failed          the number of rows rejected
+ * @param errors          why rows were rejected, for at most the first thousand of them
+ * @param errorsTruncated whether more rows failed than {@code errors} lists
+ */
+public record PropertyImportResult(long imported,
+                                   long failed,
+                                   List<RowError> errors,
+                                   boolean errorsTruncated) {
+
+    public record RowError(long row, String message) {
+    }
+}
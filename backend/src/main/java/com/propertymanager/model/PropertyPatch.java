@@ -0,0 +1,121 @@
+package com.propertymanager.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A JSON merge patch of a property's own fields: every field in the patch is set, to null
+ * where the patch says null, and every other field is left as it is. Images are changed
+ * through their own endpoints; {@code id} is ignored and {@code version}, when present,
+ * names the version the patch was made against.
+ */
+public final class PropertyPatch {
+
+    private static final Map<String, Class<?>> FIELDS = Map.of(
+            "address", String.class,
+            "description", String.class,
+            "price", Double.class,
+            "bedrooms", Integer.class,
+            "bathrooms", Integer.class,
+            "squareFootage", Double.class,
+            "latitude", Double.class,
+            "longitude", Double.class);
+
+    /**
+     * A property as it was before a patch and as the patch left it, images not loaded.
+     */
+    public record Applied(Property previous, Property current) {
+    }
+
+    private final Map<String, Object> values;
+    private final Long version;
+
+    private PropertyPatch(Map<String, Object> values, Long version) {
+        this.values = Collections.unmodifiableMap(values);
+        this.version = version;
+    }
+
+    /**
+     * Reads a patch from a JSON object bound to a map.
+     *
+     * @throws IllegalArgumentException if a field is unknown, read-only or of the wrong type
+     */
+    public static PropertyPatch of(Map<String, ?> json) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        Long version = null;
+        for (Map.Entry<String, ?> entry : json.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+            if ("id".equals(field)) {
+                continue;
+            }
+            if ("version".equals(field)) {
+                version = value == null ? null : whole(field, value).longValue();
+                continue;
+            }
+            if ("images".equals(field)) {
+                throw new IllegalArgumentException("Images cannot be patched; upload or delete them instead");
+            }
+            Class<?> type = FIELDS.get(field);
+            if (type == null) {
+                throw new IllegalArgumentException("Unknown property field: " + field);
+            }
+            values.put(field, value == null ? null : convert(field, type, value));
+        }
+        return new PropertyPatch(values, version);
+    }
+
+    /**
+     * @return the patched fields by name, in patch order, with their new values
+     */
+    public Map<String, Object> values() {
+        return values;
+    }
+
+    public boolean has(String field) {
+        return values.containsKey(field);
+    }
+
+    public Object get(String field) {
+        return values.get(field);
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * @return the version given in the patch body, or null
+     */
+    public Long version() {
+        return version;
+    }
+
+    private static Object convert(String field, Class<?> type, Object value) {
+        if (type == String.class) {
+            if (value instanceof String text) {
+                return text;
+            }
+            throw new IllegalArgumentException("Invalid " + field + ": expected a string");
+        }
+        if (type == Integer.class) {
+            Number number = whole(field, value);
+            if (number.longValue() != number.intValue()) {
+                throw new IllegalArgumentException("Invalid " + field + ": " + value);
+            }
+            return number.intValue();
+        }
+        if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+            return number.doubleValue();
+        }
+        throw new IllegalArgumentException("Invalid " + field + ": expected a number");
+    }
+
+    private static Number whole(String field, Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return (Number) value;
+        }
+        throw new IllegalArgumentException("Invalid " + field + ": expected a whole number");
+    }
+}
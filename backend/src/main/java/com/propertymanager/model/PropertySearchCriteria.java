@@ -0,0 +1,65 @@
+package com.propertymanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Filter values accepted by the property search endpoints.
+ * A null field means the corresponding filter is not applied.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySearchCriteria {
+    private String address;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minSize;
+    private Double maxSize;
+    private Integer bedrooms;
+    private Integer maxRooms;
+    private Integer minBathrooms;
+    private Integer maxBathrooms;
+    /**
+     * Free-text query matched against address and description.
+     */
+    private String text;
+    /**
+     * Centre and radius (in miles) of a distance filter; all three are set together.
+     */
+    private Double latitude;
+    private Double longitude;
+    private Double radiusMiles;
+    /**
+     * Corners of a bounding-box filter; all four are set together.
+     */
+    private Double minLatitude;
+    private Double minLongitude;
+    private Double maxLatitude;
+    private Double maxLongitude;
+
+    public boolean hasRadius() {
+        return latitude != null && longitude != null && radiusMiles != null;
+    }
+
+    public boolean hasBoundingBox() {
+        return minLatitude != null && minLongitude != null && maxLatitude != null && maxLongitude != null;
+    }
+
+    /**
+     * Returns a copy in canonical form, so that requests which run the same query compare
+     * equal: the address term is lower-cased (matching is case-insensitive) and empty
+     * terms, which apply no filter, become null.
+     */
+    public PropertySearchCriteria normalized() {
+        return toBuilder()
+                .address(address == null || address.isEmpty() ? null : address.toLowerCase(Locale.ROOT))
+                .text(text == null || text.isBlank() ? null : text)
+                .build();
+    }
+}
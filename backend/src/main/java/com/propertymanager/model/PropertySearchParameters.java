@@ -0,0 +1,108 @@
+package com.propertymanager.model;
+
+/**
+ * The search filters as the listing, search, facet, statistics, export and change stream
+ * endpoints receive them, bound from the query string. Numbers arrive as text so that a
+ * filter that does not parse is ignored rather than failing the request; NaN and infinities
+ * do parse, and are rejected.
+ *
+ * @param bbox a bounding box as {@code minLon,minLat,maxLon,maxLat}
+ */
+public record PropertySearchParameters(
+        String q,
+        String lat,
+        String lon,
+        String radius,
+        String bbox,
+        String address,
+        String minPrice,
+        String maxPrice,
+        String minSize,
+        String maxSize,
+        String bedrooms,
+        String maxRooms,
+        String minBathrooms,
+        String maxBathrooms) {
+
+    /**
+     * @throws IllegalArgumentException if a number is not finite, the price range is inverted
+     *                                  or the bounding box is malformed
+     */
+    public PropertySearchCriteria toCriteria() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .address(address)
+                .minPrice(parseDouble("minPrice", minPrice))
+                .maxPrice(parseDouble("maxPrice", maxPrice))
+                .minSize(parseDouble("minSize", minSize))
+                .maxSize(parseDouble("maxSize", maxSize))
+                .bedrooms(parseInteger(bedrooms))
+                .maxRooms(parseInteger(maxRooms))
+                .minBathrooms(parseInteger(minBathrooms))
+                .maxBathrooms(parseInteger(maxBathrooms))
+                .text(q)
+                .latitude(parseDouble("lat", lat))
+                .longitude(parseDouble("lon", lon))
+                .radiusMiles(parseDouble("radius", radius))
+                .build();
+
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice() > criteria.getMaxPrice()) {
+            throw new IllegalArgumentException("Maximum price must be greater than or equal to minimum price");
+        }
+        applyBoundingBox(criteria);
+        return criteria;
+    }
+
+    private void applyBoundingBox(PropertySearchCriteria criteria) {
+        if (bbox == null || bbox.trim().isEmpty()) {
+            return;
+        }
+        String[] corners = bbox.split(",");
+        if (corners.length != 4) {
+            throw new IllegalArgumentException("Bounding box must be minLon,minLat,maxLon,maxLat");
+        }
+        criteria.setMinLongitude(corner(corners[0]));
+        criteria.setMinLatitude(corner(corners[1]));
+        criteria.setMaxLongitude(corner(corners[2]));
+        criteria.setMaxLatitude(corner(corners[3]));
+    }
+
+    private static double corner(String value) {
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (Double.isFinite(parsed)) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Bounding box must be minLon,minLat,maxLon,maxLat");
+    }
+
+    private static Double parseDouble(String name, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null; // Just ignore invalid number formats
+        }
+        if (!Double.isFinite(parsed)) {
+            throw new IllegalArgumentException(name + " must be a finite number");
+        }
+        return parsed;
+    }
+
+    private static Integer parseInteger(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null; // Just ignore invalid number formats
+        }
+    }
+}
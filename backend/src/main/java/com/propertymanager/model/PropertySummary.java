@@ -0,0 +1,26 @@
+package com.propertymanager.model;
+
+/**
+ * Read model for property listings: the fields a result card shows, selected directly
+ * from the database instead of loading and serialising full {@link Property} entities.
+ *
+ * @param descriptionPreview the first {@value #PREVIEW_LENGTH} characters of the description
+ * @param imageUrl           the URL of the first uploaded image, or null if there is none
+ * @param imageCount         the number of images the property has
+ * @param version            the property's version, which listing ETags are built from
+ */
+public record PropertySummary(Long id,
+                              String address,
+                              String descriptionPreview,
+                              Double price,
+                              Integer bedrooms,
+                              Integer bathrooms,
+                              Double squareFootage,
+                              Double latitude,
+                              Double longitude,
+                              String imageUrl,
+                              long imageCount,
+                              long version) {
+
+    public static final int PREVIEW_LENGTH = 200;
+}
@@ -0,0 +1,123 @@
+package com.propertymanager.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A search a user has saved to be told about new or repriced properties that match it.
+ * The filter columns mirror {@link PropertySearchCriteria}.
+ */
+@Entity
+@Table(name = "saved_searches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearch {
+
+    /**
+     * Longest address or free-text filter a search can be saved with.
+     */
+    public static final int MAX_FILTER_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saved_searches_id_seq")
+    @SequenceGenerator(name = "saved_searches_id_seq", sequenceName = "saved_searches_id_seq", allocationSize = 50)
+    @Column(columnDefinition = "BIGINT DEFAULT nextval('saved_searches_id_seq')")
+    private Long id;
+
+    /**
+     * Username of the owner, or null when authentication is disabled.
+     */
+    @Column(length = 50)
+    private String owner;
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must not exceed 100 characters")
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Size(max = MAX_FILTER_LENGTH, message = "Address filter must not exceed 1000 characters")
+    @Column(length = MAX_FILTER_LENGTH)
+    private String address;
+    @Size(max = MAX_FILTER_LENGTH, message = "Text filter must not exceed 1000 characters")
+    @Column(name = "query_text", length = MAX_FILTER_LENGTH)
+    private String text;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minSize;
+    private Double maxSize;
+    private Integer bedrooms;
+    private Integer maxRooms;
+    private Integer minBathrooms;
+    private Integer maxBathrooms;
+    private Double latitude;
+    private Double longitude;
+    private Double radiusMiles;
+    private Double minLatitude;
+    private Double minLongitude;
+    private Double maxLatitude;
+    private Double maxLongitude;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    public static SavedSearch of(String owner, String name, PropertySearchCriteria criteria) {
+        return SavedSearch.builder()
+                .owner(owner)
+                .name(name)
+                .address(criteria.getAddress())
+                .text(criteria.getText())
+                .minPrice(criteria.getMinPrice())
+                .maxPrice(criteria.getMaxPrice())
+                .minSize(criteria.getMinSize())
+                .maxSize(criteria.getMaxSize())
+                .bedrooms(criteria.getBedrooms())
+                .maxRooms(criteria.getMaxRooms())
+                .minBathrooms(criteria.getMinBathrooms())
+                .maxBathrooms(criteria.getMaxBathrooms())
+                .latitude(criteria.getLatitude())
+                .longitude(criteria.getLongitude())
+                .radiusMiles(criteria.getRadiusMiles())
+                .minLatitude(criteria.getMinLatitude())
+                .minLongitude(criteria.getMinLongitude())
+                .maxLatitude(criteria.getMaxLatitude())
+                .maxLongitude(criteria.getMaxLongitude())
+                .build();
+    }
+
+    public PropertySearchCriteria toCriteria() {
+        return PropertySearchCriteria.builder()
+                .address(address)
+                .text(text)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .bedrooms(bedrooms)
+                .maxRooms(maxRooms)
+                .minBathrooms(minBathrooms)
+                .maxBathrooms(maxBathrooms)
+                .latitude(latitude)
+                .longitude(longitude)
+                .radiusMiles(radiusMiles)
+                .minLatitude(minLatitude)
+                .minLongitude(minLongitude)
+                .maxLatitude(maxLatitude)
+                .maxLongitude(maxLongitude)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.propertymanager.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Records that a property matched a saved search, which is what its owner is notified of.
+ */
+@Entity
+@Table(name = "saved_search_matches")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "savedSearch")
+public class SavedSearchMatch {
+
+    public enum Reason { CREATED, REPRICED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saved_search_matches_id_seq")
+    @SequenceGenerator(name = "saved_search_matches_id_seq", sequenceName = "saved_search_matches_id_seq",
+            allocationSize = 50)
+    @Column(columnDefinition = "BIGINT DEFAULT nextval('saved_search_matches_id_seq')")
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "saved_search_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private SavedSearch savedSearch;
+
+    @Column(nullable = false)
+    private Long propertyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Reason reason;
+
+    /**
+     * Price of the property when it matched.
+     */
+    private Double price;
+
+    @Column(nullable = false)
+    private LocalDateTime matchedAt;
+}
@@ -0,0 +1,14 @@
+package com.propertymanager.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Body of a request to save a search: a name and the search filters.
+ */
+public record SavedSearchRequest(
+        @NotBlank(message = "Name is required")
+        @Size(max = 100, message = "Name must not exceed 100 characters")
+        String name,
+        PropertySearchCriteria criteria) {
+}
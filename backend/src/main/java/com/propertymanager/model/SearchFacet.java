@@ -0,0 +1,29 @@
+package com.propertymanager.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Search filters that can be counted as facets. Each facet's counts ignore its own filter.
+ */
+public enum SearchFacet {
+    PRICE,
+    BEDROOMS,
+    BATHROOMS;
+
+    /**
+     * Parses a facet name as used in request parameters, case-insensitively.
+     *
+     * @throws IllegalArgumentException if the name is not a known facet
+     */
+    public static SearchFacet fromParameter(String name) {
+        return Arrays.stream(values())
+                .filter(facet -> facet.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown facet: " + name));
+    }
+
+    public String parameterName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
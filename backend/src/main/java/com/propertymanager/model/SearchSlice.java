@@ -0,0 +1,15 @@
+package com.propertymanager.model;
+
+import java.util.List;
+
+/**
+ * One page of results returned without an exact total count.
+ *
+ * @param content        the rows on this page
+ * @param number         the zero-based page number
+ * @param size           the requested page size
+ * @param hasNext        whether more rows follow this page
+ * @param estimatedTotal the planner's row estimate for the whole result, or null if not requested
+ */
+public record SearchSlice<T>(List<T> content, int number, int size, boolean hasNext, Long estimatedTotal) {
+}
@@ -0,0 +1,38 @@
+package com.propertymanager.repository;
+
+import com.propertymanager.model.Job;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    /**
+     * Locks the oldest job waiting for a worker: a queued one, or a running one whose worker
+     * has not committed since {@code staleBefore}. Rows another node holds locked are skipped,
+     * so nodes polling together claim different jobs. Must run inside a transaction, which
+     * keeps the lock until the claim is committed.
+     */
+    @Query(value = "SELECT id FROM jobs"
+            + " WHERE status = 'QUEUED' OR (status = 'RUNNING' AND heartbeat_at < :staleBefore)"
+            + " ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Long> findClaimableId(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Loads a job for a chunk, locking it until the chunk commits, so that its progress is
+     * never recorded by two workers at once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM Job j WHERE j.id = :id")
+    Optional<Job> findByIdForUpdate(@Param("id") Long id);
+
+    List<Job> findTop20ByOwnerOrderByIdDesc(String owner);
+}
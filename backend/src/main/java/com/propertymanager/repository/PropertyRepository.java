@@ -1,11 +1,43 @@
 package com.propertymanager.repository;
 
 import com.propertymanager.model.Property;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>,
+        PropertyRepositoryCustom {
     // Using Specifications for all queries
-} 
\ No newline at end of file
+
+    /**
+     * Redeclared to join the caller's transaction rather than always starting one, so that a
+     * property found in the second-level cache is returned without taking a pooled connection.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    Optional<Property> findById(Long id);
+
+    /**
+     * Loads properties together with their images in a single query. Properties already in
+     * the persistence context get their image collections initialised in place. The result
+     * is in no particular order.
+     */
+    @EntityGraph(attributePaths = "images")
+    List<Property> findWithImagesByIdIn(Collection<Long> ids);
+
+    /**
+     * Reads only a property's version, for answering conditional requests without loading it.
+     */
+    @Query("SELECT p.version FROM Property p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,145 @@
+package com.propertymanager.repository;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.search.PriceDistribution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Query methods that need more control over the generated SQL than Spring Data's
+ * derived and Specification-based methods give.
+ */
+public interface PropertyRepositoryCustom {
+
+    /**
+     * Fetches a window of matching properties without issuing a count query.
+     *
+     * @param spec   the filter to apply
+     * @param sort   the ordering of the window
+     * @param offset the number of matching rows to skip
+     * @param limit  the maximum number of rows to return
+     * @return the matching properties, at most {@code limit} of them
+     */
+    List<Property> findRange(Specification<Property> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Fetches a window of matching properties as listing summaries, selecting only the
+     * card fields plus the first image and image count, without loading entities.
+     *
+     * @param spec   the filter to apply
+     * @param sort   the ordering of the window
+     * @param offset the number of matching rows to skip
+     * @param limit  the maximum number of rows to return
+     * @return the matching summaries, at most {@code limit} of them
+     */
+    List<PropertySummary> findSummaries(Specification<Property> spec, Sort sort, long offset, int limit);
+
+    /**
+     * Estimates how many properties match the criteria from the planner's statistics,
+     * without scanning the table. The figure is approximate and may be stale until the
+     * table is next analysed.
+     *
+     * @param criteria the filter to estimate
+     * @return the estimated number of matching rows, never negative
+     */
+    long estimateCount(PropertySearchCriteria criteria);
+
+    /**
+     * Counts the requested facet histograms in a single GROUPING SETS query. Each facet's
+     * counts apply every filter in {@code criteria} except that facet's own.
+     *
+     * @param criteria the search filters
+     * @param facets   the facets to count; the others are returned as null
+     * @return the facet histograms and the total matching all filters
+     */
+    PropertyFacets countFacets(PropertySearchCriteria criteria, Set<SearchFacet> facets);
+
+    /**
+     * Checks whether one property matches the criteria, evaluating the same SQL predicates
+     * as the search itself (including the full-text and distance filters).
+     *
+     * @param propertyId the property to test
+     * @param criteria   the search filters
+     * @return true if the property exists and matches every filter
+     */
+    boolean matches(Long propertyId, PropertySearchCriteria criteria);
+
+    /**
+     * Builds the price distribution of the matching properties from their rows, for filters
+     * that the per-area sketches cannot answer. The rows are streamed, not held in memory.
+     *
+     * @param criteria the search filters
+     * @param areas    normalised area names to restrict to; empty for every area
+     * @return the distribution of the matching properties' prices
+     */
+    PriceDistribution priceDistribution(PropertySearchCriteria criteria, Set<String> areas);
+
+    /**
+     * Streams every matching property, in id order, through a server-side cursor, so that
+     * memory use does not depend on the number of rows. Must run inside a transaction, which
+     * holds its connection until the last row has been handed over.
+     *
+     * @param criteria the search filters
+     * @param action   called once per row, as the rows arrive
+     */
+    void forEachExportRow(PropertySearchCriteria criteria, Consumer<PropertyExportRow> action);
+
+    /**
+     * Counts the properties matching the criteria exactly, with the same SQL predicates as
+     * the search.
+     *
+     * @param criteria the search filters
+     * @return the number of matching rows
+     */
+    long countMatching(PropertySearchCriteria criteria);
+
+    /**
+     * Pages through the ids of the matching properties in id order by keyset, so that bulk
+     * jobs can work through them a chunk at a time and resume from the last id they committed.
+     *
+     * @param criteria the search filters
+     * @param afterId  the last id already seen; 0 to start from the beginning
+     * @param limit    the maximum number of ids to return
+     * @return the next matching ids, ascending, at most {@code limit} of them
+     */
+    List<Long> findIdsAfter(PropertySearchCriteria criteria, long afterId, int limit);
+
+    /**
+     * Inserts new properties with a single JDBC batch, bypassing the persistence context.
+     * Ids are reserved from the table's sequence up front, in the same blocks Hibernate uses,
+     * and set on the properties once the batch has run. Images and auditing columns are not
+     * written.
+     *
+     * @param properties properties without ids
+     */
+    void insertAll(List<Property> properties);
+
+    /**
+     * Applies a merge patch in a single {@code UPDATE ... RETURNING}, setting only the patched
+     * columns and incrementing the version, and bypassing the persistence context. The property
+     * is evicted from the second-level cache.
+     *
+     * @param expectedVersion the version the patch was made against, or null to patch whatever
+     *                        version is current
+     * @return the property before and after the patch, or empty if there is no property with
+     *         that id and, when given, that version
+     */
+    Optional<PropertyPatch.Applied> patch(Long id, Long expectedVersion, PropertyPatch patch);
+
+    /**
+     * Increments a managed property's version straight away, for changes it does not see as
+     * its own, such as images being added or removed.
+     */
+    void incrementVersion(Property property);
+}
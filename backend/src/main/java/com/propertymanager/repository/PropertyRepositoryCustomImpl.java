@@ -0,0 +1,542 @@
+package com.propertymanager.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertymanager.model.Image;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.search.PriceDistribution;
+import com.propertymanager.search.PriceStatisticsIndex;
+import com.propertymanager.search.PropertySqlFilter;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.Session;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class PropertyRepositoryCustomImpl implements PropertyRepositoryCustom {
+
+    private static final ObjectMapper PLAN_READER = new ObjectMapper();
+    private static final int STATISTICS_FETCH_SIZE = 1000;
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final double[] PRICE_BAND_BOUNDS = PropertyFacets.PRICE_BAND_BOUNDS;
+
+    private static final Map<SearchFacet, String> FACET_COLUMNS = Map.of(
+            SearchFacet.PRICE, "price_band",
+            SearchFacet.BEDROOMS, "bedrooms",
+            SearchFacet.BATHROOMS, "bathrooms");
+
+    private static final Map<String, String> PATCH_COLUMNS = Map.of(
+            "address", "address",
+            "description", "description",
+            "price", "price",
+            "bedrooms", "bedrooms",
+            "bathrooms", "bathrooms",
+            "squareFootage", "square_footage",
+            "latitude", "latitude",
+            "longitude", "longitude");
+    private static final String PATCH_RETURNED_COLUMNS = "id, address, description, price, bedrooms, bathrooms,"
+            + " square_footage, latitude, longitude, version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Property> findRange(Specification<Property> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Property> query = cb.createQuery(Property.class);
+        Root<Property> root = query.from(Property.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        // Leave any ordering the specification applied (such as relevance) in place
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<PropertySummary> findSummaries(Specification<Property> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertySummary> query = cb.createQuery(PropertySummary.class);
+        Root<Property> root = query.from(Property.class);
+
+        // The first image is the earliest uploaded; correlated subqueries keep one row per property
+        Subquery<Long> firstImageId = query.subquery(Long.class);
+        Root<Image> firstImageRoot = firstImageId.from(Image.class);
+        firstImageId.select(cb.min(firstImageRoot.<Long>get("id")))
+                .where(cb.equal(firstImageRoot.get("property"), root));
+        Subquery<String> imageUrl = query.subquery(String.class);
+        Root<Image> image = imageUrl.from(Image.class);
+        imageUrl.select(image.get("url")).where(cb.equal(image.get("id"), firstImageId));
+        Subquery<Long> imageCount = query.subquery(Long.class);
+        Root<Image> countedImage = imageCount.from(Image.class);
+        imageCount.select(cb.count(countedImage)).where(cb.equal(countedImage.get("property"), root));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.construct(PropertySummary.class,
+                root.get("id"),
+                root.get("address"),
+                cb.substring(root.<String>get("description"), 1, PropertySummary.PREVIEW_LENGTH),
+                root.get("price"),
+                root.get("bedrooms"),
+                root.get("bathrooms"),
+                root.get("squareFootage"),
+                root.get("latitude"),
+                root.get("longitude"),
+                imageUrl,
+                imageCount,
+                root.get("version")));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long estimateCount(PropertySearchCriteria criteria) {
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+        return jdbcSession().doReturningWork(connection -> {
+            if (filter.isEmpty()) {
+                long reltuples = tableEstimate(connection);
+                // reltuples is -1 until the table has been vacuumed or analysed
+                if (reltuples >= 0) {
+                    return reltuples;
+                }
+            }
+            return planEstimate(connection, filter);
+        });
+    }
+
+    @Override
+    public boolean matches(Long propertyId, PropertySearchCriteria criteria) {
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+        String sql = "SELECT EXISTS (SELECT 1 FROM properties WHERE id = ? AND " + filter.conditionClause() + ")";
+        return jdbcSession().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, propertyId);
+                List<Object> parameters = filter.parameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 2, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() && resultSet.getBoolean(1);
+                }
+            }
+        });
+    }
+
+    @Override
+    public PriceDistribution priceDistribution(PropertySearchCriteria criteria, Set<String> areas) {
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+        String sql = "SELECT address, price, square_footage FROM properties WHERE price IS NOT NULL"
+                + (filter.isEmpty() ? "" : " AND " + filter.conditionClause());
+        return jdbcSession().doReturningWork(connection -> {
+            PriceDistribution distribution = new PriceDistribution();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                // The driver only streams with a fetch size inside a transaction
+                statement.setFetchSize(STATISTICS_FETCH_SIZE);
+                List<Object> parameters = filter.parameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        if (areas.isEmpty() || areas.contains(PriceStatisticsIndex.areaOf(resultSet.getString(1)))) {
+                            distribution.add(resultSet.getDouble(2), resultSet.getObject(3, Double.class));
+                        }
+                    }
+                }
+            }
+            return distribution;
+        });
+    }
+
+    @Override
+    public void forEachExportRow(PropertySearchCriteria criteria, Consumer<PropertyExportRow> action) {
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+        String sql = "SELECT id, address, description, price, bedrooms, bathrooms, square_footage,"
+                + " latitude, longitude FROM properties" + filter.whereClause() + " ORDER BY id";
+        jdbcSession().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                // The driver only streams with a fetch size inside a transaction
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                List<Object> parameters = filter.parameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        action.accept(new PropertyExportRow(
+                                resultSet.getLong(1),
+                                resultSet.getString(2),
+                                resultSet.getString(3),
+                                resultSet.getObject(4, Double.class),
+                                resultSet.getObject(5, Integer.class),
+                                resultSet.getObject(6, Integer.class),
+                                resultSet.getObject(7, Double.class),
+                                resultSet.getObject(8, Double.class),
+                                resultSet.getObject(9, Double.class)));
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public long countMatching(PropertySearchCriteria criteria) {
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+        String sql = "SELECT count(*) FROM properties" + filter.whereClause();
+        return jdbcSession().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                List<Object> parameters = filter.parameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong(1) : 0L;
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<Long> findIdsAfter(PropertySearchCriteria criteria, long afterId, int limit) {
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+        String sql = "SELECT id FROM properties WHERE id > ?"
+                + (filter.isEmpty() ? "" : " AND " + filter.conditionClause()) + " ORDER BY id LIMIT ?";
+        return jdbcSession().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, afterId);
+                List<Object> parameters = filter.parameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 2, parameters.get(i));
+                }
+                statement.setInt(parameters.size() + 2, limit);
+                List<Long> ids = new ArrayList<>(limit);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        ids.add(resultSet.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    @Override
+    public void insertAll(List<Property> properties) {
+        if (properties.isEmpty()) {
+            return;
+        }
+        jdbcSession().doWork(connection -> {
+            long[] ids = nextPropertyIds(connection, properties.size());
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO properties (id, address, description, price, bedrooms, bathrooms,"
+                            + " square_footage, latitude, longitude) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < properties.size(); i++) {
+                    Property property = properties.get(i);
+                    statement.setLong(1, ids[i]);
+                    statement.setString(2, property.getAddress());
+                    statement.setString(3, property.getDescription());
+                    statement.setObject(4, property.getPrice(), Types.DOUBLE);
+                    statement.setObject(5, property.getBedrooms(), Types.INTEGER);
+                    statement.setObject(6, property.getBathrooms(), Types.INTEGER);
+                    statement.setObject(7, property.getSquareFootage(), Types.DOUBLE);
+                    statement.setObject(8, property.getLatitude(), Types.DOUBLE);
+                    statement.setObject(9, property.getLongitude(), Types.DOUBLE);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            for (int i = 0; i < properties.size(); i++) {
+                properties.get(i).setId(ids[i]);
+            }
+        });
+    }
+
+    @Override
+    public Optional<PropertyPatch.Applied> patch(Long id, Long expectedVersion, PropertyPatch patch) {
+        // The self-join reads the current row under the update's own lock, so the row before
+        // and after come back from the one statement
+        StringBuilder sql = new StringBuilder("UPDATE properties AS updated SET ");
+        for (String field : patch.values().keySet()) {
+            sql.append(PATCH_COLUMNS.get(field)).append(" = ?, ");
+        }
+        sql.append("version = updated.version + 1 FROM (SELECT ").append(PATCH_RETURNED_COLUMNS)
+                .append(" FROM properties WHERE id = ? FOR UPDATE) AS previous WHERE updated.id = previous.id");
+        if (expectedVersion != null) {
+            sql.append(" AND updated.version = ?");
+        }
+        sql.append(" RETURNING ")
+                .append(prefixed("previous.", PATCH_RETURNED_COLUMNS)).append(", ")
+                .append(prefixed("updated.", PATCH_RETURNED_COLUMNS));
+
+        return jdbcSession().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (Object value : patch.values().values()) {
+                    statement.setObject(index++, value);
+                }
+                statement.setLong(index++, id);
+                if (expectedVersion != null) {
+                    statement.setLong(index, expectedVersion);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(new PropertyPatch.Applied(patchedRow(resultSet, 0), patchedRow(resultSet, 10)));
+                }
+            }
+        }).map(applied -> {
+            evictFromCache(id);
+            return applied;
+        });
+    }
+
+    private static String prefixed(String prefix, String columns) {
+        return Arrays.stream(columns.split(", *"))
+                .map(column -> prefix + column)
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Property patchedRow(ResultSet resultSet, int offset) throws SQLException {
+        Property property = Property.builder()
+                .id(resultSet.getLong(offset + 1))
+                .address(resultSet.getString(offset + 2))
+                .description(resultSet.getString(offset + 3))
+                .price(resultSet.getObject(offset + 4, Double.class))
+                .bedrooms(resultSet.getObject(offset + 5, Integer.class))
+                .bathrooms(resultSet.getObject(offset + 6, Integer.class))
+                .squareFootage(resultSet.getObject(offset + 7, Double.class))
+                .latitude(resultSet.getObject(offset + 8, Double.class))
+                .longitude(resultSet.getObject(offset + 9, Double.class))
+                .build();
+        property.setVersion(resultSet.getLong(offset + 10));
+        return property;
+    }
+
+    @Override
+    public void incrementVersion(Property property) {
+        // Written now rather than at commit, and holding the row until then, so that concurrent
+        // image changes to one property cannot both leave the same version behind
+        entityManager.lock(property, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        // The version is written by a lock rather than an update, which leaves the cached copy as it was
+        evictFromCache(property.getId());
+    }
+
+    /**
+     * Evicts a property changed behind Hibernate's back from the second-level cache, both now
+     * and once the transaction ends, so that neither this transaction nor one that read the old
+     * row before it committed leaves the old row cached.
+     */
+    private void evictFromCache(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(Property.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(Property.class, id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reserves ids the way Hibernate's pooled-lo optimizer does, one sequence value per block
+     * of {@link Property#ID_ALLOCATION_SIZE}, so the two never hand out the same id.
+     */
+    private long[] nextPropertyIds(Connection connection, int count) throws SQLException {
+        long[] ids = new long[count];
+        int blocks = (count + Property.ID_ALLOCATION_SIZE - 1) / Property.ID_ALLOCATION_SIZE;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval('" + Property.ID_SEQUENCE + "') FROM generate_series(1, ?)")) {
+            statement.setInt(1, blocks);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int next = 0;
+                while (next < count && resultSet.next()) {
+                    long blockStart = resultSet.getLong(1);
+                    for (int offset = 0; offset < Property.ID_ALLOCATION_SIZE && next < count; offset++) {
+                        ids[next++] = blockStart + offset;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * The session for plain JDBC work, flushed first: Hibernate only flushes pending inserts
+     * before its own queries, and with sequence ids a saved entity is not inserted until then.
+     */
+    private Session jdbcSession() {
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        return entityManager.unwrap(Session.class);
+    }
+
+    private long tableEstimate(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = 'properties'::regclass");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    private long planEstimate(Connection connection, PropertySqlFilter filter) throws SQLException {
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM properties" + filter.whereClause();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            List<Object> parameters = filter.parameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return 0;
+                }
+                JsonNode plan = PLAN_READER.readTree(resultSet.getString(1));
+                return Math.max(0, plan.path(0).path("Plan").path("Plan Rows").asLong());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read query plan", e);
+            }
+        }
+    }
+
+    @Override
+    public PropertyFacets countFacets(PropertySearchCriteria criteria, Set<SearchFacet> facets) {
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+        List<SearchFacet> requested = facets.stream().sorted().toList();
+
+        // One grouping set per facet plus the empty set for the overall total. Every row
+        // belongs to exactly one set and reads the count column filtered for that facet.
+        List<Object> parameters = new ArrayList<>();
+        List<String> columns = new ArrayList<>();
+        for (SearchFacet facet : requested) {
+            String column = FACET_COLUMNS.get(facet);
+            columns.add(column);
+            columns.add("GROUPING(" + column + ")");
+            columns.add(countFiltered(filter.facetsExcept(facet), parameters));
+        }
+        columns.add(countFiltered(filter.facetsExcept(null), parameters));
+
+        PropertySqlFilter common = filter.withoutFacets();
+        parameters.addAll(common.parameters());
+        String sql = "SELECT " + String.join(", ", columns)
+                + " FROM (SELECT price, bedrooms, bathrooms, width_bucket(price, ARRAY"
+                + Arrays.toString(PRICE_BAND_BOUNDS) + "::double precision[]) AS price_band"
+                + " FROM properties" + common.whereClause() + ") AS matched"
+                + " GROUP BY GROUPING SETS ("
+                + requested.stream().map(facet -> "(" + FACET_COLUMNS.get(facet) + "), ").collect(Collectors.joining())
+                + "())";
+
+        return jdbcSession().doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return readFacets(resultSet, requested);
+                }
+            }
+        });
+    }
+
+    private String countFiltered(PropertySqlFilter filter, List<Object> parameters) {
+        if (filter.isEmpty()) {
+            return "count(*)";
+        }
+        parameters.addAll(filter.parameters());
+        return "count(*) FILTER (WHERE " + filter.conditionClause() + ")";
+    }
+
+    private PropertyFacets readFacets(ResultSet resultSet, List<SearchFacet> requested) throws SQLException {
+        Map<SearchFacet, Map<Integer, Long>> histograms = new EnumMap<>(SearchFacet.class);
+        requested.forEach(facet -> histograms.put(facet, new TreeMap<>()));
+        long total = 0;
+        int totalColumn = requested.size() * 3 + 1;
+
+        while (resultSet.next()) {
+            boolean facetRow = false;
+            for (int i = 0; i < requested.size(); i++) {
+                int keyColumn = i * 3 + 1;
+                if (resultSet.getInt(keyColumn + 1) == 0) {
+                    histograms.get(requested.get(i)).put(resultSet.getInt(keyColumn), resultSet.getLong(keyColumn + 2));
+                    facetRow = true;
+                }
+            }
+            if (!facetRow) {
+                total = resultSet.getLong(totalColumn);
+            }
+        }
+
+        return new PropertyFacets(total,
+                histograms.get(SearchFacet.BEDROOMS),
+                histograms.get(SearchFacet.BATHROOMS),
+                histograms.containsKey(SearchFacet.PRICE) ? priceBands(histograms.get(SearchFacet.PRICE)) : null);
+    }
+
+    /**
+     * Expands width_bucket indexes into every price band, including empty ones.
+     */
+    private List<PropertyFacets.PriceBand> priceBands(Map<Integer, Long> countsByBucket) {
+        List<PropertyFacets.PriceBand> bands = new ArrayList<>();
+        for (int bucket = 0; bucket <= PRICE_BAND_BOUNDS.length; bucket++) {
+            Double min = bucket == 0 ? null : PRICE_BAND_BOUNDS[bucket - 1];
+            Double max = bucket == PRICE_BAND_BOUNDS.length ? null : PRICE_BAND_BOUNDS[bucket];
+            bands.add(new PropertyFacets.PriceBand(min, max, countsByBucket.getOrDefault(bucket, 0L)));
+        }
+        return bands;
+    }
+}
@@ -0,0 +1,12 @@
+package com.propertymanager.repository;
+
+import com.propertymanager.model.SavedSearchMatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SavedSearchMatchRepository extends JpaRepository<SavedSearchMatch, Long> {
+    Page<SavedSearchMatch> findBySavedSearchIdOrderByMatchedAtDesc(Long savedSearchId, Pageable pageable);
+}
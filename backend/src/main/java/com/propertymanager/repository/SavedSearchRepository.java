@@ -0,0 +1,12 @@
+package com.propertymanager.repository;
+
+import com.propertymanager.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByOwnerOrderByIdDesc(String owner);
+}
@@ -0,0 +1,25 @@
+package com.propertymanager.repository;
+
+import com.propertymanager.model.User;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * User lookups that go through Hibernate's second-level cache, which Spring Data's derived
+ * queries always bypass.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Finds a user by username through the natural-id cache, so that a cached user is returned
+     * without a query or, outside a transaction, a pooled connection. Joins the caller's
+     * transaction when there is one.
+     *
+     * @param username the exact username
+     * @return the user, or empty if there is none with that name
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    Optional<User> findCachedByUsername(String username);
+}
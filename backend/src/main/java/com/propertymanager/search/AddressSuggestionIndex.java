@@ -0,0 +1,335 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.AddressSuggestion;
+import com.propertymanager.model.Property;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix trie over normalized address tokens and postcodes, used for address
+ * autocomplete.
+ * <p>
+ * Each term counts the properties whose address contains it. Every trie node caches the
+ * {@link #MAX_SUGGESTIONS} most frequent terms beneath it, so a lookup is a walk down the
+ * prefix followed by a copy of that list. When a term's count changes only the nodes on its
+ * path are refreshed, each by merging its children's cached lists.
+ * <p>
+ * Changes that commit while the index loads are held back and applied once it is built, so
+ * that none is undone by an older address from the snapshot.
+ */
+@Component
+public class AddressSuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(AddressSuggestionIndex.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern POSTCODE = Pattern.compile("\\b([a-z]{1,2}\\d[a-z\\d]?)\\s*(\\d[a-z]{2})\\b");
+    private static final Comparator<Node> BY_FREQUENCY =
+            Comparator.comparingInt((Node node) -> node.count).reversed().thenComparing(node -> node.term);
+
+    private final PropertySnapshot snapshot;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node(null, '\0');
+    private final Map<Long, Set<String>> termsByProperty = new HashMap<>();
+    // Changes held back while loading, in the order they committed; null once loaded
+    private List<PropertyChangedEvent> pending;
+    private volatile boolean ready;
+
+    public AddressSuggestionIndex(PropertySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            root.clear();
+            termsByProperty.clear();
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Count every term first, then fill the cached top terms in one bottom-up pass
+        long loaded = snapshot.forEach(EnumSet.of(PropertySnapshot.Column.ADDRESS), property -> {
+            Set<String> terms = terms(property.getAddress());
+            lock.writeLock().lock();
+            try {
+                terms.forEach(term -> find(term).increment(term));
+                termsByProperty.put(property.getId(), terms);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            root.refreshSubtree();
+            pending.forEach(this::apply);
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        logger.info("Address suggestion index loaded with {} properties", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        applyAll(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertiesChanged(PropertiesChangedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    private void applyAll(List<PropertyChangedEvent> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+            } else {
+                changes.forEach(this::apply);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PropertyChangedEvent event) {
+        if (event.getType() == PropertyChangedEvent.Type.DELETED) {
+            remove(event.getPropertyId());
+        } else {
+            put(event.getProperty());
+        }
+    }
+
+    /**
+     * Returns the most frequent terms starting with {@code prefix}, most frequent first.
+     *
+     * @param prefix the text typed so far; matched case-insensitively
+     * @param limit  the maximum number of suggestions, at most {@link #MAX_SUGGESTIONS}
+     * @return the matching suggestions, or an empty list while the index is loading
+     */
+    public List<AddressSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (!ready || normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            int size = Math.min(limit, node.top.length);
+            List<AddressSuggestion> suggestions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                suggestions.add(new AddressSuggestion(node.top[i].term, node.top[i].count));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits an address into the terms it can be completed to: postcodes (with a single
+     * space before the inward code) and alphanumeric tokens other than bare house numbers.
+     */
+    static Set<String> terms(String address) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (address == null) {
+            return terms;
+        }
+        String normalized = normalize(address);
+        Matcher postcode = POSTCODE.matcher(normalized);
+        while (postcode.find()) {
+            terms.add(postcode.group(1) + " " + postcode.group(2));
+        }
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (token.length() > 1 && !token.chars().allMatch(Character::isDigit)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String text) {
+        return WHITESPACE.matcher(text.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    private void put(Property property) {
+        Set<String> previous = termsByProperty.getOrDefault(property.getId(), Set.of());
+        Set<String> current = terms(property.getAddress());
+        for (String term : previous) {
+            if (!current.contains(term)) {
+                adjust(term, -1);
+            }
+        }
+        for (String term : current) {
+            if (!previous.contains(term)) {
+                adjust(term, 1);
+            }
+        }
+        termsByProperty.put(property.getId(), current);
+    }
+
+    private void remove(Long propertyId) {
+        Set<String> previous = termsByProperty.remove(propertyId);
+        if (previous != null) {
+            previous.forEach(term -> adjust(term, -1));
+        }
+    }
+
+    /**
+     * Changes a term's count, then refreshes the cached top terms of every node on its path,
+     * pruning nodes left with neither a term nor children.
+     */
+    private void adjust(String term, int delta) {
+        Node node = find(term);
+        node.count += delta;
+        node.term = node.count > 0 ? term : null;
+
+        while (node != null) {
+            Node parent = node.parent;
+            if (parent != null && node.term == null && node.childCount == 0) {
+                parent.removeChild(node.key);
+            } else {
+                node.refreshTop();
+            }
+            node = parent;
+        }
+    }
+
+    private Node find(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.childOrCreate(term.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * A trie node. Children are kept in parallel arrays sorted by character.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_NODES = new Node[0];
+
+        private final Node parent;
+        private final char key;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        private int childCount;
+        private String term;
+        private int count;
+        private Node[] top = NO_NODES;
+
+        private Node(Node parent, char key) {
+            this.parent = parent;
+            this.key = key;
+        }
+
+        private void increment(String term) {
+            this.term = term;
+            count++;
+        }
+
+        private void clear() {
+            keys = NO_KEYS;
+            children = NO_NODES;
+            childCount = 0;
+            top = NO_NODES;
+        }
+
+        private void refreshSubtree() {
+            for (int i = 0; i < childCount; i++) {
+                children[i].refreshSubtree();
+            }
+            refreshTop();
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node(this, c);
+            keys[insertAt] = c;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, 0, childCount, c);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        /**
+         * Rebuilds this node's top terms from its own term and its children's top terms,
+         * which are already correct for their subtrees.
+         */
+        private void refreshTop() {
+            List<Node> candidates = new ArrayList<>();
+            if (term != null) {
+                candidates.add(this);
+            }
+            for (int i = 0; i < childCount; i++) {
+                candidates.addAll(Arrays.asList(children[i].top));
+            }
+            top = candidates.stream()
+                    .sorted(BY_FREQUENCY)
+                    .limit(MAX_SUGGESTIONS)
+                    .toArray(Node[]::new);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.PropertySearchCriteria;
+
+/**
+ * A latitude/longitude rectangle. Distance filters are first narrowed to the box that
+ * encloses their circle, which the GiST index on {@code point(longitude, latitude)} serves,
+ * and the exact distance is checked only on the rows inside it. Boxes do not wrap across
+ * the antimeridian; longitudes are clamped to [-180, 180].
+ */
+record GeoBox(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+
+    /**
+     * Earth radius used by PostgreSQL's {@code <@>} operator.
+     */
+    static final double EARTH_RADIUS_MILES = 3958.747;
+
+    static GeoBox of(PropertySearchCriteria criteria) {
+        return new GeoBox(criteria.getMinLongitude(), criteria.getMinLatitude(),
+                criteria.getMaxLongitude(), criteria.getMaxLatitude());
+    }
+
+    /**
+     * Returns the smallest box containing every point within {@code radiusMiles} of the centre.
+     */
+    static GeoBox around(double latitude, double longitude, double radiusMiles) {
+        double angularRadius = radiusMiles / EARTH_RADIUS_MILES;
+        double minLatitude = latitude - Math.toDegrees(angularRadius);
+        double maxLatitude = latitude + Math.toDegrees(angularRadius);
+        if (minLatitude <= -90 || maxLatitude >= 90) {
+            // The circle covers a pole, so it spans every longitude
+            return new GeoBox(-180, Math.max(minLatitude, -90), 180, Math.min(maxLatitude, 90));
+        }
+
+        // Widest longitude offset reached by the circle; below the poles the ratio stays under 1
+        double sinRatio = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+        double longitudeDelta = Math.toDegrees(Math.asin(Math.min(1, sinRatio)));
+        return new GeoBox(Math.max(longitude - longitudeDelta, -180), minLatitude,
+                Math.min(longitude + longitudeDelta, 180), maxLatitude);
+    }
+}
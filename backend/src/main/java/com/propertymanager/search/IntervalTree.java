@@ -0,0 +1,120 @@
+package com.propertymanager.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Immutable centered interval tree over closed intervals tagged with a long id.
+ * A stabbing query reports every interval containing a point in O(log n + k): each node
+ * keeps the intervals that cross its centre sorted both by low and by high bound, so only
+ * the ones actually containing the point are visited.
+ */
+final class IntervalTree {
+
+    record Interval(double low, double high, long id) {
+    }
+
+    private static final Comparator<Interval> BY_LOW = Comparator.comparingDouble(Interval::low);
+    private static final Comparator<Interval> BY_HIGH_DESCENDING =
+            Comparator.comparingDouble(Interval::high).reversed();
+
+    private static final class Node {
+        final double centre;
+        final Interval[] byLow;
+        final Interval[] byHighDescending;
+        final Node left;
+        final Node right;
+
+        Node(double centre, Interval[] byLow, Interval[] byHighDescending, Node left, Node right) {
+            this.centre = centre;
+            this.byLow = byLow;
+            this.byHighDescending = byHighDescending;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    private IntervalTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    static IntervalTree build(List<Interval> intervals) {
+        return new IntervalTree(buildNode(intervals), intervals.size());
+    }
+
+    int size() {
+        return size;
+    }
+
+    void stab(double point, LongConsumer consumer) {
+        Node node = root;
+        while (node != null) {
+            if (point < node.centre) {
+                for (Interval interval : node.byLow) {
+                    if (interval.low() > point) {
+                        break;
+                    }
+                    consumer.accept(interval.id());
+                }
+                node = node.left;
+            } else if (point > node.centre) {
+                for (Interval interval : node.byHighDescending) {
+                    if (interval.high() < point) {
+                        break;
+                    }
+                    consumer.accept(interval.id());
+                }
+                node = node.right;
+            } else {
+                for (Interval interval : node.byLow) {
+                    consumer.accept(interval.id());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Splits on the median endpoint. That endpoint belongs to some interval, which then
+     * crosses the centre, so every node holds at least one interval and each side at most
+     * half of the endpoints.
+     */
+    private static Node buildNode(List<Interval> intervals) {
+        if (intervals.isEmpty()) {
+            return null;
+        }
+        double[] endpoints = new double[intervals.size() * 2];
+        for (int i = 0; i < intervals.size(); i++) {
+            endpoints[2 * i] = intervals.get(i).low();
+            endpoints[2 * i + 1] = intervals.get(i).high();
+        }
+        Arrays.sort(endpoints);
+        double centre = endpoints[endpoints.length / 2];
+
+        List<Interval> left = new ArrayList<>();
+        List<Interval> right = new ArrayList<>();
+        List<Interval> crossing = new ArrayList<>();
+        for (Interval interval : intervals) {
+            if (interval.high() < centre) {
+                left.add(interval);
+            } else if (interval.low() > centre) {
+                right.add(interval);
+            } else {
+                crossing.add(interval);
+            }
+        }
+
+        Interval[] byLow = crossing.toArray(new Interval[0]);
+        Interval[] byHighDescending = byLow.clone();
+        Arrays.sort(byLow, BY_LOW);
+        Arrays.sort(byHighDescending, BY_HIGH_DESCENDING);
+        return new Node(centre, byLow, byHighDescending, buildNode(left), buildNode(right));
+    }
+}
@@ -0,0 +1,179 @@
+package com.propertymanager.search;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Balanced k-d tree over fixed-length points, answering k-nearest-neighbour queries by
+ * Euclidean distance.
+ * <p>
+ * The tree is implicit: every range of the point arrays is partitioned around its middle
+ * slot, so that slot is the node, the lower half its left subtree and the upper half its
+ * right. Each range is split on the axis where its points spread widest, which keeps
+ * low-cardinality axes such as room counts from wasting levels, and ranges of at most
+ * {@value #LEAF_SIZE} points are scanned rather than split. Building is O(n log n) and needs
+ * no node objects; the tree is immutable once built, and writes are handled by
+ * {@link NearestNeighbourIndex}.
+ */
+final class KdTree {
+
+    static final int LEAF_SIZE = 8;
+
+    private final int dimensions;
+    private final long[] ids;
+    private final double[] coordinates;
+    private final byte[] splitAxes;
+
+    /**
+     * @param ids         the point ids, taken over by the tree
+     * @param coordinates the points, {@code dimensions} values each, taken over by the tree
+     */
+    KdTree(long[] ids, double[] coordinates, int dimensions) {
+        if (dimensions <= 0 || coordinates.length != ids.length * dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " coordinates per point");
+        }
+        this.dimensions = dimensions;
+        this.ids = ids;
+        this.coordinates = coordinates;
+        this.splitAxes = new byte[ids.length];
+        build(0, ids.length);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long idAt(int index) {
+        return ids[index];
+    }
+
+    double coordinate(int index, int axis) {
+        return coordinates[index * dimensions + axis];
+    }
+
+    /**
+     * Offers the points closest to the query to the given neighbours, skipping those the
+     * filter rejects. Subtrees that cannot beat the current k-th distance are not visited.
+     */
+    void nearest(double[] query, IntPredicate accept, Neighbours neighbours) {
+        search(0, ids.length, query, accept, neighbours);
+    }
+
+    private void search(int lo, int hi, double[] query, IntPredicate accept, Neighbours neighbours) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int index = lo; index < hi; index++) {
+                if (accept.test(index)) {
+                    neighbours.offer(ids[index], distanceSquared(query, index));
+                }
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int axis = splitAxes[mid];
+        double delta = query[axis] - coordinate(mid, axis);
+
+        if (delta < 0) {
+            search(lo, mid, query, accept, neighbours);
+        } else {
+            search(mid + 1, hi, query, accept, neighbours);
+        }
+        if (accept.test(mid)) {
+            neighbours.offer(ids[mid], distanceSquared(query, mid));
+        }
+        // Everything on the far side is at least |delta| away along this axis
+        if (delta * delta <= neighbours.worstDistanceSquared()) {
+            if (delta < 0) {
+                search(mid + 1, hi, query, accept, neighbours);
+            } else {
+                search(lo, mid, query, accept, neighbours);
+            }
+        }
+    }
+
+    private double distanceSquared(double[] query, int index) {
+        double sum = 0;
+        int offset = index * dimensions;
+        for (int axis = 0; axis < dimensions; axis++) {
+            double delta = query[axis] - coordinates[offset + axis];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    private void build(int lo, int hi) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int axis = widestAxis(lo, hi);
+        splitAxes[mid] = (byte) axis;
+        select(lo, hi, mid, axis);
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < dimensions; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int index = lo; index < hi; index++) {
+                double value = coordinate(index, axis);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widest = axis;
+                widestSpread = max - min;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Quickselect on one axis: afterwards the point at {@code k} has no larger values before
+     * it and no smaller values after it. Three-way partitioning keeps the many equal room
+     * counts from degrading it to quadratic time.
+     */
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi - lo > 1) {
+            double pivot = coordinate(lo + (hi - lo) / 2, axis);
+            int less = lo;
+            int greater = hi;
+            int i = lo;
+            while (i < greater) {
+                double value = coordinate(i, axis);
+                if (value < pivot) {
+                    swap(less++, i++);
+                } else if (value > pivot) {
+                    swap(i, --greater);
+                } else {
+                    i++;
+                }
+            }
+            if (k < less) {
+                hi = less;
+            } else if (k >= greater) {
+                lo = greater;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        if (a == b) {
+            return;
+        }
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        int offsetA = a * dimensions;
+        int offsetB = b * dimensions;
+        for (int axis = 0; axis < dimensions; axis++) {
+            double value = coordinates[offsetA + axis];
+            coordinates[offsetA + axis] = coordinates[offsetB + axis];
+            coordinates[offsetB + axis] = value;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.propertymanager.search;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link KdTree}s that accept writes, in the spirit of a log-structured merge.
+ * <p>
+ * Points live in one of three places: a large main tree, a small tree of recent points, or a
+ * pending buffer of the last few writes that queries scan directly. Removals are marked in a
+ * bitmap per tree and skipped by queries. When the buffer fills it is merged into the recent
+ * tree, and when the recent tree and the removals together pass a fraction of the main tree,
+ * everything is rebuilt into a new main tree. A write therefore rarely costs more than a
+ * small rebuild, and a query never scans more than the buffer.
+ * <p>
+ * Not thread-safe; callers guard it with their own lock, as {@link SimilarPropertyIndex} does.
+ */
+final class NearestNeighbourIndex {
+
+    private static final int MAX_PENDING = 256;
+    private static final int MIN_CHANGES_BEFORE_REBUILD = 1024;
+
+    private final int dimensions;
+    private Level main;
+    private Level recent;
+    private final Map<Long, double[]> pending = new LinkedHashMap<>();
+
+    NearestNeighbourIndex(int dimensions) {
+        this.dimensions = dimensions;
+        load(new long[0], new double[0]);
+    }
+
+    /**
+     * Replaces the contents with the given points and builds the tree over them.
+     *
+     * @param coordinates {@code dimensions} values per id, taken over by the index
+     */
+    void load(long[] ids, double[] coordinates) {
+        pending.clear();
+        main = new Level(ids, coordinates, dimensions);
+        recent = new Level(new long[0], new double[0], dimensions);
+    }
+
+    void put(long id, double[] point) {
+        if (point.length != dimensions) {
+            throw new IllegalArgumentException("Expected a point with " + dimensions + " dimensions");
+        }
+        remove(id);
+        pending.put(id, point.clone());
+        if (pending.size() > MAX_PENDING) {
+            merge();
+        }
+    }
+
+    void remove(long id) {
+        if (pending.remove(id) == null && !recent.remove(id)) {
+            main.remove(id);
+        }
+    }
+
+    /**
+     * @return a copy of the point stored for the id, or null if there is none
+     */
+    double[] pointOf(long id) {
+        double[] point = pending.get(id);
+        if (point != null) {
+            return point.clone();
+        }
+        point = recent.pointOf(id);
+        return point != null ? point : main.pointOf(id);
+    }
+
+    int size() {
+        return main.size() + recent.size() + pending.size();
+    }
+
+    /**
+     * @param excludedIds ids never to return, such as the query's own
+     * @return up to {@code limit} ids, closest to the query first
+     */
+    List<Long> nearest(double[] query, int limit, Set<Long> excludedIds) {
+        // Over-fetch by the excluded ids rather than test every visited point against them
+        Neighbours neighbours = new Neighbours(limit + excludedIds.size());
+        main.nearest(query, neighbours);
+        recent.nearest(query, neighbours);
+        for (Map.Entry<Long, double[]> entry : pending.entrySet()) {
+            neighbours.offer(entry.getKey(), distanceSquared(query, entry.getValue()));
+        }
+        return neighbours.closestFirst().stream()
+                .filter(id -> !excludedIds.contains(id))
+                .limit(limit)
+                .toList();
+    }
+
+    private static double distanceSquared(double[] a, double[] b) {
+        double sum = 0;
+        for (int axis = 0; axis < a.length; axis++) {
+            double delta = a[axis] - b[axis];
+            sum += delta * delta;
+        }
+        return sum;
+    }
+
+    /**
+     * Moves the pending points into the recent tree, or rebuilds the main tree once the
+     * recent tree and the removals from the main one have grown too large.
+     */
+    private void merge() {
+        int changes = recent.size() + pending.size() + main.removedCount;
+        boolean rebuildMain = changes > Math.max(MIN_CHANGES_BEFORE_REBUILD, main.size() / 64);
+
+        int count = recent.size() + pending.size() + (rebuildMain ? main.size() : 0);
+        long[] ids = new long[count];
+        double[] coordinates = new double[count * dimensions];
+        int next = rebuildMain ? main.copyLiveTo(ids, coordinates, 0) : 0;
+        next = recent.copyLiveTo(ids, coordinates, next);
+        for (Map.Entry<Long, double[]> entry : pending.entrySet()) {
+            ids[next] = entry.getKey();
+            System.arraycopy(entry.getValue(), 0, coordinates, next * dimensions, dimensions);
+            next++;
+        }
+
+        if (rebuildMain) {
+            load(ids, coordinates);
+        } else {
+            pending.clear();
+            recent = new Level(ids, coordinates, dimensions);
+        }
+    }
+
+    /**
+     * A built tree, its id lookup and the points removed from it since.
+     */
+    private static final class Level {
+        private final KdTree tree;
+        private final int dimensions;
+        private final Map<Long, Integer> indexById;
+        private final BitSet removed = new BitSet();
+        private int removedCount;
+
+        Level(long[] ids, double[] coordinates, int dimensions) {
+            this.tree = new KdTree(ids, coordinates, dimensions);
+            this.dimensions = dimensions;
+            this.indexById = new HashMap<>(Math.max(16, ids.length * 4 / 3 + 1));
+            for (int index = 0; index < tree.size(); index++) {
+                indexById.put(tree.idAt(index), index);
+            }
+        }
+
+        int size() {
+            return indexById.size();
+        }
+
+        boolean remove(long id) {
+            Integer index = indexById.remove(id);
+            if (index == null) {
+                return false;
+            }
+            removed.set(index);
+            removedCount++;
+            return true;
+        }
+
+        double[] pointOf(long id) {
+            Integer index = indexById.get(id);
+            if (index == null) {
+                return null;
+            }
+            double[] point = new double[dimensions];
+            for (int axis = 0; axis < dimensions; axis++) {
+                point[axis] = tree.coordinate(index, axis);
+            }
+            return point;
+        }
+
+        void nearest(double[] query, Neighbours neighbours) {
+            tree.nearest(query, index -> !removed.get(index), neighbours);
+        }
+
+        /**
+         * @return the slot after the last point copied
+         */
+        int copyLiveTo(long[] ids, double[] coordinates, int next) {
+            for (int index = 0; index < tree.size(); index++) {
+                if (!removed.get(index)) {
+                    ids[next] = tree.idAt(index);
+                    for (int axis = 0; axis < dimensions; axis++) {
+                        coordinates[next * dimensions + axis] = tree.coordinate(index, axis);
+                    }
+                    next++;
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.propertymanager.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The k closest ids seen so far, kept in a bounded max-heap on distance so that the current
+ * k-th distance, which prunes the search, is always at the root.
+ */
+final class Neighbours {
+
+    private final int capacity;
+    private final long[] ids;
+    private final double[] distances;
+    private int size;
+
+    Neighbours(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.distances = new double[capacity];
+    }
+
+    /**
+     * @return the distance a point must beat to be kept; infinite until k points are held
+     */
+    double worstDistanceSquared() {
+        return size < capacity ? Double.POSITIVE_INFINITY : distances[0];
+    }
+
+    void offer(long id, double distanceSquared) {
+        if (size < capacity) {
+            ids[size] = id;
+            distances[size] = distanceSquared;
+            siftUp(size++);
+        } else if (isCloser(distanceSquared, id, 0)) {
+            ids[0] = id;
+            distances[0] = distanceSquared;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the ids held, closest first, ties broken by id so results are stable
+     */
+    List<Long> closestFirst() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> distances[i]).thenComparingLong(i -> ids[i]));
+        List<Long> result = new ArrayList<>(size);
+        for (Integer i : order) {
+            result.add(ids[i]);
+        }
+        return result;
+    }
+
+    private boolean isCloser(double distanceSquared, long id, int slot) {
+        return distanceSquared < distances[slot] || (distanceSquared == distances[slot] && id < ids[slot]);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (!isCloser(distances[parent], ids[parent], slot)) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int farthest = slot;
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                if (isCloser(distances[farthest], ids[farthest], child)) {
+                    farthest = child;
+                }
+            }
+            if (farthest == slot) {
+                return;
+            }
+            swap(slot, farthest);
+            slot = farthest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double distance = distances[a];
+        distances[a] = distances[b];
+        distances[b] = distance;
+    }
+}
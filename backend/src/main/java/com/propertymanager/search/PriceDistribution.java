@@ -0,0 +1,82 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.PriceStatistics;
+import com.propertymanager.model.PropertyFacets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quantile sketches of price and price per square foot for a set of properties. Not
+ * thread-safe; {@link PriceStatisticsIndex} guards the instances it keeps.
+ */
+public final class PriceDistribution {
+
+    private final QuantileSketch prices = new QuantileSketch();
+    private final QuantileSketch pricesPerSquareFoot = new QuantileSketch();
+
+    /**
+     * Records a property's values. Properties without a positive price are not counted,
+     * and only those with a positive size count towards price per square foot.
+     */
+    public void add(Double price, Double squareFootage) {
+        if (!isPriced(price)) {
+            return;
+        }
+        prices.add(price);
+        if (isPriced(squareFootage)) {
+            pricesPerSquareFoot.add(price / squareFootage);
+        }
+    }
+
+    /**
+     * Removes values previously passed to {@link #add}.
+     */
+    public void remove(Double price, Double squareFootage) {
+        if (!isPriced(price)) {
+            return;
+        }
+        prices.remove(price);
+        if (isPriced(squareFootage)) {
+            pricesPerSquareFoot.remove(price / squareFootage);
+        }
+    }
+
+    public void merge(PriceDistribution other) {
+        prices.merge(other.prices);
+        pricesPerSquareFoot.merge(other.pricesPerSquareFoot);
+    }
+
+    public boolean isEmpty() {
+        return prices.isEmpty();
+    }
+
+    public PriceStatistics toStatistics(PriceStatistics.Source source) {
+        return new PriceStatistics(prices.count(),
+                prices.quantile(0.5),
+                prices.quantile(0.9),
+                pricesPerSquareFoot.count(),
+                pricesPerSquareFoot.quantile(0.5),
+                pricesPerSquareFoot.quantile(0.9),
+                priceBands(),
+                source);
+    }
+
+    private List<PropertyFacets.PriceBand> priceBands() {
+        double[] bounds = PropertyFacets.PRICE_BAND_BOUNDS;
+        List<PropertyFacets.PriceBand> bands = new ArrayList<>();
+        long below = 0;
+        for (int band = 0; band <= bounds.length; band++) {
+            Double min = band == 0 ? null : bounds[band - 1];
+            Double max = band == bounds.length ? null : bounds[band];
+            long upTo = max == null ? prices.count() : prices.countBelow(max);
+            bands.add(new PropertyFacets.PriceBand(min, max, upTo - below));
+            below = upTo;
+        }
+        return bands;
+    }
+
+    private static boolean isPriced(Double value) {
+        return value != null && value > 0 && !value.isInfinite();
+    }
+}
@@ -0,0 +1,208 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.PriceStatistics;
+import com.propertymanager.model.Property;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Price distributions kept per area and updated on every property write, so that price
+ * statistics for any union of areas are a merge of a few sketches rather than a scan.
+ * <p>
+ * A property's area is the postcode area of the last UK postcode in its address ("sw" for
+ * SW1A 1AA), or else the town after the address's last comma, lower-cased; addresses with
+ * neither fall into {@value #OTHER_AREA}. The values each property contributed are kept so
+ * that an update or delete removes exactly what was added. Changes that commit while the
+ * index loads are held back and applied on top of what was loaded.
+ */
+@Component
+public class PriceStatisticsIndex {
+
+    public static final String OTHER_AREA = "other";
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceStatisticsIndex.class);
+    private static final Pattern POSTCODE = Pattern.compile("\\b([a-z]{1,2})\\d[a-z\\d]?\\s*\\d[a-z]{2}\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private record Entry(String area, Double price, Double squareFootage) {
+    }
+
+    private final PropertySnapshot snapshot;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PriceDistribution> distributionsByArea = new HashMap<>();
+    private final Map<Long, Entry> entriesByProperty = new HashMap<>();
+    // Changes held back while loading, in the order they committed; null once loaded
+    private List<PropertyChangedEvent> pending;
+    private volatile boolean ready;
+
+    public PriceStatisticsIndex(PropertySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            distributionsByArea.clear();
+            entriesByProperty.clear();
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long loaded = snapshot.forEach(EnumSet.of(PropertySnapshot.Column.ADDRESS, PropertySnapshot.Column.PRICE,
+                PropertySnapshot.Column.SQUARE_FOOTAGE), property -> {
+            lock.writeLock().lock();
+            try {
+                put(property);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(this::apply);
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        logger.info("Price statistics loaded for {} properties in {} areas", loaded, areaCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        applyAll(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertiesChanged(PropertiesChangedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    private void applyAll(List<PropertyChangedEvent> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+            } else {
+                changes.forEach(this::apply);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PropertyChangedEvent event) {
+        remove(event.getPropertyId());
+        if (event.getType() != PropertyChangedEvent.Type.DELETED) {
+            put(event.getProperty());
+        }
+    }
+
+    /**
+     * Merges the distributions of the given areas.
+     *
+     * @param areas normalised area names; empty for every area
+     * @return the merged statistics, or empty while the index is still loading
+     */
+    public Optional<PriceStatistics> statistics(Set<String> areas) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        PriceDistribution merged = new PriceDistribution();
+        lock.readLock().lock();
+        try {
+            Collection<String> selected = areas.isEmpty() ? distributionsByArea.keySet() : areas;
+            for (String area : selected) {
+                PriceDistribution distribution = distributionsByArea.get(area);
+                if (distribution != null) {
+                    merged.merge(distribution);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(merged.toStatistics(PriceStatistics.Source.SKETCH));
+    }
+
+    /**
+     * @return the area an address belongs to, never null
+     */
+    public static String areaOf(String address) {
+        if (address == null) {
+            return OTHER_AREA;
+        }
+        String normalized = address.toLowerCase(Locale.ROOT);
+        Matcher postcode = POSTCODE.matcher(normalized);
+        String area = null;
+        while (postcode.find()) {
+            area = postcode.group(1);
+        }
+        if (area != null) {
+            return area;
+        }
+        int comma = normalized.lastIndexOf(',');
+        return comma < 0 ? OTHER_AREA : normalizeArea(normalized.substring(comma + 1));
+    }
+
+    /**
+     * Normalises an area name as given in a request: lower-cased with whitespace collapsed.
+     */
+    public static String normalizeArea(String area) {
+        String normalized = WHITESPACE.matcher(area.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return normalized.isEmpty() ? OTHER_AREA : normalized;
+    }
+
+    int areaCount() {
+        lock.readLock().lock();
+        try {
+            return distributionsByArea.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Property property) {
+        Entry entry = new Entry(areaOf(property.getAddress()), property.getPrice(), property.getSquareFootage());
+        entriesByProperty.put(property.getId(), entry);
+        distributionsByArea.computeIfAbsent(entry.area(), area -> new PriceDistribution())
+                .add(entry.price(), entry.squareFootage());
+    }
+
+    private void remove(Long propertyId) {
+        Entry entry = entriesByProperty.remove(propertyId);
+        if (entry == null) {
+            return;
+        }
+        PriceDistribution distribution = distributionsByArea.get(entry.area());
+        // Unpriced properties contribute nothing, so their area may already be gone
+        if (distribution == null) {
+            return;
+        }
+        distribution.remove(entry.price(), entry.squareFootage());
+        if (distribution.isEmpty()) {
+            distributionsByArea.remove(entry.area());
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed property changes to Server-Sent Events subscribers, each receiving only
+ * the changes to properties that match, or used to match, its filters. Subscribers hold no
+ * thread while idle: every event is fanned out from a single dispatcher thread, which also
+ * owns the replay buffer, so events reach each subscriber in commit order.
+ * <p>
+ * The dispatcher only queues events for each subscriber; they are written out on a virtual
+ * thread of the subscriber's own, so a client that reads slowly holds up no one else. A
+ * subscriber more than {@code app.stream.subscriber-queue-size} events behind is completed,
+ * and reconnects to resume from the replay buffer. The dispatcher's own queue is bounded
+ * too: if changes arrive faster than it can take them, those it cannot queue are dropped and
+ * every subscriber is sent a {@value #RESET_EVENT} event instead.
+ * <p>
+ * The last {@code app.stream.replay-size} events are kept so that a client reconnecting
+ * with {@code Last-Event-ID} receives what it missed. Event ids are only meaningful to the
+ * node and process that issued them; when the id is too old or unknown the client is sent
+ * a {@value #RESET_EVENT} event and should reload instead.
+ */
+@Component
+public class PropertyChangeStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyChangeStream.class);
+
+    public static final String RESET_EVENT = "reset";
+
+    /**
+     * The data of a change event, named after its type. The property is null for deletions.
+     */
+    public record Change(Long propertyId, PropertyExportRow property) {
+    }
+
+    /**
+     * A buffered event, with the before and after values its subscribers are matched on.
+     */
+    private record Entry(long id, PropertyChangedEvent.Type type, Change change, Property current,
+                         Property previous) {
+    }
+
+    /**
+     * A client's filters and the events waiting to be written to it. At most one task at a
+     * time writes them, started whenever events are queued and none is running.
+     */
+    private record Subscriber(SseEmitter emitter, PropertySearchCriteria criteria,
+                              Queue<SseEmitter.SseEventBuilder> outbound, AtomicBoolean sending) {
+    }
+
+    private final Executor dispatcher;
+    private final Executor sender;
+    private final int replaySize;
+    private final int subscriberQueueSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Bumped whenever the dispatcher's queue overflows; changes queued before then are dropped
+    private final AtomicLong generation = new AtomicLong();
+    // Only touched on the dispatcher thread
+    private final Deque<Entry> replay = new ArrayDeque<>();
+    private long resetGeneration;
+    // Seeded from the clock, so ids from before a restart read as too old to resume from
+    private long lastId = System.currentTimeMillis() * 1000;
+
+    @Autowired
+    public PropertyChangeStream(@Value("${app.stream.replay-size:1000}") int replaySize,
+                                @Value("${app.stream.dispatch-queue-size:10000}") int dispatchQueueSize,
+                                @Value("${app.stream.subscriber-queue-size:256}") int subscriberQueueSize,
+                                @Value("${app.stream.timeout-minutes:30}") long timeoutMinutes) {
+        this(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(dispatchQueueSize),
+                        new CustomizableThreadFactory("sse-")),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-send-", 1).factory()),
+                replaySize, subscriberQueueSize, Duration.ofMinutes(timeoutMinutes).toMillis());
+    }
+
+    PropertyChangeStream(Executor dispatcher, Executor sender, int replaySize, int subscriberQueueSize,
+                         long timeoutMillis) {
+        this.dispatcher = dispatcher;
+        this.sender = sender;
+        this.replaySize = replaySize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Opens a stream of the changes matching the criteria, first replaying those after
+     * {@code lastEventId} when the client is reconnecting.
+     */
+    public SseEmitter subscribe(PropertySearchCriteria criteria, String lastEventId) {
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, criteria, new ArrayBlockingQueue<>(subscriberQueueSize),
+                new AtomicBoolean());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        boolean queued = dispatch(() -> {
+            if (lastEventId != null && !replayAfter(subscriber, lastEventId)) {
+                return;
+            }
+            subscribers.add(subscriber);
+        });
+        if (!queued) {
+            // The client reconnects once the dispatcher has caught up
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        publish(List.of(event));
+    }
+
+    /**
+     * Streams a bulk write as one dispatcher task. A subscriber matching more of its changes
+     * than its queue holds is sent a {@value #RESET_EVENT} event in their place.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertiesChanged(PropertiesChangedEvent event) {
+        publish(event.getChanges());
+    }
+
+    private void publish(List<PropertyChangedEvent> changes) {
+        // Copied now: the entities may change again before the dispatcher gets to them
+        List<Entry> entries = changes.stream()
+                .map(change -> {
+                    Property current = copy(change.getProperty());
+                    return new Entry(0, change.getType(), new Change(change.getPropertyId(), row(current)),
+                            current, copy(change.getPrevious()));
+                })
+                .toList();
+        long queuedIn = generation.get();
+        dispatch(() -> {
+            if (queuedIn < generation.get()) {
+                // Covered by the reset subscribers were sent instead
+                return;
+            }
+            List<Entry> numbered = new ArrayList<>(entries.size());
+            for (Entry unnumbered : entries) {
+                Entry entry = new Entry(++lastId, unnumbered.type(), unnumbered.change(), unnumbered.current(),
+                        unnumbered.previous());
+                numbered.add(entry);
+                replay.addLast(entry);
+                if (replay.size() > replaySize) {
+                    replay.removeFirst();
+                }
+            }
+            for (Subscriber subscriber : subscribers) {
+                List<Entry> matched = numbered.stream().filter(entry -> matches(subscriber, entry)).toList();
+                if (matched.size() > subscriberQueueSize) {
+                    enqueue(subscriber, SseEmitter.event().name(RESET_EVENT).data(""));
+                    continue;
+                }
+                for (Entry entry : matched) {
+                    if (!enqueue(subscriber, event(entry))) {
+                        break;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Keeps idle connections open through proxies that drop silent ones, and finds the
+     * subscribers that have gone away.
+     */
+    @Scheduled(fixedRateString = "${app.stream.heartbeat-seconds:15}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        dispatch(() -> subscribers.forEach(subscriber ->
+                enqueue(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        for (Executor executor : List.of(dispatcher, sender)) {
+            if (executor instanceof ExecutorService service) {
+                service.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Runs the task on the dispatcher, first sending every subscriber a reset if changes have
+     * been dropped since the last one.
+     *
+     * @return false if the dispatcher's queue is full and the task was dropped
+     */
+    private boolean dispatch(Runnable task) {
+        try {
+            dispatcher.execute(() -> {
+                long current = generation.get();
+                if (resetGeneration < current) {
+                    resetGeneration = current;
+                    reset();
+                }
+                task.run();
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            generation.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Tells every subscriber to reload, and forgets the buffered events so that no client
+     * resumes across the changes that were dropped.
+     */
+    private void reset() {
+        logger.warn("Change stream fell behind; sending {} subscribers a reset", subscribers.size());
+        replay.clear();
+        lastId++;
+        subscribers.forEach(subscriber -> enqueue(subscriber, SseEmitter.event().name(RESET_EVENT).data("")));
+    }
+
+    /**
+     * @return whether the subscriber could be brought up to date and should join the stream
+     */
+    private boolean replayAfter(Subscriber subscriber, String lastEventId) {
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            after = -1;
+        }
+        List<Entry> missed = after > lastId || after < lastId - replay.size() ? null
+                : replay.stream().filter(entry -> entry.id() > after && matches(subscriber, entry)).toList();
+        // More than would fit in its queue is also too far behind to replay
+        if (missed == null || missed.size() > subscriberQueueSize) {
+            logger.debug("Cannot resume a change stream from event {}", lastEventId);
+            return enqueue(subscriber, SseEmitter.event().name(RESET_EVENT).data(""));
+        }
+        for (Entry entry : missed) {
+            enqueue(subscriber, event(entry));
+        }
+        return true;
+    }
+
+    private static boolean matches(Subscriber subscriber, Entry entry) {
+        return PropertyCriteriaMatcher.mayMatch(subscriber.criteria(), entry.current())
+                || PropertyCriteriaMatcher.mayMatch(subscriber.criteria(), entry.previous());
+    }
+
+    private static SseEmitter.SseEventBuilder event(Entry entry) {
+        return SseEmitter.event()
+                .id(Long.toString(entry.id()))
+                .name(entry.type().name().toLowerCase(Locale.ROOT))
+                .data(entry.change());
+    }
+
+    /**
+     * Queues an event for the subscriber and starts writing them out if nothing is, or
+     * completes the subscriber if it is too far behind to take it.
+     *
+     * @return whether the event was queued
+     */
+    private boolean enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.outbound().offer(event)) {
+            logger.debug("Completing a change stream subscriber {} events behind", subscriberQueueSize);
+            subscribers.remove(subscriber);
+            subscriber.emitter().complete();
+            return false;
+        }
+        if (subscriber.sending().compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+        return true;
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.outbound().poll()) != null) {
+                if (!send(subscriber, event)) {
+                    subscriber.outbound().clear();
+                    break;
+                }
+            }
+            subscriber.sending().set(false);
+            // Events queued after the last poll but before the flag was cleared
+        } while (!subscriber.outbound().isEmpty() && subscriber.sending().compareAndSet(false, true));
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client has gone, or its emitter has already completed; the container
+            // finishes the request itself
+            subscribers.remove(subscriber);
+            return false;
+        }
+    }
+
+    private static Property copy(Property property) {
+        if (property == null) {
+            return null;
+        }
+        return Property.builder()
+                .id(property.getId())
+                .address(property.getAddress())
+                .description(property.getDescription())
+                .price(property.getPrice())
+                .bedrooms(property.getBedrooms())
+                .bathrooms(property.getBathrooms())
+                .squareFootage(property.getSquareFootage())
+                .latitude(property.getLatitude())
+                .longitude(property.getLongitude())
+                .build();
+    }
+
+    private static PropertyExportRow row(Property property) {
+        if (property == null) {
+            return null;
+        }
+        return new PropertyExportRow(property.getId(), property.getAddress(), property.getDescription(),
+                property.getPrice(), property.getBedrooms(), property.getBathrooms(), property.getSquareFootage(),
+                property.getLatitude(), property.getLongitude());
+    }
+}
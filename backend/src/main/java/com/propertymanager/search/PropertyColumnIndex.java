@@ -0,0 +1,441 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToLongFunction;
+
+/**
+ * In-memory columnar index over the property search filters.
+ * <p>
+ * Every property occupies one row slot across a set of primitive columns: price and square
+ * footage as the exact doubles the database holds, so that ranges and sorts agree with the
+ * database at their boundaries, and room counts as bytes (saturating at 127). Price and size
+ * ranges are answered from per-column sorted arrays, room counts from one bitmap per value,
+ * and the address filter is a substring check over the surviving rows. The result is a page
+ * of property ids which the caller hydrates from the database.
+ * <p>
+ * Rows written since the sorted arrays were last built are tracked as stale and checked
+ * directly against the columns, so a single write does not force a re-sort. The sorted
+ * arrays are rebuilt once the number of stale rows passes a threshold.
+ * <p>
+ * Changes that commit while the index loads are held back and applied on top of what was
+ * loaded, so that none is overwritten by an older row from the snapshot.
+ */
+@Component
+public class PropertyColumnIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyColumnIndex.class);
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_STALE_ROWS_BEFORE_REBUILD = 1024;
+    private static final int MAX_ROOM_VALUE = Byte.MAX_VALUE;
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "price", "squareFootage", "bedrooms", "bathrooms");
+
+    /**
+     * One page of matching property ids, in the order requested, plus the total match count.
+     */
+    public record IdPage(List<Long> ids, long total) {
+    }
+
+    private final PropertySnapshot snapshot;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private double[] squareFootage = new double[INITIAL_CAPACITY];
+    private byte[] bedrooms = new byte[INITIAL_CAPACITY];
+    private byte[] bathrooms = new byte[INITIAL_CAPACITY];
+    private String[] addresses = new String[INITIAL_CAPACITY];
+    private int rowCount;
+
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final BitSet liveRows = new BitSet();
+    private final BitSet freeRows = new BitSet();
+    private final BitSet staleRows = new BitSet();
+    private final BitSet[] bedroomRows = new BitSet[MAX_ROOM_VALUE + 1];
+    private final BitSet[] bathroomRows = new BitSet[MAX_ROOM_VALUE + 1];
+
+    private SortedColumn priceColumn = SortedColumn.EMPTY;
+    private SortedColumn sizeColumn = SortedColumn.EMPTY;
+
+    // Changes held back while loading, in the order they committed; null once loaded
+    private List<PropertyChangedEvent> pending;
+    private volatile boolean ready;
+
+    public PropertyColumnIndex(PropertySnapshot snapshot,
+                               @Value("${app.search.columnar-index.enabled:false}") boolean enabled) {
+        this.snapshot = snapshot;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            clear();
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long loaded = snapshot.forEach(EnumSet.of(PropertySnapshot.Column.ADDRESS, PropertySnapshot.Column.PRICE,
+                PropertySnapshot.Column.SQUARE_FOOTAGE, PropertySnapshot.Column.BEDROOMS,
+                PropertySnapshot.Column.BATHROOMS), property -> {
+            lock.writeLock().lock();
+            try {
+                put(property);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(this::apply);
+            pending = null;
+            rebuildSortedColumns();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        logger.info("Columnar search index loaded with {} properties", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        applyAll(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertiesChanged(PropertiesChangedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    private void applyAll(List<PropertyChangedEvent> changes) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+                return;
+            }
+            changes.forEach(this::apply);
+            if (staleRows.cardinality() > Math.max(MIN_STALE_ROWS_BEFORE_REBUILD, rowsById.size() / 64)) {
+                rebuildSortedColumns();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(PropertyChangedEvent event) {
+        if (event.getType() == PropertyChangedEvent.Type.DELETED) {
+            remove(event.getPropertyId());
+        } else {
+            put(event.getProperty());
+        }
+    }
+
+    /**
+     * Answers a search from the index.
+     *
+     * @return the requested page of ids, or empty when the index is disabled, still loading,
+     *         or cannot answer this request (in which case the caller should query the database)
+     */
+    public Optional<IdPage> search(PropertySearchCriteria criteria, Pageable pageable) {
+        if (!enabled || !ready || pageable.isUnpaged() || !isSortable(pageable.getSort())) {
+            return Optional.empty();
+        }
+        // Free-text and location queries need the database's tsvector and GiST indexes
+        if (StringUtils.hasText(criteria.getText()) || criteria.hasRadius() || criteria.hasBoundingBox()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = filter(criteria);
+            int total = matches.cardinality();
+            long offset = pageable.getOffset();
+            if (offset >= total) {
+                return Optional.of(new IdPage(List.of(), total));
+            }
+
+            int end = (int) Math.min(total, offset + pageable.getPageSize());
+            int[] ordered = RowSorter.smallest(matches.stream().toArray(), end, comparatorFor(pageable.getSort()));
+            List<Long> pageIds = new ArrayList<>(end - (int) offset);
+            for (int i = (int) offset; i < end; i++) {
+                pageIds.add(ids[ordered[i]]);
+            }
+            return Optional.of(new IdPage(pageIds, total));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isSortable(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE_PROPERTIES.contains(order.getProperty()));
+    }
+
+    private BitSet filter(PropertySearchCriteria criteria) {
+        BitSet result = (BitSet) liveRows.clone();
+
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            long low = criteria.getMinPrice() != null ? sortKey(criteria.getMinPrice()) : Long.MIN_VALUE;
+            long high = criteria.getMaxPrice() != null ? sortKey(criteria.getMaxPrice()) : Long.MAX_VALUE;
+            result.and(rangeOf(priceColumn, low, high, row -> sortKey(prices[row])));
+        }
+        if (criteria.getMinSize() != null || criteria.getMaxSize() != null) {
+            long low = criteria.getMinSize() != null ? sortKey(criteria.getMinSize()) : Long.MIN_VALUE;
+            long high = criteria.getMaxSize() != null ? sortKey(criteria.getMaxSize()) : Long.MAX_VALUE;
+            result.and(rangeOf(sizeColumn, low, high, row -> sortKey(squareFootage[row])));
+        }
+        if (criteria.getBedrooms() != null) {
+            result.and(roomsBetween(bedroomRows, criteria.getBedrooms(), criteria.getBedrooms()));
+        }
+        if (criteria.getMaxRooms() != null) {
+            result.and(roomsBetween(bedroomRows, 0, criteria.getMaxRooms()));
+        }
+        if (criteria.getMinBathrooms() != null || criteria.getMaxBathrooms() != null) {
+            int min = criteria.getMinBathrooms() != null ? criteria.getMinBathrooms() : 0;
+            int max = criteria.getMaxBathrooms() != null ? criteria.getMaxBathrooms() : MAX_ROOM_VALUE;
+            result.and(roomsBetween(bathroomRows, min, max));
+        }
+
+        String address = criteria.getAddress();
+        if (address != null && !address.isEmpty()) {
+            String term = address.toLowerCase(Locale.ROOT);
+            for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+                if (!addresses[row].contains(term)) {
+                    result.clear(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    private BitSet rangeOf(SortedColumn column, long low, long high, IntToLongFunction values) {
+        BitSet rows = column.range(low, high);
+        rows.andNot(staleRows);
+        for (int row = staleRows.nextSetBit(0); row >= 0; row = staleRows.nextSetBit(row + 1)) {
+            long value = values.applyAsLong(row);
+            if (liveRows.get(row) && value >= low && value <= high) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    private static BitSet roomsBetween(BitSet[] bitmaps, int min, int max) {
+        BitSet rows = new BitSet();
+        for (int value = Math.max(min, 0); value <= Math.min(max, MAX_ROOM_VALUE); value++) {
+            if (bitmaps[value] != null) {
+                rows.or(bitmaps[value]);
+            }
+        }
+        return rows;
+    }
+
+    private RowComparator comparatorFor(Sort sort) {
+        RowComparator byId = (a, b) -> Long.compare(ids[a], ids[b]);
+        RowComparator comparator = null;
+        for (Sort.Order order : sort) {
+            RowComparator next = switch (order.getProperty()) {
+                case "price" -> (a, b) -> Long.compare(sortKey(prices[a]), sortKey(prices[b]));
+                case "squareFootage" -> (a, b) -> Long.compare(sortKey(squareFootage[a]), sortKey(squareFootage[b]));
+                case "bedrooms" -> (a, b) -> Byte.compare(bedrooms[a], bedrooms[b]);
+                case "bathrooms" -> (a, b) -> Byte.compare(bathrooms[a], bathrooms[b]);
+                default -> byId;
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private void put(Property property) {
+        Integer existing = rowsById.get(property.getId());
+        int row;
+        if (existing != null) {
+            row = existing;
+            unindexRooms(row);
+        } else {
+            row = allocateRow();
+        }
+
+        ids[row] = property.getId();
+        prices[row] = property.getPrice() != null ? property.getPrice() : 0;
+        squareFootage[row] = property.getSquareFootage() != null ? property.getSquareFootage() : 0;
+        bedrooms[row] = toRoomCount(property.getBedrooms());
+        bathrooms[row] = toRoomCount(property.getBathrooms());
+        addresses[row] = property.getAddress() != null ? property.getAddress().toLowerCase(Locale.ROOT) : "";
+        indexRooms(row);
+
+        rowsById.put(property.getId(), row);
+        liveRows.set(row);
+        staleRows.set(row);
+    }
+
+    private void remove(Long id) {
+        Integer row = rowsById.remove(id);
+        if (row == null) {
+            return;
+        }
+        unindexRooms(row);
+        addresses[row] = null;
+        liveRows.clear(row);
+        staleRows.set(row);
+        freeRows.set(row);
+    }
+
+    private int allocateRow() {
+        int row = freeRows.nextSetBit(0);
+        if (row >= 0) {
+            freeRows.clear(row);
+            return row;
+        }
+        if (rowCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            squareFootage = Arrays.copyOf(squareFootage, capacity);
+            bedrooms = Arrays.copyOf(bedrooms, capacity);
+            bathrooms = Arrays.copyOf(bathrooms, capacity);
+            addresses = Arrays.copyOf(addresses, capacity);
+        }
+        return rowCount++;
+    }
+
+    private void indexRooms(int row) {
+        bitmap(bedroomRows, bedrooms[row]).set(row);
+        bitmap(bathroomRows, bathrooms[row]).set(row);
+    }
+
+    private void unindexRooms(int row) {
+        bitmap(bedroomRows, bedrooms[row]).clear(row);
+        bitmap(bathroomRows, bathrooms[row]).clear(row);
+    }
+
+    private static BitSet bitmap(BitSet[] bitmaps, byte value) {
+        if (bitmaps[value] == null) {
+            bitmaps[value] = new BitSet();
+        }
+        return bitmaps[value];
+    }
+
+    private void rebuildSortedColumns() {
+        priceColumn = SortedColumn.build(liveRows, row -> sortKey(prices[row]));
+        sizeColumn = SortedColumn.build(liveRows, row -> sortKey(squareFootage[row]));
+        staleRows.clear();
+    }
+
+    private void clear() {
+        rowsById.clear();
+        liveRows.clear();
+        freeRows.clear();
+        staleRows.clear();
+        Arrays.fill(bedroomRows, null);
+        Arrays.fill(bathroomRows, null);
+        Arrays.fill(addresses, null);
+        rowCount = 0;
+    }
+
+    private static byte toRoomCount(Integer value) {
+        if (value == null || value < 0) {
+            return 0;
+        }
+        return (byte) Math.min(value, MAX_ROOM_VALUE);
+    }
+
+    /**
+     * Maps a double onto a long that orders the same way, negatives included, so that the
+     * sorted columns compare exact values. Negative zero is folded into zero, which the
+     * database treats as equal.
+     */
+    static long sortKey(double value) {
+        long bits = Double.doubleToLongBits(value + 0.0);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * A column's values in ascending order alongside the row slot each value belongs to.
+     */
+    static final class SortedColumn {
+        static final SortedColumn EMPTY = new SortedColumn(new long[0], new int[0]);
+
+        private final long[] keys;
+        private final int[] rows;
+
+        private SortedColumn(long[] keys, int[] rows) {
+            this.keys = keys;
+            this.rows = rows;
+        }
+
+        static SortedColumn build(BitSet liveRows, IntToLongFunction key) {
+            int[] rows = RowSorter.sort(liveRows.stream().toArray(),
+                    (a, b) -> Long.compare(key.applyAsLong(a), key.applyAsLong(b)));
+            long[] keys = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                keys[i] = key.applyAsLong(rows[i]);
+            }
+            return new SortedColumn(keys, rows);
+        }
+
+        BitSet range(long low, long high) {
+            BitSet result = new BitSet();
+            for (int i = lowerBound(low); i < keys.length && keys[i] <= high; i++) {
+                result.set(rows[i]);
+            }
+            return result;
+        }
+
+        private int lowerBound(long key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+
+import java.util.Locale;
+
+/**
+ * Evaluates search criteria against a single property in memory, mirroring
+ * {@link PropertySpecifications#matching}. The answer errs towards "may match": free-text
+ * queries are not evaluated and distance filters are checked against the enclosing box,
+ * so a false result always means the property cannot appear in the search.
+ */
+final class PropertyCriteriaMatcher {
+
+    private PropertyCriteriaMatcher() {
+    }
+
+    static boolean mayMatch(PropertySearchCriteria criteria, Property property) {
+        if (property == null) {
+            return false;
+        }
+        String address = criteria.getAddress();
+        if (address != null && !address.isEmpty() && (property.getAddress() == null
+                || !property.getAddress().toLowerCase(Locale.ROOT).contains(address.toLowerCase(Locale.ROOT)))) {
+            return false;
+        }
+        // The text query is left to the database's parser, so it never rules a property out
+        return atLeast(property.getPrice(), criteria.getMinPrice())
+                && atMost(property.getPrice(), criteria.getMaxPrice())
+                && atLeast(property.getSquareFootage(), criteria.getMinSize())
+                && atMost(property.getSquareFootage(), criteria.getMaxSize())
+                && atLeast(property.getBedrooms(), criteria.getBedrooms())
+                && atMost(property.getBedrooms(), criteria.getBedrooms())
+                && atMost(property.getBedrooms(), criteria.getMaxRooms())
+                && atLeast(property.getBathrooms(), criteria.getMinBathrooms())
+                && atMost(property.getBathrooms(), criteria.getMaxBathrooms())
+                && withinLocation(criteria, property);
+    }
+
+    private static boolean withinLocation(PropertySearchCriteria criteria, Property property) {
+        if (!criteria.hasBoundingBox() && !criteria.hasRadius()) {
+            return true;
+        }
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+            return false;
+        }
+        if (criteria.hasBoundingBox() && !contains(GeoBox.of(criteria), property)) {
+            return false;
+        }
+        return !criteria.hasRadius() || contains(
+                GeoBox.around(criteria.getLatitude(), criteria.getLongitude(), criteria.getRadiusMiles()), property);
+    }
+
+    private static boolean contains(GeoBox box, Property property) {
+        return property.getLongitude() >= box.minLongitude() && property.getLongitude() <= box.maxLongitude()
+                && property.getLatitude() >= box.minLatitude() && property.getLatitude() <= box.maxLatitude();
+    }
+
+    private static <T extends Comparable<T>> boolean atLeast(T value, T bound) {
+        return bound == null || (value != null && value.compareTo(bound) >= 0);
+    }
+
+    private static <T extends Comparable<T>> boolean atMost(T value, T bound) {
+        return bound == null || (value != null && value.compareTo(bound) <= 0);
+    }
+}
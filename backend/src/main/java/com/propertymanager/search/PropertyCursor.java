@@ -0,0 +1,150 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySummary;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Opaque keyset pagination cursor: the sort key and id of the last row on a page.
+ * <p>
+ * A page is always ordered by a single sort property with the id as tie-breaker, so the
+ * next page is the rows strictly after {@code (value, id)} in that order. The seek predicate
+ * carries a redundant {@code key >= value} bound so Postgres can start a range scan on a
+ * {@code (key, id)} index instead of evaluating the OR for every row.
+ */
+public final class PropertyCursor {
+
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "price", "squareFootage", "bedrooms", "bathrooms", "address");
+    private static final String SEPARATOR = "|";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final long id;
+    private final Object value;
+
+    private PropertyCursor(String property, Sort.Direction direction, long id, Object value) {
+        this.property = property;
+        this.direction = direction;
+        this.id = id;
+        this.value = value;
+    }
+
+    /**
+     * Validates a requested sort for cursor pagination.
+     *
+     * @return the single sort order to page by, defaulting to ascending id
+     * @throws IllegalArgumentException if the sort has several orders or an unsupported property
+     */
+    public static Sort.Order orderFor(Sort sort) {
+        Iterator<Sort.Order> orders = sort.iterator();
+        if (!orders.hasNext()) {
+            return Sort.Order.asc("id");
+        }
+        Sort.Order order = orders.next();
+        if (orders.hasNext()) {
+            throw new IllegalArgumentException("Cursor pagination supports a single sort property");
+        }
+        if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Cursor pagination does not support sorting by " + order.getProperty());
+        }
+        return order;
+    }
+
+    /**
+     * @return the full ordering of a cursor page: the sort property, then id in the same direction
+     */
+    public static Sort sortFor(Sort.Order order) {
+        if ("id".equals(order.getProperty())) {
+            return Sort.by(order);
+        }
+        return Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+    }
+
+    public static PropertyCursor after(Property last, Sort.Order order) {
+        Object value = switch (order.getProperty()) {
+            case "price" -> last.getPrice();
+            case "squareFootage" -> last.getSquareFootage();
+            case "bedrooms" -> last.getBedrooms();
+            case "bathrooms" -> last.getBathrooms();
+            case "address" -> last.getAddress();
+            default -> last.getId();
+        };
+        return new PropertyCursor(order.getProperty(), order.getDirection(), last.getId(), value);
+    }
+
+    public static PropertyCursor after(PropertySummary last, Sort.Order order) {
+        Object value = switch (order.getProperty()) {
+            case "price" -> last.price();
+            case "squareFootage" -> last.squareFootage();
+            case "bedrooms" -> last.bedrooms();
+            case "bathrooms" -> last.bathrooms();
+            case "address" -> last.address();
+            default -> last.id();
+        };
+        return new PropertyCursor(order.getProperty(), order.getDirection(), last.id(), value);
+    }
+
+    public static PropertyCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4 || !SORTABLE_PROPERTIES.contains(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String property = parts[0];
+            Object value = switch (property) {
+                case "price", "squareFootage" -> Double.valueOf(parts[3]);
+                case "bedrooms", "bathrooms" -> Integer.valueOf(parts[3]);
+                case "address" -> parts[3];
+                default -> Long.valueOf(parts[3]);
+            };
+            return new PropertyCursor(property, Sort.Direction.fromString(parts[1]), Long.parseLong(parts[2]), value);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 decoding errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean matches(Sort.Order order) {
+        return property.equals(order.getProperty()) && direction == order.getDirection();
+    }
+
+    /**
+     * @return a specification selecting the rows that follow this cursor
+     */
+    public Specification<Property> toSpecification() {
+        return (root, query, cb) -> seek(root, cb);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seek(Root<Property> root, CriteriaBuilder cb) {
+        Expression<Long> idPath = root.get("id");
+        boolean ascending = direction.isAscending();
+        Predicate idBeyond = ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+        if ("id".equals(property)) {
+            return idBeyond;
+        }
+
+        Expression<Comparable> key = root.<Comparable>get(property);
+        Comparable keyValue = (Comparable) value;
+        Predicate bound = ascending ? cb.greaterThanOrEqualTo(key, keyValue) : cb.lessThanOrEqualTo(key, keyValue);
+        Predicate beyond = ascending ? cb.greaterThan(key, keyValue) : cb.lessThan(key, keyValue);
+        return cb.and(bound, cb.or(beyond, cb.and(cb.equal(key, keyValue), idBeyond)));
+    }
+}
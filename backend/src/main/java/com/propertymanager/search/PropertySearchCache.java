@@ -0,0 +1,157 @@
+package com.propertymanager.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import com.propertymanager.service.PropertyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of offset search pages, in front of
+ * {@link PropertyService#searchPropertySummaries(PropertySearchCriteria, Pageable)}.
+ * Entries are keyed on the normalized criteria plus the pageable, weighed by an estimate
+ * of their size in bytes and evicted by Caffeine's size-aware TinyLFU policy.
+ * <p>
+ * A property write evicts only the entries whose criteria matched the property before or
+ * after the write, since no other result page can have changed. Hits, misses and
+ * evictions are published to Micrometer under the cache name {@code property.search}.
+ */
+@Component
+public class PropertySearchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertySearchCache.class);
+
+    /**
+     * Request header that skips the cache when set to {@value #BYPASS}, and response header
+     * reporting the outcome.
+     */
+    public static final String HEADER = "X-Search-Cache";
+    public static final String BYPASS = "bypass";
+
+    public enum Outcome { HIT, MISS, BYPASS }
+
+    public record Result(Page<PropertySummary> page, Outcome outcome) {
+    }
+
+    private record Key(PropertySearchCriteria criteria, Pageable pageable) {
+    }
+
+    private final PropertyService propertyService;
+    private final boolean enabled;
+    private final Cache<Key, Page<PropertySummary>> cache;
+    // Bumped by every write, so a page loaded while a write committed is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public PropertySearchCache(PropertyService propertyService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.search.cache.enabled:true}") boolean enabled,
+                               @Value("${app.search.cache.max-size-mb:32}") long maxSizeMb,
+                               @Value("${app.search.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.propertyService = propertyService;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((Key key, Page<PropertySummary> page) -> weigh(page))
+                // Writes that bypass the service (scripts, other nodes) are bounded by the TTL
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "property.search");
+    }
+
+    public Result search(PropertySearchCriteria criteria, Pageable pageable, boolean bypass) {
+        if (!enabled || bypass) {
+            return new Result(propertyService.searchPropertySummaries(criteria, pageable), Outcome.BYPASS);
+        }
+
+        Key key = new Key(criteria.normalized(), pageable);
+        Page<PropertySummary> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return new Result(cached, Outcome.HIT);
+        }
+
+        long loadedAt = generation.get();
+        Page<PropertySummary> page = propertyService.searchPropertySummaries(criteria, pageable);
+        if (generation.get() == loadedAt) {
+            cache.put(key, page);
+        }
+        return new Result(page, Outcome.MISS);
+    }
+
+    /**
+     * Evicts the pages a committed write may have changed. Without a snapshot of the
+     * property before an update or deletion the old values are unknown, so every page goes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        evict(List.of(event));
+    }
+
+    /**
+     * Evicts the pages any write in the batch may have changed, in one pass over the cache.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertiesChanged(PropertiesChangedEvent event) {
+        evict(event.getChanges());
+    }
+
+    private void evict(List<PropertyChangedEvent> changes) {
+        generation.incrementAndGet();
+        List<Property> affected = new ArrayList<>(2 * changes.size());
+        for (PropertyChangedEvent change : changes) {
+            if (change.getType() != PropertyChangedEvent.Type.CREATED && change.getPrevious() == null) {
+                cache.invalidateAll();
+                return;
+            }
+            if (change.getPrevious() != null) {
+                affected.add(change.getPrevious());
+            }
+            if (change.getProperty() != null) {
+                affected.add(change.getProperty());
+            }
+        }
+        cache.asMap().keySet().removeIf(key -> affected.stream()
+                .anyMatch(property -> PropertyCriteriaMatcher.mayMatch(key.criteria(), property)));
+        logger.debug("Search cache holds {} pages after changes to {} properties",
+                cache.estimatedSize(), changes.size());
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Rough retained size of a page: a fixed overhead per object plus two bytes per
+     * character of text.
+     */
+    static int weigh(Page<PropertySummary> page) {
+        long bytes = 256;
+        for (PropertySummary summary : page) {
+            bytes += 256 + 2L * (length(summary.address()) + length(summary.descriptionPreview())
+                    + length(summary.imageUrl()));
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,45 @@
+package com.propertymanager.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers PostgreSQL search operators with Hibernate so that Specifications can use them.
+ * The full-text functions take only the raw user query, which is parsed with
+ * {@code websearch_to_tsquery}, and read the {@code search_vector} column by name: it is not
+ * mapped on the entity, so that it is never selected or cached, and they must only be used
+ * in queries with a single properties table. The geographic functions take
+ * longitude before latitude, matching {@code point(x, y)}; distances come from the
+ * earthdistance {@code <@>} operator.
+ * Registered through {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class PropertySearchFunctions implements FunctionContributor {
+
+    public static final String TEXT_SEARCH_CONFIG = "english";
+    public static final String MATCH = "fts_match";
+    public static final String RANK = "fts_rank";
+    public static final String WITHIN_BOX = "geo_within_box";
+    public static final String DISTANCE_MILES = "geo_distance_miles";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        String query = "websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', ?1)";
+
+        // fts_match(query) and fts_rank(query)
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH, "(search_vector @@ " + query + ")", types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(
+                RANK, "ts_rank(search_vector, " + query + ")", types.resolve(StandardBasicTypes.DOUBLE));
+
+        // geo_within_box(longitude, latitude, minLongitude, minLatitude, maxLongitude, maxLatitude)
+        functionContributions.getFunctionRegistry().registerPattern(
+                WITHIN_BOX, "(point(?1, ?2) <@ box(point(?3, ?4), point(?5, ?6)))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        // geo_distance_miles(longitude, latitude, centreLongitude, centreLatitude)
+        functionContributions.getFunctionRegistry().registerPattern(
+                DISTANCE_MILES, "(point(?1, ?2) <@> point(?3, ?4))", types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
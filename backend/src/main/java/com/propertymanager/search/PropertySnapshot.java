@@ -0,0 +1,91 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the columns an in-memory index needs from every property, for the indexes to load
+ * from at startup.
+ * <p>
+ * Rows come straight from JDBC rather than as entities, {@value #FETCH_SIZE} at a time from
+ * a cursor, so a million properties never sit in memory at once and the description and
+ * full-text columns are never read. The read runs in a read-write transaction so that it
+ * goes to the primary: an index must not load from a replica that has yet to see a write
+ * whose change event it has already missed.
+ */
+@Component
+public class PropertySnapshot {
+
+    static final int FETCH_SIZE = 5_000;
+
+    public enum Column {
+        ADDRESS("address"),
+        PRICE("price"),
+        SQUARE_FOOTAGE("square_footage"),
+        BEDROOMS("bedrooms"),
+        BATHROOMS("bathrooms"),
+        LATITUDE("latitude"),
+        LONGITUDE("longitude");
+
+        private final String name;
+
+        Column(String name) {
+            this.name = name;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PropertySnapshot(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // The driver only fetches in batches inside a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Passes every property, in id order, to the action as a detached {@link Property} with
+     * only its id and the given columns set.
+     *
+     * @return the number of properties read
+     */
+    public long forEach(Set<Column> columns, Consumer<Property> action) {
+        String sql = "SELECT id" + columns.stream().map(column -> ", " + column.name).collect(Collectors.joining())
+                + " FROM properties ORDER BY id";
+        AtomicLong count = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql, resultSet -> {
+            action.accept(read(resultSet, columns));
+            count.incrementAndGet();
+        }));
+        return count.get();
+    }
+
+    private static Property read(ResultSet resultSet, Set<Column> columns) throws SQLException {
+        Property property = new Property();
+        property.setId(resultSet.getLong("id"));
+        for (Column column : columns) {
+            switch (column) {
+                case ADDRESS -> property.setAddress(resultSet.getString(column.name));
+                case PRICE -> property.setPrice(resultSet.getObject(column.name, Double.class));
+                case SQUARE_FOOTAGE -> property.setSquareFootage(resultSet.getObject(column.name, Double.class));
+                case BEDROOMS -> property.setBedrooms(resultSet.getObject(column.name, Integer.class));
+                case BATHROOMS -> property.setBathrooms(resultSet.getObject(column.name, Integer.class));
+                case LATITUDE -> property.setLatitude(resultSet.getObject(column.name, Double.class));
+                case LONGITUDE -> property.setLongitude(resultSet.getObject(column.name, Double.class));
+            }
+        }
+        return property;
+    }
+}
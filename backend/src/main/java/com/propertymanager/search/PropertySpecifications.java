@@ -0,0 +1,142 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds JPA Specifications for the property search filters.
+ * The address filter compiles to {@code lower(address) LIKE '%term%'}, which the
+ * {@code idx_properties_address_trgm} trigram index serves; the free-text filter matches
+ * the {@code search_vector} column through {@code idx_properties_search_vector}, and the
+ * location filters are served by the GiST index {@code idx_properties_location}.
+ */
+public final class PropertySpecifications {
+
+    /**
+     * Sort property that orders results by how well they match the free-text query, or by
+     * address similarity when only an address term is given.
+     */
+    public static final String RELEVANCE = "relevance";
+
+    static final char LIKE_ESCAPE = '\\';
+
+    private PropertySpecifications() {
+    }
+
+    public static Specification<Property> matching(PropertySearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            String address = criteria.getAddress();
+            if (address != null && !address.isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get("address")), containsPattern(address), LIKE_ESCAPE));
+            }
+            if (StringUtils.hasText(criteria.getText())) {
+                predicates.add(cb.isTrue(cb.function(PropertySearchFunctions.MATCH, Boolean.class,
+                        cb.literal(criteria.getText()))));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinSize() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("squareFootage"), criteria.getMinSize()));
+            }
+            if (criteria.getMaxSize() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("squareFootage"), criteria.getMaxSize()));
+            }
+            if (criteria.getBedrooms() != null) {
+                predicates.add(cb.equal(root.get("bedrooms"), criteria.getBedrooms()));
+            }
+            if (criteria.getMaxRooms() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("bedrooms"), criteria.getMaxRooms()));
+            }
+            if (criteria.getMinBathrooms() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("bathrooms"), criteria.getMinBathrooms()));
+            }
+            if (criteria.getMaxBathrooms() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("bathrooms"), criteria.getMaxBathrooms()));
+            }
+
+            if (criteria.hasBoundingBox()) {
+                predicates.add(withinBox(root, cb, GeoBox.of(criteria)));
+            }
+            if (criteria.hasRadius()) {
+                predicates.add(withinBox(root, cb,
+                        GeoBox.around(criteria.getLatitude(), criteria.getLongitude(), criteria.getRadiusMiles())));
+                Expression<Double> distance = cb.function(PropertySearchFunctions.DISTANCE_MILES, Double.class,
+                        root.get("longitude"), root.get("latitude"),
+                        cb.literal(criteria.getLongitude()), cb.literal(criteria.getLatitude()));
+                predicates.add(cb.lessThanOrEqualTo(distance, criteria.getRadiusMiles()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Predicate withinBox(Root<Property> root, CriteriaBuilder cb, GeoBox box) {
+        return cb.isTrue(cb.function(PropertySearchFunctions.WITHIN_BOX, Boolean.class,
+                root.get("longitude"), root.get("latitude"),
+                cb.literal(box.minLongitude()), cb.literal(box.minLatitude()),
+                cb.literal(box.maxLongitude()), cb.literal(box.maxLatitude())));
+    }
+
+    /**
+     * Orders results by relevance, best match first, then by {@code thenBy}: by full-text
+     * rank when the criteria carry a text query, otherwise by trigram similarity between
+     * the address and the address term. Adds no predicate, so it is combined with
+     * {@link #matching} rather than used alone.
+     */
+    public static Specification<Property> rankedByRelevance(PropertySearchCriteria criteria, Sort thenBy) {
+        return (root, query, cb) -> {
+            // Count queries share the specification but must not carry an ORDER BY
+            if (!Long.class.equals(query.getResultType())) {
+                Expression<Double> score = StringUtils.hasText(criteria.getText())
+                        ? cb.function(PropertySearchFunctions.RANK, Double.class, cb.literal(criteria.getText()))
+                        : cb.function("similarity", Double.class,
+                                cb.lower(root.get("address")), cb.literal(criteria.getAddress().toLowerCase(Locale.ROOT)));
+                List<Order> orders = new ArrayList<>();
+                orders.add(cb.desc(score));
+                orders.addAll(QueryUtils.toOrders(thenBy, root, cb));
+                query.orderBy(orders);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Restricts results to the given ids, such as a page of ids answered by an index.
+     */
+    public static Specification<Property> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Builds a case-insensitive substring LIKE pattern, escaping wildcards in the term
+     * so that they match literally. The term is lower-cased in the root locale, as the
+     * database's lower() is, whatever the server's default locale.
+     */
+    static String containsPattern(String term) {
+        String escaped = term.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,137 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SearchFacet;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Native SQL counterpart of {@link PropertySpecifications} for queries that bypass JPA,
+ * such as planner estimates and facet counts. Produces a WHERE clause over the
+ * {@code properties} table with positional JDBC parameters.
+ * <p>
+ * Conditions on a facetable column are tagged with their {@link SearchFacet}, so that
+ * facet queries can split the filter into the part shared by every facet and the parts
+ * each facet must ignore.
+ */
+public final class PropertySqlFilter {
+
+    private record Condition(String sql, List<Object> parameters, SearchFacet facet) {
+    }
+
+    private final List<Condition> conditions = new ArrayList<>();
+
+    private PropertySqlFilter() {
+    }
+
+    public static PropertySqlFilter of(PropertySearchCriteria criteria) {
+        PropertySqlFilter filter = new PropertySqlFilter();
+
+        String address = criteria.getAddress();
+        if (address != null && !address.isEmpty()) {
+            filter.add("lower(address) LIKE ? ESCAPE '" + PropertySpecifications.LIKE_ESCAPE + "'",
+                    PropertySpecifications.containsPattern(address));
+        }
+        if (StringUtils.hasText(criteria.getText())) {
+            filter.add("search_vector @@ websearch_to_tsquery('"
+                    + PropertySearchFunctions.TEXT_SEARCH_CONFIG + "', ?)", criteria.getText());
+        }
+        if (criteria.getMinPrice() != null) {
+            filter.add("price >= ?", criteria.getMinPrice(), SearchFacet.PRICE);
+        }
+        if (criteria.getMaxPrice() != null) {
+            filter.add("price <= ?", criteria.getMaxPrice(), SearchFacet.PRICE);
+        }
+        if (criteria.getMinSize() != null) {
+            filter.add("square_footage >= ?", criteria.getMinSize());
+        }
+        if (criteria.getMaxSize() != null) {
+            filter.add("square_footage <= ?", criteria.getMaxSize());
+        }
+        if (criteria.getBedrooms() != null) {
+            filter.add("bedrooms = ?", criteria.getBedrooms(), SearchFacet.BEDROOMS);
+        }
+        if (criteria.getMaxRooms() != null) {
+            filter.add("bedrooms <= ?", criteria.getMaxRooms(), SearchFacet.BEDROOMS);
+        }
+        if (criteria.getMinBathrooms() != null) {
+            filter.add("bathrooms >= ?", criteria.getMinBathrooms(), SearchFacet.BATHROOMS);
+        }
+        if (criteria.getMaxBathrooms() != null) {
+            filter.add("bathrooms <= ?", criteria.getMaxBathrooms(), SearchFacet.BATHROOMS);
+        }
+        if (criteria.hasBoundingBox()) {
+            filter.addBox(GeoBox.of(criteria));
+        }
+        if (criteria.hasRadius()) {
+            filter.addBox(GeoBox.around(criteria.getLatitude(), criteria.getLongitude(), criteria.getRadiusMiles()));
+            filter.conditions.add(new Condition("(point(longitude, latitude) <@> point(?, ?)) <= ?",
+                    List.of(criteria.getLongitude(), criteria.getLatitude(), criteria.getRadiusMiles()), null));
+        }
+        return filter;
+    }
+
+    private void addBox(GeoBox box) {
+        conditions.add(new Condition("point(longitude, latitude) <@ box(point(?, ?), point(?, ?))",
+                List.of(box.minLongitude(), box.minLatitude(), box.maxLongitude(), box.maxLatitude()), null));
+    }
+
+    private void add(String condition, Object parameter) {
+        add(condition, parameter, null);
+    }
+
+    private void add(String condition, Object parameter, SearchFacet facet) {
+        conditions.add(new Condition(condition, List.of(parameter), facet));
+    }
+
+    /**
+     * @return the conditions that do not belong to any facet
+     */
+    public PropertySqlFilter withoutFacets() {
+        return retaining(condition -> condition.facet() == null);
+    }
+
+    /**
+     * @param excluded the facet whose conditions to leave out, or null to keep every facet
+     * @return the facet conditions other than those of {@code excluded}
+     */
+    public PropertySqlFilter facetsExcept(SearchFacet excluded) {
+        return retaining(condition -> condition.facet() != null && condition.facet() != excluded);
+    }
+
+    private PropertySqlFilter retaining(Predicate<Condition> predicate) {
+        PropertySqlFilter filter = new PropertySqlFilter();
+        conditions.stream().filter(predicate).forEach(filter.conditions::add);
+        return filter;
+    }
+
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * @return the conditions joined with AND, or {@code TRUE} when there are none
+     */
+    public String conditionClause() {
+        return conditions.isEmpty()
+                ? "TRUE"
+                : String.join(" AND ", conditions.stream().map(Condition::sql).toList());
+    }
+
+    /**
+     * @return the conditions joined with AND, prefixed with " WHERE ", or an empty string
+     */
+    public String whereClause() {
+        return conditions.isEmpty() ? "" : " WHERE " + conditionClause();
+    }
+
+    /**
+     * @return the values to bind, in the order their placeholders appear
+     */
+    public List<Object> parameters() {
+        return conditions.stream().flatMap(condition -> condition.parameters().stream()).toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.propertymanager.search;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch over positive values with a relative-error guarantee, after
+ * DDSketch. Values are counted in logarithmic buckets {@code (γ^(i-1), γ^i]} with
+ * {@code γ = (1 + α) / (1 - α)}, so every quantile it reports is within a factor
+ * {@code α} of a value actually at that rank.
+ * <p>
+ * Unlike t-digest or KLL, bucket counts can be decremented, so a value can be removed
+ * exactly when the property it came from is updated or deleted. Two sketches with the same
+ * accuracy merge by adding their bucket counts. Prices from tens of thousands to tens of
+ * millions span fewer than 400 buckets at 1% accuracy.
+ */
+final class QuantileSketch {
+
+    static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long count;
+
+    QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    void add(double value) {
+        buckets.merge(bucketOf(value), 1L, Long::sum);
+        count++;
+    }
+
+    /**
+     * Removes one occurrence of a value previously added.
+     *
+     * @return false if the value's bucket was already empty
+     */
+    boolean remove(double value) {
+        int bucket = bucketOf(value);
+        Long current = buckets.get(bucket);
+        if (current == null) {
+            return false;
+        }
+        if (current == 1) {
+            buckets.remove(bucket);
+        } else {
+            buckets.put(bucket, current - 1);
+        }
+        count--;
+        return true;
+    }
+
+    void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracies");
+        }
+        other.buckets.forEach((bucket, bucketCount) -> buckets.merge(bucket, bucketCount, Long::sum));
+        count += other.count;
+    }
+
+    long count() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @param quantile a fraction between 0 and 1, such as 0.5 for the median
+     * @return an estimate within the relative accuracy of the value at that rank, or null
+     *         when the sketch is empty
+     */
+    Double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count == 0) {
+            return null;
+        }
+        double rank = quantile * (count - 1);
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : buckets.entrySet()) {
+            seen += entry.getValue();
+            if (seen > rank) {
+                return valueOf(entry.getKey());
+            }
+        }
+        return valueOf(buckets.lastKey());
+    }
+
+    /**
+     * Counts the values below a bound. Values in the bound's own bucket are counted as not
+     * below it, so the answer is exact up to values within the relative accuracy of the bound.
+     */
+    long countBelow(double bound) {
+        if (bound <= 0) {
+            return 0;
+        }
+        return buckets.headMap(bucketOf(bound)).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private int bucketOf(double value) {
+        if (!(value > 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Sketch values must be positive and finite");
+        }
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * The point of the bucket equidistant, in relative terms, from both of its bounds.
+     */
+    private double valueOf(int bucket) {
+        return 2 * Math.pow(gamma, bucket) / (gamma + 1);
+    }
+}
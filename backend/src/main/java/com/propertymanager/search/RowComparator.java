@@ -0,0 +1,21 @@
+package com.propertymanager.search;
+
+/**
+ * Compares two row slots of a columnar index without boxing them.
+ */
+@FunctionalInterface
+interface RowComparator {
+
+    int compare(int leftRow, int rightRow);
+
+    default RowComparator reversed() {
+        return (leftRow, rightRow) -> compare(rightRow, leftRow);
+    }
+
+    default RowComparator thenComparing(RowComparator next) {
+        return (leftRow, rightRow) -> {
+            int result = compare(leftRow, rightRow);
+            return result != 0 ? result : next.compare(leftRow, rightRow);
+        };
+    }
+}
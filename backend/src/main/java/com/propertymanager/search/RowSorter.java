@@ -0,0 +1,77 @@
+package com.propertymanager.search;
+
+/**
+ * Sorts primitive row arrays with a {@link RowComparator}.
+ * A bounded max-heap keeps only the first k rows, so fetching one page out of a large
+ * match set costs O(n log k) rather than a full sort.
+ */
+final class RowSorter {
+
+    private RowSorter() {
+    }
+
+    static int[] sort(int[] rows, RowComparator comparator) {
+        return smallest(rows, rows.length, comparator);
+    }
+
+    /**
+     * Returns the {@code k} smallest rows in ascending order.
+     */
+    static int[] smallest(int[] rows, int k, RowComparator comparator) {
+        int[] heap = new int[Math.max(0, Math.min(k, rows.length))];
+        if (heap.length == 0) {
+            return heap;
+        }
+
+        int size = 0;
+        for (int row : rows) {
+            if (size < heap.length) {
+                heap[size] = row;
+                siftUp(heap, size++, comparator);
+            } else if (comparator.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, 0, size, comparator);
+            }
+        }
+
+        // Repeatedly move the largest remaining row to the back to leave the heap sorted
+        for (int end = size - 1; end > 0; end--) {
+            swap(heap, 0, end);
+            siftDown(heap, 0, end, comparator);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int index, RowComparator comparator) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int index, int size, RowComparator comparator) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int largest = right < size && comparator.compare(heap[right], heap[left]) > 0 ? right : left;
+            if (comparator.compare(heap[largest], heap[index]) <= 0) {
+                return;
+            }
+            swap(heap, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
@@ -0,0 +1,292 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SavedSearch;
+import com.propertymanager.repository.SavedSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Finds the saved searches a property matches without evaluating every one of them.
+ * <p>
+ * Each saved search is indexed once, in an {@link IntervalTree} for the numeric dimension
+ * in which it is most selective (an exact bedroom count, say, or a narrow price band).
+ * Percolating a property stabs each tree with the property's value for that dimension, so
+ * only searches whose most selective range already contains the property are considered;
+ * those are then checked against the remaining filters in memory. Searches with no numeric
+ * range are always candidates.
+ * <p>
+ * Searches saved since the trees were built sit in a pending list that is checked in full,
+ * and deleted searches are skipped until the next rebuild; both trigger a rebuild once they
+ * grow past the square root of the number of searches.
+ * <p>
+ * Searches saved or deleted through this node are applied as they commit. Those saved or
+ * deleted through other nodes are picked up when the searches are reloaded from the database,
+ * every {@code app.saved-search.refresh-seconds}.
+ */
+@Component
+public class SavedSearchPercolator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchPercolator.class);
+    private static final int MIN_REBUILD_THRESHOLD = 64;
+
+    /**
+     * Searches whose result in memory is exact, and those that also have a free-text or
+     * distance filter and so must be confirmed against the database.
+     */
+    public record Percolation(List<Long> matched, List<Long> unconfirmed) {
+    }
+
+    /**
+     * A numeric dimension searches can be indexed on. The span is a typical value range,
+     * used only to compare how selective a search's ranges are across dimensions.
+     */
+    enum Dimension {
+        PRICE(Property::getPrice, 2_000_000, 0),
+        SIZE(Property::getSquareFootage, 5_000, 0),
+        BEDROOMS(property -> toDouble(property.getBedrooms()), 8, 1),
+        BATHROOMS(property -> toDouble(property.getBathrooms()), 6, 1);
+
+        private final Function<Property, Double> value;
+        private final double span;
+        private final double resolution;
+
+        Dimension(Function<Property, Double> value, double span, double resolution) {
+            this.value = value;
+            this.span = span;
+            this.resolution = resolution;
+        }
+
+        double[] bounds(PropertySearchCriteria criteria) {
+            return switch (this) {
+                case PRICE -> range(criteria.getMinPrice(), criteria.getMaxPrice());
+                case SIZE -> range(criteria.getMinSize(), criteria.getMaxSize());
+                case BEDROOMS -> range(toDouble(criteria.getBedrooms()),
+                        min(toDouble(criteria.getBedrooms()), toDouble(criteria.getMaxRooms())));
+                case BATHROOMS -> range(toDouble(criteria.getMinBathrooms()), toDouble(criteria.getMaxBathrooms()));
+            };
+        }
+
+        /**
+         * Fraction of the typical range the bounds admit; smaller is more selective.
+         */
+        double selectivity(double[] bounds) {
+            double low = Math.max(bounds[0], 0);
+            double high = Math.min(bounds[1], span);
+            return Math.max(0, high - low + resolution) / span;
+        }
+    }
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PropertySearchCriteria> searches = new HashMap<>();
+    private final Map<Dimension, IntervalTree> trees = new EnumMap<>(Dimension.class);
+    private final List<Long> unbounded = new ArrayList<>();
+    private final List<Long> pending = new ArrayList<>();
+    private int removedSinceRebuild;
+    // Changes made while reloading, replayed over what was read; null when not reloading
+    private List<Runnable> changedWhileLoading;
+
+    public SavedSearchPercolator(SavedSearchRepository savedSearchRepository) {
+        this.savedSearchRepository = savedSearchRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+        logger.info("Indexed {} saved searches for percolation", size());
+    }
+
+    /**
+     * Reloads every saved search, picking up those saved or deleted through other nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.saved-search.refresh-seconds:60}",
+            initialDelayString = "${app.saved-search.refresh-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        reload();
+        logger.debug("Reloaded {} saved searches for percolation", size());
+    }
+
+    private synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<SavedSearch> saved;
+        try {
+            saved = savedSearchRepository.findAll();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            searches.clear();
+            saved.forEach(search -> searches.put(search.getId(), search.toCriteria()));
+            rebuild();
+            // Committed after the read began, so possibly missing from it
+            List<Runnable> changes = changedWhileLoading;
+            changedWhileLoading = null;
+            changes.forEach(Runnable::run);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(SavedSearch search) {
+        lock.writeLock().lock();
+        try {
+            apply(() -> {
+                searches.put(search.getId(), search.toCriteria());
+                pending.add(search.getId());
+                rebuildIfStale();
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long searchId) {
+        lock.writeLock().lock();
+        try {
+            apply(() -> {
+                if (searches.remove(searchId) != null) {
+                    removedSinceRebuild++;
+                    rebuildIfStale();
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Runnable change) {
+        change.run();
+        if (changedWhileLoading != null) {
+            changedWhileLoading.add(change);
+        }
+    }
+
+    public Percolation percolate(Property property) {
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new LinkedHashSet<>(unbounded);
+            candidates.addAll(pending);
+            trees.forEach((dimension, tree) -> {
+                Double value = dimension.value.apply(property);
+                if (value != null) {
+                    tree.stab(value, candidates::add);
+                }
+            });
+
+            List<Long> matched = new ArrayList<>();
+            List<Long> unconfirmed = new ArrayList<>();
+            for (Long id : candidates) {
+                PropertySearchCriteria criteria = searches.get(id);
+                // Deleted searches stay in the trees until the next rebuild
+                if (criteria == null || !PropertyCriteriaMatcher.mayMatch(criteria, property)) {
+                    continue;
+                }
+                if (StringUtils.hasText(criteria.getText()) || criteria.hasRadius()) {
+                    unconfirmed.add(id);
+                } else {
+                    matched.add(id);
+                }
+            }
+            return new Percolation(matched, unconfirmed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return searches.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuildIfStale() {
+        int threshold = Math.max(MIN_REBUILD_THRESHOLD, (int) Math.sqrt(searches.size()));
+        if (pending.size() + removedSinceRebuild > threshold) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        Map<Dimension, List<IntervalTree.Interval>> intervals = new EnumMap<>(Dimension.class);
+        unbounded.clear();
+        searches.forEach((id, criteria) -> {
+            Dimension best = null;
+            double[] bestBounds = null;
+            for (Dimension dimension : Dimension.values()) {
+                double[] bounds = dimension.bounds(criteria);
+                if (bounds != null && (best == null
+                        || dimension.selectivity(bounds) < best.selectivity(bestBounds))) {
+                    best = dimension;
+                    bestBounds = bounds;
+                }
+            }
+            if (best == null) {
+                unbounded.add(id);
+            } else if (bestBounds[0] <= bestBounds[1]) {
+                // An empty range (bedrooms above the max rooms, say) can never match
+                intervals.computeIfAbsent(best, key -> new ArrayList<>())
+                        .add(new IntervalTree.Interval(bestBounds[0], bestBounds[1], id));
+            }
+        });
+
+        trees.clear();
+        intervals.forEach((dimension, list) -> trees.put(dimension, IntervalTree.build(list)));
+        pending.clear();
+        removedSinceRebuild = 0;
+    }
+
+    /**
+     * @return the closed range between the bounds, open-ended where one is missing, or null
+     *         when the criteria do not constrain the dimension
+     */
+    private static double[] range(Double low, Double high) {
+        if (low == null && high == null) {
+            return null;
+        }
+        return new double[] {
+                low != null ? low : Double.NEGATIVE_INFINITY,
+                high != null ? high : Double.POSITIVE_INFINITY
+        };
+    }
+
+    private static Double min(Double a, Double b) {
+        return a == null ? b : b == null ? a : Math.min(a, b);
+    }
+
+    private static Double toDouble(Integer value) {
+        return value != null ? value.doubleValue() : null;
+    }
+}
@@ -0,0 +1,260 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds the properties most like a given one, from k-d trees over scaled feature vectors.
+ * <p>
+ * A property's features are its price and size on a log scale, its bedroom and bathroom
+ * counts and, when it has coordinates, its position. Each is divided by a fixed scale so that
+ * one unit means a comparable difference: a quarter dearer or larger, one more room, or
+ * {@value #LOCATION_SCALE_KM} km away. Fixed scales keep a vector independent of the rest of
+ * the data, so writes never re-normalise existing entries.
+ * <p>
+ * Two trees are kept: one over the core features of every property and one over core
+ * features plus position for those with coordinates. A located property is matched against
+ * the located tree first and topped up from the core tree; others use the core tree alone.
+ * Properties without a price, size or room counts are not indexed.
+ * <p>
+ * Changes that commit while the trees are loading are held back and applied once they are
+ * built, so that none is undone by an older row from the snapshot.
+ */
+@Component
+public class SimilarPropertyIndex {
+
+    public static final int MAX_RESULTS = 50;
+    static final double LOCATION_SCALE_KM = 5.0;
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarPropertyIndex.class);
+    private static final int CORE_DIMENSIONS = 4;
+    private static final int LOCATED_DIMENSIONS = CORE_DIMENSIONS + 2;
+    private static final double RATIO_SCALE = Math.log(1.25);
+    private static final double KM_PER_DEGREE = 111.2;
+
+    private final PropertySnapshot snapshot;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NearestNeighbourIndex core = new NearestNeighbourIndex(CORE_DIMENSIONS);
+    private final NearestNeighbourIndex located = new NearestNeighbourIndex(LOCATED_DIMENSIONS);
+    // Changes held back while loading, in the order they committed; null once loaded
+    private List<PropertyChangedEvent> pending;
+    private volatile boolean ready;
+
+    public SimilarPropertyIndex(PropertySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        VectorBuffer coreVectors = new VectorBuffer(CORE_DIMENSIONS);
+        VectorBuffer locatedVectors = new VectorBuffer(LOCATED_DIMENSIONS);
+        snapshot.forEach(EnumSet.of(PropertySnapshot.Column.PRICE, PropertySnapshot.Column.SQUARE_FOOTAGE,
+                PropertySnapshot.Column.BEDROOMS, PropertySnapshot.Column.BATHROOMS,
+                PropertySnapshot.Column.LATITUDE, PropertySnapshot.Column.LONGITUDE), property -> {
+            double[] features = coreFeatures(property);
+            if (features != null) {
+                coreVectors.add(property.getId(), features);
+                double[] withLocation = locatedFeatures(features, property);
+                if (withLocation != null) {
+                    locatedVectors.add(property.getId(), withLocation);
+                }
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            core.load(coreVectors.ids(), coreVectors.coordinates());
+            located.load(locatedVectors.ids(), locatedVectors.coordinates());
+            pending.forEach(this::apply);
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        logger.info("Similar property index loaded with {} properties, {} with locations",
+                coreVectors.size(), locatedVectors.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        applyAll(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertiesChanged(PropertiesChangedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    private void applyAll(List<PropertyChangedEvent> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+            } else {
+                changes.forEach(this::apply);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param limit the maximum number of ids, at most {@link #MAX_RESULTS}
+     * @return the ids of the most similar properties, closest first, excluding the property
+     *         itself; no ids if it is not indexed; empty while the index is still loading
+     */
+    public Optional<List<Long>> similarTo(Long propertyId, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            double[] coreQuery = core.pointOf(propertyId);
+            if (coreQuery == null) {
+                return Optional.of(List.of());
+            }
+            Set<Long> excluded = new HashSet<>();
+            excluded.add(propertyId);
+            List<Long> result = new ArrayList<>(limit);
+            double[] locatedQuery = located.pointOf(propertyId);
+            if (locatedQuery != null) {
+                result.addAll(located.nearest(locatedQuery, limit, excluded));
+                excluded.addAll(result);
+            }
+            if (result.size() < limit) {
+                result.addAll(core.nearest(coreQuery, limit - result.size(), excluded));
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return core.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(PropertyChangedEvent event) {
+        core.remove(event.getPropertyId());
+        located.remove(event.getPropertyId());
+        if (event.getType() != PropertyChangedEvent.Type.DELETED) {
+            put(event.getProperty());
+        }
+    }
+
+    private void put(Property property) {
+        double[] features = coreFeatures(property);
+        if (features == null) {
+            return;
+        }
+        core.put(property.getId(), features);
+        double[] withLocation = locatedFeatures(features, property);
+        if (withLocation != null) {
+            located.put(property.getId(), withLocation);
+        }
+    }
+
+    /**
+     * @return log price, log size and room counts, scaled; null if any is missing
+     */
+    static double[] coreFeatures(Property property) {
+        Double price = property.getPrice();
+        Double squareFootage = property.getSquareFootage();
+        if (price == null || price <= 0 || squareFootage == null || squareFootage <= 0
+                || property.getBedrooms() == null || property.getBathrooms() == null) {
+            return null;
+        }
+        return new double[] {
+                Math.log(price) / RATIO_SCALE,
+                Math.log(squareFootage) / RATIO_SCALE,
+                property.getBedrooms(),
+                property.getBathrooms()
+        };
+    }
+
+    /**
+     * Appends the position, projected to kilometres east and north and scaled. The
+     * equirectangular projection is accurate over the few kilometres that matter here.
+     *
+     * @return the located features, or null if the property has no coordinates
+     */
+    static double[] locatedFeatures(double[] coreFeatures, Property property) {
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+            return null;
+        }
+        double latitude = property.getLatitude();
+        double[] features = new double[LOCATED_DIMENSIONS];
+        System.arraycopy(coreFeatures, 0, features, 0, CORE_DIMENSIONS);
+        features[CORE_DIMENSIONS] = property.getLongitude() * Math.cos(Math.toRadians(latitude))
+                * KM_PER_DEGREE / LOCATION_SCALE_KM;
+        features[CORE_DIMENSIONS + 1] = latitude * KM_PER_DEGREE / LOCATION_SCALE_KM;
+        return features;
+    }
+
+    /**
+     * Accumulates vectors into the flat arrays a tree is built from, growing as they arrive.
+     */
+    private static final class VectorBuffer {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final int dimensions;
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private double[] coordinates;
+        private int size;
+
+        VectorBuffer(int dimensions) {
+            this.dimensions = dimensions;
+            this.coordinates = new double[INITIAL_CAPACITY * dimensions];
+        }
+
+        void add(long id, double[] vector) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                coordinates = Arrays.copyOf(coordinates, size * 2 * dimensions);
+            }
+            ids[size] = id;
+            System.arraycopy(vector, 0, coordinates, size * dimensions, dimensions);
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        double[] coordinates() {
+            return Arrays.copyOf(coordinates, size * dimensions);
+        }
+    }
+}
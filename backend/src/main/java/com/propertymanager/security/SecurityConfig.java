@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -43,9 +44,13 @@ public class SecurityConfig {
             http.authorizeHttpRequests(auth -> auth
                     .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/api/properties").permitAll() // GET properties is public
+                    .requestMatchers(HttpMethod.GET, "/api/properties/suggest").permitAll() // Address autocomplete is public
+                    .requestMatchers(HttpMethod.GET, "/api/properties/facets").permitAll() // Filter counts are public
+                    .requestMatchers(HttpMethod.GET, "/api/properties/stream").permitAll() // Listing changes are public
                     .requestMatchers("/api/health/**").permitAll() // Health check endpoints are public
                     .requestMatchers("/api/images/**").permitAll() // Allow public access to images
                     .requestMatchers("/api/properties/**").hasRole("ADMIN") // POST, PUT, DELETE requires ADMIN
+                    .requestMatchers("/api/jobs/**").hasRole("ADMIN") // Bulk jobs are for admins only
                     .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -78,8 +83,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token"));
-        configuration.setExposedHeaders(Arrays.asList("x-auth-token"));
+        configuration.setAllowedHeaders(Arrays.asList("authorization", "content-type", "x-auth-token",
+                "if-none-match", "if-match"));
+        configuration.setExposedHeaders(Arrays.asList("x-auth-token", "etag"));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -0,0 +1,74 @@
+package com.propertymanager.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: comma separated, optionally double-quoted fields in
+ * which quotes are doubled and line breaks are kept, records ending in LF or CRLF. Blank
+ * lines are skipped. A stray quote inside an unquoted field is kept as it is.
+ */
+final class CsvRecordReader {
+
+    private final BufferedReader reader;
+
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     * @throws IllegalArgumentException if the input ends inside a quoted field
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c = reader.read();
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Quoted field is not closed before the end of the input");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                if (!empty || !fields.isEmpty() || field.length() > 0) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == -1) {
+                    return null;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                empty = false;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private void skipLineFeed() throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\n') {
+            reader.reset();
+        }
+    }
+}
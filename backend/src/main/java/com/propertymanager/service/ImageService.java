@@ -9,6 +9,7 @@ import java.util.List;
 
 public interface ImageService {
     Image saveImage(MultipartFile file, Long propertyId) throws IOException;
+    List<Image> saveImages(List<MultipartFile> files, Long propertyId) throws IOException;
     void deleteImage(Long id);
     List<Image> getImagesForProperty(Long propertyId);
     ResponseEntity<Resource> serveImage(String filename) throws IOException;
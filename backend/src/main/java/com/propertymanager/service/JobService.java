@@ -0,0 +1,38 @@
+package com.propertymanager.service;
+
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.JobReport;
+import com.propertymanager.model.PropertySearchCriteria;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Submits bulk property jobs and reports on them. Jobs run in the background; submission
+ * only checks the request and queues the job. The owner is the authenticated username, or
+ * null when authentication is disabled.
+ */
+public interface JobService {
+
+    /**
+     * Stores the upload and queues its import.
+     *
+     * @throws IllegalArgumentException if a CSV header is missing or names unknown columns
+     */
+    JobReport submitImport(String owner, ExportFormat format, InputStream body) throws IOException;
+
+    JobReport submitReprice(String owner, PropertySearchCriteria criteria, Double percentChange);
+
+    /**
+     * @throws IllegalArgumentException if no filter is given, which would delete every property
+     */
+    JobReport submitDelete(String owner, PropertySearchCriteria criteria);
+
+    JobReport getJob(Long id);
+
+    /**
+     * The owner's most recent jobs, newest first.
+     */
+    List<JobReport> getJobs(String owner);
+}
@@ -0,0 +1,24 @@
+package com.propertymanager.service;
+
+import java.util.List;
+
+/**
+ * Published once by a bulk write in place of a {@link PropertyChangedEvent} per property,
+ * so that listeners can apply the whole batch at once: one lock, one cache sweep, one
+ * transaction.
+ */
+public class PropertiesChangedEvent {
+
+    private final List<PropertyChangedEvent> changes;
+
+    public PropertiesChangedEvent(List<PropertyChangedEvent> changes) {
+        this.changes = List.copyOf(changes);
+    }
+
+    /**
+     * @return the changes, in the order they were written
+     */
+    public List<PropertyChangedEvent> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.propertymanager.service;
+
+import com.propertymanager.model.Property;
+
+/**
+ * Published by the property service whenever a property is created, updated or deleted.
+ * Listeners that keep in-memory search structures in sync subscribe after commit.
+ * Updates and deletions may carry a snapshot of the property as it was before the write,
+ * so listeners can tell which searches it used to match. Bulk writes publish theirs
+ * together, in a {@link PropertiesChangedEvent}.
+ */
+public class PropertyChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long propertyId;
+    private final Property property;
+    private final Property previous;
+
+    private PropertyChangedEvent(Type type, Long propertyId, Property property, Property previous) {
+        this.type = type;
+        this.propertyId = propertyId;
+        this.property = property;
+        this.previous = previous;
+    }
+
+    public static PropertyChangedEvent created(Property property) {
+        return new PropertyChangedEvent(Type.CREATED, property.getId(), property, null);
+    }
+
+    public static PropertyChangedEvent updated(Property property) {
+        return updated(property, null);
+    }
+
+    public static PropertyChangedEvent updated(Property property, Property previous) {
+        return new PropertyChangedEvent(Type.UPDATED, property.getId(), property, previous);
+    }
+
+    public static PropertyChangedEvent deleted(Long propertyId) {
+        return deleted(propertyId, null);
+    }
+
+    public static PropertyChangedEvent deleted(Long propertyId, Property previous) {
+        return new PropertyChangedEvent(Type.DELETED, propertyId, null, previous);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    /**
+     * @return the property as saved, or null for deletions
+     */
+    public Property getProperty() {
+        return property;
+    }
+
+    /**
+     * @return the property as it was before an update or deletion, or null when unknown
+     *         (and always for creations)
+     */
+    public Property getPrevious() {
+        return previous;
+    }
+}
@@ -0,0 +1,161 @@
+package com.propertymanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertySearchCriteria;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes search results to a response stream row by row as the database cursor yields
+ * them, so neither the result set nor the encoded output is held in memory. The output is
+ * flushed every {@value #FLUSH_EVERY_ROWS} rows, so clients start receiving data long
+ * before a large export has been read.
+ */
+@Component
+public class PropertyExporter {
+
+    static final int FLUSH_EVERY_ROWS = 500;
+    static final List<String> CSV_COLUMNS = List.of("id", "address", "description", "price", "bedrooms",
+            "bathrooms", "square_footage", "latitude", "longitude");
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final PropertyService propertyService;
+    private final ObjectWriter jsonWriter;
+
+    public PropertyExporter(PropertyService propertyService, ObjectMapper objectMapper) {
+        this.propertyService = propertyService;
+        // Flushing is batched below rather than done after every row
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Exports every property matching the criteria. The stream is flushed but not closed.
+     *
+     * @return the number of rows written
+     * @throws IOException if the client goes away or the stream otherwise fails
+     */
+    public long export(PropertySearchCriteria criteria, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] count = {0};
+        try {
+            propertyService.exportProperties(criteria, row -> {
+                try {
+                    rows.write(row);
+                    if (++count[0] % FLUSH_EVERY_ROWS == 0) {
+                        rows.flush();
+                    }
+                } catch (IOException e) {
+                    // Abandons the cursor, and with it the transaction, as soon as the client is gone
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rows.flush();
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void write(PropertyExportRow row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = jsonWriter.createGenerator(writer);
+        }
+
+        @Override
+        public void write(PropertyExportRow row) throws IOException {
+            jsonWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(PropertyExportRow row) throws IOException {
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writer.write(text(row.address()));
+            writer.write(',');
+            writer.write(text(row.description()));
+            writer.write(',');
+            writer.write(number(row.price()));
+            writer.write(',');
+            writer.write(number(row.bedrooms()));
+            writer.write(',');
+            writer.write(number(row.bathrooms()));
+            writer.write(',');
+            writer.write(number(row.squareFootage()));
+            writer.write(',');
+            writer.write(number(row.latitude()));
+            writer.write(',');
+            writer.write(number(row.longitude()));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Quotes a CSV field when it contains a separator, quote or line break.
+     */
+    static String text(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    /**
+     * Formats a number for CSV without exponent notation, so that 1.0E7 reads as 10000000.
+     */
+    static String number(Number value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Double d) {
+            return BigDecimal.valueOf(d).stripTrailingZeros().toPlainString();
+        }
+        return value.toString();
+    }
+}
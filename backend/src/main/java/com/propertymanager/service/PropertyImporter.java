@@ -0,0 +1,348 @@
+package com.propertymanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyImportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads properties from a request stream in the export's formats and columns, so that an
+ * export can be imported again. Rows are parsed and validated one at a time as they arrive;
+ * valid rows are inserted in batches of {@value #BATCH_SIZE}, each in its own transaction, and
+ * invalid ones are reported by row number without stopping the import. A batch the database
+ * refuses is inserted again a row at a time, so that only the rows it refuses are rejected.
+ * Neither the input nor the inserted rows are held in memory beyond the current batch.
+ */
+@Component
+public class PropertyImporter {
+    private static final Logger logger = LoggerFactory.getLogger(PropertyImporter.class);
+
+    static final int BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final List<String> REQUIRED_CSV_COLUMNS = List.of("address", "price", "bedrooms", "bathrooms",
+            "square_footage");
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final PropertyService propertyService;
+    private final ObjectReader rowReader;
+
+    public PropertyImporter(PropertyService propertyService, ObjectMapper objectMapper) {
+        this.propertyService = propertyService;
+        // Rows exported with columns added since still import
+        this.rowReader = objectMapper.readerFor(PropertyExportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Imports every row of the stream. Batches committed before a later failure stay committed.
+     * The stream is read to the end but not closed.
+     *
+     * @throws IllegalArgumentException if a CSV header is missing or names unknown columns
+     * @throws IOException if reading the stream fails
+     */
+    public PropertyImportResult importFrom(ExportFormat format, InputStream in) throws IOException {
+        Rows rows = openRows(format, in);
+        Tally tally = new Tally();
+        List<Property> batch = new ArrayList<>(BATCH_SIZE);
+        while (!rows.finished()) {
+            rows.readBatch(batch, tally::reject);
+            if (!batch.isEmpty()) {
+                tally.imported += insert(batch, rows, tally::reject);
+                batch.clear();
+            }
+        }
+        return tally.result();
+    }
+
+    /**
+     * Opens the stream for reading in batches. Bulk import jobs read their stored upload this
+     * way, a chunk at a time, skipping the rows a previous run already committed.
+     *
+     * @throws IllegalArgumentException if a CSV header is missing or names unknown columns
+     */
+    public Rows openRows(ExportFormat format, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return new Rows(format == ExportFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader));
+    }
+
+    /**
+     * Receives the rows that could not be read or failed validation.
+     */
+    @FunctionalInterface
+    public interface RejectedRows {
+        void reject(long row, String message);
+    }
+
+    /**
+     * The rows of an import, numbered from 1 in the order they are read.
+     */
+    public final class Rows {
+        private final RowSource source;
+        private long rowNumber;
+        // The row each property in the current batch was read from
+        private final List<Long> batchRows = new ArrayList<>(BATCH_SIZE);
+        private boolean finished;
+
+        private Rows(RowSource source) {
+            this.source = source;
+        }
+
+        /**
+         * Reads and validates rows until the batch holds {@value PropertyImporter#BATCH_SIZE} properties or
+         * the input ends, handing every rejected row to {@code rejected}.
+         */
+        public void readBatch(List<Property> batch, RejectedRows rejected) throws IOException {
+            while (!finished && batch.size() < BATCH_SIZE) {
+                long row = rowNumber + 1;
+                Property property;
+                try {
+                    property = source.next();
+                    if (property == null) {
+                        finished = true;
+                        return;
+                    }
+                    rowNumber = row;
+                    propertyService.validateProperty(property);
+                } catch (IllegalArgumentException e) {
+                    rowNumber = row;
+                    rejected.reject(row, e.getMessage());
+                    continue;
+                }
+                if (batch.isEmpty()) {
+                    batchRows.clear();
+                }
+                batchRows.add(row);
+                batch.add(property);
+            }
+        }
+
+        /**
+         * Moves past the first {@code rows} rows without parsing them into properties.
+         */
+        public void skip(long rows) throws IOException {
+            while (!finished && rowNumber < rows) {
+                try {
+                    if (source.next() == null) {
+                        finished = true;
+                        return;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // Already reported by the run that read it
+                }
+                rowNumber++;
+            }
+        }
+
+        /**
+         * @return the number of the last row read
+         */
+        public long rowNumber() {
+            return rowNumber;
+        }
+
+        public boolean finished() {
+            return finished;
+        }
+
+        long batchRow(int index) {
+            return batchRows.get(index);
+        }
+    }
+
+    /**
+     * Inserts a batch the rows have just read. If the database refuses the batch, its rows are
+     * inserted one at a time, each in its own transaction, and those it refuses again are handed
+     * to {@code rejected} with the database's reason.
+     *
+     * @return the number of properties inserted
+     */
+    public long insert(List<Property> batch, Rows rows, RejectedRows rejected) {
+        try {
+            propertyService.createProperties(batch);
+            return batch.size();
+        } catch (DataAccessException e) {
+            logger.warn("Could not insert import batch starting at row {}; inserting its rows one at a time",
+                    rows.batchRow(0), e);
+        }
+        long inserted = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                propertyService.createProperties(List.of(batch.get(i)));
+                inserted++;
+            } catch (DataAccessException e) {
+                rejected.reject(rows.batchRow(i), "Could not be inserted: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        return inserted;
+    }
+
+    private static final class Tally {
+        private long imported;
+        private long failed;
+        private final List<PropertyImportResult.RowError> errors = new ArrayList<>();
+
+        void reject(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PropertyImportResult.RowError(row, message));
+            }
+        }
+
+        PropertyImportResult result() {
+            return new PropertyImportResult(imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * @return the next row's property, or null at the end of the input
+         * @throws IllegalArgumentException if the row cannot be read; the next call moves on
+         */
+        Property next() throws IOException;
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Property next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            try {
+                PropertyExportRow row = rowReader.readValue(line);
+                if (row == null) {
+                    throw new IllegalArgumentException("Expected a JSON object");
+                }
+                return property(row.address(), row.description(), row.price(), row.bedrooms(), row.bathrooms(),
+                        row.squareFootage(), row.latitude(), row.longitude());
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class CsvRowSource implements RowSource {
+        private final CsvRecordReader records;
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvRowSource(BufferedReader reader) throws IOException {
+            this.records = new CsvRecordReader(reader);
+            List<String> header = records.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV import must start with a header row");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                // Spreadsheets often save with a byte order mark
+                String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                if (!PropertyExporter.CSV_COLUMNS.contains(column)) {
+                    throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+                }
+                if (columns.put(column, i) != null) {
+                    throw new IllegalArgumentException("Duplicate CSV column: " + header.get(i));
+                }
+            }
+            for (String column : REQUIRED_CSV_COLUMNS) {
+                if (!columns.containsKey(column)) {
+                    throw new IllegalArgumentException("CSV header is missing the " + column + " column");
+                }
+            }
+        }
+
+        @Override
+        public Property next() throws IOException {
+            List<String> fields = records.next();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException(
+                        "Expected " + columns.size() + " fields but found " + fields.size());
+            }
+            String description = field(fields, "description");
+            return property(field(fields, "address"),
+                    description == null || description.isEmpty() ? null : description,
+                    decimal(fields, "price"),
+                    whole(fields, "bedrooms"),
+                    whole(fields, "bathrooms"),
+                    decimal(fields, "square_footage"),
+                    decimal(fields, "latitude"),
+                    decimal(fields, "longitude"));
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index == null ? null : fields.get(index);
+        }
+
+        private Double decimal(List<String> fields, String column) {
+            String value = field(fields, column);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                double parsed = Double.parseDouble(value.trim());
+                if (Double.isFinite(parsed)) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+
+        private Integer whole(List<String> fields, String column) {
+            String value = field(fields, column);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + column + ": " + value);
+            }
+        }
+    }
+
+    private static Property property(String address, String description, Double price, Integer bedrooms,
+                                     Integer bathrooms, Double squareFootage, Double latitude, Double longitude) {
+        return Property.builder()
+                .address(address)
+                .description(description)
+                .price(price)
+                .bedrooms(bedrooms)
+                .bathrooms(bathrooms)
+                .squareFootage(squareFootage)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
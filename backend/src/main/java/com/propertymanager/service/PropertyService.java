@@ -1,17 +1,72 @@
 package com.propertymanager.service;
 
+import com.propertymanager.model.AddressSuggestion;
+import com.propertymanager.model.CursorPage;
+import com.propertymanager.model.PriceStatistics;
 import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.model.SearchSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface PropertyService {
     List<Property> getAllProperties();
     Property getPropertyById(Long id);
+
+    /**
+     * @return the property's current version, read without loading the property
+     * @throws com.propertymanager.exception.ResourceNotFoundException if there is no such property
+     */
+    long getPropertyVersion(Long id);
     Property createProperty(Property property);
+
+    /**
+     * Inserts new properties in one JDBC batch, bypassing the persistence context, and
+     * publishes their creation as one batch event. Their ids are set on return.
+     *
+     * @throws IllegalArgumentException if any of the properties is invalid, before inserting any
+     */
+    void createProperties(List<Property> properties);
+
     Property updateProperty(Long id, Property property);
+
+    /**
+     * Sets only the fields in the patch, in one statement, and increments the version.
+     *
+     * @param expectedVersion the version the patch was made against, or null to patch the
+     *                        current version whatever it is
+     * @return the patched property, without its images
+     * @throws IllegalArgumentException if the patch is empty or sets an invalid value
+     * @throws com.propertymanager.exception.ResourceNotFoundException if there is no such property
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the property has
+     *         moved on from {@code expectedVersion}
+     */
+    Property patchProperty(Long id, Long expectedVersion, PropertyPatch patch);
     void deleteProperty(Long id);
+
+    /**
+     * Changes the price of each of the given properties by a percentage, rounded to the
+     * penny, and publishes the updates as one batch event. Ids that no longer exist are skipped.
+     *
+     * @throws IllegalArgumentException if the change would take prices to zero or below
+     */
+    void repriceProperties(List<Long> ids, double percentChange);
+
+    /**
+     * Deletes the given properties with their images and publishes the deletions as one
+     * batch event. Ids that no longer exist are skipped.
+     */
+    void deleteProperties(List<Long> ids);
     Page<Property> searchProperties(
         String address,
         Double minPrice,
@@ -23,4 +78,56 @@ public interface PropertyService {
         Integer minBathrooms,
         Integer maxBathrooms,
         Pageable pageable);
-} 
\ No newline at end of file
+    Page<Property> searchProperties(PropertySearchCriteria criteria, Pageable pageable);
+    CursorPage<Property> searchPropertiesByCursor(PropertySearchCriteria criteria, String cursor, int size, Sort sort);
+
+    SearchSlice<Property> searchPropertiesSlice(PropertySearchCriteria criteria, Pageable pageable, boolean estimateTotal);
+
+    /*
+     * Listing variants of the searches above, returning card summaries selected directly
+     * from the database rather than full entities.
+     */
+    Page<PropertySummary> searchPropertySummaries(PropertySearchCriteria criteria, Pageable pageable);
+
+    CursorPage<PropertySummary> searchPropertySummariesByCursor(
+        PropertySearchCriteria criteria, String cursor, int size, Sort sort);
+
+    SearchSlice<PropertySummary> searchPropertySummariesSlice(
+        PropertySearchCriteria criteria, Pageable pageable, boolean estimateTotal);
+
+    List<AddressSuggestion> suggestAddresses(String prefix, int limit);
+
+    /**
+     * The properties most like the given one by price, size, rooms and location, closest
+     * first. Empty while the similarity index is still loading.
+     */
+    List<PropertySummary> findSimilarProperties(Long id, int limit);
+
+    PropertyFacets getFacets(PropertySearchCriteria criteria, Set<SearchFacet> facets);
+
+    /**
+     * Price percentiles and histogram for the properties matching the criteria within the
+     * given areas (all areas when empty).
+     */
+    PriceStatistics getPriceStatistics(PropertySearchCriteria criteria, Set<String> areas);
+
+    /**
+     * Checks search filters without running a search.
+     *
+     * @throws IllegalArgumentException if a filter is out of range or incomplete
+     */
+    void validateSearchCriteria(PropertySearchCriteria criteria);
+
+    /**
+     * Checks a property against the rules applied on create and update.
+     *
+     * @throws IllegalArgumentException naming the first rule the property breaks
+     */
+    void validateProperty(Property property);
+
+    /**
+     * Hands every property matching the criteria to {@code action}, in id order, as the rows
+     * are read from a database cursor. Holds a connection until the last row is consumed.
+     */
+    void exportProperties(PropertySearchCriteria criteria, Consumer<PropertyExportRow> action);
+}
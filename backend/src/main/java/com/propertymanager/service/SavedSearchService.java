@@ -0,0 +1,20 @@
+package com.propertymanager.service;
+
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SavedSearch;
+import com.propertymanager.model.SavedSearchMatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Manages saved searches and records the properties that match them. The owner is the
+ * authenticated username, or null when authentication is disabled.
+ */
+public interface SavedSearchService {
+    SavedSearch createSavedSearch(String owner, String name, PropertySearchCriteria criteria);
+    List<SavedSearch> getSavedSearches(String owner);
+    void deleteSavedSearch(Long id, String owner);
+    Page<SavedSearchMatch> getMatches(Long id, String owner, Pageable pageable);
+}
@@ -6,9 +6,12 @@ import com.propertymanager.model.Property;
 import com.propertymanager.repository.ImageRepository;
 import com.propertymanager.repository.PropertyRepository;
 import com.propertymanager.service.ImageService;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -22,6 +25,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -43,10 +47,13 @@ public class ImageServiceImpl implements ImageService {
 
     private final ImageRepository imageRepository;
     private final PropertyRepository propertyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ImageServiceImpl(ImageRepository imageRepository, PropertyRepository propertyRepository) {
+    public ImageServiceImpl(ImageRepository imageRepository, PropertyRepository propertyRepository,
+                            ApplicationEventPublisher eventPublisher) {
         this.imageRepository = imageRepository;
         this.propertyRepository = propertyRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -57,6 +64,38 @@ public class ImageServiceImpl implements ImageService {
         Property property = propertyRepository.findById(propertyId)
             .orElseThrow(() -> new ResourceNotFoundException("Property", "id", propertyId));
 
+        Image savedImage = imageRepository.save(storeImage(file, property));
+        // The property's JSON lists its images, so its ETag has to change
+        propertyRepository.incrementVersion(property);
+        // Search results embed images, so cached pages showing this property are stale
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(property, property));
+        return savedImage;
+    }
+
+    @Override
+    public List<Image> saveImages(List<MultipartFile> files, Long propertyId) throws IOException {
+        logger.debug("Saving {} images for property id: {}", files.size(), propertyId);
+        files.forEach(this::validateImage);
+
+        Property property = propertyRepository.findById(propertyId)
+            .orElseThrow(() -> new ResourceNotFoundException("Property", "id", propertyId));
+
+        List<Image> images = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            images.add(storeImage(file, property));
+        }
+        // One transaction, so the inserts go to the database as a single batch
+        List<Image> savedImages = imageRepository.saveAll(images);
+        propertyRepository.incrementVersion(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(property, property));
+        return savedImages;
+    }
+
+    /**
+     * Writes the file to the upload directory under a unique name and returns its unsaved
+     * image entity.
+     */
+    private Image storeImage(MultipartFile file, Property property) throws IOException {
         // Create uploads directory if it doesn't exist
         Path uploadDir = Paths.get(uploadPath);
         if (!Files.exists(uploadDir)) {
@@ -72,14 +111,12 @@ public class ImageServiceImpl implements ImageService {
         Path filePath = uploadDir.resolve(filename);
         Files.copy(file.getInputStream(), filePath);
 
-        // Create and save image entity
         Image image = new Image();
         image.setFileName(filename);
         image.setContentType(file.getContentType());
         image.setUrl("/images/" + filename);
         image.setProperty(property);
-
-        return imageRepository.save(image);
+        return image;
     }
 
     @Override
@@ -97,15 +134,24 @@ public class ImageServiceImpl implements ImageService {
             throw new RuntimeException("Failed to delete image file", e);
         }
 
+        Property property = (Property) Hibernate.unproxy(image.getProperty());
         imageRepository.delete(image);
+        propertyRepository.incrementVersion(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(property, property));
     }
 
+    /**
+     * Returns a copy of the property's images, initialised inside the transaction so that
+     * callers without an open session can read them. The property, its image list and its
+     * images come from the second-level cache when they are there.
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<Image> getImagesForProperty(Long propertyId) {
         logger.debug("Fetching images for property id: {}", propertyId);
         Property property = propertyRepository.findById(propertyId)
             .orElseThrow(() -> new ResourceNotFoundException("Property", "id", propertyId));
-        return property.getImages();
+        return new ArrayList<>(property.getImages());
     }
 
     @Override
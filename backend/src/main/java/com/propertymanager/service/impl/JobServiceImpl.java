@@ -0,0 +1,136 @@
+package com.propertymanager.service.impl;
+
+import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.job.JobRunner;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobParameters;
+import com.propertymanager.model.JobReport;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.repository.JobRepository;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.search.PropertySqlFilter;
+import com.propertymanager.service.JobService;
+import com.propertymanager.service.PropertyImporter;
+import com.propertymanager.service.PropertyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Submissions run outside a transaction: each saves its job in a transaction of its own, so
+ * the job is committed, and claimable, before the runner is woken.
+ */
+@Service
+@Transactional(readOnly = true)
+public class JobServiceImpl implements JobService {
+    private static final Logger logger = LoggerFactory.getLogger(JobServiceImpl.class);
+    private final JobRepository jobRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyService propertyService;
+    private final PropertyImporter propertyImporter;
+    private final JobRunner jobRunner;
+    private final Path storagePath;
+
+    public JobServiceImpl(JobRepository jobRepository,
+                          PropertyRepository propertyRepository,
+                          PropertyService propertyService,
+                          PropertyImporter propertyImporter,
+                          JobRunner jobRunner,
+                          @Value("${app.jobs.storage-path:${java.io.tmpdir}/property-manager-jobs}") String storagePath) {
+        this.jobRepository = jobRepository;
+        this.propertyRepository = propertyRepository;
+        this.propertyService = propertyService;
+        this.propertyImporter = propertyImporter;
+        this.jobRunner = jobRunner;
+        this.storagePath = Path.of(storagePath);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JobReport submitImport(String owner, ExportFormat format, InputStream body) throws IOException {
+        Files.createDirectories(storagePath);
+        Path upload = storagePath.resolve("import-" + UUID.randomUUID() + "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(body, upload);
+            // Rejects a bad CSV header now rather than once the job runs
+            try (InputStream in = Files.newInputStream(upload)) {
+                propertyImporter.openRows(format, in);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        logger.debug("Queueing import of {} for {}", upload, owner);
+        return submit(owner, Job.Type.IMPORT, JobParameters.forImport(format, upload.toString()), null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JobReport submitReprice(String owner, PropertySearchCriteria criteria, Double percentChange) {
+        PropertySearchCriteria filters = validatedCriteria(criteria);
+        if (percentChange == null || !Double.isFinite(percentChange) || percentChange <= -100) {
+            throw new IllegalArgumentException("Price change must be a percentage greater than -100");
+        }
+        logger.debug("Queueing repricing by {}% for {}: {}", percentChange, owner, filters);
+        return submit(owner, Job.Type.REPRICE, JobParameters.forReprice(filters, percentChange),
+                propertyRepository.countMatching(filters));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JobReport submitDelete(String owner, PropertySearchCriteria criteria) {
+        PropertySearchCriteria filters = validatedCriteria(criteria);
+        if (PropertySqlFilter.of(filters).isEmpty()) {
+            throw new IllegalArgumentException("At least one filter is required to delete properties");
+        }
+        logger.debug("Queueing deletion for {}: {}", owner, filters);
+        return submit(owner, Job.Type.DELETE, JobParameters.forDelete(filters),
+                propertyRepository.countMatching(filters));
+    }
+
+    @Override
+    public JobReport getJob(Long id) {
+        return jobRepository.findById(id)
+                .map(job -> JobReport.of(job, LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Job", "id", id));
+    }
+
+    @Override
+    public List<JobReport> getJobs(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRepository.findTop20ByOwnerOrderByIdDesc(owner).stream()
+                .map(job -> JobReport.of(job, now))
+                .toList();
+    }
+
+    private PropertySearchCriteria validatedCriteria(PropertySearchCriteria criteria) {
+        PropertySearchCriteria filters = criteria != null ? criteria.normalized() : new PropertySearchCriteria();
+        propertyService.validateSearchCriteria(filters);
+        return filters;
+    }
+
+    private JobReport submit(String owner, Job.Type type, JobParameters parameters, Long totalItems) {
+        Job job = jobRepository.save(Job.builder()
+                .type(type)
+                .status(Job.Status.QUEUED)
+                .owner(owner)
+                .parameters(parameters)
+                .totalItems(totalItems)
+                .build());
+        jobRunner.dispatch();
+        return JobReport.of(job, LocalDateTime.now());
+    }
+}
@@ -1,30 +1,79 @@
 package com.propertymanager.service.impl;
 
 import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.model.AddressSuggestion;
+import com.propertymanager.model.CursorPage;
+import com.propertymanager.model.PriceStatistics;
 import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.model.SearchSlice;
 import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.search.AddressSuggestionIndex;
+import com.propertymanager.search.PriceStatisticsIndex;
+import com.propertymanager.search.PropertyColumnIndex;
+import com.propertymanager.search.PropertyCursor;
+import com.propertymanager.search.PropertySpecifications;
+import com.propertymanager.search.PropertySqlFilter;
+import com.propertymanager.search.SimilarPropertyIndex;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
 import com.propertymanager.service.PropertyService;
-import jakarta.persistence.criteria.Predicate;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
 public class PropertyServiceImpl implements PropertyService {
     private static final Logger logger = LoggerFactory.getLogger(PropertyServiceImpl.class);
+    private static final int MAX_ADDRESS_LENGTH = 1000;
     private final PropertyRepository propertyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PropertyColumnIndex columnIndex;
+    private final AddressSuggestionIndex suggestionIndex;
+    private final PriceStatisticsIndex priceStatisticsIndex;
+    private final SimilarPropertyIndex similarPropertyIndex;
 
-    public PropertyServiceImpl(PropertyRepository propertyRepository) {
+    public PropertyServiceImpl(PropertyRepository propertyRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               PropertyColumnIndex columnIndex,
+                               AddressSuggestionIndex suggestionIndex,
+                               PriceStatisticsIndex priceStatisticsIndex,
+                               SimilarPropertyIndex similarPropertyIndex) {
         this.propertyRepository = propertyRepository;
+        this.eventPublisher = eventPublisher;
+        this.columnIndex = columnIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.priceStatisticsIndex = priceStatisticsIndex;
+        this.similarPropertyIndex = similarPropertyIndex;
     }
 
     @Override
@@ -33,19 +82,42 @@ public class PropertyServiceImpl implements PropertyService {
         return propertyRepository.findAll();
     }
 
+    /**
+     * Reads without a transaction of its own, so that a property in the second-level cache
+     * is served without taking a pooled connection.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Property getPropertyById(Long id) {
         logger.debug("Fetching property with id: {}", id);
         return propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property", "id", id));
     }
 
+    @Override
+    public long getPropertyVersion(Long id) {
+        return propertyRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Property", "id", id));
+    }
+
     @Override
     @Transactional
     public Property createProperty(Property property) {
         logger.debug("Creating new property: {}", property);
         validateProperty(property);
-        return propertyRepository.save(property);
+        Property savedProperty = propertyRepository.save(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.created(savedProperty));
+        return savedProperty;
+    }
+
+    @Override
+    @Transactional
+    public void createProperties(List<Property> properties) {
+        logger.debug("Inserting {} properties", properties.size());
+        properties.forEach(this::validateProperty);
+        propertyRepository.insertAll(properties);
+        eventPublisher.publishEvent(new PropertiesChangedEvent(
+                properties.stream().map(PropertyChangedEvent::created).toList()));
     }
 
     @Override
@@ -56,6 +128,7 @@ public class PropertyServiceImpl implements PropertyService {
         
         Property existingProperty = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property", "id", id));
+        Property previous = snapshot(existingProperty);
                 
         existingProperty.setAddress(property.getAddress());
         existingProperty.setDescription(property.getDescription());
@@ -63,18 +136,72 @@ public class PropertyServiceImpl implements PropertyService {
         existingProperty.setBedrooms(property.getBedrooms());
         existingProperty.setBathrooms(property.getBathrooms());
         existingProperty.setSquareFootage(property.getSquareFootage());
+        existingProperty.setLatitude(property.getLatitude());
+        existingProperty.setLongitude(property.getLongitude());
         
-        return propertyRepository.save(existingProperty);
+        Property savedProperty = propertyRepository.save(existingProperty);
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(savedProperty, previous));
+        return savedProperty;
+    }
+
+    @Override
+    @Transactional
+    public Property patchProperty(Long id, Long expectedVersion, PropertyPatch patch) {
+        logger.debug("Patching {} of property with id {} at version {}", patch.values().keySet(), id, expectedVersion);
+        validatePatch(patch);
+        Optional<PropertyPatch.Applied> applied = propertyRepository.patch(id, expectedVersion, patch);
+        if (applied.isEmpty()) {
+            // Only a failed patch pays for telling a missing property from a stale version
+            long current = getPropertyVersion(id);
+            throw new OptimisticLockingFailureException("Property " + id + " is at version " + current
+                    + ", not " + expectedVersion + "; reload it and try again");
+        }
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(applied.get().current(), applied.get().previous()));
+        return applied.get().current();
     }
 
     @Override
     @Transactional
     public void deleteProperty(Long id) {
         logger.debug("Deleting property with id: {}", id);
-        if (!propertyRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Property", "id", id);
+        // Deleting loads the entity anyway, so the snapshot costs no extra query
+        Property property = propertyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Property", "id", id));
+        Property previous = snapshot(property);
+        propertyRepository.delete(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.deleted(id, previous));
+    }
+
+    @Override
+    @Transactional
+    public void repriceProperties(List<Long> ids, double percentChange) {
+        logger.debug("Repricing {} properties by {}%", ids.size(), percentChange);
+        validatePriceChange(percentChange);
+        List<Property> properties = propertyRepository.findAllById(ids);
+        List<Property> previous = properties.stream().map(this::snapshot).toList();
+        for (Property property : properties) {
+            // Never below a penny, however small the original price
+            property.setPrice(Math.max(0.01, Math.round(property.getPrice() * (100 + percentChange)) / 100.0));
+        }
+        propertyRepository.saveAll(properties);
+        List<PropertyChangedEvent> changes = new ArrayList<>(properties.size());
+        for (int i = 0; i < properties.size(); i++) {
+            changes.add(PropertyChangedEvent.updated(properties.get(i), previous.get(i)));
         }
-        propertyRepository.deleteById(id);
+        eventPublisher.publishEvent(new PropertiesChangedEvent(changes));
+    }
+
+    @Override
+    @Transactional
+    public void deleteProperties(List<Long> ids) {
+        logger.debug("Deleting {} properties", ids.size());
+        // Loads the images in the same query, rather than one query per property as they cascade
+        List<Property> properties = propertyRepository.findWithImagesByIdIn(ids);
+        List<Property> previous = properties.stream().map(this::snapshot).toList();
+        propertyRepository.deleteAll(properties);
+        eventPublisher.publishEvent(new PropertiesChangedEvent(previous.stream()
+                .map(property -> PropertyChangedEvent.deleted(property.getId(), property))
+                .toList()));
     }
 
     @Override
@@ -92,66 +219,417 @@ public class PropertyServiceImpl implements PropertyService {
         logger.debug("Searching properties with criteria: address={}, price={}-{}, size={}-{}, bedrooms={}, maxRooms={}, bathrooms={}-{}", 
             address, minPrice, maxPrice, minSize, maxSize, bedrooms, maxRooms, minBathrooms, maxBathrooms);
         
-        validateSearchParameters(minPrice, maxPrice, bedrooms);
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .address(address)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .bedrooms(bedrooms)
+                .maxRooms(maxRooms)
+                .minBathrooms(minBathrooms)
+                .maxBathrooms(maxBathrooms)
+                .build();
+        return searchProperties(criteria, pageable);
+    }
 
-        Specification<Property> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            
-            if (address != null && !address.isEmpty()) {
-                predicates.add(cb.like(cb.lower(root.get("address")), "%" + address.toLowerCase() + "%"));
-            }
-            if (minPrice != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
-            }
-            if (maxPrice != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
-            }
-            if (minSize != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("squareFootage"), minSize));
-            }
-            if (maxSize != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("squareFootage"), maxSize));
-            }
-            if (bedrooms != null) {
-                predicates.add(cb.equal(root.get("bedrooms"), bedrooms));
-            }
-            if (maxRooms != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("bedrooms"), maxRooms));
+    @Override
+    public Page<Property> searchProperties(PropertySearchCriteria criteria, Pageable pageable) {
+        validateSearchCriteria(criteria);
+
+        Pageable databasePageable = databasePageable(criteria, pageable);
+        if (!isRankedByRelevance(criteria, pageable.getSort())) {
+            Optional<PropertyColumnIndex.IdPage> indexed = columnIndex.search(criteria, databasePageable);
+            if (indexed.isPresent()) {
+                return loadPage(indexed.get(), databasePageable);
             }
-            if (minBathrooms != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("bathrooms"), minBathrooms));
+        }
+        Page<Property> page = propertyRepository.findAll(specificationFor(criteria, pageable.getSort()), databasePageable);
+        fetchImages(page.getContent());
+        return page;
+    }
+
+    @Override
+    public CursorPage<Property> searchPropertiesByCursor(
+            PropertySearchCriteria criteria, String cursor, int size, Sort sort) {
+        validateSearchCriteria(criteria);
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0");
+        }
+
+        Sort.Order order = PropertyCursor.orderFor(sort);
+        Specification<Property> spec = cursorSpecification(criteria, cursor, order);
+
+        // Fetch one extra row to learn whether another page follows, without a count query
+        List<Property> rows = propertyRepository.findRange(spec, PropertyCursor.sortFor(order), 0, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Property> content = hasNext ? rows.subList(0, size) : rows;
+        fetchImages(content);
+        String next = hasNext ? PropertyCursor.after(content.get(size - 1), order).encode() : null;
+        return new CursorPage<>(content, size, hasNext, next);
+    }
+
+    @Override
+    public SearchSlice<Property> searchPropertiesSlice(
+            PropertySearchCriteria criteria, Pageable pageable, boolean estimateTotal) {
+        validateSearchCriteria(criteria);
+
+        int size = pageable.getPageSize();
+        List<Property> rows = propertyRepository.findRange(specificationFor(criteria, pageable.getSort()),
+                databaseSort(criteria, pageable.getSort()), pageable.getOffset(), size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Property> content = hasNext ? rows.subList(0, size) : rows;
+        fetchImages(content);
+        Long estimatedTotal = estimateTotal ? propertyRepository.estimateCount(criteria) : null;
+        return new SearchSlice<>(content, pageable.getPageNumber(), size, hasNext, estimatedTotal);
+    }
+
+    @Override
+    public Page<PropertySummary> searchPropertySummaries(PropertySearchCriteria criteria, Pageable pageable) {
+        validateSearchCriteria(criteria);
+
+        Pageable databasePageable = databasePageable(criteria, pageable);
+        if (!isRankedByRelevance(criteria, pageable.getSort())) {
+            Optional<PropertyColumnIndex.IdPage> indexed = columnIndex.search(criteria, databasePageable);
+            if (indexed.isPresent()) {
+                return new PageImpl<>(summariesInOrder(indexed.get().ids()), databasePageable, indexed.get().total());
             }
-            if (maxBathrooms != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("bathrooms"), maxBathrooms));
+        }
+        Specification<Property> spec = specificationFor(criteria, pageable.getSort());
+        List<PropertySummary> content = pageable.isPaged()
+                ? propertyRepository.findSummaries(spec, databasePageable.getSort(),
+                        databasePageable.getOffset(), databasePageable.getPageSize())
+                : propertyRepository.findSummaries(spec, databaseSort(criteria, pageable.getSort()),
+                        0, Integer.MAX_VALUE);
+        // Skips the count when the page itself shows where the results end
+        return PageableExecutionUtils.getPage(content, databasePageable, () -> propertyRepository.count(spec));
+    }
+
+    @Override
+    public CursorPage<PropertySummary> searchPropertySummariesByCursor(
+            PropertySearchCriteria criteria, String cursor, int size, Sort sort) {
+        validateSearchCriteria(criteria);
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0");
+        }
+
+        Sort.Order order = PropertyCursor.orderFor(sort);
+        List<PropertySummary> rows = propertyRepository.findSummaries(
+                cursorSpecification(criteria, cursor, order), PropertyCursor.sortFor(order), 0, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<PropertySummary> content = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? PropertyCursor.after(content.get(size - 1), order).encode() : null;
+        return new CursorPage<>(content, size, hasNext, next);
+    }
+
+    @Override
+    public SearchSlice<PropertySummary> searchPropertySummariesSlice(
+            PropertySearchCriteria criteria, Pageable pageable, boolean estimateTotal) {
+        validateSearchCriteria(criteria);
+
+        int size = pageable.getPageSize();
+        List<PropertySummary> rows = propertyRepository.findSummaries(
+                specificationFor(criteria, pageable.getSort()),
+                databaseSort(criteria, pageable.getSort()), pageable.getOffset(), size + 1);
+        boolean hasNext = rows.size() > size;
+        List<PropertySummary> content = hasNext ? rows.subList(0, size) : rows;
+        Long estimatedTotal = estimateTotal ? propertyRepository.estimateCount(criteria) : null;
+        return new SearchSlice<>(content, pageable.getPageNumber(), size, hasNext, estimatedTotal);
+    }
+
+    @Override
+    public PropertyFacets getFacets(PropertySearchCriteria criteria, Set<SearchFacet> facets) {
+        validateSearchCriteria(criteria);
+        if (facets.isEmpty()) {
+            throw new IllegalArgumentException("At least one facet must be requested");
+        }
+        return propertyRepository.countFacets(criteria, facets);
+    }
+
+    /**
+     * Area-only requests are merged from the per-area sketches. Any other filter cuts
+     * across areas, so its distribution is built from the matching rows instead.
+     */
+    @Override
+    public PriceStatistics getPriceStatistics(PropertySearchCriteria criteria, Set<String> areas) {
+        validateSearchCriteria(criteria);
+        Set<String> normalizedAreas = areas.stream()
+                .map(PriceStatisticsIndex::normalizeArea)
+                .collect(Collectors.toSet());
+        Optional<PriceStatistics> fromSketches = PropertySqlFilter.of(criteria).isEmpty()
+                ? priceStatisticsIndex.statistics(normalizedAreas)
+                : Optional.empty();
+        return fromSketches.orElseGet(() -> propertyRepository.priceDistribution(criteria, normalizedAreas)
+                .toStatistics(PriceStatistics.Source.SCAN));
+    }
+
+    @Override
+    public void exportProperties(PropertySearchCriteria criteria, Consumer<PropertyExportRow> action) {
+        validateSearchCriteria(criteria);
+        propertyRepository.forEachExportRow(criteria, action);
+    }
+
+    // Served entirely from memory, so no transaction (and no pooled connection) is needed
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<AddressSuggestion> suggestAddresses(String prefix, int limit) {
+        if (limit <= 0 || limit > AddressSuggestionIndex.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException(
+                    "Limit must be between 1 and " + AddressSuggestionIndex.MAX_SUGGESTIONS);
+        }
+        if (!StringUtils.hasText(prefix)) {
+            return List.of();
+        }
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    public List<PropertySummary> findSimilarProperties(Long id, int limit) {
+        if (limit <= 0 || limit > SimilarPropertyIndex.MAX_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + SimilarPropertyIndex.MAX_RESULTS);
+        }
+        if (!propertyRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Property", "id", id);
+        }
+        List<Long> similarIds = similarPropertyIndex.similarTo(id, limit).orElse(List.of());
+        return similarIds.isEmpty() ? List.of() : summariesInOrder(similarIds);
+    }
+
+    /**
+     * Builds the search specification, adding relevance ordering when the caller sorts by
+     * relevance or runs a text query without choosing a sort.
+     */
+    private Specification<Property> specificationFor(PropertySearchCriteria criteria, Sort sort) {
+        Specification<Property> spec = PropertySpecifications.matching(criteria);
+        if (isRankedByRelevance(criteria, sort)) {
+            Sort thenBy = withoutRelevance(sort).and(Sort.by("id"));
+            spec = spec.and(PropertySpecifications.rankedByRelevance(criteria, thenBy));
+        }
+        return spec;
+    }
+
+    private Pageable databasePageable(PropertySearchCriteria criteria, Pageable pageable) {
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                        databaseSort(criteria, pageable.getSort()))
+                : pageable;
+    }
+
+    /**
+     * Combines the filters with the seek predicate of a keyset cursor, if one was given.
+     */
+    private Specification<Property> cursorSpecification(PropertySearchCriteria criteria, String cursor,
+                                                        Sort.Order order) {
+        Specification<Property> spec = PropertySpecifications.matching(criteria);
+        if (StringUtils.hasText(cursor)) {
+            PropertyCursor position = PropertyCursor.decode(cursor);
+            if (!position.matches(order)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
             }
-            
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
-        
-        return propertyRepository.findAll(spec, pageable);
+            spec = spec.and(position.toSpecification());
+        }
+        return spec;
+    }
+
+    /**
+     * Returns the sort to hand to the repository. Relevance is not a column, so it is either
+     * applied by the specification or, without a term to rank by, dropped.
+     */
+    private Sort databaseSort(PropertySearchCriteria criteria, Sort sort) {
+        return isRankedByRelevance(criteria, sort) ? Sort.unsorted() : withoutRelevance(sort);
+    }
+
+    private boolean isRankedByRelevance(PropertySearchCriteria criteria, Sort sort) {
+        if (StringUtils.hasText(criteria.getText())) {
+            return sort.isUnsorted() || sort.getOrderFor(PropertySpecifications.RELEVANCE) != null;
+        }
+        return sort.getOrderFor(PropertySpecifications.RELEVANCE) != null
+                && StringUtils.hasText(criteria.getAddress());
+    }
+
+    private Sort withoutRelevance(Sort sort) {
+        return Sort.by(sort.stream()
+                .filter(order -> !PropertySpecifications.RELEVANCE.equals(order.getProperty()))
+                .toList());
+    }
+
+    /**
+     * Initialises the images of a page of properties with one IN query. Left lazy, each
+     * property's images would be loaded by a query of its own as the page is serialised.
+     * The page itself is fetched without the join so that LIMIT applies to properties.
+     */
+    private void fetchImages(List<Property> properties) {
+        List<Long> ids = properties.stream()
+                .filter(property -> !Hibernate.isInitialized(property.getImages()))
+                .map(Property::getId)
+                .toList();
+        if (!ids.isEmpty()) {
+            propertyRepository.findWithImagesByIdIn(ids);
+        }
+    }
+
+    /**
+     * Loads summaries for a page of ids answered by the columnar index, keeping its ordering.
+     */
+    private List<PropertySummary> summariesInOrder(List<Long> ids) {
+        Map<Long, PropertySummary> summariesById = propertyRepository.findSummaries(
+                        PropertySpecifications.hasIdIn(ids), Sort.unsorted(), 0, ids.size()).stream()
+                .collect(Collectors.toMap(PropertySummary::id, Function.identity()));
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Hydrates a page of ids answered by the columnar index, keeping the index's ordering.
+     */
+    private Page<Property> loadPage(PropertyColumnIndex.IdPage idPage, Pageable pageable) {
+        Map<Long, Property> propertiesById = propertyRepository.findWithImagesByIdIn(idPage.ids()).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        List<Property> content = idPage.ids().stream()
+                .map(propertiesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, idPage.total());
     }
     
+    /**
+     * Copies the searchable fields of a managed property before it is changed, for
+     * listeners that need to know which searches it matched.
+     */
+    private Property snapshot(Property property) {
+        return Property.builder()
+                .id(property.getId())
+                .address(property.getAddress())
+                .description(property.getDescription())
+                .price(property.getPrice())
+                .bedrooms(property.getBedrooms())
+                .bathrooms(property.getBathrooms())
+                .squareFootage(property.getSquareFootage())
+                .latitude(property.getLatitude())
+                .longitude(property.getLongitude())
+                .build();
+    }
+
     /**
      * Validates the property data before saving.
      * Throws IllegalArgumentException if validation fails.
      *
      * @param property the property to validate
      */
-    private void validateProperty(Property property) {
-        if (!StringUtils.hasText(property.getAddress())) {
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void validateProperty(Property property) {
+        validateAddress(property.getAddress());
+        validatePositive(property.getPrice(), "Price must be greater than 0");
+        validatePositive(property.getBedrooms(), "Number of bedrooms must be greater than 0");
+        validatePositive(property.getBathrooms(), "Number of bathrooms must be greater than 0");
+        validatePositive(property.getSquareFootage(), "Square footage must be greater than 0");
+        // Also enforced by bean validation, which batch inserts bypass
+        validateLatitude(property.getLatitude());
+        validateLongitude(property.getLongitude());
+    }
+
+    /**
+     * Applies {@link #validateProperty}'s rules to just the fields a patch sets.
+     */
+    private void validatePatch(PropertyPatch patch) {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("The patch does not change any field");
+        }
+        if (patch.has("address")) {
+            validateAddress((String) patch.get("address"));
+        }
+        if (patch.has("price")) {
+            validatePositive((Double) patch.get("price"), "Price must be greater than 0");
+        }
+        if (patch.has("bedrooms")) {
+            validatePositive((Integer) patch.get("bedrooms"), "Number of bedrooms must be greater than 0");
+        }
+        if (patch.has("bathrooms")) {
+            validatePositive((Integer) patch.get("bathrooms"), "Number of bathrooms must be greater than 0");
+        }
+        if (patch.has("squareFootage")) {
+            validatePositive((Double) patch.get("squareFootage"), "Square footage must be greater than 0");
+        }
+        validateLatitude((Double) patch.get("latitude"));
+        validateLongitude((Double) patch.get("longitude"));
+    }
+
+    private void validateAddress(String address) {
+        if (!StringUtils.hasText(address)) {
             throw new IllegalArgumentException("Address is required");
         }
-        if (property.getPrice() == null || property.getPrice() <= 0) {
-            throw new IllegalArgumentException("Price must be greater than 0");
+        if (address.length() > MAX_ADDRESS_LENGTH) {
+            throw new IllegalArgumentException("Address must not exceed 1000 characters");
+        }
+    }
+
+    private void validatePositive(Number value, String message) {
+        if (value == null || !Double.isFinite(value.doubleValue()) || value.doubleValue() <= 0) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private void validateLatitude(Double latitude) {
+        if (latitude != null && (!Double.isFinite(latitude) || Math.abs(latitude) > 90)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+    }
+
+    private void validateLongitude(Double longitude) {
+        if (longitude != null && (!Double.isFinite(longitude) || Math.abs(longitude) > 180)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+
+    private void validatePriceChange(double percentChange) {
+        if (!Double.isFinite(percentChange) || percentChange <= -100) {
+            throw new IllegalArgumentException("Price change must be a percentage greater than -100");
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void validateSearchCriteria(PropertySearchCriteria criteria) {
+        validateSearchParameters(criteria.getMinPrice(), criteria.getMaxPrice(), criteria.getBedrooms());
+        validateLocation(criteria);
+    }
+
+    private void validateLocation(PropertySearchCriteria criteria) {
+        boolean anyRadius = criteria.getLatitude() != null || criteria.getLongitude() != null
+                || criteria.getRadiusMiles() != null;
+        if (anyRadius) {
+            if (!criteria.hasRadius()) {
+                throw new IllegalArgumentException("Latitude, longitude and radius must be given together");
+            }
+            validateCoordinates(criteria.getLatitude(), criteria.getLongitude());
+            if (!Double.isFinite(criteria.getRadiusMiles()) || criteria.getRadiusMiles() <= 0) {
+                throw new IllegalArgumentException("Radius must be greater than 0");
+            }
         }
-        if (property.getBedrooms() == null || property.getBedrooms() <= 0) {
-            throw new IllegalArgumentException("Number of bedrooms must be greater than 0");
+        boolean anyBox = criteria.getMinLatitude() != null || criteria.getMinLongitude() != null
+                || criteria.getMaxLatitude() != null || criteria.getMaxLongitude() != null;
+        if (anyBox) {
+            if (!criteria.hasBoundingBox()) {
+                throw new IllegalArgumentException("Bounding box must have all four corners");
+            }
+            validateCoordinates(criteria.getMinLatitude(), criteria.getMinLongitude());
+            validateCoordinates(criteria.getMaxLatitude(), criteria.getMaxLongitude());
+            if (criteria.getMinLatitude() > criteria.getMaxLatitude()
+                    || criteria.getMinLongitude() > criteria.getMaxLongitude()) {
+                throw new IllegalArgumentException("Bounding box minimums must not exceed its maximums");
+            }
         }
-        if (property.getBathrooms() == null || property.getBathrooms() <= 0) {
-            throw new IllegalArgumentException("Number of bathrooms must be greater than 0");
+    }
+
+    private void validateCoordinates(Double latitude, Double longitude) {
+        if (!Double.isFinite(latitude) || latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
         }
-        if (property.getSquareFootage() == null || property.getSquareFootage() <= 0) {
-            throw new IllegalArgumentException("Square footage must be greater than 0");
+        if (!Double.isFinite(longitude) || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
         }
     }
 
@@ -0,0 +1,257 @@
+package com.propertymanager.service.impl;
+
+import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SavedSearch;
+import com.propertymanager.model.SavedSearchMatch;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.repository.SavedSearchMatchRepository;
+import com.propertymanager.repository.SavedSearchRepository;
+import com.propertymanager.search.SavedSearchPercolator;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import com.propertymanager.service.PropertyService;
+import com.propertymanager.service.SavedSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@Transactional(readOnly = true)
+public class SavedSearchServiceImpl implements SavedSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchServiceImpl.class);
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchMatchRepository matchRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyService propertyService;
+    private final SavedSearchPercolator percolator;
+    private final TaskExecutor percolationExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * A property to percolate, and why it may now match searches it did not before.
+     */
+    private record Candidate(Property property, SavedSearchMatch.Reason reason) {
+    }
+
+    public SavedSearchServiceImpl(SavedSearchRepository savedSearchRepository,
+                                  SavedSearchMatchRepository matchRepository,
+                                  PropertyRepository propertyRepository,
+                                  PropertyService propertyService,
+                                  SavedSearchPercolator percolator,
+                                  @Qualifier("percolationExecutor") TaskExecutor percolationExecutor,
+                                  PlatformTransactionManager transactionManager) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.matchRepository = matchRepository;
+        this.propertyRepository = propertyRepository;
+        this.propertyService = propertyService;
+        this.percolator = percolator;
+        this.percolationExecutor = percolationExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public SavedSearch createSavedSearch(String owner, String name, PropertySearchCriteria criteria) {
+        logger.debug("Saving search '{}' for {}: {}", name, owner, criteria);
+        if (!StringUtils.hasText(name)) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (criteria == null) {
+            throw new IllegalArgumentException("Search criteria are required");
+        }
+        propertyService.validateSearchCriteria(criteria);
+        validateFilterLength("Address", criteria.getAddress());
+        validateFilterLength("Text", criteria.getText());
+
+        SavedSearch savedSearch = savedSearchRepository.save(SavedSearch.of(owner, name, criteria.normalized()));
+        afterCommit(() -> percolator.add(savedSearch));
+        return savedSearch;
+    }
+
+    @Override
+    public List<SavedSearch> getSavedSearches(String owner) {
+        return savedSearchRepository.findByOwnerOrderByIdDesc(owner);
+    }
+
+    @Override
+    @Transactional
+    public void deleteSavedSearch(Long id, String owner) {
+        logger.debug("Deleting saved search {} for {}", id, owner);
+        savedSearchRepository.delete(findOwned(id, owner));
+        afterCommit(() -> percolator.remove(id));
+    }
+
+    @Override
+    public Page<SavedSearchMatch> getMatches(Long id, String owner, Pageable pageable) {
+        findOwned(id, owner);
+        return matchRepository.findBySavedSearchIdOrderByMatchedAtDesc(id, pageable);
+    }
+
+    /**
+     * Records a match for every saved search a newly listed or repriced property now
+     * satisfies. The property is percolated on the percolation thread once the write has
+     * committed, and a transaction is only opened there if something may have matched.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        submit(List.of(event));
+    }
+
+    /**
+     * Records the matches for a whole bulk write in one transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onPropertiesChanged(PropertiesChangedEvent event) {
+        submit(event.getChanges());
+    }
+
+    private void submit(List<PropertyChangedEvent> changes) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (PropertyChangedEvent change : changes) {
+            SavedSearchMatch.Reason reason = reasonFor(change);
+            if (reason != null) {
+                // Copied now: the entity may change again before the percolation thread gets to it
+                candidates.add(new Candidate(copy(change.getProperty()), reason));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        try {
+            percolationExecutor.execute(() -> {
+                try {
+                    recordMatches(candidates);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to record saved search matches for {} properties", candidates.size(), e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.warn("Percolation queue is full; {} property changes were not matched against saved searches",
+                    candidates.size());
+        }
+    }
+
+    private void recordMatches(List<Candidate> candidates) {
+        List<Map.Entry<Candidate, SavedSearchPercolator.Percolation>> percolations = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            SavedSearchPercolator.Percolation percolation = percolator.percolate(candidate.property());
+            if (!percolation.matched().isEmpty() || !percolation.unconfirmed().isEmpty()) {
+                percolations.add(Map.entry(candidate, percolation));
+            }
+        }
+        if (percolations.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<SavedSearchMatch> matches = new ArrayList<>();
+            for (Map.Entry<Candidate, SavedSearchPercolator.Percolation> entry : percolations) {
+                Candidate candidate = entry.getKey();
+                SavedSearchPercolator.Percolation percolation = entry.getValue();
+                Property property = candidate.property();
+                List<Long> matched = new ArrayList<>(percolation.matched());
+                // Free-text and distance filters are only decided by the database
+                if (!percolation.unconfirmed().isEmpty()) {
+                    for (SavedSearch search : savedSearchRepository.findAllById(percolation.unconfirmed())) {
+                        if (propertyRepository.matches(property.getId(), search.toCriteria())) {
+                            matched.add(search.getId());
+                        }
+                    }
+                }
+                for (Long searchId : matched) {
+                    matches.add(SavedSearchMatch.builder()
+                            .savedSearch(savedSearchRepository.getReferenceById(searchId))
+                            .propertyId(property.getId())
+                            .reason(candidate.reason())
+                            .price(property.getPrice())
+                            .matchedAt(now)
+                            .build());
+                }
+            }
+            if (!matches.isEmpty()) {
+                matchRepository.saveAll(matches);
+                logger.info("Recorded {} saved search matches for {} properties", matches.size(), percolations.size());
+            }
+        });
+    }
+
+    private SavedSearchMatch.Reason reasonFor(PropertyChangedEvent event) {
+        if (event.getType() == PropertyChangedEvent.Type.CREATED) {
+            return SavedSearchMatch.Reason.CREATED;
+        }
+        Property previous = event.getPrevious();
+        if (event.getType() == PropertyChangedEvent.Type.UPDATED && previous != null
+                && !Objects.equals(previous.getPrice(), event.getProperty().getPrice())) {
+            return SavedSearchMatch.Reason.REPRICED;
+        }
+        return null;
+    }
+
+    private static void validateFilterLength(String name, String filter) {
+        if (filter != null && filter.length() > SavedSearch.MAX_FILTER_LENGTH) {
+            throw new IllegalArgumentException(
+                    name + " filter must not exceed " + SavedSearch.MAX_FILTER_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Changes the percolator only once the saved search is committed, so that a rolled-back
+     * write leaves no trace in it. Runs the change at once outside a transaction.
+     */
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static Property copy(Property property) {
+        return Property.builder()
+                .id(property.getId())
+                .address(property.getAddress())
+                .description(property.getDescription())
+                .price(property.getPrice())
+                .bedrooms(property.getBedrooms())
+                .bathrooms(property.getBathrooms())
+                .squareFootage(property.getSquareFootage())
+                .latitude(property.getLatitude())
+                .longitude(property.getLongitude())
+                .build();
+    }
+
+    private SavedSearch findOwned(Long id, String owner) {
+        return savedSearchRepository.findById(id)
+                .filter(search -> Objects.equals(search.getOwner(), owner))
+                .orElseThrow(() -> new ResourceNotFoundException("SavedSearch", "id", id));
+    }
+}
@@ -0,0 +1,40 @@
+-- Standing queries: the same filters the search endpoint accepts, owned by a user
+CREATE TABLE IF NOT EXISTS saved_searches (
+    id BIGSERIAL PRIMARY KEY,
+    owner VARCHAR(50) REFERENCES users(username) ON DELETE CASCADE,
+    name VARCHAR(100) NOT NULL,
+    address VARCHAR(255),
+    query_text VARCHAR(255),
+    min_price DOUBLE PRECISION,
+    max_price DOUBLE PRECISION,
+    min_size DOUBLE PRECISION,
+    max_size DOUBLE PRECISION,
+    bedrooms INTEGER,
+    max_rooms INTEGER,
+    min_bathrooms INTEGER,
+    max_bathrooms INTEGER,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    radius_miles DOUBLE PRECISION,
+    min_latitude DOUBLE PRECISION,
+    min_longitude DOUBLE PRECISION,
+    max_latitude DOUBLE PRECISION,
+    max_longitude DOUBLE PRECISION,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_saved_searches_owner
+    ON saved_searches (owner);
+
+-- Properties that matched a saved search when they were listed or repriced
+CREATE TABLE IF NOT EXISTS saved_search_matches (
+    id BIGSERIAL PRIMARY KEY,
+    saved_search_id BIGINT NOT NULL REFERENCES saved_searches(id) ON DELETE CASCADE,
+    property_id BIGINT NOT NULL REFERENCES properties(id) ON DELETE CASCADE,
+    reason VARCHAR(20) NOT NULL,
+    price DOUBLE PRECISION,
+    matched_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_saved_search_matches_search
+    ON saved_search_matches (saved_search_id, matched_at DESC);
@@ -0,0 +1,7 @@
+-- Hibernate now takes property, image and user ids from these sequences with the pooled-lo
+-- optimizer: each nextval reserves the block of 50 ids starting at the value returned, so
+-- inserts can be batched instead of waiting for an identity per row. Existing ids are kept;
+-- the column defaults still draw one value per row for inserts made in SQL.
+ALTER SEQUENCE properties_id_seq INCREMENT BY 50;
+ALTER SEQUENCE images_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
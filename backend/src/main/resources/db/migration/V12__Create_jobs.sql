@@ -0,0 +1,24 @@
+-- Bulk jobs (imports, repricing, deletions). Each chunk a worker commits updates the job's
+-- counts and cursor in the same transaction, so a job resumes where it stopped
+CREATE TABLE IF NOT EXISTS jobs (
+    id BIGSERIAL PRIMARY KEY,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    owner VARCHAR(50) REFERENCES users(username) ON DELETE SET NULL,
+    parameters TEXT NOT NULL,
+    total_items BIGINT,
+    processed_items BIGINT NOT NULL DEFAULT 0,
+    failed_items BIGINT NOT NULL DEFAULT 0,
+    cursor_position BIGINT NOT NULL DEFAULT 0,
+    errors TEXT,
+    message TEXT,
+    worker VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    started_at TIMESTAMP,
+    heartbeat_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
+
+-- Workers poll for queued jobs and for running ones whose worker has gone quiet
+CREATE INDEX IF NOT EXISTS idx_jobs_unfinished
+    ON jobs (id) WHERE status IN ('QUEUED', 'RUNNING');
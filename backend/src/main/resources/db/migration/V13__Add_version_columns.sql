@@ -0,0 +1,5 @@
+-- Optimistic-lock versions, incremented by Hibernate on every update. A property's version
+-- also moves when its images change, so its id and version identify the detail response
+-- and make up its ETag.
+ALTER TABLE properties ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE images ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
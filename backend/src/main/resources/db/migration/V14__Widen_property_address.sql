@@ -0,0 +1,15 @@
+-- Widen address to the 1000 characters the API accepts. Postgres will not change the type of
+-- a column a generated column reads, so the search vector is dropped and added back around it.
+DROP INDEX IF EXISTS idx_properties_search_vector;
+ALTER TABLE properties DROP COLUMN IF EXISTS search_vector;
+
+ALTER TABLE properties ALTER COLUMN address TYPE VARCHAR(1000);
+
+ALTER TABLE properties ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(address, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX idx_properties_search_vector
+    ON properties USING gin (search_vector);
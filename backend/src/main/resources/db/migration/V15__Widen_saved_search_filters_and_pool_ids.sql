@@ -0,0 +1,8 @@
+-- Saved search filters may be as long as the 1000-character addresses they are matched against
+ALTER TABLE saved_searches ALTER COLUMN address TYPE VARCHAR(1000);
+ALTER TABLE saved_searches ALTER COLUMN query_text TYPE VARCHAR(1000);
+
+-- Saved search and match ids now come from these sequences with the pooled-lo optimizer, as
+-- property, image and user ids do since V11, so matches can be inserted in JDBC batches.
+ALTER SEQUENCE saved_searches_id_seq INCREMENT BY 50;
+ALTER SEQUENCE saved_search_matches_id_seq INCREMENT BY 50;
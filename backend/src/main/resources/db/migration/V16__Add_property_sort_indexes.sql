@@ -0,0 +1,12 @@
+-- B-tree indexes for the remaining sorts the search endpoints accept, so that offset and
+-- keyset pages sorted by address, bedrooms or bathrooms read the first page straight off an
+-- index instead of sorting every row. Like those in V9, each ends in id for the keyset order.
+
+CREATE INDEX IF NOT EXISTS idx_properties_address_id
+    ON properties (address, id);
+
+CREATE INDEX IF NOT EXISTS idx_properties_bedrooms_id
+    ON properties (bedrooms, id);
+
+CREATE INDEX IF NOT EXISTS idx_properties_bathrooms_id
+    ON properties (bathrooms, id);
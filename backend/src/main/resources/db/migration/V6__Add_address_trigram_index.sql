@@ -0,0 +1,6 @@
+-- Enable trigram matching so substring searches on address can use an index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Index the same lower(address) expression the search predicate uses
+CREATE INDEX IF NOT EXISTS idx_properties_address_trgm
+    ON properties USING gin (lower(address) gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- Full-text search over address (weight A) and description (weight B)
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(address, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_properties_search_vector
+    ON properties USING gin (search_vector);
@@ -0,0 +1,11 @@
+-- Coordinates for distance and map searches; nullable until properties are geocoded
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+-- Provides the <@> great-circle distance operator (in statute miles) on points
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+-- Serves bounding-box containment on point(longitude, latitude)
+CREATE INDEX IF NOT EXISTS idx_properties_location
+    ON properties USING gist (point(longitude, latitude));
@@ -0,0 +1,16 @@
+-- B-tree indexes for the range filters and sorts the search endpoints accept.
+-- Each ends in id so that keyset pages, ordered by (key, id), read straight off the index.
+
+-- Price ranges, and pages sorted by price
+CREATE INDEX IF NOT EXISTS idx_properties_price
+    ON properties (price, id);
+
+-- Size ranges, and pages sorted by square footage
+CREATE INDEX IF NOT EXISTS idx_properties_square_footage
+    ON properties (square_footage, id);
+
+-- An exact bedroom count combined with a price range or price sort; the leading column
+-- also serves the max-rooms bound. Bathroom ranges are too unselective to index alone
+-- and are filtered on whichever of these indexes the planner picks.
+CREATE INDEX IF NOT EXISTS idx_properties_bedrooms_price
+    ON properties (bedrooms, price, id);
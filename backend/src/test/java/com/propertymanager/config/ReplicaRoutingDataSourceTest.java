@@ -0,0 +1,227 @@
+package com.propertymanager.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource first;
+
+    @Mock
+    private DataSource second;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        lagOf(firstConnection, 0);
+        lagOf(secondConnection, 0);
+        routing = new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.Replica("replica-1", first),
+                        new ReplicaRoutingDataSource.Replica("replica-2", second)),
+                Duration.ofSeconds(10), Duration.ofSeconds(5), nanos::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void lagOf(Connection connection, double seconds) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void getConnection_InReadOnlyTransactions_ShouldTakeTurnsBetweenHealthyReplicas() throws SQLException {
+        routing.checkReplicas();
+        beginTransaction(true);
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(firstConnection, secondConnection, firstConnection);
+    }
+
+    @Test
+    void getConnection_OutsideReadOnlyTransactions_ShouldUsePrimary() throws SQLException {
+        routing.checkReplicas();
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        beginTransaction(false);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_BeforeReplicasAreChecked_ShouldUsePrimary() throws SQLException {
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void checkReplicas_ShouldEjectLaggingReplicasUntilTheyCatchUp() throws SQLException {
+        lagOf(firstConnection, 30);
+        routing.checkReplicas();
+        beginTransaction(true);
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection())).containsOnly(secondConnection);
+        assertThat(routing.getReplicas()).extracting(ReplicaRoutingDataSource.Replica::isHealthy)
+                .containsExactly(false, true);
+
+        lagOf(firstConnection, 1);
+        routing.checkReplicas();
+        assertThat(routing.getReplicas().get(0).isHealthy()).isTrue();
+    }
+
+    @Test
+    void checkReplicas_ShouldEjectUnreachableReplicas() throws SQLException {
+        routing.checkReplicas();
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+        when(second.getConnection()).thenThrow(new IllegalStateException("Pool closed"));
+
+        routing.checkReplicas();
+
+        assertThat(routing.getReplicas()).noneMatch(ReplicaRoutingDataSource.Replica::isHealthy);
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_WhenAReplicaFails_ShouldEjectItAndFallBackToPrimary() throws SQLException {
+        routing.checkReplicas();
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException("Timed out"));
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+        assertThat(routing.getConnection()).isSameAs(secondConnection);
+    }
+
+    @Test
+    void getConnection_AfterAUserCommitsAWrite_ShouldReadTheirWritesFromPrimary() throws SQLException {
+        routing.checkReplicas();
+        signIn("admin");
+        beginTransaction(false);
+        routing.getConnection();
+        commit();
+
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        signIn("someone-else");
+        assertThat(routing.getConnection()).isIn(firstConnection, secondConnection);
+
+        signIn("admin");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertThat(routing.getConnection()).isIn(firstConnection, secondConnection);
+    }
+
+    @Test
+    void getConnection_WhenAWriteRollsBack_ShouldKeepReadingFromReplicas() throws SQLException {
+        routing.checkReplicas();
+        signIn("admin");
+        beginTransaction(false);
+        routing.getConnection();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isIn(firstConnection, secondConnection);
+    }
+
+    @Test
+    void getConnection_WithoutReplicas_ShouldAlwaysUsePrimary() throws SQLException {
+        ReplicaRoutingDataSource primaryOnly = new ReplicaRoutingDataSource(primary, List.of(),
+                Duration.ofSeconds(10), Duration.ofSeconds(5));
+        primaryOnly.checkReplicas();
+        beginTransaction(true);
+
+        assertThat(primaryOnly.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void destroy_ShouldCloseTheReplicaPools() throws Exception {
+        AutoCloseablePool pool = mock(AutoCloseablePool.class);
+        new ReplicaRoutingDataSource(primary, List.of(new ReplicaRoutingDataSource.Replica("replica-1", pool)),
+                Duration.ofSeconds(10), Duration.ofSeconds(5)).destroy();
+
+        verify(pool).close();
+    }
+
+    private interface AutoCloseablePool extends DataSource, AutoCloseable {
+    }
+}
@@ -0,0 +1,80 @@
+package com.propertymanager.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SecondLevelCacheMetricsTest {
+
+    private static final String REGION = "com.propertymanager.model.Property";
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private CacheImplementor cache;
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private CacheRegionStatistics regionStatistics;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        when(cache.getCacheRegionNames()).thenReturn(Set.of(REGION));
+        new SecondLevelCacheMetrics(entityManagerFactory).bindTo(registry);
+    }
+
+    @Test
+    void bindTo_ShouldReportEachRegionsCountsAndHitRatio() {
+        when(statistics.getCacheRegionStatistics(REGION)).thenReturn(regionStatistics);
+        when(regionStatistics.getHitCount()).thenReturn(3L);
+        when(regionStatistics.getMissCount()).thenReturn(1L);
+        when(regionStatistics.getPutCount()).thenReturn(2L);
+
+        assertThat(registry.get(SecondLevelCacheMetrics.REQUESTS).tags("region", REGION, "result", "hit")
+                .functionCounter().count()).isEqualTo(3);
+        assertThat(registry.get(SecondLevelCacheMetrics.REQUESTS).tags("region", REGION, "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get(SecondLevelCacheMetrics.PUTS).tag("region", REGION)
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get(SecondLevelCacheMetrics.HIT_RATIO).tag("region", REGION)
+                .gauge().value()).isEqualTo(0.75);
+    }
+
+    @Test
+    void hitRatio_BeforeAnyLookup_ShouldBeNaN() {
+        when(statistics.getCacheRegionStatistics(REGION)).thenReturn(regionStatistics);
+
+        assertThat(SecondLevelCacheMetrics.hitRatio(statistics, REGION)).isNaN();
+    }
+
+    @Test
+    void hitRatio_ForARegionWithoutStatistics_ShouldBeNaN() {
+        assertThat(SecondLevelCacheMetrics.hitRatio(statistics, REGION)).isNaN();
+        assertThat(registry.get(SecondLevelCacheMetrics.PUTS).functionCounter().count()).isZero();
+    }
+}
@@ -3,21 +3,51 @@ package com.propertymanager.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.propertymanager.exception.GlobalExceptionHandler;
 import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.model.AddressSuggestion;
+import com.propertymanager.model.CursorPage;
+import com.propertymanager.model.PriceStatistics;
 import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.model.SearchSlice;
+import com.propertymanager.search.PropertyChangeStream;
+import com.propertymanager.search.PropertySearchCache;
+import com.propertymanager.service.PropertyExporter;
+import com.propertymanager.service.PropertyImporter;
 import com.propertymanager.service.PropertyService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -31,19 +61,28 @@ public class PropertyControllerTest {
     @Mock
     private PropertyService propertyService;
 
-    @InjectMocks
+    @Mock
+    private PropertyChangeStream changeStream;
+
     private PropertyController propertyController;
 
     private ObjectMapper objectMapper;
     private Property testProperty;
     private List<Property> testProperties;
+    private List<PropertySummary> testSummaries;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        PropertySearchCache searchCache = new PropertySearchCache(
+                propertyService, new SimpleMeterRegistry(), true, 1, 60);
+        propertyController = new PropertyController(propertyService, searchCache,
+                new PropertyExporter(propertyService, new ObjectMapper()),
+                new PropertyImporter(propertyService, new ObjectMapper()), changeStream);
         
         mockMvc = MockMvcBuilders.standaloneSetup(propertyController)
                 .setControllerAdvice(new GlobalExceptionHandler())
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .build();
         
         objectMapper = new ObjectMapper();
@@ -70,6 +109,12 @@ public class PropertyControllerTest {
                         .squareFootage(2000.0)
                         .build()
         );
+
+        testSummaries = List.of(
+                new PropertySummary(1L, "123 Test St", "Test Property", 200000.0, 3, 2, 1500.0, null, null,
+                        "/api/images/front.jpg", 2, 3),
+                new PropertySummary(2L, "456 Test Ave", "Another Test Property", 300000.0, 4, 3, 2000.0, null, null,
+                        null, 0, 0));
     }
 
     @Test
@@ -84,9 +129,46 @@ public class PropertyControllerTest {
                 .andExpect(jsonPath("$.address").value(testProperty.getAddress()));
     }
 
+    @Test
+    void getPropertyById_ShouldReturnStrongETagFromIdAndVersion() throws Exception {
+        testProperty.setVersion(4);
+        when(propertyService.getPropertyVersion(1L)).thenReturn(4L);
+        when(propertyService.getPropertyById(1L)).thenReturn(testProperty);
+
+        mockMvc.perform(get("/api/properties/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void getPropertyById_WithCurrentETag_ShouldReturnNotModifiedWithoutLoading() throws Exception {
+        when(propertyService.getPropertyVersion(1L)).thenReturn(4L);
+
+        mockMvc.perform(get("/api/properties/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""))
+                .andExpect(content().string(""));
+
+        verify(propertyService, never()).getPropertyById(any());
+    }
+
+    @Test
+    void getPropertyById_WithOutdatedETag_ShouldReturnProperty() throws Exception {
+        testProperty.setVersion(5);
+        when(propertyService.getPropertyVersion(1L)).thenReturn(5L);
+        when(propertyService.getPropertyById(1L)).thenReturn(testProperty);
+
+        mockMvc.perform(get("/api/properties/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-5\""))
+                .andExpect(jsonPath("$.address").value("123 Test St"));
+    }
+
     @Test
     void getPropertyById_WhenPropertyDoesNotExist_ShouldReturnNotFound() throws Exception {
-        when(propertyService.getPropertyById(1L))
+        when(propertyService.getPropertyVersion(1L))
                 .thenThrow(new ResourceNotFoundException("Property", "id", 1L));
 
         mockMvc.perform(get("/api/properties/1")
@@ -151,6 +233,75 @@ public class PropertyControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void patchProperty_WithIfMatch_ShouldPatchThatVersionAndReturnNewETag() throws Exception {
+        Property patched = Property.builder().id(1L).price(210000.0).build();
+        patched.setVersion(4);
+        when(propertyService.patchProperty(eq(1L), eq(3L), any(PropertyPatch.class))).thenReturn(patched);
+
+        mockMvc.perform(patch("/api/properties/1")
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .content("{\"price\": 210000, \"description\": null}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+
+        verify(propertyService).patchProperty(eq(1L), eq(3L), argThat(patch ->
+                patch.values().keySet().equals(Set.of("price", "description")) && patch.get("description") == null));
+    }
+
+    @Test
+    void patchProperty_WithVersionInBodyOrWildcard_ShouldUseIt() throws Exception {
+        when(propertyService.patchProperty(eq(1L), any(), any(PropertyPatch.class))).thenReturn(testProperty);
+
+        mockMvc.perform(patch("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bedrooms\": 4, \"version\": 7}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(patch("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .content("{\"bedrooms\": 4}"))
+                .andExpect(status().isNoContent());
+
+        verify(propertyService).patchProperty(eq(1L), eq(7L), any(PropertyPatch.class));
+        verify(propertyService).patchProperty(eq(1L), isNull(), any(PropertyPatch.class));
+    }
+
+    @Test
+    void patchProperty_WithoutVersionOrWithForeignETag_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bedrooms\": 4}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"2-3\"")
+                        .content("{\"bedrooms\": 4}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .content("{\"garden\": true}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown property field: garden"));
+
+        verify(propertyService, never()).patchProperty(any(), any(), any());
+    }
+
+    @Test
+    void patchProperty_WhenVersionHasMovedOn_ShouldReturnConflict() throws Exception {
+        when(propertyService.patchProperty(eq(1L), eq(3L), any(PropertyPatch.class)))
+                .thenThrow(new OptimisticLockingFailureException("Property 1 is at version 5, not 3"));
+
+        mockMvc.perform(patch("/api/properties/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .content("{\"price\": 210000}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Property 1 is at version 5, not 3"));
+    }
+
     @Test
     void deleteProperty_WhenPropertyExists_ShouldDeleteProperty() throws Exception {
         doNothing().when(propertyService).deleteProperty(1L);
@@ -169,4 +320,332 @@ public class PropertyControllerTest {
         mockMvc.perform(delete("/api/properties/1"))
                 .andExpect(status().isNotFound());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void searchProperties_WithoutCursor_ShouldReturnOffsetPage() throws Exception {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(testSummaries));
+
+        mockMvc.perform(get("/api/properties/search")
+                        .param("address", "Test")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void searchProperties_WithCurrentPageETag_ShouldReturnNotModified() throws Exception {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(testSummaries));
+
+        String eTag = mockMvc.perform(get("/api/properties/search").param("address", "Test"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(eTag).startsWith("W/\"");
+        mockMvc.perform(get("/api/properties/search")
+                        .param("address", "Test")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllProperties_WhenARowsVersionChanges_ShouldChangePageETag() throws Exception {
+        PropertySummary updated = new PropertySummary(2L, "456 Test Ave", "Another Test Property", 300000.0, 4, 3,
+                2000.0, null, null, "/api/images/new.jpg", 1, 1);
+        when(propertyService.searchPropertySummariesSlice(any(PropertySearchCriteria.class), any(Pageable.class),
+                eq(false)))
+                .thenReturn(new SearchSlice<>(testSummaries, 0, 12, false, null))
+                .thenReturn(new SearchSlice<>(List.of(testSummaries.get(0), updated), 0, 12, false, null));
+
+        String before = mockMvc.perform(get("/api/properties").param("slice", "true"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/properties")
+                        .param("slice", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(before)))
+                .andExpect(jsonPath("$.content[1].imageUrl").value("/api/images/new.jpg"));
+    }
+
+    @Test
+    void getAllProperties_ShouldReturnSummariesWithoutImageLists() throws Exception {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(testSummaries));
+
+        mockMvc.perform(get("/api/properties").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].imageUrl").value("/api/images/front.jpg"))
+                .andExpect(jsonPath("$.content[0].imageCount").value(2))
+                .andExpect(jsonPath("$.content[0].descriptionPreview").value("Test Property"))
+                .andExpect(jsonPath("$.content[0].images").doesNotExist())
+                .andExpect(jsonPath("$.content[1].imageUrl").isEmpty());
+    }
+
+    @Test
+    void searchProperties_RepeatedWithDifferentCase_ShouldBeServedFromCache() throws Exception {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(testSummaries));
+
+        mockMvc.perform(get("/api/properties/search").param("address", "Test"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PropertySearchCache.HEADER, "MISS"));
+        mockMvc.perform(get("/api/properties/search").param("address", "TEST"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PropertySearchCache.HEADER, "HIT"))
+                .andExpect(jsonPath("$.content.length()").value(2));
+
+        verify(propertyService, times(1)).searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchProperties_WithBypassHeader_ShouldSkipCache() throws Exception {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(testSummaries));
+
+        mockMvc.perform(get("/api/properties/search").param("address", "Test"))
+                .andExpect(header().string(PropertySearchCache.HEADER, "MISS"));
+        mockMvc.perform(get("/api/properties/search")
+                        .param("address", "Test")
+                        .header(PropertySearchCache.HEADER, "bypass"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PropertySearchCache.HEADER, "BYPASS"));
+
+        verify(propertyService, times(2)).searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchProperties_WithCursor_ShouldReturnCursorPage() throws Exception {
+        when(propertyService.searchPropertySummariesByCursor(any(PropertySearchCriteria.class), eq(""), eq(1), eq(Sort.by("price"))))
+                .thenReturn(new CursorPage<>(List.of(testSummaries.get(0)), 1, true, "next-token"));
+
+        mockMvc.perform(get("/api/properties/search")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .param("sort", "price")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(testProperty.getId()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.next").value("next-token"));
+    }
+
+    @Test
+    void getAllProperties_WithInvertedPriceRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/properties")
+                        .param("minPrice", "500000")
+                        .param("maxPrice", "100000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(propertyService);
+    }
+
+    @Test
+    void getAllProperties_WithSlice_ShouldReturnEstimateInsteadOfExactTotal() throws Exception {
+        when(propertyService.searchPropertySummariesSlice(any(PropertySearchCriteria.class), any(Pageable.class), eq(true)))
+                .thenReturn(new SearchSlice<>(testSummaries, 0, 12, true, 250L));
+
+        mockMvc.perform(get("/api/properties")
+                        .param("slice", "true")
+                        .param("estimateTotal", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.estimatedTotal").value(250))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(propertyService, never()).searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchProperties_WithTextQuery_ShouldPassItWithFilters() throws Exception {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(testSummaries));
+
+        mockMvc.perform(get("/api/properties/search")
+                        .param("q", "garden victorian")
+                        .param("bedrooms", "3")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(propertyService).searchPropertySummaries(
+                argThat(criteria -> "garden victorian".equals(criteria.getText()) && criteria.getBedrooms() == 3),
+                any(Pageable.class));
+    }
+
+    @Test
+    void suggestAddresses_ShouldReturnCompletionsWithCounts() throws Exception {
+        when(propertyService.suggestAddresses("lon", 5))
+                .thenReturn(List.of(new AddressSuggestion("london", 12), new AddressSuggestion("long", 1)));
+
+        mockMvc.perform(get("/api/properties/suggest")
+                        .param("prefix", "lon")
+                        .param("limit", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("london"))
+                .andExpect(jsonPath("$[0].count").value(12))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void getSimilarProperties_ShouldReturnSummaries() throws Exception {
+        when(propertyService.findSimilarProperties(1L, 3)).thenReturn(testSummaries);
+
+        mockMvc.perform(get("/api/properties/1/similar")
+                        .param("limit", "3")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(testSummaries.size()))
+                .andExpect(jsonPath("$[0].id").value(testSummaries.get(0).id()));
+    }
+
+    @Test
+    void exportProperties_ShouldStreamCsvAttachment() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PropertyExportRow> action = invocation.getArgument(1);
+            action.accept(new PropertyExportRow(1L, "123 Test St", null, 200000.0, 3, 2, 1500.0, null, null));
+            return null;
+        }).when(propertyService).exportProperties(argThat(criteria -> criteria.getBedrooms() == 3), any());
+
+        MvcResult result = mockMvc.perform(get("/api/properties/export")
+                        .param("bedrooms", "3")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"properties.csv\""))
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(containsString("1,123 Test St,,200000,3,2,1500,,\r\n")));
+    }
+
+    @Test
+    void exportProperties_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/properties/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(propertyService, never()).exportProperties(any(), any());
+    }
+
+    @Test
+    void streamChanges_ShouldSubscribeWithFiltersAndLastEventId() throws Exception {
+        when(changeStream.subscribe(any(), any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/properties/stream")
+                        .param("bedrooms", "3")
+                        .header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeStream).subscribe(argThat(criteria -> criteria.getBedrooms() == 3), eq("42"));
+    }
+
+    @Test
+    void streamChanges_WithInvalidFilters_ShouldReturnBadRequest() throws Exception {
+        doThrow(new IllegalArgumentException("Maximum price must be greater than or equal to minimum price"))
+                .when(propertyService).validateSearchCriteria(any());
+
+        mockMvc.perform(get("/api/properties/stream")
+                        .param("minPrice", "500000")
+                        .param("maxPrice", "100000"))
+                .andExpect(status().isBadRequest());
+
+        verify(changeStream, never()).subscribe(any(), any());
+    }
+
+    @Test
+    void importProperties_ShouldInsertValidRowsAndReportTheRest() throws Exception {
+        doThrow(new IllegalArgumentException("Address is required"))
+                .when(propertyService).validateProperty(argThat(property -> property.getAddress().isEmpty()));
+
+        mockMvc.perform(post("/api/properties/import")
+                        .contentType("text/csv")
+                        .content("address,price,bedrooms,bathrooms,square_footage\n"
+                                + "123 Test St,200000,3,2,1500\n"
+                                + ",300000,4,3,2000\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Address is required"));
+
+        verify(propertyService).createProperties(argThat(batch -> batch.size() == 1));
+    }
+
+    @Test
+    void importProperties_WithUnsupportedBodyOrHeader_ShouldBeRejected() throws Exception {
+        mockMvc.perform(post("/api/properties/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+        mockMvc.perform(post("/api/properties/import")
+                        .contentType("text/csv")
+                        .content("address,price\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("CSV header is missing the bedrooms column"));
+
+        verify(propertyService, never()).createProperties(any());
+    }
+
+    @Test
+    void getFacets_ShouldReturnRequestedHistograms() throws Exception {
+        PropertyFacets facets = new PropertyFacets(3, Map.of(2, 1L, 3, 2L), null,
+                List.of(new PropertyFacets.PriceBand(null, 100000.0, 3)));
+        when(propertyService.getFacets(any(PropertySearchCriteria.class),
+                eq(EnumSet.of(SearchFacet.BEDROOMS, SearchFacet.PRICE)))).thenReturn(facets);
+
+        mockMvc.perform(get("/api/properties/facets")
+                        .param("facets", "bedrooms,price")
+                        .param("q", "garden")
+                        .param("bbox", "-0.2,51.4,0.0,51.6")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.bedrooms['3']").value(2))
+                .andExpect(jsonPath("$.priceBands[0].max").value(100000.0));
+
+        verify(propertyService).getFacets(
+                argThat(criteria -> "garden".equals(criteria.getText()) && criteria.hasBoundingBox()), any());
+    }
+
+    @Test
+    void getFacets_WithUnknownFacetOrMalformedBox_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/properties/facets").param("facets", "garages"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/facets").param("bbox", "1,2,3"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/facets").param("bbox", "-0.2,NaN,0.0,51.6"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/facets").param("lat", "NaN").param("lon", "0").param("radius", "1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties/facets").param("maxPrice", "Infinity"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(propertyService);
+    }
+
+    @Test
+    void getPriceStatistics_ShouldPassFiltersAndAreas() throws Exception {
+        PriceStatistics statistics = new PriceStatistics(4, 450000.0, 900000.0, 3, 410.0, 650.0,
+                List.of(new PropertyFacets.PriceBand(null, 100000.0, 0)), PriceStatistics.Source.SCAN);
+        when(propertyService.getPriceStatistics(any(PropertySearchCriteria.class), eq(Set.of("sw", "manchester"))))
+                .thenReturn(statistics);
+
+        mockMvc.perform(get("/api/properties/statistics")
+                        .param("areas", "sw,manchester,")
+                        .param("bedrooms", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(4))
+                .andExpect(jsonPath("$.medianPrice").value(450000.0))
+                .andExpect(jsonPath("$.p90PricePerSquareFoot").value(650.0))
+                .andExpect(jsonPath("$.source").value("SCAN"));
+
+        verify(propertyService).getPriceStatistics(argThat(criteria -> criteria.getBedrooms() == 2), any());
+    }
+}
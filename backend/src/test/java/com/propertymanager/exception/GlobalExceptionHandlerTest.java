@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -60,4 +61,15 @@ class GlobalExceptionHandlerTest {
         assertThat(response.getStatusCodeValue()).isEqualTo(400);
         assertThat(response.getBody()).isEmpty();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void handleOptimisticLockingFailure_ShouldReturnConflict() {
+        // When
+        ResponseEntity<Map<String, String>> response = globalExceptionHandler.handleOptimisticLockingFailure(
+                new OptimisticLockingFailureException("Property 1 is at version 5, not 3"));
+
+        // Then
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertThat(response.getBody()).containsEntry("error", "Property 1 is at version 5, not 3");
+    }
+}
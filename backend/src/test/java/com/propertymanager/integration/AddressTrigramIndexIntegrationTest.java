@@ -0,0 +1,109 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.search.PropertySqlFilter;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that address searches are served by the trigram index from the V6 migration.
+ * The test profile builds the schema with Hibernate, so the migration is applied here.
+ */
+@Transactional
+public class AddressTrigramIndexIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__Add_address_trigram_index.sql"))
+                .execute(dataSource);
+        propertyRepository.deleteAll();
+
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            properties.add(property(i + " Station Road, Leeds"));
+        }
+        properties.add(property("12 London Road, Brighton"));
+        properties.add(property("1 London Road"));
+        properties.add(property("7 Old London Road Mews, Kingston"));
+        properties.add(property("50% Off Lane"));
+        propertyRepository.saveAllAndFlush(properties);
+        jdbcTemplate.execute("ANALYZE properties");
+    }
+
+    private Property property(String address) {
+        return Property.builder()
+                .address(address)
+                .price(300000.0)
+                .bedrooms(3)
+                .bathrooms(1)
+                .squareFootage(1000.0)
+                .build();
+    }
+
+    @Test
+    void addressSearch_ShouldUseTrigramIndex() {
+        // Given - rule out the sequential scan a table this small would otherwise get
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        PropertySqlFilter filter = PropertySqlFilter.of(PropertySearchCriteria.builder().address("London").build());
+
+        // When
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM properties" + filter.whereClause(),
+                String.class, filter.parameters().toArray());
+
+        // Then
+        assertThat(String.join("\n", plan)).contains("idx_properties_address_trgm");
+    }
+
+    @Test
+    void addressSearch_SortedByRelevance_ShouldRankClosestAddressFirst() {
+        // When
+        Page<Property> results = propertyService.searchProperties(
+                PropertySearchCriteria.builder().address("London Road").build(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "relevance")));
+
+        // Then
+        assertThat(results.getTotalElements()).isEqualTo(3);
+        assertThat(results.getContent()).extracting(Property::getAddress).containsExactly(
+                "1 London Road", "12 London Road, Brighton", "7 Old London Road Mews, Kingston");
+    }
+
+    @Test
+    void addressSearch_WithWildcardCharacters_ShouldMatchThemLiterally() {
+        // When
+        Page<Property> results = propertyService.searchProperties(
+                PropertySearchCriteria.builder().address("50%").build(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(results.getContent()).extracting(Property::getAddress).containsExactly("50% Off Lane");
+    }
+}
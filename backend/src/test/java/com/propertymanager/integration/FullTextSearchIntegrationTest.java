@@ -0,0 +1,101 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.search.PropertySqlFilter;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the {@code q} full-text search against the generated search_vector column.
+ * The test profile builds the schema with Hibernate and then applies the V7 migration, which
+ * adds the column and its GIN index.
+ */
+@Transactional
+public class FullTextSearchIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        propertyRepository.deleteAll();
+
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            properties.add(property(i + " Station Road, Leeds", "Modern flat close to the station", 250000.0, 2));
+        }
+        properties.add(property("4 Elm Terrace, York", "Victorian terrace with a large rear garden", 450000.0, 3));
+        properties.add(property("9 Garden Row, Bath", "Victorian villa with gardens front and back", 900000.0, 5));
+        properties.add(property("2 Mill Lane, Hull", "Victorian mill conversion", 300000.0, 2));
+        propertyRepository.saveAllAndFlush(properties);
+        jdbcTemplate.execute("ANALYZE properties");
+    }
+
+    private Property property(String address, String description, Double price, Integer bedrooms) {
+        return Property.builder()
+                .address(address)
+                .description(description)
+                .price(price)
+                .bedrooms(bedrooms)
+                .bathrooms(1)
+                .squareFootage(1000.0)
+                .build();
+    }
+
+    @Test
+    void textQuery_ShouldMatchAllWordsAcrossAddressAndDescription() {
+        // When
+        Page<Property> results = propertyService.searchProperties(
+                PropertySearchCriteria.builder().text("garden victorian").build(), PageRequest.of(0, 10));
+
+        // Then - the address match is weighted above a description-only match
+        assertThat(results.getContent()).extracting(Property::getAddress)
+                .containsExactly("9 Garden Row, Bath", "4 Elm Terrace, York");
+    }
+
+    @Test
+    void textQuery_ShouldCombineWithNumericFilters() {
+        // When
+        Page<Property> results = propertyService.searchProperties(
+                PropertySearchCriteria.builder().text("victorian").maxPrice(500000.0).bedrooms(2).build(),
+                PageRequest.of(0, 10));
+
+        // Then
+        assertThat(results.getTotalElements()).isEqualTo(1);
+        assertThat(results.getContent()).extracting(Property::getAddress).containsExactly("2 Mill Lane, Hull");
+    }
+
+    @Test
+    void textQuery_ShouldUseSearchVectorIndex() {
+        // Given - rule out the sequential scan a table this small would otherwise get
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        PropertySqlFilter filter = PropertySqlFilter.of(PropertySearchCriteria.builder().text("victorian").build());
+
+        // When
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM properties" + filter.whereClause(),
+                String.class, filter.parameters().toArray());
+
+        // Then
+        assertThat(String.join("\n", plan)).contains("idx_properties_search_vector");
+    }
+}
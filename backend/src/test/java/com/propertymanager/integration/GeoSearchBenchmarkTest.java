@@ -0,0 +1,99 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SearchSlice;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures bounding-box search latency over one million properties spread across Great
+ * Britain. Excluded from the default test run; run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@Transactional
+public class GeoSearchBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int WARMUP_QUERIES = 20;
+    private static final int MEASURED_QUERIES = 200;
+    private static final long P95_BUDGET_NANOS = 10_000_000;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V8__Add_property_location.sql"))
+                .execute(dataSource);
+        jdbcTemplate.update("DELETE FROM images");
+        jdbcTemplate.update("DELETE FROM properties");
+        jdbcTemplate.update("""
+                INSERT INTO properties (address, price, bedrooms, bathrooms, square_footage, latitude, longitude)
+                SELECT 'Benchmark ' || g, 100000 + (g % 900) * 1000, 1 + g % 6, 1 + g % 3, 500 + g % 3000,
+                       50.0 + random() * 8.5, -5.5 + random() * 7.2
+                FROM generate_series(1, ?) AS g
+                """, ROWS);
+        jdbcTemplate.execute("ANALYZE properties");
+    }
+
+    @Test
+    void boundingBoxSearch_ShouldStayUnderTenMillisecondsAtOneMillionRows() {
+        Random random = new Random(42);
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            search(random);
+        }
+
+        long[] latencies = new long[MEASURED_QUERIES];
+        int matched = 0;
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            matched += search(random).content().size();
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(latencies);
+        long median = latencies[MEASURED_QUERIES / 2];
+        long p95 = latencies[(int) (MEASURED_QUERIES * 0.95)];
+        System.out.printf("Bounding-box search over %,d rows: median %.2f ms, p95 %.2f ms, %d rows returned%n",
+                ROWS, median / 1e6, p95 / 1e6, matched);
+
+        assertThat(matched).isPositive();
+        assertThat(p95).isLessThan(P95_BUDGET_NANOS);
+    }
+
+    /**
+     * Searches a random neighbourhood-sized box (about 2 x 2 miles) for the first page.
+     */
+    private SearchSlice<Property> search(Random random) {
+        double minLatitude = 50.0 + random.nextDouble() * 8.4;
+        double minLongitude = -5.5 + random.nextDouble() * 7.1;
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .minLatitude(minLatitude)
+                .minLongitude(minLongitude)
+                .maxLatitude(minLatitude + 0.03)
+                .maxLongitude(minLongitude + 0.05)
+                .build();
+        return propertyService.searchPropertiesSlice(criteria, PageRequest.of(0, 20), false);
+    }
+}
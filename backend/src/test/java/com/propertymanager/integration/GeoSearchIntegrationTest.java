@@ -0,0 +1,137 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.search.PropertySqlFilter;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises radius and bounding-box search. The test profile builds the schema with
+ * Hibernate, so the V8 migration is applied here for the earthdistance extension and
+ * the GiST index.
+ */
+@Transactional
+public class GeoSearchIntegrationTest extends AbstractIntegrationTest {
+
+    // Charing Cross, London
+    private static final double CENTRE_LATITUDE = 51.5074;
+    private static final double CENTRE_LONGITUDE = -0.1278;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V8__Add_property_location.sql"))
+                .execute(dataSource);
+        propertyRepository.deleteAll();
+
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            properties.add(property(i + " Deansgate, Manchester", 53.4794, -2.2453, 300000.0));
+        }
+        properties.add(property("Covent Garden, London", 51.5117, -0.1240, 900000.0));
+        properties.add(property("Waterloo, London", 51.5033, -0.1145, 650000.0));
+        properties.add(property("Camden Town, London", 51.5390, -0.1426, 700000.0));
+        properties.add(property("Greenwich, London", 51.4826, -0.0077, 800000.0));
+        properties.add(property("Not Yet Geocoded, London", null, null, 500000.0));
+        propertyRepository.saveAllAndFlush(properties);
+        jdbcTemplate.execute("ANALYZE properties");
+    }
+
+    private Property property(String address, Double latitude, Double longitude, Double price) {
+        return Property.builder()
+                .address(address)
+                .price(price)
+                .bedrooms(2)
+                .bathrooms(1)
+                .squareFootage(900.0)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+
+    private PropertySearchCriteria.PropertySearchCriteriaBuilder aroundCharingCross(double radiusMiles) {
+        return PropertySearchCriteria.builder()
+                .latitude(CENTRE_LATITUDE)
+                .longitude(CENTRE_LONGITUDE)
+                .radiusMiles(radiusMiles);
+    }
+
+    @Test
+    void radiusSearch_ShouldReturnPropertiesWithinDistance() {
+        // When - Covent Garden is ~0.3 miles away, Waterloo ~0.6, Camden ~2.3, Greenwich ~5.6
+        Page<Property> results = propertyService.searchProperties(
+                aroundCharingCross(2.0).build(), PageRequest.of(0, 10, Sort.by("price")));
+
+        // Then
+        assertThat(results.getContent()).extracting(Property::getAddress)
+                .containsExactly("Waterloo, London", "Covent Garden, London");
+    }
+
+    @Test
+    void radiusSearch_ShouldCombineWithOtherFilters() {
+        // When
+        Page<Property> results = propertyService.searchProperties(
+                aroundCharingCross(3.0).maxPrice(800000.0).build(), PageRequest.of(0, 10, Sort.by("price")));
+
+        // Then
+        assertThat(results.getContent()).extracting(Property::getAddress)
+                .containsExactly("Waterloo, London", "Camden Town, London");
+    }
+
+    @Test
+    void boundingBoxSearch_ShouldReturnPropertiesInsideBox() {
+        // When
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .minLongitude(-0.15).minLatitude(51.49)
+                .maxLongitude(0.0).maxLatitude(51.52)
+                .build();
+        Page<Property> results = propertyService.searchProperties(criteria, PageRequest.of(0, 10, Sort.by("price")));
+
+        // Then
+        assertThat(results.getContent()).extracting(Property::getAddress)
+                .containsExactly("Waterloo, London", "Covent Garden, London");
+    }
+
+    @Test
+    void boundingBoxSearch_ShouldUseLocationIndex() {
+        // Given - rule out the sequential scan a table this small would otherwise get
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        PropertySqlFilter filter = PropertySqlFilter.of(aroundCharingCross(2.0).build());
+
+        // When
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM properties" + filter.whereClause(),
+                String.class, filter.parameters().toArray());
+
+        // Then
+        assertThat(String.join("\n", plan)).contains("idx_properties_location");
+    }
+}
@@ -0,0 +1,99 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.repository.PropertyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares property insert throughput with one round trip per row, as identity ids
+ * required, against Hibernate's batched inserts with pooled sequence ids and the bulk
+ * import's JDBC batches. Excluded from the default test run; run with
+ * {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@Transactional
+public class InsertThroughputBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final int ROWS = 20_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM images");
+        jdbcTemplate.update("DELETE FROM properties");
+    }
+
+    @Test
+    void pooledSequenceInserts_ShouldOutrunOneRoundTripPerRow() {
+        // Before: each persist waited for its identity from an INSERT ... RETURNING id
+        double perRow = rowsPerSecond(() -> {
+            for (int i = 0; i < ROWS; i++) {
+                jdbcTemplate.queryForObject("INSERT INTO properties (address, price, bedrooms, bathrooms,"
+                                + " square_footage) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                        Long.class, "Identity " + i, 250000.0, 3, 2, 1200.0);
+            }
+        });
+
+        // After: ids come from memory and the inserts are flushed in JDBC batches
+        double batched = rowsPerSecond(() -> {
+            for (int start = 0; start < ROWS; start += CHUNK) {
+                propertyRepository.saveAll(properties("Pooled", start));
+                entityManager.flush();
+                entityManager.clear();
+            }
+        });
+
+        double bulk = rowsPerSecond(() -> {
+            for (int start = 0; start < ROWS; start += CHUNK) {
+                propertyRepository.insertAll(properties("Bulk", start));
+            }
+        });
+
+        System.out.printf("Inserting %,d properties: %,.0f rows/s one at a time, %,.0f rows/s batched by"
+                + " Hibernate, %,.0f rows/s through the bulk import path%n", ROWS, perRow, batched, bulk);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(DISTINCT id) FROM properties", Long.class))
+                .isEqualTo(3L * ROWS);
+        assertThat(batched).isGreaterThan(perRow);
+        assertThat(bulk).isGreaterThan(perRow);
+    }
+
+    private List<Property> properties(String prefix, int start) {
+        return IntStream.range(start, start + CHUNK)
+                .mapToObj(i -> Property.builder()
+                        .address(prefix + " " + i)
+                        .price(250000.0)
+                        .bedrooms(3)
+                        .bathrooms(2)
+                        .squareFootage(1200.0)
+                        .build())
+                .toList();
+    }
+
+    private static double rowsPerSecond(Runnable inserts) {
+        long start = System.nanoTime();
+        inserts.run();
+        return ROWS / ((System.nanoTime() - start) / 1e9);
+    }
+}
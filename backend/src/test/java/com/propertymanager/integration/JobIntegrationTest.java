@@ -0,0 +1,120 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobReport;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.service.JobService;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs jobs through the real runner, pool and transactions. Not transactional itself, since
+ * each chunk commits on a job thread.
+ */
+@TestPropertySource(properties = {"app.jobs.enabled=true", "app.jobs.threads=1", "app.jobs.poll-interval-ms=100"})
+public class JobIntegrationTest extends AbstractIntegrationTest {
+
+    private static final PropertySearchCriteria CHEAP = PropertySearchCriteria.builder().maxPrice(200000.0).build();
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        // More than one chunk of cheap properties, and some dear ones the jobs must leave alone
+        propertyService.createProperties(IntStream.range(0, 1200)
+                .mapToObj(i -> Property.builder()
+                        .address(i + " Job Street")
+                        .price(i < 700 ? 100000.0 : 900000.0)
+                        .bedrooms(3)
+                        .bathrooms(2)
+                        .squareFootage(1000.0)
+                        .build())
+                .toList());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM jobs");
+        jdbcTemplate.update("DELETE FROM images");
+        jdbcTemplate.update("DELETE FROM properties");
+    }
+
+    private JobReport awaitFinished(Long id) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(60));
+        JobReport report = jobService.getJob(id);
+        while (!report.status().isFinished() && Instant.now().isBefore(deadline)) {
+            Thread.sleep(100);
+            report = jobService.getJob(id);
+        }
+        return report;
+    }
+
+    @Test
+    void repriceJob_ShouldChangeOnlyTheMatchingPricesAndReportProgress() throws Exception {
+        JobReport submitted = jobService.submitReprice(null, CHEAP, 10.0);
+        assertThat(submitted.totalItems()).isEqualTo(700L);
+
+        JobReport report = awaitFinished(submitted.id());
+
+        assertThat(report.status()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(report.processedItems()).isEqualTo(700);
+        assertThat(report.progress()).isEqualTo(1.0);
+        assertThat(report.itemsPerSecond()).isPositive();
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT price FROM properties ORDER BY price", Double.class))
+                .containsExactly(110000.0, 900000.0);
+        assertThat(jdbcTemplate.queryForObject("SELECT cursor_position FROM jobs WHERE id = ?", Long.class,
+                submitted.id())).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT max(id) FROM properties WHERE price < 200000", Long.class));
+    }
+
+    @Test
+    void deleteJob_ShouldDeleteOnlyTheMatchingProperties() throws Exception {
+        JobReport report = awaitFinished(jobService.submitDelete(null, CHEAP).id());
+
+        assertThat(report.status()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(report.processedItems()).isEqualTo(700);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM properties", Long.class)).isEqualTo(500L);
+    }
+
+    @Test
+    void importJob_ShouldImportValidRowsAndReportTheRest() throws Exception {
+        String csv = "address,price,bedrooms,bathrooms,square_footage\n"
+                + "1 Imported Way,250000,3,2,1200\n"
+                + "2 Imported Way,0,3,2,1200\n"
+                + "3 Imported Way,350000,4,2,1600\n";
+
+        JobReport report = awaitFinished(jobService.submitImport(null, ExportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).id());
+
+        assertThat(report.status()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(report.processedItems()).isEqualTo(3);
+        assertThat(report.failedItems()).isEqualTo(1);
+        assertThat(report.errors()).containsExactly(new Job.ItemError(2, "Price must be greater than 0"));
+        assertThat(jdbcTemplate.queryForList("SELECT address FROM properties WHERE address LIKE '%Imported%'"
+                + " ORDER BY address", String.class)).isEqualTo(List.of("1 Imported Way", "3 Imported Way"));
+    }
+}
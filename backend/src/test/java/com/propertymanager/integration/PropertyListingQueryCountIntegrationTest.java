@@ -0,0 +1,133 @@
+package com.propertymanager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertymanager.model.Image;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchSlice;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.service.PropertyService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements needed to load and serialise a page of search results, so
+ * that lazy image loading cannot slip back in as one query per property.
+ */
+@Transactional
+public class PropertyListingQueryCountIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int PROPERTIES = 30;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        propertyRepository.deleteAll();
+        for (int i = 1; i <= PROPERTIES; i++) {
+            Property property = Property.builder()
+                    .address(i + " Count Street")
+                    .price(100000.0 + i * 1000)
+                    .bedrooms(1 + i % 4)
+                    .bathrooms(1)
+                    .build();
+            property.addImage(image("front-" + i + ".jpg"));
+            property.addImage(image("garden-" + i + ".jpg"));
+            propertyRepository.save(property);
+        }
+        // Start from an empty persistence context, as a request would
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    private Image image(String fileName) {
+        Image image = new Image();
+        image.setFileName(fileName);
+        image.setContentType("image/jpeg");
+        image.setUrl("/api/images/" + fileName);
+        return image;
+    }
+
+    private long statementsToSerialise(Object page) throws Exception {
+        objectMapper.writeValueAsString(page);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void searchPage_ShouldLoadWithFixedStatementCountWhateverItsSize() throws Exception {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().minPrice(100000.0).build();
+
+        Page<Property> small = propertyService.searchProperties(criteria, PageRequest.of(0, 4, Sort.by("price")));
+        long smallPageStatements = statementsToSerialise(small);
+        entityManager.clear();
+        statistics.clear();
+        Page<Property> large = propertyService.searchProperties(criteria, PageRequest.of(0, 24, Sort.by("price")));
+        long largePageStatements = statementsToSerialise(large);
+
+        // Page, count and one IN query for the images
+        assertThat(smallPageStatements).isEqualTo(3);
+        assertThat(largePageStatements).isEqualTo(3);
+        assertThat(large.getContent()).allSatisfy(property -> assertThat(property.getImages()).hasSize(2));
+    }
+
+    @Test
+    void searchSlice_ShouldLoadImagesInOneQuery() throws Exception {
+        SearchSlice<Property> slice = propertyService.searchPropertiesSlice(
+                new PropertySearchCriteria(), PageRequest.of(1, 12, Sort.by("id")), false);
+
+        // Slice and one IN query for the images; no count
+        assertThat(statementsToSerialise(slice)).isEqualTo(2);
+        assertThat(slice.content()).hasSize(12);
+    }
+
+    @Test
+    void summaryPage_ShouldSelectCardFieldsWithoutLoadingImages() throws Exception {
+        Page<PropertySummary> page = propertyService.searchPropertySummaries(
+                new PropertySearchCriteria(), PageRequest.of(0, 12, Sort.by("price")));
+
+        // Page and count only; image URL and count come from correlated subqueries
+        assertThat(statementsToSerialise(page)).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(page.getContent()).allSatisfy(summary -> {
+            assertThat(summary.imageCount()).isEqualTo(2);
+            assertThat(summary.imageUrl()).contains("/api/images/front-");
+        });
+    }
+}
@@ -1,13 +1,26 @@
 package com.propertymanager.integration;
 
+import com.propertymanager.model.CursorPage;
+import com.propertymanager.model.Image;
+import com.propertymanager.model.PriceStatistics;
 import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.model.SearchSlice;
 import com.propertymanager.repository.PropertyRepository;
 import com.propertymanager.service.PropertyService;
 import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.search.PriceStatisticsIndex;
+import com.propertymanager.search.PropertySpecifications;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,7 +31,11 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.persistence.criteria.Predicate;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.ArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -95,6 +112,69 @@ public class PropertyRepositoryIntegrationTest extends AbstractIntegrationTest {
         assertThat(propertyRepository.findById(testProperty.getId())).isEmpty();
     }
 
+    @Test
+    void shouldIncrementVersionOnUpdateAndImageChanges() {
+        // Given
+        propertyRepository.flush();
+        long created = propertyService.getPropertyVersion(testProperty.getId());
+
+        // When
+        testProperty.setPrice(550000.0);
+        propertyRepository.saveAndFlush(testProperty);
+        long updated = propertyService.getPropertyVersion(testProperty.getId());
+        propertyRepository.incrementVersion(testProperty);
+
+        // Then
+        assertThat(created).isZero();
+        assertThat(updated).isEqualTo(1);
+        assertThat(testProperty.getVersion()).isEqualTo(2);
+        assertThat(propertyService.getPropertyVersion(testProperty.getId())).isEqualTo(2);
+        assertThat(propertyService.searchPropertySummaries(
+                PropertySearchCriteria.builder().address("123 Test St").build(), PageRequest.of(0, 10)))
+            .extracting(PropertySummary::version)
+            .containsExactly(2L);
+        assertThrows(ResourceNotFoundException.class, () -> propertyService.getPropertyVersion(-1L));
+    }
+
+    @Test
+    void shouldPatchOnlySuppliedColumnsInOneStatement() {
+        // Given
+        propertyRepository.flush();
+        Map<String, Object> json = new HashMap<>();
+        json.put("price", 525000);
+        json.put("description", null);
+
+        // When
+        Property patched = propertyService.patchProperty(testProperty.getId(), 0L, PropertyPatch.of(json));
+
+        // Then
+        assertThat(patched.getVersion()).isEqualTo(1);
+        assertThat(patched.getPrice()).isEqualTo(525000.0);
+        assertThat(patched.getDescription()).isNull();
+        assertThat(patched.getAddress()).isEqualTo("123 Test St");
+        assertThat(propertyService.getPropertyVersion(testProperty.getId())).isEqualTo(1);
+        assertThat(propertyService.searchPropertySummaries(
+                PropertySearchCriteria.builder().maxPrice(525000.0).minPrice(525000.0).build(), PageRequest.of(0, 10)))
+            .extracting(PropertySummary::id)
+            .containsExactly(testProperty.getId());
+    }
+
+    @Test
+    void shouldRejectPatchAgainstStaleVersion() {
+        // Given
+        propertyRepository.flush();
+        propertyService.patchProperty(testProperty.getId(), 0L, PropertyPatch.of(Map.of("bedrooms", 4)));
+
+        // When/Then
+        assertThrows(OptimisticLockingFailureException.class, () -> propertyService.patchProperty(
+            testProperty.getId(), 0L, PropertyPatch.of(Map.of("bedrooms", 5))));
+        assertThrows(ResourceNotFoundException.class, () -> propertyService.patchProperty(
+            -1L, null, PropertyPatch.of(Map.of("bedrooms", 5))));
+        // A wildcard patch applies to whatever version is current
+        assertThat(propertyService.patchProperty(testProperty.getId(), null, PropertyPatch.of(Map.of("bedrooms", 5)))
+            .getBedrooms()).isEqualTo(5);
+    }
+
     @Test
     void shouldNotSavePropertyWithNullAddress() {
         // Given
@@ -279,4 +359,255 @@ public class PropertyRepositoryIntegrationTest extends AbstractIntegrationTest {
         assertThat(result.getTotalElements()).isEqualTo(0);
         assertThat(result.getTotalPages()).isEqualTo(0);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void shouldFindPropertiesMatchingSearchCriteria() {
+        // Given
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+            .address("LONDON")
+            .minPrice(400000.0)
+            .maxPrice(800000.0)
+            .minSize(2000.0)
+            .maxSize(2500.0)
+            .maxRooms(4)
+            .minBathrooms(3)
+            .maxBathrooms(3)
+            .build();
+
+        // When
+        List<Property> properties = propertyRepository.findAll(PropertySpecifications.matching(criteria));
+
+        // Then
+        assertThat(properties).extracting(Property::getAddress).containsExactly("456 London Road");
+    }
+
+    @Test
+    void shouldSearchPropertiesByExactBedroomsThroughService() {
+        // When
+        Page<Property> result = propertyService.searchProperties(
+            PropertySearchCriteria.builder().bedrooms(3).build(),
+            PageRequest.of(0, 10, Sort.by("id")));
+
+        // Then
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).allMatch(p -> p.getBedrooms() == 3);
+    }
+
+    @Test
+    void shouldWalkEveryPageWithCursorPagination() {
+        // Given
+        List<String> seen = new ArrayList<>();
+        Sort byPriceDescending = Sort.by(Sort.Direction.DESC, "price");
+        String cursor = "";
+
+        // When
+        do {
+            CursorPage<Property> page = propertyService.searchPropertiesByCursor(
+                new PropertySearchCriteria(), cursor, 2, byPriceDescending);
+            page.content().forEach(p -> seen.add(p.getAddress()));
+            cursor = page.next();
+        } while (cursor != null);
+
+        // Then - ties on price are broken by id, so nothing is skipped or repeated
+        assertThat(seen).containsExactly(
+            "789 Paris Street", "456 London Road", "123 Test St", "123 London Road", "321 Berlin Ave");
+    }
+
+    @Test
+    void shouldApplyFiltersAlongsideCursor() {
+        // Given
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().address("london").build();
+        CursorPage<Property> firstPage = propertyService.searchPropertiesByCursor(criteria, "", 1, Sort.by("price"));
+
+        // When
+        CursorPage<Property> secondPage = propertyService.searchPropertiesByCursor(
+            criteria, firstPage.next(), 1, Sort.by("price"));
+
+        // Then
+        assertThat(firstPage.content()).extracting(Property::getAddress).containsExactly("123 London Road");
+        assertThat(secondPage.content()).extracting(Property::getAddress).containsExactly("456 London Road");
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldReturnSliceWithEstimatedTotal() {
+        // Given
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().address("london").build();
+
+        // When
+        SearchSlice<Property> firstPage = propertyService.searchPropertiesSlice(
+            criteria, PageRequest.of(0, 1, Sort.by("price")), true);
+        SearchSlice<Property> lastPage = propertyService.searchPropertiesSlice(
+            criteria, PageRequest.of(1, 1, Sort.by("price")), false);
+
+        // Then - estimates come from planner statistics, so only their presence is asserted
+        assertThat(firstPage.content()).extracting(Property::getAddress).containsExactly("123 London Road");
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(firstPage.estimatedTotal()).isNotNull().isNotNegative();
+        assertThat(lastPage.content()).extracting(Property::getAddress).containsExactly("456 London Road");
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThat(lastPage.estimatedTotal()).isNull();
+    }
+
+    @Test
+    void shouldEstimateUnfilteredCountFromTableStatistics() {
+        assertThat(propertyRepository.estimateCount(new PropertySearchCriteria())).isNotNegative();
+        assertThat(propertyRepository.estimateCount(
+            PropertySearchCriteria.builder().minPrice(100.0).bedrooms(3).build())).isNotNegative();
+    }
+
+    @Test
+    void shouldCountEachFacetIgnoringItsOwnFilter() {
+        // Given
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+            .bedrooms(3)
+            .minPrice(400000.0)
+            .maxPrice(800000.0)
+            .build();
+
+        // When
+        PropertyFacets facets = propertyService.getFacets(criteria, EnumSet.allOf(SearchFacet.class));
+
+        // Then
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.bedrooms()).isEqualTo(Map.of(2, 1L, 3, 2L, 4, 1L));
+        assertThat(facets.bathrooms()).isEqualTo(Map.of(2, 2L));
+        assertThat(facets.priceBands()).hasSize(8);
+        assertThat(facets.priceBands().get(4)).isEqualTo(new PropertyFacets.PriceBand(500000.0, 750000.0, 2));
+        assertThat(facets.priceBands().stream().mapToLong(PropertyFacets.PriceBand::count).sum()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountOnlyRequestedFacetsWithCommonFilters() {
+        // Given
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().address("london").build();
+
+        // When
+        PropertyFacets facets = propertyService.getFacets(criteria, EnumSet.of(SearchFacet.BATHROOMS));
+
+        // Then
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.bathrooms()).isEqualTo(Map.of(2, 1L, 3, 1L));
+        assertThat(facets.bedrooms()).isNull();
+        assertThat(facets.priceBands()).isNull();
+    }
+
+    @Test
+    void shouldMatchSinglePropertyAgainstCriteria() {
+        // Given
+        Property paris = propertyRepository.findAll().stream()
+            .filter(property -> property.getAddress().contains("Paris"))
+            .findFirst()
+            .orElseThrow();
+
+        // When & Then
+        assertThat(propertyRepository.matches(paris.getId(),
+            PropertySearchCriteria.builder().text("paris").minPrice(900000.0).build())).isTrue();
+        assertThat(propertyRepository.matches(paris.getId(),
+            PropertySearchCriteria.builder().text("london").build())).isFalse();
+        assertThat(propertyRepository.matches(paris.getId(), new PropertySearchCriteria())).isTrue();
+        assertThat(propertyRepository.matches(-1L, new PropertySearchCriteria())).isFalse();
+    }
+
+    @Test
+    void shouldBuildPriceDistributionFromMatchingRows() {
+        // Given
+        PropertySearchCriteria london = PropertySearchCriteria.builder().address("london").build();
+
+        // When
+        PriceStatistics all = propertyRepository.priceDistribution(london, Set.of())
+            .toStatistics(PriceStatistics.Source.SCAN);
+        PriceStatistics inOtherArea = propertyRepository.priceDistribution(london,
+                Set.of(PriceStatisticsIndex.OTHER_AREA))
+            .toStatistics(PriceStatistics.Source.SCAN);
+        PriceStatistics elsewhere = propertyRepository.priceDistribution(london, Set.of("sw"))
+            .toStatistics(PriceStatistics.Source.SCAN);
+
+        // Then
+        assertThat(all.count()).isEqualTo(2);
+        assertThat(all.medianPrice()).isBetween(495000.0, 505000.0);
+        assertThat(all.p90Price()).isBetween(742500.0, 757500.0);
+        assertThat(all.pricedBySizeCount()).isEqualTo(2);
+        assertThat(inOtherArea.count()).isEqualTo(2);
+        assertThat(elsewhere.count()).isZero();
+    }
+
+    @Test
+    void shouldStreamMatchingExportRowsInIdOrder() {
+        // Given
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().minPrice(480000.0).build();
+        List<PropertyExportRow> rows = new ArrayList<>();
+
+        // When
+        propertyRepository.forEachExportRow(criteria, rows::add);
+
+        // Then
+        assertThat(rows).extracting(PropertyExportRow::address)
+            .containsExactly("123 London Road", "456 London Road", "789 Paris Street", "123 Test St");
+        assertThat(rows).extracting(PropertyExportRow::id).isSorted();
+        assertThat(rows.get(3).description()).isEqualTo("Test Description");
+        assertThat(rows.get(0).latitude()).isNull();
+    }
+
+    @Test
+    void shouldBatchInsertWithIdsFromTheTableSequence() {
+        // Given
+        List<Property> batch = List.of(
+            Property.builder().address("1 Batch Lane").price(410000.0).bedrooms(2).bathrooms(1)
+                .squareFootage(900.0).latitude(51.5).longitude(-0.1).build(),
+            Property.builder().address("2 Batch Lane").description("Corner plot").price(420000.0).bedrooms(3)
+                .bathrooms(2).squareFootage(1100.0).build());
+
+        // When
+        propertyRepository.insertAll(batch);
+        Property saved = propertyRepository.saveAndFlush(Property.builder().address("3 Batch Lane").price(430000.0)
+            .bedrooms(3).bathrooms(2).squareFootage(1200.0).build());
+
+        // Then
+        assertThat(batch).extracting(Property::getId).doesNotContainNull();
+        Property inserted = propertyRepository.findById(batch.get(1).getId()).orElseThrow();
+        assertThat(inserted.getAddress()).isEqualTo("2 Batch Lane");
+        assertThat(inserted.getDescription()).isEqualTo("Corner plot");
+        assertThat(inserted.getLatitude()).isNull();
+        assertThat(inserted.getVersion()).isZero();
+        assertThat(propertyRepository.findById(batch.get(0).getId()).orElseThrow().getLongitude()).isEqualTo(-0.1);
+        // Both paths take blocks from the same sequence, so their ids never collide
+        assertThat(batch.get(1).getId()).isEqualTo(batch.get(0).getId() + 1);
+        assertThat(saved.getId()).isNotIn(batch.get(0).getId(), batch.get(1).getId());
+        assertThat(propertyRepository.findAll()).extracting(Property::getAddress)
+            .contains("1 Batch Lane", "3 Batch Lane");
+    }
+
+    @Test
+    void shouldProjectSummariesWithFirstImageAndPreview() {
+        // Given
+        Property withImages = propertyRepository.findAll().stream()
+            .filter(property -> property.getAddress().contains("Paris"))
+            .findFirst()
+            .orElseThrow();
+        withImages.setDescription("x".repeat(PropertySummary.PREVIEW_LENGTH + 50));
+        for (String fileName : List.of("first.jpg", "second.jpg")) {
+            Image image = new Image();
+            image.setFileName(fileName);
+            image.setContentType("image/jpeg");
+            image.setUrl("/api/images/" + fileName);
+            withImages.addImage(image);
+        }
+        propertyRepository.saveAndFlush(withImages);
+
+        // When
+        List<PropertySummary> summaries = propertyRepository.findSummaries(
+            PropertySpecifications.matching(new PropertySearchCriteria()), Sort.by("price").descending(), 0, 10);
+
+        // Then
+        PropertySummary paris = summaries.get(0);
+        assertThat(paris.id()).isEqualTo(withImages.getId());
+        assertThat(paris.imageUrl()).isEqualTo("/api/images/first.jpg");
+        assertThat(paris.imageCount()).isEqualTo(2);
+        assertThat(paris.descriptionPreview()).hasSize(PropertySummary.PREVIEW_LENGTH);
+        assertThat(summaries).skip(1).allSatisfy(summary -> {
+            assertThat(summary.imageUrl()).isNull();
+            assertThat(summary.imageCount()).isZero();
+        });
+    }
+}
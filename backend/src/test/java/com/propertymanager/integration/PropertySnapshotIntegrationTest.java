@@ -0,0 +1,52 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.search.PropertySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@Transactional
+public class PropertySnapshotIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertySnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        propertyRepository.deleteAll();
+        propertyRepository.saveAllAndFlush(List.of(
+                Property.builder().address("25 Deansgate, Manchester").description("Loft").price(450000.0)
+                        .bedrooms(2).bathrooms(1).squareFootage(900.0).latitude(53.4794).longitude(-2.2453).build(),
+                Property.builder().address("1 High Street").build()));
+    }
+
+    @Test
+    void forEach_ShouldReadOnlyTheRequestedColumnsInIdOrder() {
+        List<Property> properties = new ArrayList<>();
+
+        long count = snapshot.forEach(EnumSet.of(PropertySnapshot.Column.ADDRESS, PropertySnapshot.Column.PRICE,
+                PropertySnapshot.Column.LATITUDE), properties::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(properties).extracting(Property::getAddress, Property::getPrice, Property::getLatitude)
+                .containsExactly(
+                        tuple("25 Deansgate, Manchester", 450000.0, 53.4794),
+                        tuple("1 High Street", null, null));
+        assertThat(properties.get(0).getId()).isLessThan(properties.get(1).getId());
+        assertThat(properties).extracting(Property::getDescription, Property::getBedrooms, Property::getLongitude)
+                .containsOnly(tuple(null, null, null));
+    }
+}
@@ -0,0 +1,112 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.config.ReplicaRoutingDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through the real pools and transaction manager to a stand-in replica: the test
+ * database again, reached through a pool whose connections name themselves, so that each
+ * statement can tell which pool it came from.
+ */
+public class ReadReplicaRoutingIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String REPLICA = "property-manager-replica";
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.urls", () -> postgres.getJdbcUrl()
+                + (postgres.getJdbcUrl().contains("?") ? "&" : "?") + "ApplicationName=" + REPLICA);
+        registry.add("app.datasource.replica.username", postgres::getUsername);
+        registry.add("app.datasource.replica.password", postgres::getPassword);
+        registry.add("app.datasource.replica.maximum-pool-size", () -> "2");
+        // Checked by the tests themselves
+        registry.add("app.datasource.replica.health-check-seconds", () -> "3600");
+    }
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource.checkReplicas();
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String applicationName() {
+        return jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class);
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldReadFromTheReplica() {
+        assertThat(routingDataSource.getReplicas()).allMatch(ReplicaRoutingDataSource.Replica::isHealthy);
+
+        assertThat(readOnly.execute(status -> applicationName())).isEqualTo(REPLICA);
+        assertThat(readOnly.execute(status -> jdbcTemplate.queryForObject("SHOW transaction_read_only", String.class)))
+                .isEqualTo("on");
+    }
+
+    @Test
+    void otherWork_ShouldGoToThePrimary() {
+        assertThat(readWrite.execute(status -> applicationName())).isNotEqualTo(REPLICA);
+        assertThat(applicationName()).isNotEqualTo(REPLICA);
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldNotFillTheSecondLevelCache() {
+        assertThat(readOnly.execute(status -> entityManager.unwrap(Session.class).getCacheMode()))
+                .isEqualTo(CacheMode.GET);
+        assertThat(readWrite.execute(status -> entityManager.unwrap(Session.class).getCacheMode()))
+                .isEqualTo(CacheMode.NORMAL);
+    }
+
+    @Test
+    void readOnlyTransactions_AfterTheUserWrites_ShouldReadFromThePrimary() {
+        signIn("writer");
+        readWrite.execute(status -> applicationName());
+
+        assertThat(readOnly.execute(status -> applicationName())).isNotEqualTo(REPLICA);
+
+        signIn("reader");
+        assertThat(readOnly.execute(status -> applicationName())).isEqualTo(REPLICA);
+    }
+}
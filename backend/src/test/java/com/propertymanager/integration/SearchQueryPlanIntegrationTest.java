@@ -0,0 +1,198 @@
+package com.propertymanager.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.search.PropertySqlFilter;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query-plan regression suite for the search predicates. Seeds a table large enough for
+ * the planner to prefer indexes, then runs {@code EXPLAIN (ANALYZE, FORMAT JSON)} for
+ * every filter and sort shape the search endpoints can produce and fails if any of them
+ * falls back to a sequential scan of {@code properties}. The test profile builds the
+ * schema with Hibernate, so the V9 and V16 indexes are applied here.
+ */
+@Transactional
+public class SearchQueryPlanIntegrationTest extends AbstractIntegrationTest {
+
+    private static final int ROWS = 100_000;
+    private static final int PAGE_SIZE = 12;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Every sort the search endpoints accept, with its column and a value to seek a keyset
+     * page after.
+     */
+    private static final List<SortKey> SORTS = List.of(
+            new SortKey("id", "id", 50000L),
+            new SortKey("price", "price", 500000.0),
+            new SortKey("squareFootage", "square_footage", 2000.0),
+            new SortKey("bedrooms", "bedrooms", 3),
+            new SortKey("bathrooms", "bathrooms", 2),
+            new SortKey("address", "address", "5 Plan Street"));
+
+    private record SortKey(String property, String column, Object value) {
+
+        /**
+         * The ORDER BY of a page, with the id as tie-breaker as keyset pages are ordered.
+         */
+        String orderBy(String direction) {
+            return column.equals("id") ? "id" + direction : column + direction + ", id" + direction;
+        }
+    }
+
+    /**
+     * A search as the repository issues it: the shared filter plus, for sorted shapes, an
+     * ORDER BY limited to one page. Unsorted shapes are explained without the LIMIT, as the
+     * count query that accompanies every page reads the whole match set; an unsorted LIMIT
+     * alone is legitimately cheapest as a short sequential scan.
+     */
+    private record Shape(String name, PropertySearchCriteria criteria, String extraCondition,
+                         List<Object> extraParameters, String orderBy) {
+
+        static Shape of(String name, PropertySearchCriteria criteria, String orderBy) {
+            return new Shape(name, criteria, null, List.of(), orderBy);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V9__Add_property_search_indexes.sql"),
+                new ClassPathResource("db/migration/V16__Add_property_sort_indexes.sql"))
+                .execute(dataSource);
+        jdbcTemplate.update("DELETE FROM images");
+        jdbcTemplate.update("DELETE FROM properties");
+        // Deterministic, roughly uniform spreads: price 50k-3M, size 400-5000 sq ft,
+        // 1-6 bedrooms and 1-4 bathrooms
+        jdbcTemplate.update("""
+                INSERT INTO properties (address, price, bedrooms, bathrooms, square_footage)
+                SELECT g || ' Plan Street', 50000 + (g::bigint * 7919) % 2950000, 1 + g % 6,
+                       1 + (g / 6) % 4, 400 + (g::bigint * 104729) % 4600
+                FROM generate_series(1, ?) AS g
+                """, ROWS);
+        jdbcTemplate.execute("ANALYZE properties");
+    }
+
+    private List<Shape> shapes() {
+        PropertySearchCriteria none = new PropertySearchCriteria();
+        PropertySearchCriteria priceBand = PropertySearchCriteria.builder()
+                .minPrice(400000.0).maxPrice(420000.0).build();
+        PropertySearchCriteria sizeBand = PropertySearchCriteria.builder()
+                .minSize(1000.0).maxSize(1020.0).build();
+        PropertySearchCriteria exactBedrooms = PropertySearchCriteria.builder().bedrooms(5).build();
+
+        List<Shape> shapes = new ArrayList<>(List.of(
+                Shape.of("price range", priceBand, null),
+                Shape.of("price range sorted by price", priceBand, "price"),
+                Shape.of("all rows sorted by price descending", none, "price DESC"),
+                Shape.of("min price only", PropertySearchCriteria.builder().minPrice(2990000.0).build(), null),
+                Shape.of("size range", sizeBand, null),
+                Shape.of("all rows sorted by size", none, "square_footage"),
+                Shape.of("exact bedrooms sorted by price", exactBedrooms, "price"),
+                Shape.of("exact bedrooms in price range", priceBand.toBuilder().bedrooms(5).build(), null),
+                Shape.of("max rooms in price range", priceBand.toBuilder().maxRooms(2).build(), "price"),
+                Shape.of("bathroom range in price range",
+                        priceBand.toBuilder().minBathrooms(2).maxBathrooms(3).build(), null),
+                Shape.of("bathroom range in size range",
+                        sizeBand.toBuilder().minBathrooms(3).build(), "square_footage"),
+                Shape.of("every range filter", PropertySearchCriteria.builder()
+                        .minPrice(300000.0).maxPrice(600000.0).minSize(1000.0).maxSize(1500.0)
+                        .bedrooms(3).minBathrooms(1).maxBathrooms(2).build(), null),
+                // Keyset page after (price 500000, id 0), as PropertyCursor builds the seek predicate
+                new Shape("cursor page sorted by price", none,
+                        "price >= ? AND (price > ? OR (price = ? AND id > ?))",
+                        List.of(500000.0, 500000.0, 500000.0, 0L), "price, id"),
+                new Shape("cursor page of exact bedrooms sorted by size", exactBedrooms,
+                        "square_footage >= ? AND (square_footage > ? OR (square_footage = ? AND id > ?))",
+                        List.of(2000.0, 2000.0, 2000.0, 0L), "square_footage, id")));
+        for (SortKey sort : SORTS) {
+            String column = sort.column();
+            Object value = sort.value();
+            shapes.add(Shape.of("all rows sorted by " + sort.property(), none, sort.orderBy("")));
+            shapes.add(Shape.of("all rows sorted by " + sort.property() + " descending", none,
+                    sort.orderBy(" DESC")));
+            shapes.add(new Shape("cursor page sorted by " + sort.property(), none,
+                    column + " >= ? AND (" + column + " > ? OR (" + column + " = ? AND id > ?))",
+                    List.of(value, value, value, 0L), sort.orderBy("")));
+        }
+        return shapes;
+    }
+
+    @Test
+    void searchShapes_ShouldNotFallBackToSequentialScans() throws Exception {
+        SoftAssertions softly = new SoftAssertions();
+        for (Shape shape : shapes()) {
+            List<String> scans = scansOf(explain(shape));
+            softly.assertThat(scans)
+                    .as("%s: %s", shape.name(), scans)
+                    .noneMatch(scan -> scan.startsWith("Seq Scan"))
+                    .anyMatch(scan -> scan.contains("Index"));
+        }
+        softly.assertAll();
+    }
+
+    private JsonNode explain(Shape shape) throws Exception {
+        PropertySqlFilter filter = PropertySqlFilter.of(shape.criteria());
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>(filter.parameters());
+        if (!filter.isEmpty()) {
+            conditions.add(filter.conditionClause());
+        }
+        if (shape.extraCondition() != null) {
+            conditions.add(shape.extraCondition());
+            parameters.addAll(shape.extraParameters());
+        }
+
+        StringBuilder sql = new StringBuilder("EXPLAIN (ANALYZE, FORMAT JSON) SELECT * FROM properties");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (shape.orderBy() != null) {
+            sql.append(" ORDER BY ").append(shape.orderBy()).append(" LIMIT ").append(PAGE_SIZE);
+        }
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, parameters.toArray());
+        return JSON.readTree(plan).get(0).get("Plan");
+    }
+
+    /**
+     * Lists every scan node on the properties table as "node type [index name]".
+     */
+    private List<String> scansOf(JsonNode plan) {
+        List<String> scans = new ArrayList<>();
+        collectScans(plan, scans);
+        return scans;
+    }
+
+    private void collectScans(JsonNode node, List<String> scans) {
+        String type = node.path("Node Type").asText();
+        String index = node.path("Index Name").asText();
+        // Bitmap index scans name only the index, not the table
+        boolean onProperties = "properties".equals(node.path("Relation Name").asText())
+                || index.startsWith("idx_properties") || index.equals("properties_pkey");
+        if (type.endsWith("Scan") && onProperties) {
+            scans.add(index.isEmpty() ? type : type + " " + index);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.model.Image;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.User;
+import com.propertymanager.repository.ImageRepository;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.repository.UserRepository;
+import com.propertymanager.service.ImageService;
+import com.propertymanager.service.PropertyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads through the second-level cache as requests do: after commit, and without a
+ * transaction of their own. Not transactional itself, since nothing is cached until commit.
+ */
+public class SecondLevelCacheIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String USERNAME = "cache-test-user";
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache cache;
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+    private TransactionTemplate request;
+    private Long propertyId;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.getCache();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaction = new TransactionTemplate(transactionManager);
+        // Keeps one session open without a transaction, as the open-in-view interceptor does
+        request = new TransactionTemplate(transactionManager);
+        request.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+
+        propertyId = transaction.execute(status -> {
+            Property property = Property.builder()
+                    .address("1 Cache Lane, Leeds")
+                    .price(300000.0)
+                    .bedrooms(3)
+                    .bathrooms(1)
+                    .build();
+            property.addImage(image("front.jpg"));
+            return propertyRepository.save(property).getId();
+        });
+        transaction.executeWithoutResult(status -> userRepository.save(User.builder()
+                .username(USERNAME)
+                .password("secret")
+                .role("ROLE_USER")
+                .build()));
+        cache.evictAll();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+        transaction.executeWithoutResult(status -> {
+            propertyRepository.deleteById(propertyId);
+            userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+        });
+    }
+
+    private Image image(String fileName) {
+        Image image = new Image();
+        image.setFileName(fileName);
+        image.setContentType("image/jpeg");
+        image.setUrl("/images/" + fileName);
+        return image;
+    }
+
+    /**
+     * @return the statements run by the read, which is repeated first to warm the cache
+     */
+    private <T> long statementsForCachedRead(Supplier<T> read) {
+        request.execute(status -> read.get());
+        statistics.clear();
+        request.execute(status -> read.get());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void getPropertyById_ShouldBeServedFromTheCacheWithoutAConnection() {
+        assertThat(statementsForCachedRead(() -> propertyService.getPropertyById(propertyId))).isZero();
+        assertThat(statistics.getConnectCount()).isZero();
+        assertThat(cache.contains(Property.class, propertyId)).isTrue();
+    }
+
+    @Test
+    void getImagesForProperty_ShouldBeServedFromTheCache() {
+        long statements = statementsForCachedRead(() -> imageService.getImagesForProperty(propertyId).size());
+
+        assertThat(statements).isZero();
+        // Initialised before it is returned, so it reads without the request's session
+        assertThat(imageService.getImagesForProperty(propertyId))
+                .extracting(Image::getFileName)
+                .containsExactly("front.jpg");
+    }
+
+    @Test
+    void getImagesForProperty_AfterAnImageIsAdded_ShouldListIt() {
+        request.execute(status -> imageService.getImagesForProperty(propertyId).size());
+
+        transaction.executeWithoutResult(status -> {
+            Image image = image("garden.jpg");
+            image.setProperty(propertyRepository.findById(propertyId).orElseThrow());
+            imageRepository.save(image);
+        });
+
+        List<String> fileNames = request.execute(status -> imageService.getImagesForProperty(propertyId).stream()
+                .map(Image::getFileName)
+                .toList());
+        assertThat(fileNames).containsExactlyInAnyOrder("front.jpg", "garden.jpg");
+    }
+
+    @Test
+    void patchProperty_ShouldEvictTheCachedProperty() {
+        propertyService.getPropertyById(propertyId);
+        assertThat(cache.contains(Property.class, propertyId)).isTrue();
+
+        transaction.executeWithoutResult(status ->
+                propertyService.patchProperty(propertyId, 0L, PropertyPatch.of(Map.of("price", 325000))));
+
+        assertThat(cache.contains(Property.class, propertyId)).isFalse();
+        Property reloaded = propertyService.getPropertyById(propertyId);
+        assertThat(reloaded.getPrice()).isEqualTo(325000.0);
+        assertThat(reloaded.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void incrementVersion_ShouldEvictTheCachedProperty() {
+        propertyService.getPropertyById(propertyId);
+
+        transaction.executeWithoutResult(status ->
+                propertyRepository.incrementVersion(propertyRepository.findById(propertyId).orElseThrow()));
+
+        assertThat(propertyService.getPropertyById(propertyId).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserByUsername_ShouldBeServedFromTheNaturalIdCache() {
+        assertThat(statementsForCachedRead(() -> userDetailsService.loadUserByUsername(USERNAME))).isZero();
+        assertThat(userDetailsService.loadUserByUsername(USERNAME).getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void metrics_ShouldReportHitsAndMissesPerRegion() {
+        propertyService.getPropertyById(propertyId);
+        propertyService.getPropertyById(propertyId);
+
+        String region = Property.class.getName();
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", region, "result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", region, "result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.second.level.cache.hit.ratio")
+                .tag("region", region).gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.find("hibernate.second.level.cache.puts")
+                .tag("region", region + ".images").functionCounter()).isNotNull();
+    }
+}
@@ -0,0 +1,170 @@
+package com.propertymanager.integration;
+
+import com.propertymanager.PropertyManagerApplication;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares request throughput and p99 latency with Tomcat on its pool of 200 platform threads
+ * against virtual threads, under more concurrent clients than that pool has threads. Half the
+ * requests list properties from Postgres and half read an image from disk. The virtual-thread
+ * run also records, through JFR, every virtual thread pinned to its carrier while it blocks.
+ * Excluded from the default test run; run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+public class VirtualThreadBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int CLIENTS = 400;
+    private static final int WARMUP_REQUESTS = 10;
+    private static final int MEASURED_REQUESTS = 50;
+    private static final String IMAGE = "benchmark.jpg";
+
+    private record Run(double requestsPerSecond, double p99Millis, List<String> pinned) {
+    }
+
+    @TempDir
+    Path uploadPath;
+
+    @Test
+    void virtualThreads_ShouldKeepUpWithPlatformThreadsWithoutPinning() throws Exception {
+        byte[] image = new byte[64 * 1024];
+        new Random(42).nextBytes(image);
+        Files.write(uploadPath.resolve(IMAGE), image);
+
+        Run platform = run(false);
+        Run virtual = run(true);
+
+        System.out.printf("%d clients: %,.0f requests/s and p99 %.1f ms on platform threads,"
+                        + " %,.0f requests/s and p99 %.1f ms on virtual threads%n", CLIENTS,
+                platform.requestsPerSecond(), platform.p99Millis(), virtual.requestsPerSecond(), virtual.p99Millis());
+
+        assertThat(virtual.pinned()).as("virtual threads pinned while blocking").isEmpty();
+        assertThat(virtual.requestsPerSecond()).isGreaterThan(platform.requestsPerSecond() * 0.8);
+    }
+
+    private Run run(boolean virtualThreads) throws Exception {
+        List<String> pinned = Collections.synchronizedList(new ArrayList<>());
+        try (ConfigurableApplicationContext context = start(virtualThreads);
+             RecordingStream recording = new RecordingStream();
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .build()) {
+            seed(context.getBean(JdbcTemplate.class));
+            recording.enable("jdk.VirtualThreadPinned").withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.add(event.getStackTrace() == null
+                    ? "unknown" : event.getStackTrace().getFrames().stream().limit(8)
+                    .map(RecordedFrame::getMethod).map(method -> method.getType().getName() + "." + method.getName())
+                    .toList().toString()));
+            recording.startAsync();
+
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            load(client, baseUrl, WARMUP_REQUESTS);
+            long start = System.nanoTime();
+            long[] latencies = load(client, baseUrl, MEASURED_REQUESTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            double p99Millis = latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1e6;
+            return new Run(latencies.length / seconds, p99Millis, List.copyOf(pinned));
+        }
+    }
+
+    /**
+     * Starts the application on its own, rather than as a test context, so that each run gets
+     * a server with its own threading mode.
+     */
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(PropertyManagerApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=" + AbstractIntegrationTest.postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + AbstractIntegrationTest.postgres.getUsername(),
+                        "--spring.datasource.password=" + AbstractIntegrationTest.postgres.getPassword(),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--spring.jpa.hibernate.ddl-auto=update",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.propertymanager=INFO",
+                        // Every listing goes to Postgres
+                        "--app.search.cache.enabled=false",
+                        "--upload.path=" + uploadPath);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM images");
+        jdbcTemplate.update("DELETE FROM properties");
+        jdbcTemplate.update("""
+                INSERT INTO properties (address, price, bedrooms, bathrooms, square_footage)
+                SELECT 'Benchmark ' || g, 100000 + (g % 900) * 1000, 1 + g % 6, 1 + g % 3, 500 + g % 3000
+                FROM generate_series(1, ?) AS g
+                """, ROWS);
+        jdbcTemplate.execute("ANALYZE properties");
+    }
+
+    /**
+     * Has each client send its requests one after another, alternating between a page of
+     * properties and the image.
+     *
+     * @return the latency of every request, in nanoseconds
+     */
+    private static long[] load(HttpClient client, String baseUrl, int requestsPerClient) throws Exception {
+        long[] latencies = new long[CLIENTS * requestsPerClient];
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientIndex = c;
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        String path = (clientIndex + i) % 2 == 0
+                                ? "/api/properties?page=" + ((clientIndex + i) % 50)
+                                : "/api/images/" + IMAGE;
+                        latencies[clientIndex * requestsPerClient + i] = send(client, URI.create(baseUrl + path));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+
+    private static long send(HttpClient client, URI uri) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        long latency = System.nanoTime() - start;
+        assertThat(response.statusCode()).as(uri.toString()).isEqualTo(200);
+        return latency;
+    }
+}
@@ -0,0 +1,53 @@
+package com.propertymanager.integration;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadModeIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Autowired
+    private ThreadPoolTaskExecutor streamingResponseExecutor;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Test
+    void tomcat_ShouldHandleRequestsOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    void backgroundPools_ShouldRunOnVirtualThreads() throws Exception {
+        assertThat(jobExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(streamingResponseExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS))
+                .isTrue();
+        assertThat(jobExecutor.getThreadPoolExecutor().getMaximumPoolSize()).isEqualTo(2);
+
+        CompletableFuture<Boolean> scheduled = new CompletableFuture<>();
+        taskScheduler.schedule(() -> scheduled.complete(Thread.currentThread().isVirtual()), Instant.now());
+        assertThat(scheduled.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,171 @@
+package com.propertymanager.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobParameters;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.service.PropertyImporter;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JobHandlersTest {
+
+    @Mock
+    private PropertyService propertyService;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    private final PropertySearchCriteria criteria = PropertySearchCriteria.builder().minPrice(100000.0).build();
+
+    private Job importJob(Path upload, long cursor) {
+        return Job.builder()
+                .id(1L)
+                .type(Job.Type.IMPORT)
+                .status(Job.Status.RUNNING)
+                .parameters(JobParameters.forImport(ExportFormat.CSV, upload.toString()))
+                .cursor(cursor)
+                .build();
+    }
+
+    private Path upload(int rows) throws Exception {
+        String csv = "address,price,bedrooms,bathrooms,square_footage\n" + IntStream.rangeClosed(1, rows)
+                .mapToObj(i -> i % 10 == 0 ? i + " Job Road,-1,3,2,1000" : i + " Job Road,300000,3,2,1000")
+                .collect(Collectors.joining("\n"));
+        return Files.writeString(tempDir.resolve("upload.csv"), csv);
+    }
+
+    @Test
+    void importHandler_ShouldImportABatchPerChunkAndReportRejectedRows() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> batchSizes.add(invocation.<List<Property>>getArgument(0).size()))
+                .when(propertyService).createProperties(anyList());
+        lenient().doThrow(new IllegalArgumentException("Price must be greater than 0"))
+                .when(propertyService).validateProperty(argThat(property -> property.getPrice() < 0));
+        Path upload = upload(1200);
+        Job job = importJob(upload, 0);
+        ImportJobHandler handler = new ImportJobHandler(new PropertyImporter(propertyService, new ObjectMapper()));
+
+        try (JobHandler.Work work = handler.open(job)) {
+            assertThat(work.runChunk(job)).isTrue();
+            assertThat(job.getCursor()).isEqualTo(1111);
+            assertThat(work.runChunk(job)).isFalse();
+        }
+
+        assertThat(batchSizes).containsExactly(1000, 80);
+        assertThat(job.getCursor()).isEqualTo(1200);
+        assertThat(job.getProcessedItems()).isEqualTo(1200);
+        assertThat(job.getFailedItems()).isEqualTo(120);
+        assertThat(job.getErrors()).hasSize(Job.MAX_REPORTED_ERRORS);
+        assertThat(job.getErrors().get(0)).isEqualTo(new Job.ItemError(10, "Price must be greater than 0"));
+
+        handler.finished(job);
+        assertThat(upload).doesNotExist();
+    }
+
+    @Test
+    void importHandler_WhenResumed_ShouldSkipTheRowsAlreadyCommitted() throws Exception {
+        List<Property> imported = new ArrayList<>();
+        doAnswer(invocation -> imported.addAll(invocation.getArgument(0)))
+                .when(propertyService).createProperties(anyList());
+        Job job = importJob(upload(25), 22);
+        ImportJobHandler handler = new ImportJobHandler(new PropertyImporter(propertyService, new ObjectMapper()));
+
+        try (JobHandler.Work work = handler.open(job)) {
+            assertThat(work.runChunk(job)).isFalse();
+        }
+
+        assertThat(imported).extracting(Property::getAddress).containsExactly("23 Job Road", "24 Job Road", "25 Job Road");
+        assertThat(job.getProcessedItems()).isEqualTo(3);
+    }
+
+    @Test
+    void importHandler_WhenABatchFails_ShouldRejectOnlyTheRowsTheDatabaseRefuses() throws Exception {
+        List<Property> imported = new ArrayList<>();
+        doAnswer(invocation -> imported.addAll(invocation.getArgument(0)))
+                .when(propertyService).createProperties(anyList());
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(propertyService).createProperties(argThat(batch -> batch.size() > 1
+                        || batch.get(0).getAddress().equals("2 Job Road")));
+        Job job = importJob(upload(3), 0);
+        ImportJobHandler handler = new ImportJobHandler(new PropertyImporter(propertyService, new ObjectMapper()));
+
+        try (JobHandler.Work work = handler.open(job)) {
+            assertThat(work.runChunk(job)).isFalse();
+        }
+
+        assertThat(imported).extracting(Property::getAddress).containsExactly("1 Job Road", "3 Job Road");
+        assertThat(job.getProcessedItems()).isEqualTo(3);
+        assertThat(job.getFailedItems()).isEqualTo(1);
+        assertThat(job.getErrors()).containsExactly(new Job.ItemError(2, "Could not be inserted: duplicate key"));
+    }
+
+    @Test
+    void repriceHandler_ShouldPageThroughMatchingIdsFromTheCursor() throws Exception {
+        int chunk = MatchingPropertiesJobHandler.CHUNK_SIZE;
+        List<Long> firstChunk = LongStream.rangeClosed(101, 100 + chunk).boxed().toList();
+        when(propertyRepository.findIdsAfter(criteria, 100, chunk)).thenReturn(firstChunk);
+        when(propertyRepository.findIdsAfter(criteria, 100 + chunk, chunk)).thenReturn(List.of());
+        Job job = Job.builder()
+                .type(Job.Type.REPRICE)
+                .parameters(JobParameters.forReprice(criteria, -5))
+                .cursor(100)
+                .build();
+
+        JobHandler.Work work = new RepriceJobHandler(propertyRepository, propertyService).open(job);
+
+        assertThat(work.runChunk(job)).isTrue();
+        assertThat(work.runChunk(job)).isFalse();
+        verify(propertyService).repriceProperties(firstChunk, -5);
+        assertThat(job.getCursor()).isEqualTo(100 + chunk);
+        assertThat(job.getProcessedItems()).isEqualTo(chunk);
+    }
+
+    @Test
+    void deleteHandler_ShouldStopAfterAShortChunk() throws Exception {
+        when(propertyRepository.findIdsAfter(eq(criteria), eq(0L), eq(MatchingPropertiesJobHandler.CHUNK_SIZE)))
+                .thenReturn(List.of(3L, 9L));
+        Job job = Job.builder()
+                .type(Job.Type.DELETE)
+                .parameters(JobParameters.forDelete(criteria))
+                .build();
+        DeleteJobHandler handler = new DeleteJobHandler(propertyRepository, propertyService);
+
+        assertThat(handler.open(job).runChunk(job)).isFalse();
+        verify(propertyService).deleteProperties(List.of(3L, 9L));
+        verify(propertyService, never()).repriceProperties(anyList(), anyDouble());
+        assertThat(job.getCursor()).isEqualTo(9);
+    }
+}
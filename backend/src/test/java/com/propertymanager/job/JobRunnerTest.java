@@ -0,0 +1,171 @@
+package com.propertymanager.job;
+
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobParameters;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JobRunnerTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JobHandler handler;
+
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(handler.type()).thenReturn(Job.Type.REPRICE);
+        job = Job.builder()
+                .id(7L)
+                .type(Job.Type.REPRICE)
+                .status(Job.Status.QUEUED)
+                .parameters(JobParameters.forReprice(new PropertySearchCriteria(), 5))
+                .totalItems(3L)
+                .build();
+    }
+
+    private JobRunner runner(TaskExecutor executor, boolean enabled) {
+        return new JobRunner(jobRepository, List.of(handler), transactionManager, executor, 1, 120, enabled);
+    }
+
+    private void stubClaim() {
+        when(jobRepository.findClaimableId(any())).thenReturn(Optional.of(7L), Optional.empty());
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        lenient().when(jobRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(job));
+    }
+
+    @Test
+    void dispatch_ShouldClaimAJobAndRunItChunkByChunkToTheEnd() throws Exception {
+        stubClaim();
+        AtomicInteger chunks = new AtomicInteger();
+        when(handler.open(job)).thenReturn(current -> {
+            current.recordChunk(current.getCursor() + 10, 1, List.of());
+            return chunks.incrementAndGet() < 3;
+        });
+
+        runner(new SyncTaskExecutor(), true).dispatch();
+
+        assertThat(chunks.get()).isEqualTo(3);
+        assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(job.getCursor()).isEqualTo(30);
+        assertThat(job.getTotalItems()).isEqualTo(3);
+        assertThat(job.getStartedAt()).isNotNull();
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(job.getWorker()).isNull();
+        // The claim, a transaction per chunk and the poll that finds nothing more to claim
+        verify(transactionManager, times(5)).commit(any());
+        verify(handler).finished(job);
+    }
+
+    @Test
+    void dispatch_WhenAChunkFails_ShouldMarkTheJobFailedWithTheCause() throws Exception {
+        stubClaim();
+        when(handler.open(job)).thenReturn(current -> {
+            throw new DataIntegrityViolationException("Could not insert",
+                    new IllegalStateException("value too long"));
+        });
+
+        runner(new SyncTaskExecutor(), true).dispatch();
+
+        assertThat(job.getStatus()).isEqualTo(Job.Status.FAILED);
+        assertThat(job.getMessage()).isEqualTo("value too long");
+        assertThat(job.getFinishedAt()).isNotNull();
+        verify(transactionManager).rollback(any());
+        verify(handler).finished(job);
+    }
+
+    @Test
+    void dispatch_WhenAnotherWorkerHasTakenTheJobOver_ShouldStopWithoutTouchingIt() throws Exception {
+        stubClaim();
+        JobHandler.Work work = mock(JobHandler.Work.class);
+        when(handler.open(job)).thenAnswer(invocation -> {
+            job.setWorker("another-node");
+            return work;
+        });
+
+        runner(new SyncTaskExecutor(), true).dispatch();
+
+        assertThat(job.getStatus()).isEqualTo(Job.Status.RUNNING);
+        verify(work, never()).runChunk(any());
+        verify(work).close();
+        verify(handler, never()).finished(any());
+    }
+
+    @Test
+    void dispatch_ShouldTakeOverStaleRunningJobsAndKeepTheirStartTime() throws Exception {
+        job.setStatus(Job.Status.RUNNING);
+        job.setWorker("crashed-node");
+        job.setStartedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        job.setCursor(500);
+        stubClaim();
+        when(handler.open(job)).thenAnswer(invocation -> {
+            assertThat(job.getCursor()).isEqualTo(500);
+            return (JobHandler.Work) current -> false;
+        });
+
+        runner(new SyncTaskExecutor(), true).dispatch();
+
+        assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+        assertThat(job.getStartedAt()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    @Test
+    void dispatch_WhenThePoolIsFull_ShouldPutTheJobBackInTheQueue() throws Exception {
+        when(jobRepository.findClaimableId(any())).thenReturn(Optional.of(7L));
+        when(jobRepository.findById(7L)).thenReturn(Optional.of(job));
+        when(jobRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(job));
+        TaskExecutor rejecting = task -> {
+            throw new TaskRejectedException("full");
+        };
+        JobRunner runner = runner(rejecting, true);
+
+        runner.dispatch();
+        runner.dispatch();
+
+        // The worker was handed back each time, so the second poll could claim again
+        verify(jobRepository, times(2)).findClaimableId(any());
+        verify(handler, never()).open(any());
+        assertThat(job.getStatus()).isEqualTo(Job.Status.QUEUED);
+        assertThat(job.getWorker()).isNull();
+    }
+
+    @Test
+    void dispatch_WhenDisabled_ShouldNotPoll() {
+        runner(new SyncTaskExecutor(), false).dispatch();
+
+        verify(jobRepository, never()).findClaimableId(any());
+    }
+}
@@ -0,0 +1,79 @@
+package com.propertymanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PropertyPatchTest {
+
+    @Test
+    void of_ShouldKeepSuppliedFieldsInOrderWithTheirTypes() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", 7);
+        json.put("price", 250000);
+        json.put("description", null);
+        json.put("bedrooms", 3);
+        json.put("version", 4);
+
+        PropertyPatch patch = PropertyPatch.of(json);
+
+        assertThat(patch.values()).containsExactly(
+                Map.entry("price", 250000.0),
+                Map.entry("description", null),
+                Map.entry("bedrooms", 3));
+        assertThat(patch.has("description")).isTrue();
+        assertThat(patch.has("address")).isFalse();
+        assertThat(patch.version()).isEqualTo(4L);
+    }
+
+    @Test
+    void of_WithoutVersion_ShouldLeaveItNull() {
+        PropertyPatch patch = PropertyPatch.of(Map.of("address", "1 New Street"));
+
+        assertThat(patch.version()).isNull();
+        assertThat(patch.isEmpty()).isFalse();
+        assertThat(PropertyPatch.of(Map.of()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void of_WithUnknownOrReadOnlyFields_ShouldThrow() {
+        assertThatThrownBy(() -> PropertyPatch.of(Map.of("garden", true)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown property field: garden");
+        assertThatThrownBy(() -> PropertyPatch.of(Map.of("images", List.of())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Images cannot be patched");
+    }
+
+    @Test
+    void of_WithWrongTypes_ShouldThrow() {
+        assertThatThrownBy(() -> PropertyPatch.of(Map.of("address", 12)))
+                .hasMessage("Invalid address: expected a string");
+        assertThatThrownBy(() -> PropertyPatch.of(Map.of("price", "cheap")))
+                .hasMessage("Invalid price: expected a number");
+        assertThatThrownBy(() -> PropertyPatch.of(Map.of("bedrooms", 2.5)))
+                .hasMessage("Invalid bedrooms: expected a whole number");
+        assertThatThrownBy(() -> PropertyPatch.of(Map.of("bathrooms", 5_000_000_000L)))
+                .hasMessage("Invalid bathrooms: 5000000000");
+        assertThatThrownBy(() -> PropertyPatch.of(Map.of("version", "3")))
+                .hasMessage("Invalid version: expected a whole number");
+    }
+
+    @Test
+    void of_WithNullVersion_ShouldTreatItAsMissing() {
+        Map<String, Object> json = new HashMap<>();
+        json.put("version", null);
+        json.put("latitude", 51.5);
+
+        PropertyPatch patch = PropertyPatch.of(json);
+
+        assertThat(patch.version()).isNull();
+        assertThat(patch.get("latitude")).isEqualTo(51.5);
+    }
+}
@@ -0,0 +1,137 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.AddressSuggestion;
+import com.propertymanager.model.Property;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AddressSuggestionIndexTest {
+
+    @Mock
+    private PropertySnapshot snapshot;
+
+    private AddressSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AddressSuggestionIndex(snapshot);
+        load(property(1L, "1 Kensington Gardens, London W8 4PX"),
+                property(2L, "15 Chelsea Harbour, London SW10 0XG"),
+                property(3L, "25 Deansgate, Manchester M3 4LQ"),
+                property(4L, "15 Castlefield, Manchester"),
+                property(5L, "22 Notting Hill Gate, London W11 3JE"));
+    }
+
+    private void load(Property... properties) {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            List.of(properties).forEach(action);
+            return (long) properties.length;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+    }
+
+    private Property property(Long id, String address) {
+        return Property.builder().id(id).address(address).build();
+    }
+
+    @Test
+    void suggest_ShouldReturnMostFrequentCompletionsFirst() {
+        assertThat(index.suggest("L", 10)).containsExactly(new AddressSuggestion("london", 3));
+        assertThat(index.suggest("  ma", 10)).containsExactly(new AddressSuggestion("manchester", 2));
+        assertThat(index.suggest("w", 10)).containsExactly(
+                new AddressSuggestion("w11", 1),
+                new AddressSuggestion("w11 3je", 1),
+                new AddressSuggestion("w8", 1),
+                new AddressSuggestion("w8 4px", 1));
+    }
+
+    @Test
+    void suggest_ShouldCompletePostcodesAcrossTheSpace() {
+        assertThat(index.suggest("sw10  0", 10)).containsExactly(new AddressSuggestion("sw10 0xg", 1));
+        assertThat(index.suggest("m3 4", 10)).containsExactly(new AddressSuggestion("m3 4lq", 1));
+    }
+
+    @Test
+    void suggest_ShouldRespectLimitAndIgnoreUnknownPrefixes() {
+        assertThat(index.suggest("w", 2)).hasSize(2);
+        assertThat(index.suggest("zz", 10)).isEmpty();
+        assertThat(index.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void terms_ShouldSkipHouseNumbersAndSingleCharacters() {
+        assertThat(AddressSuggestionIndex.terms("12 B Hampstead Heath, London NW3 1AB"))
+                .containsExactly("nw3 1ab", "hampstead", "heath", "london", "nw3", "1ab");
+    }
+
+    @Test
+    void onPropertyChanged_ShouldUpdateCountsAndPruneRemovedTerms() {
+        index.onPropertyChanged(PropertyChangedEvent.created(property(6L, "3 Deansgate Quay, Manchester")));
+        index.onPropertyChanged(PropertyChangedEvent.updated(property(4L, "15 Castlefield, Salford")));
+        index.onPropertyChanged(PropertyChangedEvent.deleted(1L));
+
+        assertThat(index.suggest("man", 10)).containsExactly(new AddressSuggestion("manchester", 2));
+        assertThat(index.suggest("dea", 10)).containsExactly(new AddressSuggestion("deansgate", 2));
+        assertThat(index.suggest("lon", 10)).containsExactly(new AddressSuggestion("london", 2));
+        assertThat(index.suggest("sal", 10)).containsExactly(new AddressSuggestion("salford", 1));
+        assertThat(index.suggest("ken", 10)).isEmpty();
+    }
+
+    @Test
+    void onPropertyChanged_WhenListedTermsShrink_ShouldSurfaceTermsBelowThem() {
+        // "stopK" occurs in K properties, with ids K * 100 + n
+        for (int k = 1; k <= 12; k++) {
+            for (int n = 0; n < k; n++) {
+                index.onPropertyChanged(PropertyChangedEvent.created(property(k * 100L + n, n + " Stop" + k)));
+            }
+        }
+        assertThat(index.suggest("sto", 10)).first().isEqualTo(new AddressSuggestion("stop12", 12));
+        assertThat(index.suggest("sto", 10)).last().isEqualTo(new AddressSuggestion("stop3", 3));
+
+        for (int k = 11; k <= 12; k++) {
+            for (int n = 0; n < k; n++) {
+                index.onPropertyChanged(PropertyChangedEvent.deleted(k * 100L + n));
+            }
+        }
+
+        List<AddressSuggestion> suggestions = index.suggest("sto", 10);
+        assertThat(suggestions).hasSize(10);
+        assertThat(suggestions).first().isEqualTo(new AddressSuggestion("stop10", 10));
+        assertThat(suggestions).last().isEqualTo(new AddressSuggestion("stop1", 1));
+        verify(snapshot).forEach(any(), any());
+    }
+
+    @Test
+    void load_ShouldKeepChangesThatCommitWhileItReads() {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            action.accept(property(1L, "1 Kensington Gardens, London W8 4PX"));
+            index.onPropertyChanged(PropertyChangedEvent.updated(property(2L, "15 Chelsea Harbour, Salford")));
+            index.onPropertyChanged(PropertyChangedEvent.deleted(3L));
+            // Read before those changes committed
+            action.accept(property(2L, "15 Chelsea Harbour, London SW10 0XG"));
+            action.accept(property(3L, "25 Deansgate, Manchester M3 4LQ"));
+            return 3L;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+
+        assertThat(index.suggest("lon", 10)).containsExactly(new AddressSuggestion("london", 1));
+        assertThat(index.suggest("sal", 10)).containsExactly(new AddressSuggestion("salford", 1));
+        assertThat(index.suggest("man", 10)).isEmpty();
+        assertThat(index.suggest("che", 10)).containsExactly(new AddressSuggestion("chelsea", 1));
+    }
+}
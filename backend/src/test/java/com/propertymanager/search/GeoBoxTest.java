@@ -0,0 +1,46 @@
+package com.propertymanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoBoxTest {
+
+    @Test
+    void around_ShouldEncloseTheCircle() {
+        // One degree of latitude is about 69.1 miles
+        GeoBox box = GeoBox.around(51.5, -0.12, 69.09);
+
+        assertThat(box.minLatitude()).isCloseTo(50.5, within(0.01));
+        assertThat(box.maxLatitude()).isCloseTo(52.5, within(0.01));
+        // At 51.5 degrees a degree of longitude is about 43 miles
+        assertThat(box.minLongitude()).isCloseTo(-0.12 - 1.607, within(0.01));
+        assertThat(box.maxLongitude()).isCloseTo(-0.12 + 1.607, within(0.01));
+    }
+
+    @Test
+    void around_NearAPole_ShouldSpanAllLongitudes() {
+        GeoBox box = GeoBox.around(89.5, 10.0, 50.0);
+
+        assertThat(box.minLongitude()).isEqualTo(-180);
+        assertThat(box.maxLongitude()).isEqualTo(180);
+        assertThat(box.maxLatitude()).isEqualTo(90);
+    }
+
+    @Test
+    void around_NearTheSouthPole_ShouldClampLatitude() {
+        GeoBox box = GeoBox.around(-89.9, 0.0, 20.0);
+
+        assertThat(box.minLatitude()).isEqualTo(-90);
+        assertThat(box.minLongitude()).isEqualTo(-180);
+    }
+
+    @Test
+    void around_NearTheAntimeridian_ShouldClampLongitudes() {
+        GeoBox box = GeoBox.around(0.0, 179.9, 50.0);
+
+        assertThat(box.maxLongitude()).isEqualTo(180);
+        assertThat(box.minLongitude()).isLessThan(179.9);
+    }
+}
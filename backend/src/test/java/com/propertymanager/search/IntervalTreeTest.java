@@ -0,0 +1,60 @@
+package com.propertymanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    private List<Long> stab(IntervalTree tree, double point) {
+        List<Long> ids = new ArrayList<>();
+        tree.stab(point, ids::add);
+        return ids;
+    }
+
+    @Test
+    void stab_ShouldReportIntervalsContainingPointIncludingBounds() {
+        IntervalTree tree = IntervalTree.build(List.of(
+                new IntervalTree.Interval(100, 200, 1),
+                new IntervalTree.Interval(150, 150, 2),
+                new IntervalTree.Interval(Double.NEGATIVE_INFINITY, 120, 3),
+                new IntervalTree.Interval(180, Double.POSITIVE_INFINITY, 4)));
+
+        assertThat(stab(tree, 150)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(stab(tree, 100)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(stab(tree, 200)).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(stab(tree, -1e9)).containsExactly(3L);
+        assertThat(stab(tree, 130)).containsExactly(1L);
+        assertThat(tree.size()).isEqualTo(4);
+    }
+
+    @Test
+    void stab_OnEmptyTree_ShouldReportNothing() {
+        assertThat(stab(IntervalTree.build(List.of()), 1)).isEmpty();
+    }
+
+    @Test
+    void stab_ShouldAgreeWithLinearScanOnRandomIntervals() {
+        Random random = new Random(7);
+        List<IntervalTree.Interval> intervals = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            double low = random.nextInt(1000);
+            double high = low + random.nextInt(50);
+            intervals.add(new IntervalTree.Interval(low, random.nextInt(10) == 0 ? Double.POSITIVE_INFINITY : high, id));
+        }
+        IntervalTree tree = IntervalTree.build(intervals);
+
+        for (int i = 0; i < 200; i++) {
+            double point = random.nextInt(1100) + (random.nextBoolean() ? 0.5 : 0);
+            List<Long> expected = intervals.stream()
+                    .filter(interval -> interval.low() <= point && point <= interval.high())
+                    .map(IntervalTree.Interval::id)
+                    .toList();
+            assertThat(stab(tree, point)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.propertymanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NearestNeighbourIndexTest {
+
+    private static final int DIMENSIONS = 3;
+
+    private static double[] randomPoint(Random random) {
+        // Whole numbers on one axis, like room counts, to exercise ties in partitioning
+        return new double[] {random.nextGaussian() * 4, random.nextGaussian() * 4, random.nextInt(5)};
+    }
+
+    private static List<Long> bruteForce(Map<Long, double[]> points, double[] query, int limit, Set<Long> excluded) {
+        Comparator<Map.Entry<Long, double[]>> byDistance = Comparator.comparingDouble(
+                entry -> distanceSquared(entry.getValue(), query));
+        return points.entrySet().stream()
+                .filter(entry -> !excluded.contains(entry.getKey()))
+                .sorted(byDistance.thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static double distanceSquared(double[] a, double[] b) {
+        double sum = 0;
+        for (int axis = 0; axis < a.length; axis++) {
+            sum += (a[axis] - b[axis]) * (a[axis] - b[axis]);
+        }
+        return sum;
+    }
+
+    @Test
+    void nearest_ShouldMatchBruteForceThroughWritesAndRebuilds() {
+        Random random = new Random(7);
+        Map<Long, double[]> expected = new HashMap<>();
+        long[] ids = new long[5000];
+        double[] coordinates = new double[ids.length * DIMENSIONS];
+        for (int i = 0; i < ids.length; i++) {
+            double[] point = randomPoint(random);
+            ids[i] = i;
+            System.arraycopy(point, 0, coordinates, i * DIMENSIONS, DIMENSIONS);
+            expected.put((long) i, point);
+        }
+        NearestNeighbourIndex index = new NearestNeighbourIndex(DIMENSIONS);
+        index.load(ids, coordinates);
+
+        // Enough writes to pass the rebuild threshold more than once
+        for (int write = 0; write < 3000; write++) {
+            long id = random.nextInt(6000);
+            if (random.nextInt(3) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                double[] point = randomPoint(random);
+                index.put(id, point);
+                expected.put(id, point);
+            }
+            if (write % 500 == 0) {
+                double[] query = randomPoint(random);
+                assertThat(index.nearest(query, 10, Set.of())).isEqualTo(bruteForce(expected, query, 10, Set.of()));
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (long subject = 0; subject < 50; subject++) {
+            double[] point = index.pointOf(subject);
+            if (point == null) {
+                assertThat(expected).doesNotContainKey(subject);
+                continue;
+            }
+            assertThat(point).containsExactly(expected.get(subject));
+            assertThat(index.nearest(point, 10, Set.of(subject)))
+                    .isEqualTo(bruteForce(expected, point, 10, Set.of(subject)));
+        }
+    }
+
+    @Test
+    void nearest_WithFewerPointsThanRequested_ShouldReturnThemAll() {
+        NearestNeighbourIndex index = new NearestNeighbourIndex(DIMENSIONS);
+        index.put(1L, new double[] {0, 0, 0});
+        index.put(2L, new double[] {3, 0, 0});
+        index.put(3L, new double[] {1, 0, 0});
+
+        assertThat(index.nearest(new double[] {0, 0, 0}, 10, Set.of(1L))).containsExactly(3L, 2L);
+        assertThat(index.pointOf(4L)).isNull();
+    }
+
+    @Test
+    void invalidInput_ShouldThrowException() {
+        NearestNeighbourIndex index = new NearestNeighbourIndex(DIMENSIONS);
+
+        assertThatThrownBy(() -> index.put(1L, new double[] {0, 0})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.load(new long[] {1L}, new double[] {0, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Neighbours(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
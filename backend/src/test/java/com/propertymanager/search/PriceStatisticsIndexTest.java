@@ -0,0 +1,145 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.PriceStatistics;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.Property;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class PriceStatisticsIndexTest {
+
+    private static final double ACCURACY = QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+
+    @Mock
+    private PropertySnapshot snapshot;
+
+    private PriceStatisticsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PriceStatisticsIndex(snapshot);
+    }
+
+    private Property property(Long id, String address, Double price, Double squareFootage) {
+        return Property.builder().id(id).address(address).price(price).squareFootage(squareFootage).build();
+    }
+
+    private void load(Property... properties) {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            List.of(properties).forEach(action);
+            return (long) properties.length;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+    }
+
+    private PriceStatistics statistics(String... areas) {
+        return index.statistics(Set.of(areas)).orElseThrow();
+    }
+
+    @Test
+    void areaOf_ShouldPreferPostcodeAreaThenTown() {
+        assertThat(PriceStatisticsIndex.areaOf("1 Kensington Gardens, London W8 4PX")).isEqualTo("w");
+        assertThat(PriceStatisticsIndex.areaOf("15 Chelsea Harbour, London SW10 0XG")).isEqualTo("sw");
+        assertThat(PriceStatisticsIndex.areaOf("25 Deansgate,  Greater   Manchester ")).isEqualTo("greater manchester");
+        assertThat(PriceStatisticsIndex.areaOf("1 High Street")).isEqualTo(PriceStatisticsIndex.OTHER_AREA);
+        assertThat(PriceStatisticsIndex.areaOf(null)).isEqualTo(PriceStatisticsIndex.OTHER_AREA);
+        assertThat(PriceStatisticsIndex.normalizeArea(" SW ")).isEqualTo("sw");
+    }
+
+    @Test
+    void statistics_BeforeLoad_ShouldBeEmpty() {
+        assertThat(index.statistics(Set.of())).isEmpty();
+    }
+
+    @Test
+    void statistics_ShouldMergeTheRequestedAreas() {
+        load(property(1L, "1 Chelsea Harbour, London SW10 0XG", 1_000_000.0, 1000.0),
+                property(2L, "2 Chelsea Harbour, London SW10 0XG", 2_000_000.0, 1000.0),
+                property(3L, "25 Deansgate, Manchester", 200_000.0, 500.0),
+                property(4L, "26 Deansgate, Manchester", 300_000.0, null),
+                property(5L, "1 High Street", null, 800.0));
+
+        PriceStatistics all = statistics();
+        PriceStatistics london = statistics("sw");
+        PriceStatistics both = statistics("sw", "manchester", "nowhere");
+
+        assertThat(all.count()).isEqualTo(4);
+        assertThat(all.source()).isEqualTo(PriceStatistics.Source.SKETCH);
+        assertThat(london.count()).isEqualTo(2);
+        assertThat(london.medianPrice()).isCloseTo(1_000_000, within(1_000_000 * ACCURACY));
+        assertThat(london.p90Price()).isCloseTo(2_000_000, within(2_000_000 * ACCURACY));
+        assertThat(both.count()).isEqualTo(4);
+        assertThat(both.pricedBySizeCount()).isEqualTo(3);
+        assertThat(both.medianPricePerSquareFoot()).isCloseTo(1000, within(1000 * ACCURACY));
+        assertThat(both.priceBands()).extracting(PropertyFacets.PriceBand::count)
+                .containsExactly(0L, 0L, 1L, 1L, 0L, 0L, 1L, 1L);
+        assertThat(index.areaCount()).isEqualTo(3);
+    }
+
+    @Test
+    void onPropertyChanged_ShouldMoveValuesBetweenAreas() {
+        load(property(1L, "25 Deansgate, Manchester", 200_000.0, 500.0));
+
+        index.onPropertyChanged(PropertyChangedEvent.updated(
+                property(1L, "25 Deansgate, Manchester M3 4LQ", 250_000.0, 500.0)));
+        index.onPropertyChanged(PropertyChangedEvent.created(
+                property(2L, "2 Canal Street, Manchester M1 3HE", 300_000.0, null)));
+
+        assertThat(statistics("manchester").count()).isZero();
+        assertThat(statistics("manchester").medianPrice()).isNull();
+        assertThat(statistics("m").count()).isEqualTo(2);
+        assertThat(statistics("m").medianPricePerSquareFoot()).isCloseTo(500, within(500 * ACCURACY));
+
+        index.onPropertyChanged(PropertyChangedEvent.deleted(2L));
+        index.onPropertyChanged(PropertyChangedEvent.deleted(1L));
+        index.onPropertyChanged(PropertyChangedEvent.deleted(99L));
+
+        assertThat(statistics().count()).isZero();
+        assertThat(index.areaCount()).isZero();
+    }
+
+    @Test
+    void onPropertyChanged_WithUnpricedProperties_ShouldNotCountThem() {
+        load(property(1L, "1 Mill Lane, Leeds", 150_000.0, 600.0),
+                property(2L, "2 Mill Lane, Leeds", null, 600.0));
+
+        index.onPropertyChanged(PropertyChangedEvent.deleted(1L));
+        index.onPropertyChanged(PropertyChangedEvent.deleted(2L));
+
+        assertThat(statistics("leeds").count()).isZero();
+    }
+
+    @Test
+    void load_ShouldKeepChangesThatCommitWhileItReads() {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            action.accept(property(1L, "1 Mill Lane, Leeds", 150_000.0, 600.0));
+            index.onPropertyChanged(PropertyChangedEvent.updated(property(2L, "2 Mill Lane, York", 400_000.0, 800.0)));
+            index.onPropertyChanged(PropertyChangedEvent.deleted(3L));
+            // Read before those changes committed
+            action.accept(property(2L, "2 Mill Lane, Leeds", 160_000.0, 600.0));
+            action.accept(property(3L, "3 Mill Lane, Leeds", 170_000.0, 600.0));
+            return 3L;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+
+        assertThat(statistics("leeds").count()).isEqualTo(1);
+        assertThat(statistics("york").count()).isEqualTo(1);
+        assertThat(index.areaCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,296 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyChangeStreamTest {
+
+    private final PropertySearchCriteria manchester = PropertySearchCriteria.builder().address("Manchester").build();
+
+    private TestStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new TestStream(Runnable::run, Runnable::run, 3, 8);
+    }
+
+    private Property property(Long id, String address) {
+        return Property.builder().id(id).address(address).price(250000.0).bedrooms(2).bathrooms(1).build();
+    }
+
+    @Test
+    void onPropertyChanged_ShouldOnlySendMatchingChanges() {
+        RecordingEmitter emitter = stream.subscribe(manchester, null);
+
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(1L, "1 Hyde Park, London")));
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(2L, "25 Deansgate, Manchester")));
+
+        assertThat(emitter.events).hasSize(1);
+        assertThat(emitter.events.get(0).name()).isEqualTo("created");
+        assertThat(emitter.events.get(0).change().propertyId()).isEqualTo(2L);
+        assertThat(emitter.events.get(0).change().property().address()).isEqualTo("25 Deansgate, Manchester");
+    }
+
+    @Test
+    void onPropertyChanged_WhenPropertyLeavesTheFilters_ShouldStillSendIt() {
+        RecordingEmitter emitter = stream.subscribe(manchester, null);
+        Property moved = property(2L, "1 Hyde Park, London");
+
+        stream.onPropertyChanged(PropertyChangedEvent.updated(moved, property(2L, "25 Deansgate, Manchester")));
+        stream.onPropertyChanged(PropertyChangedEvent.deleted(2L, moved));
+
+        assertThat(emitter.events).extracting(Sent::name).containsExactly("updated");
+        assertThat(emitter.events.get(0).change().property().address()).isEqualTo("1 Hyde Park, London");
+    }
+
+    @Test
+    void onPropertyChanged_ShouldSendTheStateAtCommit() {
+        RecordingEmitter emitter = stream.subscribe(new PropertySearchCriteria(), null);
+        Property property = property(1L, "25 Deansgate, Manchester");
+
+        stream.onPropertyChanged(PropertyChangedEvent.created(property));
+        property.setAddress("Changed later");
+
+        assertThat(emitter.events.get(0).change().property().address()).isEqualTo("25 Deansgate, Manchester");
+    }
+
+    @Test
+    void onPropertiesChanged_ShouldSendEachMatchingChangeOrOneResetIfTooMany() {
+        RecordingEmitter few = stream.subscribe(manchester, null);
+        RecordingEmitter all = stream.subscribe(new PropertySearchCriteria(), null);
+        List<PropertyChangedEvent> changes = new ArrayList<>();
+        for (long id = 1; id <= 9; id++) {
+            changes.add(PropertyChangedEvent.created(property(id, id <= 2 ? "Deansgate, Manchester" : "London")));
+        }
+
+        stream.onPropertiesChanged(new PropertiesChangedEvent(changes));
+
+        assertThat(few.events).extracting(sent -> sent.change().propertyId()).containsExactly(1L, 2L);
+        assertThat(all.events).extracting(Sent::name).containsExactly(PropertyChangeStream.RESET_EVENT);
+        assertThat(stream.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedMatchingChanges() {
+        RecordingEmitter first = stream.subscribe(manchester, null);
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(1L, "1 Deansgate, Manchester")));
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(2L, "1 Hyde Park, London")));
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(3L, "3 Deansgate, Manchester")));
+
+        RecordingEmitter resumed = stream.subscribe(manchester, first.events.get(0).id());
+        stream.onPropertyChanged(PropertyChangedEvent.deleted(3L, property(3L, "3 Deansgate, Manchester")));
+
+        assertThat(resumed.events).extracting(sent -> sent.change().propertyId()).containsExactly(3L, 3L);
+        assertThat(resumed.events).extracting(Sent::name).containsExactly("created", "deleted");
+        assertThat(Long.parseLong(resumed.events.get(1).id()))
+                .isGreaterThan(Long.parseLong(resumed.events.get(0).id()));
+    }
+
+    @Test
+    void subscribe_WithLastEventIdNoLongerBuffered_ShouldSendReset() {
+        RecordingEmitter first = stream.subscribe(new PropertySearchCriteria(), null);
+        for (long id = 1; id <= 5; id++) {
+            stream.onPropertyChanged(PropertyChangedEvent.created(property(id, "Manchester")));
+        }
+
+        RecordingEmitter tooOld = stream.subscribe(new PropertySearchCriteria(), first.events.get(0).id());
+        RecordingEmitter oldestBuffered = stream.subscribe(new PropertySearchCriteria(), first.events.get(1).id());
+        RecordingEmitter unknown = stream.subscribe(new PropertySearchCriteria(), "not-an-id");
+
+        assertThat(tooOld.events).extracting(Sent::name).containsExactly(PropertyChangeStream.RESET_EVENT);
+        assertThat(unknown.events).extracting(Sent::name).containsExactly(PropertyChangeStream.RESET_EVENT);
+        assertThat(oldestBuffered.events).extracting(sent -> sent.change().propertyId()).containsExactly(3L, 4L, 5L);
+        // Reset clients stay subscribed to later changes
+        assertThat(stream.subscriberCount()).isEqualTo(4);
+    }
+
+    @Test
+    void subscribe_WithLastEventIdFromTheFuture_ShouldSendReset() {
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(1L, "Manchester")));
+        RecordingEmitter first = stream.subscribe(new PropertySearchCriteria(), null);
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(2L, "Manchester")));
+
+        RecordingEmitter restarted = stream.subscribe(new PropertySearchCriteria(),
+                Long.toString(Long.parseLong(first.events.get(0).id()) + 1000));
+
+        assertThat(restarted.events).extracting(Sent::name).containsExactly(PropertyChangeStream.RESET_EVENT);
+    }
+
+    @Test
+    void heartbeat_ShouldKeepLiveSubscribersAndDropGoneOnes() {
+        RecordingEmitter live = stream.subscribe(new PropertySearchCriteria(), null);
+        RecordingEmitter gone = stream.subscribe(new PropertySearchCriteria(), null);
+        gone.broken = true;
+
+        stream.heartbeat();
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(1L, "Manchester")));
+
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+        assertThat(live.events).extracting(Sent::name).containsExactly(null, "created");
+        assertThat(live.events.get(0).text()).contains(":heartbeat");
+        assertThat(gone.events).isEmpty();
+    }
+
+    @Test
+    void onPropertyChanged_WhenASubscriberFallsBehind_ShouldCompleteItWithoutHoldingUpOthers() {
+        ManualExecutor sender = new ManualExecutor(Integer.MAX_VALUE);
+        stream = new TestStream(Runnable::run, sender, 3, 2);
+        RecordingEmitter slow = stream.subscribe(new PropertySearchCriteria(), null);
+        RecordingEmitter fast = stream.subscribe(new PropertySearchCriteria(), null);
+
+        for (long id = 1; id <= 3; id++) {
+            stream.onPropertyChanged(PropertyChangedEvent.created(property(id, "Manchester")));
+            // Only the fast subscriber's writes get to run
+            sender.runLatest();
+        }
+
+        assertThat(fast.events).extracting(sent -> sent.change().propertyId()).containsExactly(1L, 2L, 3L);
+        assertThat(slow.events).isEmpty();
+        assertThat(slow.completed).isTrue();
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onPropertyChanged_WhenTheDispatcherIsFull_ShouldDropQueuedChangesAndSendReset() {
+        ManualExecutor dispatcher = new ManualExecutor(1);
+        stream = new TestStream(dispatcher, Runnable::run, 3, 8);
+        RecordingEmitter emitter = stream.subscribe(new PropertySearchCriteria(), null);
+        dispatcher.runAll();
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(1L, "Manchester")));
+        dispatcher.runAll();
+
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(2L, "Manchester")));
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(3L, "Manchester")));
+        RecordingEmitter turnedAway = stream.subscribe(new PropertySearchCriteria(), null);
+        dispatcher.runAll();
+        stream.onPropertyChanged(PropertyChangedEvent.created(property(4L, "Manchester")));
+        dispatcher.runAll();
+
+        assertThat(emitter.events).extracting(Sent::name)
+                .containsExactly("created", PropertyChangeStream.RESET_EVENT, "created");
+        assertThat(emitter.events).extracting(sent -> sent.change() == null ? null : sent.change().propertyId())
+                .containsExactly(1L, null, 4L);
+        assertThat(turnedAway.completed).isTrue();
+
+        // No client resumes across the dropped changes
+        RecordingEmitter resumed = stream.subscribe(new PropertySearchCriteria(), emitter.events.get(0).id());
+        dispatcher.runAll();
+        assertThat(resumed.events).extracting(Sent::name).containsExactly(PropertyChangeStream.RESET_EVENT);
+    }
+
+    @Test
+    void shutdown_ShouldCompleteEverySubscriber() {
+        stream.subscribe(new PropertySearchCriteria(), null);
+
+        stream.shutdown();
+
+        assertThat(stream.emitters).allMatch(emitter -> emitter.completed);
+    }
+
+    /**
+     * Sends to emitters that record what they are sent, on the calling thread unless given
+     * executors to hold the work back.
+     */
+    private static class TestStream extends PropertyChangeStream {
+        private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+        TestStream(Executor dispatcher, Executor sender, int replaySize, int subscriberQueueSize) {
+            super(dispatcher, sender, replaySize, subscriberQueueSize, 60_000);
+        }
+
+        @Override
+        public RecordingEmitter subscribe(PropertySearchCriteria criteria, String lastEventId) {
+            return (RecordingEmitter) super.subscribe(criteria, lastEventId);
+        }
+
+        @Override
+        SseEmitter createEmitter(long timeoutMillis) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    }
+
+    /**
+     * Holds tasks until the test runs them, rejecting any beyond its capacity.
+     */
+    private static class ManualExecutor implements Executor {
+        private final int capacity;
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        ManualExecutor(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (tasks.size() >= capacity) {
+                throw new RejectedExecutionException("Queue full");
+            }
+            tasks.add(task);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        void runLatest() {
+            tasks.remove(tasks.size() - 1).run();
+        }
+    }
+
+    private record Sent(String id, String name, String text, PropertyChangeStream.Change change) {
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Sent> events = new ArrayList<>();
+        private boolean broken;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            PropertyChangeStream.Change change = null;
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof PropertyChangeStream.Change sent) {
+                    change = sent;
+                } else {
+                    text.append(data.getData());
+                }
+            }
+            events.add(new Sent(field(text, "id:"), field(text, "event:"), text.toString(), change));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        private static String field(CharSequence text, String prefix) {
+            return text.toString().lines()
+                    .filter(line -> line.startsWith(prefix))
+                    .map(line -> line.substring(prefix.length()))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+}
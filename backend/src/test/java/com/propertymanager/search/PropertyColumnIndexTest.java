@@ -0,0 +1,256 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyColumnIndexTest {
+
+    @Mock
+    private PropertySnapshot snapshot;
+
+    private PropertyColumnIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PropertyColumnIndex(snapshot, true);
+        load(property(1L, "1 Kensington Gardens, London", 2500000.0, 5, 4, 2000.0),
+                property(2L, "25 Deansgate, Manchester", 450000.0, 2, 2, 1000.0),
+                property(3L, "15 Castlefield, Manchester", 400000.0, 2, 1, 800.0),
+                property(4L, "10 Edgbaston, Birmingham", 750000.0, 4, 3, 2000.0),
+                property(5L, "22 Notting Hill Gate, London", 3200000.0, 6, 4, 2500.0));
+    }
+
+    private void load(Property... properties) {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            List.of(properties).forEach(action);
+            return (long) properties.length;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+    }
+
+    private Property property(Long id, String address, Double price, Integer bedrooms, Integer bathrooms, Double size) {
+        return Property.builder()
+                .id(id)
+                .address(address)
+                .price(price)
+                .bedrooms(bedrooms)
+                .bathrooms(bathrooms)
+                .squareFootage(size)
+                .build();
+    }
+
+    private List<Long> search(PropertySearchCriteria criteria, Pageable pageable) {
+        return index.search(criteria, pageable).orElseThrow().ids();
+    }
+
+    @Test
+    void search_WithPriceRange_ShouldReturnMatchingIds() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .minPrice(450000.0)
+                .maxPrice(750000.0)
+                .build();
+
+        assertThat(search(criteria, PageRequest.of(0, 12))).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void search_WithBoundsBetweenNearbyValues_ShouldCompareExactValues() {
+        load(property(6L, "1 Penny Lane, Liverpool", 100000.004, 3, 1, 1000.00001),
+                property(7L, "2 Penny Lane, Liverpool", 100000.001, 3, 1, 1000.0));
+
+        PropertySearchCriteria priceCriteria = PropertySearchCriteria.builder()
+                .minPrice(100000.002)
+                .build();
+        PropertySearchCriteria sizeCriteria = PropertySearchCriteria.builder()
+                .minSize(900.0)
+                .maxSize(1000.0)
+                .build();
+
+        assertThat(search(priceCriteria, PageRequest.of(0, 12))).containsExactly(6L);
+        assertThat(search(sizeCriteria, PageRequest.of(0, 12))).containsExactly(7L);
+        assertThat(search(new PropertySearchCriteria(), PageRequest.of(0, 12, Sort.by("price"))))
+                .containsExactly(7L, 6L);
+    }
+
+    @Test
+    void sortKey_ShouldOrderLikeTheValues() {
+        assertThat(PropertyColumnIndex.sortKey(-1.5)).isLessThan(PropertyColumnIndex.sortKey(-0.5));
+        assertThat(PropertyColumnIndex.sortKey(-0.5)).isLessThan(PropertyColumnIndex.sortKey(0.0));
+        assertThat(PropertyColumnIndex.sortKey(-0.0)).isEqualTo(PropertyColumnIndex.sortKey(0.0));
+        assertThat(PropertyColumnIndex.sortKey(0.0)).isLessThan(PropertyColumnIndex.sortKey(Double.MIN_VALUE));
+        assertThat(PropertyColumnIndex.sortKey(1000.0)).isLessThan(PropertyColumnIndex.sortKey(1000.00001));
+    }
+
+    @Test
+    void search_WithSizeAndRoomFilters_ShouldIntersectColumns() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .minSize(1000.0)
+                .maxRooms(4)
+                .minBathrooms(2)
+                .maxBathrooms(3)
+                .build();
+
+        assertThat(search(criteria, PageRequest.of(0, 12))).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void search_WithExactBedroomsAndAddress_ShouldMatchCaseInsensitively() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .address("MANCHESTER")
+                .bedrooms(2)
+                .maxSize(900.0)
+                .build();
+
+        assertThat(search(criteria, PageRequest.of(0, 12))).containsExactly(3L);
+    }
+
+    @Test
+    void search_WithSortAndPaging_ShouldReturnRequestedSliceAndTotal() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "price"));
+
+        PropertyColumnIndex.IdPage page = index.search(new PropertySearchCriteria(), pageable).orElseThrow();
+
+        assertThat(page.ids()).containsExactly(4L, 2L);
+        assertThat(page.total()).isEqualTo(5);
+    }
+
+    @Test
+    void search_WithMultipleSortOrders_ShouldBreakTiesInOrder() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Order.asc("squareFootage"), Sort.Order.desc("bathrooms")));
+
+        assertThat(search(new PropertySearchCriteria(), pageable)).containsExactly(3L, 2L, 1L, 4L, 5L);
+    }
+
+    @Test
+    void search_PastLastPage_ShouldReturnEmptyPageWithTotal() {
+        PropertyColumnIndex.IdPage page = index.search(new PropertySearchCriteria(), PageRequest.of(3, 2)).orElseThrow();
+
+        assertThat(page.ids()).isEmpty();
+        assertThat(page.total()).isEqualTo(5);
+    }
+
+    @Test
+    void search_WithUnsupportedSort_ShouldDeferToDatabase() {
+        Optional<PropertyColumnIndex.IdPage> result =
+                index.search(new PropertySearchCriteria(), PageRequest.of(0, 12, Sort.by("address")));
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void search_WithTextQuery_ShouldDeferToDatabase() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().text("garden").build();
+
+        assertThat(index.search(criteria, PageRequest.of(0, 12))).isEmpty();
+    }
+
+    @Test
+    void onPropertyChanged_ShouldApplyCreatesUpdatesAndDeletes() {
+        index.onPropertyChanged(PropertyChangedEvent.created(
+                property(6L, "8 Didsbury Park, Manchester", 550000.0, 4, 2, 1500.0)));
+        index.onPropertyChanged(PropertyChangedEvent.updated(
+                property(2L, "25 Deansgate, Manchester", 900000.0, 3, 2, 1000.0)));
+        index.onPropertyChanged(PropertyChangedEvent.deleted(3L));
+
+        PropertySearchCriteria manchester = PropertySearchCriteria.builder().address("manchester").build();
+        PropertySearchCriteria midRange = PropertySearchCriteria.builder().minPrice(500000.0).maxPrice(950000.0).build();
+        PropertySearchCriteria twoBeds = PropertySearchCriteria.builder().bedrooms(2).build();
+
+        assertThat(search(manchester, PageRequest.of(0, 12))).containsExactly(2L, 6L);
+        assertThat(search(midRange, PageRequest.of(0, 12, Sort.by("price")))).containsExactly(6L, 4L, 2L);
+        assertThat(search(twoBeds, PageRequest.of(0, 12))).isEmpty();
+    }
+
+    @Test
+    void onPropertyChanged_WithManyWrites_ShouldRebuildSortedColumnsAndReuseFreedRows() {
+        for (long id = 100; id < 1200; id++) {
+            index.onPropertyChanged(PropertyChangedEvent.created(
+                    property(id, id + " Test Street", 100000.0 + id, 3, 2, 1200.0)));
+        }
+        for (long id = 100; id < 600; id++) {
+            index.onPropertyChanged(PropertyChangedEvent.deleted(id));
+        }
+        index.onPropertyChanged(PropertyChangedEvent.created(
+                property(5000L, "1 New Street", 100050.0, 3, 2, 1200.0)));
+
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .minPrice(100000.0)
+                .maxPrice(100700.0)
+                .build();
+        PropertyColumnIndex.IdPage page = index.search(criteria, PageRequest.of(0, 3, Sort.by("price"))).orElseThrow();
+
+        assertThat(page.ids()).containsExactly(5000L, 600L, 601L);
+        assertThat(page.total()).isEqualTo(102);
+    }
+
+    @Test
+    void load_ShouldKeepChangesThatCommitWhileItReads() {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            action.accept(property(1L, "1 Kensington Gardens, London", 2500000.0, 5, 4, 2000.0));
+            index.onPropertyChanged(PropertyChangedEvent.updated(
+                    property(2L, "25 Deansgate, Manchester", 100000.0, 2, 2, 1000.0)));
+            index.onPropertyChanged(PropertyChangedEvent.deleted(3L));
+            // Read before those changes committed
+            action.accept(property(2L, "25 Deansgate, Manchester", 450000.0, 2, 2, 1000.0));
+            action.accept(property(3L, "15 Castlefield, Manchester", 400000.0, 2, 1, 800.0));
+            return 3L;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+
+        assertThat(search(new PropertySearchCriteria(), PageRequest.of(0, 12, Sort.by("price"))))
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void search_WhenDisabled_ShouldNotLoadOrAnswer() {
+        PropertySnapshot unusedSnapshot = mock(PropertySnapshot.class);
+        PropertyColumnIndex disabled = new PropertyColumnIndex(unusedSnapshot, false);
+
+        disabled.load();
+        disabled.onPropertyChanged(PropertyChangedEvent.deleted(1L));
+
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.search(new PropertySearchCriteria(), PageRequest.of(0, 12))).isEmpty();
+        verifyNoInteractions(unusedSnapshot);
+    }
+
+    @Test
+    void rowSorter_ShouldReturnSmallestRowsInOrder() {
+        int[] rows = new int[200];
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = (i * 37) % rows.length;
+        }
+        for (int i = 0; i < 10; i++) {
+            expected.add(i);
+        }
+
+        int[] smallest = RowSorter.smallest(rows, 10, Integer::compare);
+
+        assertThat(smallest).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        assertThat(RowSorter.smallest(rows, 0, Integer::compare)).isEmpty();
+    }
+}
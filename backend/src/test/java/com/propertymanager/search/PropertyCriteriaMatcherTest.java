@@ -0,0 +1,71 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyCriteriaMatcherTest {
+
+    private final Property flat = Property.builder()
+            .id(1L)
+            .address("25 Deansgate, Manchester")
+            .price(450000.0)
+            .bedrooms(2)
+            .bathrooms(2)
+            .squareFootage(1000.0)
+            .latitude(53.4794)
+            .longitude(-2.2453)
+            .build();
+
+    private boolean mayMatch(PropertySearchCriteria criteria) {
+        return PropertyCriteriaMatcher.mayMatch(criteria, flat);
+    }
+
+    @Test
+    void mayMatch_WithScalarFilters_ShouldMirrorSearchPredicates() {
+        assertThat(mayMatch(new PropertySearchCriteria())).isTrue();
+        assertThat(mayMatch(PropertySearchCriteria.builder().address("DEANSGATE").build())).isTrue();
+        assertThat(mayMatch(PropertySearchCriteria.builder().address("London").build())).isFalse();
+        assertThat(mayMatch(PropertySearchCriteria.builder().minPrice(450000.0).maxPrice(450000.0).build())).isTrue();
+        assertThat(mayMatch(PropertySearchCriteria.builder().maxPrice(449999.0).build())).isFalse();
+        assertThat(mayMatch(PropertySearchCriteria.builder().bedrooms(3).build())).isFalse();
+        assertThat(mayMatch(PropertySearchCriteria.builder().maxRooms(2).minBathrooms(2).build())).isTrue();
+        assertThat(mayMatch(PropertySearchCriteria.builder().minSize(1200.0).build())).isFalse();
+    }
+
+    @Test
+    void mayMatch_WithMissingValues_ShouldNotMatchFilteredFields() {
+        Property sparse = Property.builder().id(2L).build();
+
+        assertThat(PropertyCriteriaMatcher.mayMatch(PropertySearchCriteria.builder().minPrice(1.0).build(), sparse))
+                .isFalse();
+        assertThat(PropertyCriteriaMatcher.mayMatch(PropertySearchCriteria.builder().address("a").build(), sparse))
+                .isFalse();
+        assertThat(PropertyCriteriaMatcher.mayMatch(new PropertySearchCriteria(), null)).isFalse();
+    }
+
+    @Test
+    void mayMatch_WithTextQuery_ShouldAssumeAMatch() {
+        assertThat(mayMatch(PropertySearchCriteria.builder().text("garden").build())).isTrue();
+    }
+
+    @Test
+    void mayMatch_WithLocationFilters_ShouldUseBoxes() {
+        PropertySearchCriteria manchesterBox = PropertySearchCriteria.builder()
+                .minLatitude(53.3).minLongitude(-2.4).maxLatitude(53.6).maxLongitude(-2.1).build();
+        PropertySearchCriteria londonBox = PropertySearchCriteria.builder()
+                .minLatitude(51.3).minLongitude(-0.5).maxLatitude(51.7).maxLongitude(0.3).build();
+        PropertySearchCriteria nearby = PropertySearchCriteria.builder()
+                .latitude(53.48).longitude(-2.24).radiusMiles(2.0).build();
+        PropertySearchCriteria farAway = PropertySearchCriteria.builder()
+                .latitude(51.5).longitude(-0.12).radiusMiles(10.0).build();
+
+        assertThat(mayMatch(manchesterBox)).isTrue();
+        assertThat(mayMatch(londonBox)).isFalse();
+        assertThat(mayMatch(nearby)).isTrue();
+        assertThat(mayMatch(farAway)).isFalse();
+        assertThat(PropertyCriteriaMatcher.mayMatch(nearby, Property.builder().id(3L).build())).isFalse();
+    }
+}
@@ -0,0 +1,68 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PropertyCursorTest {
+
+    private final Property last = Property.builder()
+            .id(42L)
+            .address("15 Chelsea Harbour, London SW10 0XG")
+            .price(1800000.0)
+            .bedrooms(3)
+            .bathrooms(2)
+            .squareFootage(1500.0)
+            .build();
+
+    @Test
+    void orderFor_WithoutSort_ShouldDefaultToAscendingId() {
+        assertThat(PropertyCursor.orderFor(Sort.unsorted())).isEqualTo(Sort.Order.asc("id"));
+    }
+
+    @Test
+    void orderFor_WithSeveralOrders_ShouldBeRejected() {
+        assertThatThrownBy(() -> PropertyCursor.orderFor(Sort.by("price", "bedrooms")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("single sort property");
+    }
+
+    @Test
+    void orderFor_WithUnsupportedProperty_ShouldBeRejected() {
+        assertThatThrownBy(() -> PropertyCursor.orderFor(Sort.by("description")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("description");
+    }
+
+    @Test
+    void sortFor_ShouldAddIdTieBreakerInSameDirection() {
+        assertThat(PropertyCursor.sortFor(Sort.Order.desc("price")))
+                .isEqualTo(Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id")));
+        assertThat(PropertyCursor.sortFor(Sort.Order.asc("id"))).isEqualTo(Sort.by("id"));
+    }
+
+    @Test
+    void encode_ShouldRoundTripEverySortableProperty() {
+        for (String property : new String[] {"id", "price", "squareFootage", "bedrooms", "bathrooms", "address"}) {
+            Sort.Order order = Sort.Order.desc(property);
+            PropertyCursor decoded = PropertyCursor.decode(PropertyCursor.after(last, order).encode());
+
+            assertThat(decoded.matches(order)).isTrue();
+            assertThat(decoded.matches(Sort.Order.asc(property))).isFalse();
+            assertThat(decoded.encode()).isEqualTo(PropertyCursor.after(last, order).encode());
+        }
+    }
+
+    @Test
+    void decode_WithMalformedToken_ShouldBeRejected() {
+        assertThatThrownBy(() -> PropertyCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> PropertyCursor.decode("cHJpY2V8QVNDfDF8bm90LWEtbnVtYmVy"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
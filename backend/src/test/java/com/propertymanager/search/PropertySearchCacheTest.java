@@ -0,0 +1,189 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import com.propertymanager.service.PropertyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertySearchCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 12);
+
+    @Mock
+    private PropertyService propertyService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PropertySearchCache cache;
+
+    private final PropertySearchCriteria london = PropertySearchCriteria.builder().address("London").build();
+    private final PropertySearchCriteria manchester = PropertySearchCriteria.builder().address("Manchester").build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PropertySearchCache(propertyService, meterRegistry, true, 1, 60);
+    }
+
+    private Property property(Long id, String address, Double price) {
+        return Property.builder().id(id).address(address).price(price).bedrooms(2).bathrooms(1).build();
+    }
+
+    private PropertySummary summary(Long id, String address, String imageUrl) {
+        return new PropertySummary(id, address, null, 100000.0, 2, 1, null, null, null, imageUrl, imageUrl == null ? 0 : 1, 0);
+    }
+
+    private Page<PropertySummary> page(PropertySummary... summaries) {
+        return new PageImpl<>(List.of(summaries), FIRST_PAGE, summaries.length);
+    }
+
+    private PropertySearchCache.Outcome search(PropertySearchCriteria criteria) {
+        return cache.search(criteria, FIRST_PAGE, false).outcome();
+    }
+
+    @Test
+    void search_RepeatedWithEquivalentCriteria_ShouldHitCacheAndRecordStats() {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(page(summary(1L, "1 Hyde Park, London", null)));
+
+        assertThat(search(london)).isEqualTo(PropertySearchCache.Outcome.MISS);
+        PropertySearchCache.Result hit = cache.search(
+                PropertySearchCriteria.builder().address("LONDON").text("  ").build(), FIRST_PAGE, false);
+
+        assertThat(hit.outcome()).isEqualTo(PropertySearchCache.Outcome.HIT);
+        assertThat(hit.page().getContent()).extracting(PropertySummary::id).containsExactly(1L);
+        verify(propertyService, times(1)).searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class));
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void search_WithDifferentPage_ShouldMiss() {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(page());
+
+        search(london);
+
+        assertThat(cache.search(london, PageRequest.of(1, 12), false).outcome())
+                .isEqualTo(PropertySearchCache.Outcome.MISS);
+    }
+
+    @Test
+    void search_WithBypassOrWhenDisabled_ShouldAlwaysQueryService() {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(page());
+        PropertySearchCache disabled =
+                new PropertySearchCache(propertyService, new SimpleMeterRegistry(), false, 1, 60);
+
+        assertThat(cache.search(london, FIRST_PAGE, true).outcome()).isEqualTo(PropertySearchCache.Outcome.BYPASS);
+        assertThat(disabled.search(london, FIRST_PAGE, false).outcome()).isEqualTo(PropertySearchCache.Outcome.BYPASS);
+        assertThat(disabled.search(london, FIRST_PAGE, false).outcome()).isEqualTo(PropertySearchCache.Outcome.BYPASS);
+
+        verify(propertyService, times(3)).searchPropertySummaries(london, FIRST_PAGE);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void onPropertyChanged_WhenCreated_ShouldEvictOnlyMatchingSearches() {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(page());
+        search(london);
+        search(manchester);
+
+        cache.onPropertyChanged(PropertyChangedEvent.created(property(7L, "3 Deansgate, Manchester", 400000.0)));
+
+        assertThat(search(london)).isEqualTo(PropertySearchCache.Outcome.HIT);
+        assertThat(search(manchester)).isEqualTo(PropertySearchCache.Outcome.MISS);
+    }
+
+    @Test
+    void onPropertyChanged_WhenUpdated_ShouldEvictSearchesMatchingOldOrNewValues() {
+        PropertySearchCriteria cheap = PropertySearchCriteria.builder().maxPrice(500000.0).build();
+        PropertySearchCriteria expensive = PropertySearchCriteria.builder().minPrice(1000000.0).build();
+        PropertySearchCriteria midRange = PropertySearchCriteria.builder()
+                .minPrice(600000.0).maxPrice(800000.0).build();
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(page());
+        search(cheap);
+        search(expensive);
+        search(midRange);
+
+        cache.onPropertyChanged(PropertyChangedEvent.updated(
+                property(3L, "8 Canal Street, Manchester", 1200000.0),
+                property(3L, "8 Canal Street, Manchester", 450000.0)));
+
+        assertThat(search(cheap)).isEqualTo(PropertySearchCache.Outcome.MISS);
+        assertThat(search(expensive)).isEqualTo(PropertySearchCache.Outcome.MISS);
+        assertThat(search(midRange)).isEqualTo(PropertySearchCache.Outcome.HIT);
+    }
+
+    @Test
+    void onPropertiesChanged_ShouldEvictSearchesMatchingAnyChange() {
+        PropertySearchCriteria leeds = PropertySearchCriteria.builder().address("Leeds").build();
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(page());
+        search(london);
+        search(manchester);
+        search(leeds);
+
+        cache.onPropertiesChanged(new PropertiesChangedEvent(List.of(
+                PropertyChangedEvent.created(property(7L, "3 Deansgate, Manchester", 400000.0)),
+                PropertyChangedEvent.created(property(8L, "2 Soho Square, London", 900000.0)))));
+
+        assertThat(search(london)).isEqualTo(PropertySearchCache.Outcome.MISS);
+        assertThat(search(manchester)).isEqualTo(PropertySearchCache.Outcome.MISS);
+        assertThat(search(leeds)).isEqualTo(PropertySearchCache.Outcome.HIT);
+    }
+
+    @Test
+    void onPropertyChanged_WithoutPreviousValues_ShouldEvictEverything() {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenReturn(page());
+        search(london);
+        search(manchester);
+
+        cache.onPropertyChanged(PropertyChangedEvent.deleted(9L));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void search_WhenWriteCommitsDuringLoad_ShouldNotCacheStalePage() {
+        when(propertyService.searchPropertySummaries(any(PropertySearchCriteria.class), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    cache.onPropertyChanged(PropertyChangedEvent.created(property(8L, "2 Soho Square, London", 1.0)));
+                    return page();
+                });
+
+        assertThat(search(london)).isEqualTo(PropertySearchCache.Outcome.MISS);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void weigh_ShouldGrowWithTextAndImages() {
+        PropertySummary bare = summary(1L, "1 High Street", null);
+        PropertySummary withImage = summary(2L, "1 High Street", "/images/front.jpg");
+
+        assertThat(PropertySearchCache.weigh(page(withImage))).isGreaterThan(PropertySearchCache.weigh(page(bare)));
+    }
+}
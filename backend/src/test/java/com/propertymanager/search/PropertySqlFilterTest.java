@@ -0,0 +1,109 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SearchFacet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertySqlFilterTest {
+
+    @Test
+    void of_InATurkishDefaultLocale_ShouldStillLowerCaseTheAddressForTheIndex() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            PropertySqlFilter filter = PropertySqlFilter.of(PropertySearchCriteria.builder().address("ILKLEY").build());
+
+            assertThat(filter.parameters()).containsExactly("%ilkley%");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void of_WithNoCriteria_ShouldProduceEmptyClause() {
+        PropertySqlFilter filter = PropertySqlFilter.of(new PropertySearchCriteria());
+
+        assertThat(filter.isEmpty()).isTrue();
+        assertThat(filter.whereClause()).isEmpty();
+        assertThat(filter.parameters()).isEmpty();
+    }
+
+    @Test
+    void of_WithAllCriteria_ShouldBindEveryValueInOrder() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .address("London")
+                .text("garden victorian")
+                .minPrice(100000.0)
+                .maxPrice(500000.0)
+                .minSize(800.0)
+                .maxSize(2000.0)
+                .bedrooms(3)
+                .maxRooms(4)
+                .minBathrooms(1)
+                .maxBathrooms(2)
+                .build();
+
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+
+        assertThat(filter.whereClause()).isEqualTo(" WHERE lower(address) LIKE ? ESCAPE '\\'"
+                + " AND search_vector @@ websearch_to_tsquery('english', ?) AND price >= ? AND price <= ?"
+                + " AND square_footage >= ? AND square_footage <= ? AND bedrooms = ? AND bedrooms <= ?"
+                + " AND bathrooms >= ? AND bathrooms <= ?");
+        assertThat(filter.parameters()).containsExactly(
+                "%london%", "garden victorian", 100000.0, 500000.0, 800.0, 2000.0, 3, 4, 1, 2);
+    }
+
+    @Test
+    void of_WithEmptyAddress_ShouldIgnoreIt() {
+        PropertySqlFilter filter = PropertySqlFilter.of(PropertySearchCriteria.builder().address("").build());
+
+        assertThat(filter.isEmpty()).isTrue();
+    }
+
+    @Test
+    void of_WithWildcardsInAddress_ShouldEscapeThem() {
+        PropertySqlFilter filter = PropertySqlFilter.of(PropertySearchCriteria.builder().address("50%_Off\\").build());
+
+        assertThat(filter.parameters()).containsExactly("%50\\%\\_off\\\\%");
+    }
+
+    @Test
+    void of_WithLocationFilters_ShouldBindBoxesAndDistance() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .minLongitude(-0.2).minLatitude(51.4).maxLongitude(0.0).maxLatitude(51.6)
+                .latitude(51.5).longitude(-0.1).radiusMiles(1.0)
+                .build();
+
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+
+        assertThat(filter.whereClause()).isEqualTo(
+                " WHERE point(longitude, latitude) <@ box(point(?, ?), point(?, ?))"
+                        + " AND point(longitude, latitude) <@ box(point(?, ?), point(?, ?))"
+                        + " AND (point(longitude, latitude) <@> point(?, ?)) <= ?");
+        assertThat(filter.parameters()).hasSize(11);
+        assertThat(filter.parameters().subList(0, 4)).containsExactly(-0.2, 51.4, 0.0, 51.6);
+        assertThat(filter.parameters().subList(8, 11)).containsExactly(-0.1, 51.5, 1.0);
+    }
+
+    @Test
+    void facetsExcept_ShouldSplitCommonAndFacetConditions() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .address("London")
+                .minPrice(100000.0)
+                .bedrooms(3)
+                .maxBathrooms(2)
+                .build();
+        PropertySqlFilter filter = PropertySqlFilter.of(criteria);
+
+        assertThat(filter.withoutFacets().whereClause()).isEqualTo(" WHERE lower(address) LIKE ? ESCAPE '\\'");
+        assertThat(filter.facetsExcept(SearchFacet.BEDROOMS).conditionClause())
+                .isEqualTo("price >= ? AND bathrooms <= ?");
+        assertThat(filter.facetsExcept(SearchFacet.BEDROOMS).parameters()).containsExactly(100000.0, 2);
+        assertThat(filter.facetsExcept(null).parameters()).containsExactly(100000.0, 3, 2);
+        assertThat(PropertySqlFilter.of(new PropertySearchCriteria()).conditionClause()).isEqualTo("TRUE");
+    }
+}
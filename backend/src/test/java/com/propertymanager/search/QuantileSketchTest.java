@@ -0,0 +1,99 @@
+package com.propertymanager.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    private static final double ACCURACY = QuantileSketch.DEFAULT_RELATIVE_ACCURACY;
+
+    private static double exactQuantile(double[] sorted, double quantile) {
+        return sorted[(int) Math.floor(quantile * (sorted.length - 1))];
+    }
+
+    @Test
+    void quantile_ShouldStayWithinRelativeAccuracy() {
+        Random random = new Random(42);
+        double[] values = new double[20_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            // Log-normal around £300k, like asking prices
+            values[i] = Math.exp(12.6 + 0.6 * random.nextGaussian());
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double quantile : new double[] {0.1, 0.5, 0.9, 0.99}) {
+            double exact = exactQuantile(values, quantile);
+            assertThat(sketch.quantile(quantile)).isCloseTo(exact, within(exact * ACCURACY * 1.01));
+        }
+        assertThat(sketch.count()).isEqualTo(values.length);
+    }
+
+    @Test
+    void merge_ShouldMatchSketchOfTheUnion() {
+        QuantileSketch london = new QuantileSketch();
+        QuantileSketch manchester = new QuantileSketch();
+        QuantileSketch both = new QuantileSketch();
+        for (int i = 1; i <= 1000; i++) {
+            london.add(500_000 + i * 1000.0);
+            manchester.add(150_000 + i * 200.0);
+            both.add(500_000 + i * 1000.0);
+            both.add(150_000 + i * 200.0);
+        }
+
+        london.merge(manchester);
+
+        assertThat(london.count()).isEqualTo(2000);
+        assertThat(london.quantile(0.5)).isEqualTo(both.quantile(0.5));
+        assertThat(london.quantile(0.9)).isEqualTo(both.quantile(0.9));
+    }
+
+    @Test
+    void remove_ShouldUndoAdd() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(200_000);
+        sketch.add(400_000);
+        sketch.add(2_000_000);
+
+        assertThat(sketch.remove(2_000_000)).isTrue();
+        assertThat(sketch.remove(9_000_000)).isFalse();
+
+        assertThat(sketch.count()).isEqualTo(2);
+        assertThat(sketch.quantile(1.0)).isCloseTo(400_000, within(400_000 * ACCURACY));
+        sketch.remove(200_000);
+        sketch.remove(400_000);
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.quantile(0.5)).isNull();
+    }
+
+    @Test
+    void countBelow_ShouldCountValuesUnderTheBound() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(90_000);
+        sketch.add(100_000);
+        sketch.add(150_000);
+
+        assertThat(sketch.countBelow(100_000)).isEqualTo(1);
+        assertThat(sketch.countBelow(200_000)).isEqualTo(3);
+        assertThat(sketch.countBelow(0)).isZero();
+    }
+
+    @Test
+    void invalidInput_ShouldThrowException() {
+        QuantileSketch sketch = new QuantileSketch();
+
+        assertThatThrownBy(() -> sketch.add(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.add(Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.quantile(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuantileSketch(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.merge(new QuantileSketch(0.05)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
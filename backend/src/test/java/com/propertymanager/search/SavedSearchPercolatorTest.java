@@ -0,0 +1,132 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SavedSearch;
+import com.propertymanager.repository.SavedSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchPercolatorTest {
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+
+    private SavedSearchPercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        percolator = new SavedSearchPercolator(savedSearchRepository);
+        when(savedSearchRepository.findAll()).thenReturn(List.of(
+                search(1L, PropertySearchCriteria.builder().minPrice(400000.0).maxPrice(500000.0).build()),
+                search(2L, PropertySearchCriteria.builder().bedrooms(3).maxPrice(1000000.0).build()),
+                search(3L, PropertySearchCriteria.builder().minSize(900.0).maxSize(1100.0).minBathrooms(2).build()),
+                search(4L, PropertySearchCriteria.builder().address("manchester").build()),
+                search(5L, PropertySearchCriteria.builder().text("garden").maxRooms(4).build()),
+                search(6L, PropertySearchCriteria.builder()
+                        .latitude(53.48).longitude(-2.24).radiusMiles(5.0).build()),
+                search(7L, PropertySearchCriteria.builder().bedrooms(5).maxRooms(3).build())));
+        percolator.load();
+    }
+
+    private SavedSearch search(Long id, PropertySearchCriteria criteria) {
+        SavedSearch search = SavedSearch.of("alice", "search " + id, criteria);
+        search.setId(id);
+        return search;
+    }
+
+    private Property property(String address, double price, int bedrooms, int bathrooms, double size) {
+        return Property.builder()
+                .id(100L)
+                .address(address)
+                .price(price)
+                .bedrooms(bedrooms)
+                .bathrooms(bathrooms)
+                .squareFootage(size)
+                .latitude(53.4794)
+                .longitude(-2.2453)
+                .build();
+    }
+
+    @Test
+    void percolate_ShouldReturnExactMatchesAndDeferTextAndDistanceSearches() {
+        SavedSearchPercolator.Percolation result =
+                percolator.percolate(property("25 Deansgate, Manchester", 450000.0, 3, 2, 1000.0));
+
+        assertThat(result.matched()).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(result.unconfirmed()).containsExactlyInAnyOrder(5L, 6L);
+    }
+
+    @Test
+    void percolate_ShouldSkipSearchesWhoseIndexedRangeExcludesProperty() {
+        SavedSearchPercolator.Percolation result =
+                percolator.percolate(property("1 High Street, Leeds", 1500000.0, 5, 1, 3000.0));
+
+        assertThat(result.matched()).isEmpty();
+        assertThat(result.unconfirmed()).containsExactly(6L);
+    }
+
+    @Test
+    void percolate_WithMissingValues_ShouldOnlyMatchUnconstrainedDimensions() {
+        Property sparse = Property.builder().id(101L).address("Manchester flat").build();
+
+        SavedSearchPercolator.Percolation result = percolator.percolate(sparse);
+
+        assertThat(result.matched()).containsExactly(4L);
+        assertThat(result.unconfirmed()).isEmpty();
+    }
+
+    @Test
+    void addAndRemove_ShouldTakeEffectBeforeAndAfterRebuilds() {
+        Property flat = property("25 Deansgate, Manchester", 450000.0, 3, 2, 1000.0);
+        percolator.remove(1L);
+        percolator.remove(99L);
+        percolator.add(search(8L, PropertySearchCriteria.builder().maxPrice(460000.0).build()));
+
+        assertThat(percolator.percolate(flat).matched()).containsExactlyInAnyOrder(2L, 3L, 4L, 8L);
+
+        // Enough writes to rebuild the trees with the pending searches in them
+        List<Long> added = new ArrayList<>();
+        for (long id = 10; id < 90; id++) {
+            percolator.add(search(id, PropertySearchCriteria.builder().minPrice(440000.0 + id).build()));
+            added.add(id);
+        }
+        percolator.remove(8L);
+
+        List<Long> expected = new ArrayList<>(List.of(2L, 3L, 4L));
+        expected.addAll(added);
+        assertThat(percolator.percolate(flat).matched()).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(percolator.size()).isEqualTo(86);
+    }
+
+    @Test
+    void refresh_ShouldPickUpOtherNodesWritesAndKeepThoseMadeWhileReading() {
+        Property flat = property("25 Deansgate, Manchester", 450000.0, 3, 2, 1000.0);
+        when(savedSearchRepository.findAll()).thenAnswer(invocation -> {
+            // Saved and deleted through this node while the reload reads
+            percolator.add(search(9L, PropertySearchCriteria.builder().address("deansgate").build()));
+            percolator.remove(3L);
+            // Search 1 was deleted and search 8 saved through another node
+            return List.of(
+                    search(2L, PropertySearchCriteria.builder().bedrooms(3).maxPrice(1000000.0).build()),
+                    search(3L, PropertySearchCriteria.builder().minSize(900.0).maxSize(1100.0).build()),
+                    search(4L, PropertySearchCriteria.builder().address("manchester").build()),
+                    search(8L, PropertySearchCriteria.builder().maxPrice(460000.0).build()));
+        });
+
+        percolator.refresh();
+
+        assertThat(percolator.percolate(flat).matched()).containsExactlyInAnyOrder(2L, 4L, 8L, 9L);
+        assertThat(percolator.size()).isEqualTo(4);
+    }
+}
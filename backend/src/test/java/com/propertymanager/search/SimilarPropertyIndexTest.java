@@ -0,0 +1,125 @@
+package com.propertymanager.search;
+
+import com.propertymanager.model.Property;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class SimilarPropertyIndexTest {
+
+    @Mock
+    private PropertySnapshot snapshot;
+
+    private SimilarPropertyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SimilarPropertyIndex(snapshot);
+    }
+
+    private Property property(Long id, Double price, Double squareFootage, Integer bedrooms,
+                              Double latitude, Double longitude) {
+        return Property.builder()
+                .id(id)
+                .address(id + " Similar Street")
+                .price(price)
+                .squareFootage(squareFootage)
+                .bedrooms(bedrooms)
+                .bathrooms(1)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+
+    private void load(Property... properties) {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            List.of(properties).forEach(action);
+            return (long) properties.length;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+    }
+
+    @Test
+    void similarTo_BeforeLoad_ShouldBeEmpty() {
+        assertThat(index.similarTo(1L, 10)).isEmpty();
+    }
+
+    @Test
+    void similarTo_ShouldRankByPriceSizeAndRooms() {
+        load(property(1L, 300_000.0, 900.0, 2, null, null),
+                property(2L, 310_000.0, 920.0, 2, null, null),
+                property(3L, 600_000.0, 1800.0, 4, null, null),
+                property(4L, 320_000.0, 950.0, 3, null, null),
+                property(5L, 3_000_000.0, 5000.0, 6, null, null),
+                property(6L, null, 900.0, 2, null, null));
+
+        assertThat(index.similarTo(1L, 3)).contains(List.of(2L, 4L, 3L));
+        assertThat(index.similarTo(6L, 3)).contains(List.of());
+        assertThat(index.similarTo(99L, 3)).contains(List.of());
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void similarTo_WithLocation_ShouldPreferNearbyAndTopUpFromTheRest() {
+        // Identical homes in Camden, Islington (about 3 km away) and Manchester
+        load(property(1L, 500_000.0, 1000.0, 3, 51.539, -0.142),
+                property(2L, 500_000.0, 1000.0, 3, 53.480, -2.242),
+                property(3L, 500_000.0, 1000.0, 3, 51.536, -0.103),
+                property(4L, 520_000.0, 1000.0, 3, null, null));
+
+        assertThat(index.similarTo(1L, 2)).contains(List.of(3L, 2L));
+        assertThat(index.similarTo(1L, 3)).contains(List.of(3L, 2L, 4L));
+        assertThat(index.similarTo(4L, 1)).contains(List.of(1L));
+    }
+
+    @Test
+    void onPropertyChanged_ShouldKeepTheIndexCurrent() {
+        load(property(1L, 300_000.0, 900.0, 2, null, null),
+                property(2L, 900_000.0, 2000.0, 5, null, null));
+
+        index.onPropertyChanged(PropertyChangedEvent.created(property(3L, 305_000.0, 900.0, 2, null, null)));
+        assertThat(index.similarTo(1L, 1)).contains(List.of(3L));
+
+        index.onPropertyChanged(PropertyChangedEvent.updated(property(3L, 950_000.0, 2100.0, 5, null, null)));
+        index.onPropertyChanged(PropertyChangedEvent.updated(property(2L, 300_000.0, 900.0, 2, 51.5, -0.1)));
+        assertThat(index.similarTo(1L, 2)).contains(List.of(2L, 3L));
+
+        index.onPropertyChanged(PropertyChangedEvent.deleted(2L));
+        assertThat(index.similarTo(1L, 2)).contains(List.of(3L));
+        assertThat(index.similarTo(2L, 2)).contains(List.of());
+    }
+
+    @Test
+    void load_ShouldKeepChangesThatCommitWhileItReads() {
+        doAnswer(invocation -> {
+            Consumer<Property> action = invocation.getArgument(1);
+            action.accept(property(1L, 300_000.0, 900.0, 2, null, null));
+            index.onPropertyChanged(PropertyChangedEvent.updated(property(2L, 305_000.0, 900.0, 2, null, null)));
+            index.onPropertyChanged(PropertyChangedEvent.deleted(3L));
+            // Read before those changes committed, followed by enough others to grow the buffers
+            action.accept(property(2L, 900_000.0, 2000.0, 5, null, null));
+            action.accept(property(3L, 300_000.0, 900.0, 2, null, null));
+            LongStream.rangeClosed(100, 1200)
+                    .forEach(id -> action.accept(property(id, 5_000_000.0, 9000.0, 8, null, null)));
+            return 1104L;
+        }).when(snapshot).forEach(any(), any());
+        index.load();
+
+        assertThat(index.size()).isEqualTo(1103);
+        assertThat(index.similarTo(1L, 1)).contains(List.of(2L));
+        assertThat(index.similarTo(3L, 1)).contains(List.of());
+    }
+}
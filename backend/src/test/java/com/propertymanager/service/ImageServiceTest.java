@@ -13,6 +13,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +29,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +41,9 @@ class ImageServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ImageServiceImpl imageService;
 
@@ -87,8 +92,42 @@ class ImageServiceTest {
         assertThat(savedImage.getContentType()).isEqualTo("image/jpeg");
         assertThat(savedImage.getProperty()).isEqualTo(testProperty);
         verify(imageRepository).save(any(Image.class));
+        verify(propertyRepository).incrementVersion(testProperty);
+        verify(eventPublisher).publishEvent(any(PropertyChangedEvent.class));
     }
     
+    @Test
+    void saveImages_ShouldSaveAllInOneBatchAndPublishOnce() throws IOException {
+        // Given
+        MockMultipartFile second = new MockMultipartFile("file", "second.png", "image/png", "png".getBytes());
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(testProperty));
+        when(imageRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Image> savedImages = imageService.saveImages(List.of(testFile, second), 1L);
+
+        // Then
+        assertThat(savedImages).extracting(Image::getContentType).containsExactly("image/jpeg", "image/png");
+        assertThat(savedImages).allSatisfy(image -> {
+            assertThat(image.getProperty()).isEqualTo(testProperty);
+            assertThat(tempDir.resolve(image.getFileName())).exists();
+        });
+        verify(imageRepository, never()).save(any(Image.class));
+        verify(propertyRepository).incrementVersion(testProperty);
+        verify(eventPublisher).publishEvent(any(PropertyChangedEvent.class));
+    }
+
+    @Test
+    void saveImages_WithOneInvalidFile_ShouldSaveNone() {
+        // Given
+        MockMultipartFile invalidFile = new MockMultipartFile("file", "notes.txt", "text/plain", "text".getBytes());
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () ->
+            imageService.saveImages(List.of(testFile, invalidFile), 1L));
+        verifyNoInteractions(propertyRepository, imageRepository, eventPublisher);
+    }
+
     @Test
     void saveImage_ShouldCreateUploadDirectoryIfNotExists() throws IOException {
         // Given
@@ -167,6 +206,8 @@ class ImageServiceTest {
 
         // Then
         verify(imageRepository).delete(testImage);
+        verify(propertyRepository).incrementVersion(testProperty);
+        verify(eventPublisher).publishEvent(any(PropertyChangedEvent.class));
         assertThat(Files.exists(imagePath)).isFalse();
     }
     
@@ -205,6 +246,7 @@ class ImageServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(testImage);
+        assertThat(result).isNotSameAs(images);
     }
 
     @Test
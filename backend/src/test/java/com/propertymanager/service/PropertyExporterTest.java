@@ -0,0 +1,129 @@
+package com.propertymanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertySearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyExporterTest {
+
+    @Mock
+    private PropertyService propertyService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PropertySearchCriteria criteria = new PropertySearchCriteria();
+    private PropertyExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new PropertyExporter(propertyService, objectMapper);
+    }
+
+    private void stubRows(List<PropertyExportRow> rows) {
+        doAnswer(invocation -> {
+            Consumer<PropertyExportRow> action = invocation.getArgument(1);
+            rows.forEach(action);
+            return null;
+        }).when(propertyService).exportProperties(eq(criteria), any());
+    }
+
+    private PropertyExportRow row(long id) {
+        return new PropertyExportRow(id, id + " Export Road", null, 250000.0, 3, 2, 1500.0, null, null);
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        stubRows(List.of(row(1), new PropertyExportRow(2L, "2 Quote \"Lane\"", "Line one\nline two",
+                12_500_000.0, 5, 4, 4200.0, 51.5, -0.12)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.export(criteria, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("address").asText()).isEqualTo("2 Quote \"Lane\"");
+        assertThat(second.get("description").asText()).isEqualTo("Line one\nline two");
+        assertThat(second.get("price").asDouble()).isEqualTo(12_500_000.0);
+        assertThat(objectMapper.readTree(lines[0]).get("latitude").isNull()).isTrue();
+    }
+
+    @Test
+    void export_AsCsv_ShouldQuoteFieldsAndAvoidExponents() throws Exception {
+        stubRows(List.of(new PropertyExportRow(7L, "1 High Street, Leeds", "A \"rare\" find", 12_500_000.0,
+                3, null, 950.5, 53.8, -1.55)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(criteria, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                String.join(",", PropertyExporter.CSV_COLUMNS) + "\r\n"
+                        + "7,\"1 High Street, Leeds\",\"A \"\"rare\"\" find\",12500000,3,,950.5,53.8,-1.55\r\n");
+    }
+
+    @Test
+    void export_ShouldFlushInBatchesWhileRowsArrive() throws Exception {
+        int rows = PropertyExporter.FLUSH_EVERY_ROWS * 2 + 1;
+        stubRows(LongStream.rangeClosed(1, rows).mapToObj(this::row).toList());
+        AtomicInteger flushes = new AtomicInteger();
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+
+        assertThat(exporter.export(criteria, ExportFormat.NDJSON, out)).isEqualTo(rows);
+        // Two batches plus the final flush
+        assertThat(flushes.get()).isEqualTo(3);
+    }
+
+    @Test
+    void export_WhenClientDisconnects_ShouldStopWithIOException() {
+        stubRows(LongStream.rangeClosed(1, 100_000).mapToObj(this::row).toList());
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> exporter.export(criteria, ExportFormat.CSV, out))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    @Test
+    void formatHelpers_ShouldHandleNullsAndPlainValues() {
+        assertThat(PropertyExporter.text(null)).isEmpty();
+        assertThat(PropertyExporter.text("Plain")).isEqualTo("Plain");
+        assertThat(PropertyExporter.text("Two\r\nlines")).isEqualTo("\"Two\r\nlines\"");
+        assertThat(PropertyExporter.number(null)).isEmpty();
+        assertThat(PropertyExporter.number(0.0)).isEqualTo("0");
+        assertThat(ExportFormat.fromParameter(" CSV ")).isEqualTo(ExportFormat.CSV);
+        assertThatThrownBy(() -> ExportFormat.fromParameter("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,203 @@
+package com.propertymanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyImporterTest {
+
+    @Mock
+    private PropertyService propertyService;
+
+    private PropertyImporter importer;
+    private final List<List<Property>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importer = new PropertyImporter(propertyService, new ObjectMapper());
+    }
+
+    private void captureBatches() {
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.getArgument(0)));
+            return null;
+        }).when(propertyService).createProperties(anyList());
+    }
+
+    private PropertyImportResult importFrom(ExportFormat format, String body) throws Exception {
+        return importer.importFrom(format, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void importFrom_Csv_ShouldReadExportedRowsAndReportRejects() throws Exception {
+        captureBatches();
+        // Stands in for the service's own rules
+        lenient().doThrow(new IllegalArgumentException("Price must be greater than 0"))
+                .when(propertyService).validateProperty(argThat(property -> property.getPrice() == 0));
+        String csv = String.join(",", PropertyExporter.CSV_COLUMNS) + "\r\n"
+                + "7,\"1 High Street, Leeds\",\"A \"\"rare\"\"\nfind\",12500000,3,2,950.5,53.8,-1.55\r\n"
+                + "8,2 Low Road,,0,1,1,500,,\r\n"
+                + "9,3 Mid Way,,abc,1,1,500,,\r\n"
+                + "\r\n"
+                + "10,4 Short Row\r\n"
+                + "11,5 End Close,,100000,2,1,700,,";
+
+        PropertyImportResult result = importFrom(ExportFormat.CSV, csv);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(3);
+        assertThat(result.errorsTruncated()).isFalse();
+        assertThat(result.errors()).containsExactly(
+                new PropertyImportResult.RowError(2, "Price must be greater than 0"),
+                new PropertyImportResult.RowError(3, "Invalid price: abc"),
+                new PropertyImportResult.RowError(4, "Expected 9 fields but found 2"));
+        assertThat(batches).hasSize(1);
+        Property first = batches.get(0).get(0);
+        assertThat(first.getId()).isNull();
+        assertThat(first.getAddress()).isEqualTo("1 High Street, Leeds");
+        assertThat(first.getDescription()).isEqualTo("A \"rare\"\nfind");
+        assertThat(first.getSquareFootage()).isEqualTo(950.5);
+        assertThat(first.getLongitude()).isEqualTo(-1.55);
+        assertThat(batches.get(0).get(1).getDescription()).isNull();
+    }
+
+    @Test
+    void importFrom_CsvWithColumnsInAnyOrder_ShouldMapThemByName() throws Exception {
+        captureBatches();
+
+        PropertyImportResult result = importFrom(ExportFormat.CSV,
+                "\uFEFFBedrooms,address,price,square_footage,bathrooms\n2,9 Side Street,180000,640,1\n");
+
+        assertThat(result.imported()).isEqualTo(1);
+        Property property = batches.get(0).get(0);
+        assertThat(property.getBedrooms()).isEqualTo(2);
+        assertThat(property.getPrice()).isEqualTo(180000.0);
+        assertThat(property.getLatitude()).isNull();
+    }
+
+    @Test
+    void importFrom_CsvWithBadHeader_ShouldRejectTheWholeImport() {
+        assertThatThrownBy(() -> importFrom(ExportFormat.CSV, ""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV import must start with a header row");
+        assertThatThrownBy(() -> importFrom(ExportFormat.CSV, "address,price,bedrooms,bathrooms\n"))
+                .hasMessage("CSV header is missing the square_footage column");
+        assertThatThrownBy(() -> importFrom(ExportFormat.CSV, "address,garages\n"))
+                .hasMessage("Unknown CSV column: garages");
+        assertThatThrownBy(() -> importFrom(ExportFormat.CSV, "address,price,address\n"))
+                .hasMessage("Duplicate CSV column: address");
+
+        verify(propertyService, never()).createProperties(any());
+    }
+
+    @Test
+    void importFrom_Ndjson_ShouldSkipBlankLinesAndReportMalformedOnes() throws Exception {
+        captureBatches();
+        String ndjson = "{\"id\":4,\"address\":\"1 Json Row\",\"price\":250000,\"bedrooms\":3,\"bathrooms\":2,"
+                + "\"squareFootage\":1500.0,\"latitude\":51.5,\"longitude\":-0.12,\"garden\":true}\n"
+                + "\n"
+                + "{\"address\":\"2 Json Row\",\"price\":\n"
+                + "null\n"
+                + "{\"address\":\"3 Json Row\",\"price\":99000,\"bedrooms\":1,\"bathrooms\":1,\"squareFootage\":400}";
+
+        PropertyImportResult result = importFrom(ExportFormat.NDJSON, ndjson);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(PropertyImportResult.RowError::row).containsExactly(2L, 3L);
+        assertThat(result.errors().get(0).message()).startsWith("Malformed JSON: ");
+        assertThat(result.errors().get(1).message()).isEqualTo("Expected a JSON object");
+        assertThat(batches.get(0)).extracting(Property::getAddress).containsExactly("1 Json Row", "3 Json Row");
+        assertThat(batches.get(0).get(0).getLatitude()).isEqualTo(51.5);
+    }
+
+    @Test
+    void importFrom_ShouldInsertInBatchesAndCapTheErrorList() throws Exception {
+        captureBatches();
+        int valid = PropertyImporter.BATCH_SIZE * 2 + 1;
+        int invalid = PropertyImporter.MAX_REPORTED_ERRORS + 5;
+        String rows = IntStream.range(0, valid + invalid)
+                .mapToObj(i -> i < valid ? i + " Bulk Road,300000,3,2,1000" : i + " Bulk Road,-1,3,2,1000")
+                .collect(Collectors.joining("\n"));
+        lenient().doThrow(new IllegalArgumentException("Price must be greater than 0"))
+                .when(propertyService).validateProperty(argThat(property -> property.getPrice() < 0));
+
+        PropertyImportResult result = importFrom(ExportFormat.CSV,
+                "address,price,bedrooms,bathrooms,square_footage\n" + rows);
+
+        assertThat(result.imported()).isEqualTo(valid);
+        assertThat(result.failed()).isEqualTo(invalid);
+        assertThat(result.errors()).hasSize(PropertyImporter.MAX_REPORTED_ERRORS);
+        assertThat(result.errorsTruncated()).isTrue();
+        assertThat(batches).extracting(List::size)
+                .containsExactly(PropertyImporter.BATCH_SIZE, PropertyImporter.BATCH_SIZE, 1);
+    }
+
+    @Test
+    void importFrom_WhenABatchFails_ShouldInsertItsRowsOneAtATimeAndRejectOnlyTheFailingOnes() throws Exception {
+        captureBatches();
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .when(propertyService).createProperties(argThat(batch -> batch.size() > 1
+                        || batch.get(0).getAddress().startsWith("3 ")));
+
+        PropertyImportResult result = importFrom(ExportFormat.CSV,
+                "address,price,bedrooms,bathrooms,square_footage\n1 Good Road,1,1,1,1\n2 Bad Road,x,1,1,1\n"
+                        + "3 Fail Road,1,1,1,1\n4 Good Road,1,1,1,1\n");
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).containsExactly(
+                new PropertyImportResult.RowError(2, "Invalid price: x"),
+                new PropertyImportResult.RowError(3, "Could not be inserted: value too long"));
+        assertThat(batches).flatExtracting(batch -> batch).extracting(Property::getAddress)
+                .containsExactly("1 Good Road", "4 Good Road");
+    }
+
+    @Test
+    void csvRecordReader_ShouldFollowRfc4180() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new BufferedReader(new StringReader(
+                "a,\"b,c\",\"\"\r\n\r\n,\nplain\"quote,\"x\"\"y\"\r\"open")));
+
+        assertThat(reader.next()).containsExactly("a", "b,c", "");
+        assertThat(reader.next()).containsExactly("", "");
+        assertThat(reader.next()).containsExactly("plain\"quote", "x\"y");
+        assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void exportFormat_FromMediaType_ShouldIgnoreParameters() {
+        assertThat(ExportFormat.fromMediaType("text/csv; charset=UTF-8")).isEqualTo(ExportFormat.CSV);
+        assertThat(ExportFormat.fromMediaType("application/x-ndjson")).isEqualTo(ExportFormat.NDJSON);
+        assertThatThrownBy(() -> ExportFormat.fromMediaType("application/json"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExportFormat.fromMediaType(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,180 @@
+package com.propertymanager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.job.JobRunner;
+import com.propertymanager.model.ExportFormat;
+import com.propertymanager.model.Job;
+import com.propertymanager.model.JobReport;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.repository.JobRepository;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.service.PropertyImporter;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobServiceImplTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private PropertyService propertyService;
+
+    @Mock
+    private JobRunner jobRunner;
+
+    @TempDir
+    private Path storage;
+
+    private JobServiceImpl jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new JobServiceImpl(jobRepository, propertyRepository, propertyService,
+                new PropertyImporter(propertyService, new ObjectMapper()), jobRunner, storage.toString());
+        lenient().when(jobRepository.save(any(Job.class))).thenAnswer(invocation -> {
+            Job job = invocation.getArgument(0);
+            job.setId(42L);
+            return job;
+        });
+    }
+
+    private Job savedJob() {
+        ArgumentCaptor<Job> job = ArgumentCaptor.forClass(Job.class);
+        verify(jobRepository).save(job.capture());
+        return job.getValue();
+    }
+
+    @Test
+    void submitReprice_ShouldQueueTheNormalizedCriteriaWithTheirCountAndWakeTheRunner() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().address("High St").build();
+        when(propertyRepository.countMatching(criteria.normalized())).thenReturn(1200L);
+
+        JobReport report = jobService.submitReprice("admin", criteria, 7.5);
+
+        Job job = savedJob();
+        assertThat(job.getType()).isEqualTo(Job.Type.REPRICE);
+        assertThat(job.getStatus()).isEqualTo(Job.Status.QUEUED);
+        assertThat(job.getOwner()).isEqualTo("admin");
+        assertThat(job.getParameters().criteria().getAddress()).isEqualTo("high st");
+        assertThat(job.getParameters().percentChange()).isEqualTo(7.5);
+        assertThat(report.id()).isEqualTo(42L);
+        assertThat(report.totalItems()).isEqualTo(1200L);
+        assertThat(report.progress()).isZero();
+        verify(propertyService).validateSearchCriteria(criteria.normalized());
+        verify(jobRunner).dispatch();
+    }
+
+    @Test
+    void submitReprice_WithAMissingOrImpossibleChange_ShouldThrowException() {
+        assertThatThrownBy(() -> jobService.submitReprice(null, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Price change must be a percentage greater than -100");
+        assertThatThrownBy(() -> jobService.submitReprice(null, null, -100.0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(jobRepository, jobRunner);
+    }
+
+    @Test
+    void submitDelete_WithoutFilters_ShouldRefuseToDeleteEverything() {
+        assertThatThrownBy(() -> jobService.submitDelete(null, new PropertySearchCriteria()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At least one filter is required to delete properties");
+
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().maxPrice(50000.0).build();
+        when(propertyRepository.countMatching(criteria)).thenReturn(3L);
+        jobService.submitDelete(null, criteria);
+
+        assertThat(savedJob().getType()).isEqualTo(Job.Type.DELETE);
+    }
+
+    @Test
+    void submitImport_ShouldStoreTheUploadForTheJob() throws Exception {
+        String csv = "address,price,bedrooms,bathrooms,square_footage\n1 Upload Row,1,1,1,1\n";
+
+        jobService.submitImport("admin", ExportFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        Job job = savedJob();
+        assertThat(job.getType()).isEqualTo(Job.Type.IMPORT);
+        assertThat(job.getTotalItems()).isNull();
+        assertThat(job.getParameters().format()).isEqualTo(ExportFormat.CSV);
+        Path upload = Path.of(job.getParameters().inputPath());
+        assertThat(upload.getParent()).isEqualTo(storage);
+        assertThat(Files.readString(upload)).isEqualTo(csv);
+    }
+
+    @Test
+    void submitImport_WithABadHeader_ShouldThrowAndKeepNothing() throws Exception {
+        assertThatThrownBy(() -> jobService.submitImport(null, ExportFormat.CSV,
+                new ByteArrayInputStream("address,garages\n".getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown CSV column: garages");
+
+        try (var files = Files.list(storage)) {
+            assertThat(files).isEmpty();
+        }
+        verifyNoInteractions(jobRepository, jobRunner);
+    }
+
+    @Test
+    void getJob_ShouldReportProgressAndThroughput() {
+        LocalDateTime started = LocalDateTime.now().minusSeconds(10);
+        Job job = Job.builder()
+                .id(3L)
+                .type(Job.Type.DELETE)
+                .status(Job.Status.RUNNING)
+                .totalItems(400L)
+                .processedItems(100)
+                .failedItems(2)
+                .errors(List.of(new Job.ItemError(12, "Gone")))
+                .startedAt(started)
+                .build();
+        when(jobRepository.findById(3L)).thenReturn(Optional.of(job));
+
+        JobReport report = jobService.getJob(3L);
+
+        assertThat(report.progress()).isEqualTo(0.25);
+        assertThat(report.itemsPerSecond()).isCloseTo(10.0, within(1.0));
+        assertThat(report.errorsTruncated()).isTrue();
+
+        job.setStatus(Job.Status.SUCCEEDED);
+        job.setFinishedAt(started.plusSeconds(4));
+        report = jobService.getJob(3L);
+        assertThat(report.progress()).isEqualTo(1.0);
+        assertThat(report.itemsPerSecond()).isEqualTo(25.0);
+    }
+
+    @Test
+    void getJob_WhenMissing_ShouldThrowNotFound() {
+        when(jobRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> jobService.getJob(9L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+}
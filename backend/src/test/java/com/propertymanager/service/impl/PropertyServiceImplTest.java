@@ -1,27 +1,56 @@
 package com.propertymanager.service.impl;
 
 import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.model.AddressSuggestion;
+import com.propertymanager.model.CursorPage;
+import com.propertymanager.model.Image;
+import com.propertymanager.model.PriceStatistics;
 import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertyExportRow;
+import com.propertymanager.model.PropertyFacets;
+import com.propertymanager.model.PropertyPatch;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.PropertySummary;
+import com.propertymanager.model.SearchFacet;
+import com.propertymanager.model.SearchSlice;
 import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.search.AddressSuggestionIndex;
+import com.propertymanager.search.PriceDistribution;
+import com.propertymanager.search.PriceStatisticsIndex;
+import com.propertymanager.search.PropertyColumnIndex;
+import com.propertymanager.search.PropertyCursor;
+import com.propertymanager.search.SimilarPropertyIndex;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import org.hibernate.collection.spi.PersistentBag;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -32,6 +61,21 @@ class PropertyServiceImplTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PropertyColumnIndex columnIndex;
+
+    @Mock
+    private AddressSuggestionIndex suggestionIndex;
+
+    @Mock
+    private PriceStatisticsIndex priceStatisticsIndex;
+
+    @Mock
+    private SimilarPropertyIndex similarPropertyIndex;
+
     @InjectMocks
     private PropertyServiceImpl propertyService;
 
@@ -182,24 +226,110 @@ class PropertyServiceImplTest {
         verify(propertyRepository, never()).save(any(Property.class));
     }
 
+    @Test
+    void createProperties_ShouldPublishOneEventForTheBatch() {
+        // Arrange
+        Property second = Property.builder().id(2L).address("456 Test Ave").price(300000.0)
+                .bedrooms(2).bathrooms(1).squareFootage(900.0).build();
+
+        // Act
+        propertyService.createProperties(List.of(testProperty, second));
+
+        // Assert
+        verify(propertyRepository).insertAll(List.of(testProperty, second));
+        ArgumentCaptor<PropertiesChangedEvent> event = ArgumentCaptor.forClass(PropertiesChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getChanges())
+                .extracting(PropertyChangedEvent::getType, PropertyChangedEvent::getPropertyId)
+                .containsExactly(tuple(PropertyChangedEvent.Type.CREATED, 1L),
+                        tuple(PropertyChangedEvent.Type.CREATED, 2L));
+    }
+
+    @Test
+    void patchProperty_ShouldApplyPatchAndPublishBothVersions() {
+        // Arrange
+        PropertyPatch patch = PropertyPatch.of(Map.of("price", 210000));
+        Property patched = Property.builder().id(1L).address("123 Test St").price(210000.0).build();
+        patched.setVersion(4);
+        when(propertyRepository.patch(1L, 3L, patch))
+                .thenReturn(Optional.of(new PropertyPatch.Applied(testProperty, patched)));
+
+        // Act
+        Property result = propertyService.patchProperty(1L, 3L, patch);
+
+        // Assert
+        assertThat(result.getVersion()).isEqualTo(4);
+        ArgumentCaptor<PropertyChangedEvent> event = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(PropertyChangedEvent.Type.UPDATED);
+        assertThat(event.getValue().getProperty()).isSameAs(patched);
+        assertThat(event.getValue().getPrevious()).isSameAs(testProperty);
+        verify(propertyRepository, never()).findById(any());
+    }
+
+    @Test
+    void patchProperty_WhenVersionHasMovedOn_ShouldThrowConflict() {
+        // Arrange
+        PropertyPatch patch = PropertyPatch.of(Map.of("bedrooms", 4));
+        when(propertyRepository.patch(1L, 3L, patch)).thenReturn(Optional.empty());
+        when(propertyRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> propertyService.patchProperty(1L, 3L, patch))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("version 5");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void patchProperty_WithUnknownId_ShouldThrowNotFound() {
+        // Arrange
+        PropertyPatch patch = PropertyPatch.of(Map.of("bedrooms", 4));
+        when(propertyRepository.patch(99L, null, patch)).thenReturn(Optional.empty());
+        when(propertyRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> propertyService.patchProperty(99L, null, patch))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void patchProperty_WithInvalidValues_ShouldThrowBeforeUpdating() {
+        Map<String, Object> clearsAddress = new HashMap<>();
+        clearsAddress.put("address", null);
+
+        assertThatThrownBy(() -> propertyService.patchProperty(1L, 0L, PropertyPatch.of(clearsAddress)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Address is required");
+        assertThatThrownBy(() -> propertyService.patchProperty(1L, 0L, PropertyPatch.of(Map.of("price", -1))))
+                .hasMessage("Price must be greater than 0");
+        assertThatThrownBy(() -> propertyService.patchProperty(1L, 0L, PropertyPatch.of(Map.of("bathrooms", 0))))
+                .hasMessage("Number of bathrooms must be greater than 0");
+        assertThatThrownBy(() -> propertyService.patchProperty(1L, 0L, PropertyPatch.of(Map.of("latitude", 91))))
+                .hasMessage("Latitude must be between -90 and 90");
+        assertThatThrownBy(() -> propertyService.patchProperty(1L, 0L, PropertyPatch.of(Map.of("id", 1))))
+                .hasMessage("The patch does not change any field");
+        verify(propertyRepository, never()).patch(any(), any(), any());
+    }
+
     @Test
     void deleteProperty_WithValidId_ShouldDeleteProperty() {
         // Arrange
-        when(propertyRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(propertyRepository).deleteById(1L);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(testProperty));
 
         // Act
         propertyService.deleteProperty(1L);
 
         // Assert
-        verify(propertyRepository).existsById(1L);
-        verify(propertyRepository).deleteById(1L);
+        verify(propertyRepository).findById(1L);
+        verify(propertyRepository).delete(testProperty);
+        verify(propertyRepository, never()).existsById(any());
     }
 
     @Test
     void deleteProperty_WithInvalidId_ShouldThrowException() {
         // Arrange
-        when(propertyRepository.existsById(1L)).thenReturn(false);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> propertyService.deleteProperty(1L))
@@ -210,8 +340,7 @@ class PropertyServiceImplTest {
                     assertThat(rnfe.getFieldName()).isEqualTo("id");
                     assertThat(rnfe.getFieldValue()).isEqualTo(1L);
                 });
-        verify(propertyRepository).existsById(1L);
-        verify(propertyRepository, never()).deleteById(any());
+        verify(propertyRepository, never()).delete(any());
     }
 
     @Test
@@ -240,6 +369,22 @@ class PropertyServiceImplTest {
         verify(propertyRepository).findAll(any(Specification.class), any(Pageable.class));
     }
 
+    @Test
+    void searchProperties_WithLazyImages_ShouldFetchThemForThePageInOneQuery() {
+        // Arrange
+        PersistentBag<Image> lazyImages = mock(PersistentBag.class);
+        when(lazyImages.wasInitialized()).thenReturn(false);
+        Property lazy = Property.builder().id(7L).address("7 Lazy Lane").images(lazyImages).build();
+        when(propertyRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(createPage(List.of(testProperty, lazy)));
+
+        // Act
+        propertyService.searchProperties(new PropertySearchCriteria(), PageRequest.of(0, 12));
+
+        // Assert
+        verify(propertyRepository).findWithImagesByIdIn(List.of(7L));
+    }
+
     @Test
     void searchProperties_WithInvalidPriceRange_ShouldThrowException() {
         // Act & Assert
@@ -657,4 +802,601 @@ class PropertyServiceImplTest {
                 .containsExactlyElementsOf(testProperties);
         verify(propertyRepository).findAll(any(Specification.class), any(Pageable.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void createProperty_ShouldPublishCreatedEvent() {
+        // Arrange
+        when(propertyRepository.save(any(Property.class))).thenReturn(testProperty);
+
+        // Act
+        propertyService.createProperty(testProperty);
+
+        // Assert
+        ArgumentCaptor<PropertyChangedEvent> captor = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(PropertyChangedEvent.Type.CREATED);
+        assertThat(captor.getValue().getPropertyId()).isEqualTo(1L);
+    }
+
+    @Test
+    void deleteProperty_ShouldPublishDeletedEvent() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(testProperty));
+
+        // Act
+        propertyService.deleteProperty(1L);
+
+        // Assert
+        ArgumentCaptor<PropertyChangedEvent> captor = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(PropertyChangedEvent.Type.DELETED);
+        assertThat(captor.getValue().getProperty()).isNull();
+    }
+
+    @Test
+    void updateProperty_ShouldPublishSnapshotOfPreviousValues() {
+        // Arrange
+        Property existing = Property.builder().id(1L).address("1 Old Road").price(300000.0)
+                .bedrooms(2).bathrooms(1).squareFootage(900.0).build();
+        Property changes = Property.builder().address("1 Old Road").price(350000.0)
+                .bedrooms(3).bathrooms(1).squareFootage(900.0).build();
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(propertyRepository.save(existing)).thenReturn(existing);
+
+        // Act
+        propertyService.updateProperty(1L, changes);
+
+        // Assert
+        ArgumentCaptor<PropertyChangedEvent> captor = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getProperty().getPrice()).isEqualTo(350000.0);
+        assertThat(captor.getValue().getPrevious()).isNotSameAs(existing);
+        assertThat(captor.getValue().getPrevious().getPrice()).isEqualTo(300000.0);
+        assertThat(captor.getValue().getPrevious().getBedrooms()).isEqualTo(2);
+    }
+
+    @Test
+    void deleteProperty_ShouldPublishSnapshotOfDeletedProperty() {
+        // Arrange
+        when(propertyRepository.existsById(1L)).thenReturn(true);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(testProperty));
+
+        // Act
+        propertyService.deleteProperty(1L);
+
+        // Assert
+        ArgumentCaptor<PropertyChangedEvent> captor = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getPrevious().getId()).isEqualTo(1L);
+        assertThat(captor.getValue().getPrevious().getAddress()).isEqualTo(testProperty.getAddress());
+    }
+
+    @Test
+    void searchProperties_WhenColumnIndexAnswers_ShouldHydrateIdsInIndexOrder() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 12);
+        when(columnIndex.search(any(PropertySearchCriteria.class), eq(pageable)))
+                .thenReturn(Optional.of(new PropertyColumnIndex.IdPage(List.of(2L, 1L), 5)));
+        when(propertyRepository.findWithImagesByIdIn(List.of(2L, 1L))).thenReturn(testProperties);
+
+        // Act
+        Page<Property> result = propertyService.searchProperties(
+                PropertySearchCriteria.builder().minPrice(100000.0).build(), pageable);
+
+        // Assert
+        assertThat(result.getContent()).extracting(Property::getId).containsExactly(2L, 1L);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        verify(propertyRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchPropertiesByCursor_WhenMoreRowsExist_ShouldReturnNextCursorWithoutCounting() {
+        // Arrange
+        when(propertyRepository.findRange(any(Specification.class), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(testProperties);
+
+        // Act
+        CursorPage<Property> result = propertyService.searchPropertiesByCursor(
+                new PropertySearchCriteria(), "", 1, Sort.by(Sort.Direction.DESC, "price"));
+
+        // Assert
+        assertThat(result.content()).containsExactly(testProperty);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(PropertyCursor.decode(result.next()).matches(Sort.Order.desc("price"))).isTrue();
+        verify(propertyRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void searchPropertiesByCursor_OnLastPage_ShouldReturnNoCursor() {
+        // Arrange
+        String cursor = PropertyCursor.after(testProperty, Sort.Order.asc("id")).encode();
+        when(propertyRepository.findRange(any(Specification.class), eq(Sort.by("id")), eq(0L), eq(3)))
+                .thenReturn(List.of(testProperties.get(1)));
+
+        // Act
+        CursorPage<Property> result = propertyService.searchPropertiesByCursor(
+                new PropertySearchCriteria(), cursor, 2, Sort.unsorted());
+
+        // Assert
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.next()).isNull();
+    }
+
+    @Test
+    void searchPropertiesByCursor_WithCursorForDifferentSort_ShouldThrowException() {
+        // Arrange
+        String cursor = PropertyCursor.after(testProperty, Sort.Order.asc("price")).encode();
+
+        // Act & Assert
+        assertThatThrownBy(() -> propertyService.searchPropertiesByCursor(
+                new PropertySearchCriteria(), cursor, 12, Sort.by("bedrooms")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cursor does not match");
+        verify(propertyRepository, never()).findRange(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchPropertiesByCursor_WithNonPositiveSize_ShouldThrowException() {
+        assertThatThrownBy(() -> propertyService.searchPropertiesByCursor(
+                new PropertySearchCriteria(), null, 0, Sort.unsorted()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Page size");
+    }
+
+    @Test
+    void searchPropertiesSlice_WhenMoreRowsExist_ShouldReturnHasNextWithoutCounting() {
+        // Arrange
+        Pageable pageable = PageRequest.of(2, 1, Sort.by("price"));
+        when(propertyRepository.findRange(any(Specification.class), eq(Sort.by("price")), eq(2L), eq(2)))
+                .thenReturn(testProperties);
+
+        // Act
+        SearchSlice<Property> result = propertyService.searchPropertiesSlice(new PropertySearchCriteria(), pageable, false);
+
+        // Assert
+        assertThat(result.content()).containsExactly(testProperty);
+        assertThat(result.number()).isEqualTo(2);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.estimatedTotal()).isNull();
+        verify(propertyRepository, never()).count(any(Specification.class));
+        verify(propertyRepository, never()).estimateCount(any());
+    }
+
+    @Test
+    void searchPropertiesSlice_WithEstimateRequested_ShouldIncludePlannerEstimate() {
+        // Arrange
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().minPrice(100000.0).build();
+        when(propertyRepository.findRange(any(Specification.class), any(Sort.class), eq(0L), eq(13)))
+                .thenReturn(testProperties);
+        when(propertyRepository.estimateCount(criteria)).thenReturn(40L);
+
+        // Act
+        SearchSlice<Property> result = propertyService.searchPropertiesSlice(criteria, PageRequest.of(0, 12), true);
+
+        // Assert
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.estimatedTotal()).isEqualTo(40L);
+    }
+
+    @Test
+    void searchProperties_SortedByRelevanceWithAddress_ShouldRankInDatabase() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 12, Sort.by("relevance"));
+        when(propertyRepository.findAll(any(Specification.class), eq(PageRequest.of(0, 12))))
+                .thenReturn(createPage(testProperties));
+
+        // Act
+        Page<Property> result = propertyService.searchProperties(
+                PropertySearchCriteria.builder().address("london").build(), pageable);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(2);
+        verifyNoInteractions(columnIndex);
+    }
+
+    @Test
+    void searchProperties_SortedByRelevanceWithoutAddress_ShouldDropRelevance() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 12, Sort.by(Sort.Order.asc("relevance"), Sort.Order.desc("price")));
+        Pageable expected = PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "price"));
+        when(columnIndex.search(any(PropertySearchCriteria.class), eq(expected))).thenReturn(Optional.empty());
+        when(propertyRepository.findAll(any(Specification.class), eq(expected)))
+                .thenReturn(createPage(testProperties));
+
+        // Act
+        Page<Property> result = propertyService.searchProperties(new PropertySearchCriteria(), pageable);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(2);
+    }
+
+    @Test
+    void searchProperties_WithTextQueryAndNoSort_ShouldRankInDatabase() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 12);
+        when(propertyRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(createPage(testProperties));
+
+        // Act
+        Page<Property> result = propertyService.searchProperties(
+                PropertySearchCriteria.builder().text("garden victorian").maxPrice(900000.0).build(), pageable);
+
+        // Assert
+        assertThat(result.getContent()).hasSize(2);
+        verifyNoInteractions(columnIndex);
+    }
+
+    @Test
+    void suggestAddresses_ShouldDelegateToIndexWithoutTouchingRepository() {
+        // Arrange
+        when(suggestionIndex.suggest("manc", 5)).thenReturn(List.of(new AddressSuggestion("manchester", 3)));
+
+        // Act
+        List<AddressSuggestion> result = propertyService.suggestAddresses("manc", 5);
+
+        // Assert
+        assertThat(result).containsExactly(new AddressSuggestion("manchester", 3));
+        verifyNoInteractions(propertyRepository);
+    }
+
+    @Test
+    void suggestAddresses_WithBlankPrefix_ShouldReturnEmptyList() {
+        assertThat(propertyService.suggestAddresses("  ", 5)).isEmpty();
+        verifyNoInteractions(suggestionIndex);
+    }
+
+    @Test
+    void suggestAddresses_WithLimitOutOfRange_ShouldThrowException() {
+        assertThatThrownBy(() -> propertyService.suggestAddresses("manc", 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Limit");
+        assertThatThrownBy(() -> propertyService.suggestAddresses("manc", AddressSuggestionIndex.MAX_SUGGESTIONS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchProperties_WithLocationFilters_ShouldQueryDatabase() {
+        // Arrange
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder()
+                .latitude(51.5).longitude(-0.12).radiusMiles(2.0)
+                .minLongitude(-0.2).minLatitude(51.4).maxLongitude(0.0).maxLatitude(51.6)
+                .build();
+        when(propertyRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(createPage(testProperties));
+
+        // Act
+        Page<Property> result = propertyService.searchProperties(criteria, PageRequest.of(0, 12));
+
+        // Assert
+        assertThat(result.getContent()).hasSize(2);
+    }
+
+    @Test
+    void searchProperties_WithIncompleteOrInvalidLocation_ShouldThrowException() {
+        List<PropertySearchCriteria> invalid = List.of(
+                PropertySearchCriteria.builder().latitude(51.5).longitude(-0.12).build(),
+                PropertySearchCriteria.builder().latitude(91.0).longitude(-0.12).radiusMiles(1.0).build(),
+                PropertySearchCriteria.builder().latitude(51.5).longitude(-181.0).radiusMiles(1.0).build(),
+                PropertySearchCriteria.builder().latitude(51.5).longitude(-0.12).radiusMiles(0.0).build(),
+                PropertySearchCriteria.builder().latitude(Double.NaN).longitude(-0.12).radiusMiles(1.0).build(),
+                PropertySearchCriteria.builder().latitude(51.5).longitude(-0.12)
+                        .radiusMiles(Double.POSITIVE_INFINITY).build(),
+                PropertySearchCriteria.builder().minLongitude(-0.2).minLatitude(51.4)
+                        .maxLongitude(Double.NaN).maxLatitude(51.6).build(),
+                PropertySearchCriteria.builder().minLongitude(-0.2).minLatitude(51.4).maxLongitude(0.0).build(),
+                PropertySearchCriteria.builder()
+                        .minLongitude(-0.2).minLatitude(51.6).maxLongitude(0.0).maxLatitude(51.4).build(),
+                PropertySearchCriteria.builder()
+                        .minLongitude(0.2).minLatitude(51.4).maxLongitude(0.0).maxLatitude(51.6).build());
+
+        for (PropertySearchCriteria criteria : invalid) {
+            assertThatThrownBy(() -> propertyService.searchProperties(criteria, PageRequest.of(0, 12)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        verifyNoInteractions(propertyRepository);
+    }
+
+    @Test
+    void getFacets_ShouldCountInOneRepositoryCall() {
+        // Arrange
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().bedrooms(3).build();
+        PropertyFacets facets = new PropertyFacets(2, Map.of(3, 2L), null, null);
+        when(propertyRepository.countFacets(criteria, EnumSet.of(SearchFacet.BEDROOMS))).thenReturn(facets);
+
+        // Act
+        PropertyFacets result = propertyService.getFacets(criteria, EnumSet.of(SearchFacet.BEDROOMS));
+
+        // Assert
+        assertThat(result).isSameAs(facets);
+        verify(propertyRepository, times(1)).countFacets(any(), any());
+    }
+
+    @Test
+    void getFacets_WithNoFacets_ShouldThrowException() {
+        assertThatThrownBy(() -> propertyService.getFacets(
+                new PropertySearchCriteria(), EnumSet.noneOf(SearchFacet.class)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("facet");
+    }
+
+    @Test
+    void getPriceStatistics_WithOnlyAreas_ShouldMergeSketches() {
+        // Arrange
+        PriceStatistics statistics = new PriceStatistics(2, 300000.0, 400000.0, 0, null, null, List.of(),
+                PriceStatistics.Source.SKETCH);
+        when(priceStatisticsIndex.statistics(Set.of("sw", "manchester"))).thenReturn(Optional.of(statistics));
+
+        // Act
+        PriceStatistics result = propertyService.getPriceStatistics(
+                PropertySearchCriteria.builder().text(" ").build(), Set.of("SW", " Manchester"));
+
+        // Assert
+        assertThat(result).isSameAs(statistics);
+        verify(propertyRepository, never()).priceDistribution(any(), any());
+    }
+
+    @Test
+    void getPriceStatistics_WithFiltersOrBeforeLoad_ShouldScanMatchingRows() {
+        // Arrange
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().bedrooms(2).build();
+        PriceDistribution distribution = new PriceDistribution();
+        distribution.add(250000.0, 500.0);
+        when(propertyRepository.priceDistribution(any(PropertySearchCriteria.class), eq(Set.of())))
+                .thenReturn(distribution);
+        when(priceStatisticsIndex.statistics(Set.of())).thenReturn(Optional.empty());
+
+        // Act
+        PriceStatistics filtered = propertyService.getPriceStatistics(criteria, Set.of());
+        PriceStatistics loading = propertyService.getPriceStatistics(new PropertySearchCriteria(), Set.of());
+
+        // Assert
+        assertThat(filtered.source()).isEqualTo(PriceStatistics.Source.SCAN);
+        assertThat(filtered.count()).isEqualTo(1);
+        assertThat(loading.source()).isEqualTo(PriceStatistics.Source.SCAN);
+        verify(priceStatisticsIndex, times(1)).statistics(any());
+    }
+
+    private PropertySummary summary(Long id, Double price) {
+        return new PropertySummary(id, id + " Summary Street", null, price, 2, 1, null, null, null, null, 0, 0);
+    }
+
+    @Test
+    void searchPropertySummaries_WithFullPage_ShouldProjectAndCount() {
+        // Arrange
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("price"));
+        when(propertyRepository.findSummaries(any(Specification.class), eq(Sort.by("price")), eq(2L), eq(2)))
+                .thenReturn(List.of(summary(3L, 300000.0), summary(4L, 400000.0)));
+        when(propertyRepository.count(any(Specification.class))).thenReturn(7L);
+
+        // Act
+        Page<PropertySummary> result = propertyService.searchPropertySummaries(new PropertySearchCriteria(), pageable);
+
+        // Assert
+        assertThat(result.getContent()).extracting(PropertySummary::id).containsExactly(3L, 4L);
+        assertThat(result.getTotalElements()).isEqualTo(7);
+        verify(propertyRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchPropertySummaries_WithShortFirstPageOrUnpaged_ShouldNotCount() {
+        // Arrange
+        when(propertyRepository.findSummaries(any(Specification.class), any(Sort.class), eq(0L), anyInt()))
+                .thenReturn(List.of(summary(1L, 100000.0)));
+
+        // Act
+        Page<PropertySummary> paged = propertyService.searchPropertySummaries(
+                new PropertySearchCriteria(), PageRequest.of(0, 12));
+        Page<PropertySummary> unpaged = propertyService.searchPropertySummaries(
+                new PropertySearchCriteria(), Pageable.unpaged());
+
+        // Assert
+        assertThat(paged.getTotalElements()).isEqualTo(1);
+        assertThat(unpaged.getTotalElements()).isEqualTo(1);
+        verify(propertyRepository).findSummaries(any(Specification.class), any(Sort.class), eq(0L), eq(Integer.MAX_VALUE));
+        verify(propertyRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void searchPropertySummaries_WhenColumnIndexAnswers_ShouldKeepIndexOrder() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 12);
+        when(columnIndex.search(any(PropertySearchCriteria.class), eq(pageable)))
+                .thenReturn(Optional.of(new PropertyColumnIndex.IdPage(List.of(4L, 9L, 3L), 20)));
+        when(propertyRepository.findSummaries(any(Specification.class), eq(Sort.unsorted()), eq(0L), eq(3)))
+                .thenReturn(List.of(summary(3L, 300000.0), summary(4L, 400000.0)));
+
+        // Act
+        Page<PropertySummary> result = propertyService.searchPropertySummaries(
+                PropertySearchCriteria.builder().minPrice(100000.0).build(), pageable);
+
+        // Assert
+        assertThat(result.getContent()).extracting(PropertySummary::id).containsExactly(4L, 3L);
+        assertThat(result.getTotalElements()).isEqualTo(20);
+    }
+
+    @Test
+    void searchPropertySummariesByCursor_WhenMoreRowsExist_ShouldReturnNextCursor() {
+        // Arrange
+        when(propertyRepository.findSummaries(any(Specification.class), eq(Sort.by("price", "id")), eq(0L), eq(2)))
+                .thenReturn(List.of(summary(1L, 100000.0), summary(2L, 200000.0)));
+
+        // Act
+        CursorPage<PropertySummary> first = propertyService.searchPropertySummariesByCursor(
+                new PropertySearchCriteria(), "", 1, Sort.by("price"));
+
+        // Assert
+        assertThat(first.content()).extracting(PropertySummary::id).containsExactly(1L);
+        assertThat(first.hasNext()).isTrue();
+        PropertyCursor next = PropertyCursor.decode(first.next());
+        assertThat(next.matches(Sort.Order.asc("price"))).isTrue();
+        assertThatThrownBy(() -> propertyService.searchPropertySummariesByCursor(
+                new PropertySearchCriteria(), first.next(), 0, Sort.by("price")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void searchPropertySummariesSlice_ShouldProjectWithoutCounting() {
+        // Arrange
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().minPrice(100000.0).build();
+        when(propertyRepository.findSummaries(any(Specification.class), any(Sort.class), eq(0L), eq(2)))
+                .thenReturn(List.of(summary(1L, 100000.0)));
+        when(propertyRepository.estimateCount(criteria)).thenReturn(1L);
+
+        // Act
+        SearchSlice<PropertySummary> result = propertyService.searchPropertySummariesSlice(
+                criteria, PageRequest.of(0, 1), true);
+
+        // Assert
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.estimatedTotal()).isEqualTo(1L);
+        verify(propertyRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void findSimilarProperties_ShouldLoadSummariesInIndexOrder() {
+        // Arrange
+        when(propertyRepository.existsById(1L)).thenReturn(true);
+        when(similarPropertyIndex.similarTo(1L, 2)).thenReturn(Optional.of(List.of(4L, 3L)));
+        when(propertyRepository.findSummaries(any(Specification.class), eq(Sort.unsorted()), eq(0L), eq(2)))
+                .thenReturn(List.of(summary(3L, 300000.0), summary(4L, 400000.0)));
+
+        // Act
+        List<PropertySummary> result = propertyService.findSimilarProperties(1L, 2);
+
+        // Assert
+        assertThat(result).extracting(PropertySummary::id).containsExactly(4L, 3L);
+    }
+
+    @Test
+    void findSimilarProperties_BeforeIndexLoads_ShouldReturnEmptyList() {
+        when(propertyRepository.existsById(1L)).thenReturn(true);
+        when(similarPropertyIndex.similarTo(1L, 10)).thenReturn(Optional.empty());
+
+        assertThat(propertyService.findSimilarProperties(1L, 10)).isEmpty();
+        verify(propertyRepository, never()).findSummaries(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void findSimilarProperties_WithUnknownIdOrBadLimit_ShouldThrowException() {
+        when(propertyRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> propertyService.findSimilarProperties(99L, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> propertyService.findSimilarProperties(1L, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> propertyService.findSimilarProperties(1L, SimilarPropertyIndex.MAX_RESULTS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void exportProperties_ShouldValidateThenStreamFromRepository() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().bedrooms(3).build();
+        List<PropertyExportRow> rows = new ArrayList<>();
+
+        propertyService.exportProperties(criteria, rows::add);
+        assertThatThrownBy(() -> propertyService.exportProperties(
+                PropertySearchCriteria.builder().minPrice(-1.0).build(), rows::add))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(propertyRepository).forEachExportRow(eq(criteria), any());
+        verifyNoMoreInteractions(propertyRepository);
+    }
+
+    @Test
+    void createProperties_ShouldBatchInsertAndPublishCreatedEvents() {
+        Property first = Property.builder().address("1 Batch Road").price(1.0).bedrooms(1).bathrooms(1)
+                .squareFootage(1.0).build();
+        Property second = Property.builder().address("2 Batch Road").price(2.0).bedrooms(2).bathrooms(1)
+                .squareFootage(2.0).build();
+        List<Property> batch = List.of(first, second);
+
+        propertyService.createProperties(batch);
+
+        verify(propertyRepository).insertAll(batch);
+        ArgumentCaptor<PropertyChangedEvent> events = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(PropertyChangedEvent::getProperty).containsExactly(first, second);
+    }
+
+    @Test
+    void createProperties_WithAnInvalidProperty_ShouldInsertNone() {
+        Property invalid = Property.builder().address("3 Batch Road").price(1.0).bedrooms(1).bathrooms(0)
+                .squareFootage(1.0).build();
+
+        assertThatThrownBy(() -> propertyService.createProperties(List.of(testProperty, invalid)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Number of bathrooms must be greater than 0");
+
+        verifyNoInteractions(propertyRepository, eventPublisher);
+    }
+
+    @Test
+    void validateProperty_ShouldApplyTheBeanValidationLimits() {
+        testProperty.setLatitude(51.5);
+        testProperty.setLongitude(-180.0);
+        propertyService.validateProperty(testProperty);
+
+        testProperty.setLatitude(-90.5);
+        assertThatThrownBy(() -> propertyService.validateProperty(testProperty))
+                .hasMessage("Latitude must be between -90 and 90");
+        testProperty.setLatitude(Double.NaN);
+        assertThatThrownBy(() -> propertyService.validateProperty(testProperty))
+                .hasMessage("Latitude must be between -90 and 90");
+        testProperty.setLatitude(null);
+        testProperty.setLongitude(180.5);
+        assertThatThrownBy(() -> propertyService.validateProperty(testProperty))
+                .hasMessage("Longitude must be between -180 and 180");
+        testProperty.setLongitude(Double.NEGATIVE_INFINITY);
+        assertThatThrownBy(() -> propertyService.validateProperty(testProperty))
+                .hasMessage("Longitude must be between -180 and 180");
+        testProperty.setAddress("x".repeat(1001));
+        assertThatThrownBy(() -> propertyService.validateProperty(testProperty))
+                .hasMessage("Address must not exceed 1000 characters");
+    }
+
+    @Test
+    void repriceProperties_ShouldRoundToThePennyAndPublishUpdatesWithThePreviousPrice() {
+        Property cheap = Property.builder().id(5L).address("5 Cheap Lane").price(0.01).bedrooms(1).bathrooms(1)
+                .squareFootage(1.0).build();
+        when(propertyRepository.findAllById(List.of(1L, 5L))).thenReturn(List.of(testProperty, cheap));
+
+        propertyService.repriceProperties(List.of(1L, 5L), -12.345);
+
+        assertThat(testProperty.getPrice()).isEqualTo(175310.0);
+        assertThat(cheap.getPrice()).isEqualTo(0.01);
+        verify(propertyRepository).saveAll(List.of(testProperty, cheap));
+        ArgumentCaptor<PropertyChangedEvent> events = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(PropertyChangedEvent::getType)
+                .containsOnly(PropertyChangedEvent.Type.UPDATED);
+        assertThat(events.getAllValues().get(0).getPrevious().getPrice()).isEqualTo(200000.0);
+    }
+
+    @Test
+    void repriceProperties_ByMinusOneHundredPercentOrMore_ShouldThrowException() {
+        assertThatThrownBy(() -> propertyService.repriceProperties(List.of(1L), -100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Price change must be a percentage greater than -100");
+        assertThatThrownBy(() -> propertyService.repriceProperties(List.of(1L), Double.NaN))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(propertyRepository, eventPublisher);
+    }
+
+    @Test
+    void deleteProperties_ShouldDeleteWhatStillExistsAndPublishDeletions() {
+        when(propertyRepository.findWithImagesByIdIn(List.of(1L, 99L))).thenReturn(List.of(testProperty));
+
+        propertyService.deleteProperties(List.of(1L, 99L));
+
+        verify(propertyRepository).deleteAll(List.of(testProperty));
+        ArgumentCaptor<PropertyChangedEvent> event = ArgumentCaptor.forClass(PropertyChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(PropertyChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getPropertyId()).isEqualTo(1L);
+        assertThat(event.getValue().getPrevious().getAddress()).isEqualTo(testProperty.getAddress());
+    }
+}
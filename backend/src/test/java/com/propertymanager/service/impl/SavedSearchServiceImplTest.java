@@ -0,0 +1,269 @@
+package com.propertymanager.service.impl;
+
+import com.propertymanager.exception.ResourceNotFoundException;
+import com.propertymanager.model.Property;
+import com.propertymanager.model.PropertySearchCriteria;
+import com.propertymanager.model.SavedSearch;
+import com.propertymanager.model.SavedSearchMatch;
+import com.propertymanager.repository.PropertyRepository;
+import com.propertymanager.repository.SavedSearchMatchRepository;
+import com.propertymanager.repository.SavedSearchRepository;
+import com.propertymanager.search.SavedSearchPercolator;
+import com.propertymanager.service.PropertiesChangedEvent;
+import com.propertymanager.service.PropertyChangedEvent;
+import com.propertymanager.service.PropertyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SavedSearchServiceImplTest {
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+
+    @Mock
+    private SavedSearchMatchRepository matchRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private PropertyService propertyService;
+
+    @Mock
+    private SavedSearchPercolator percolator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SavedSearchServiceImpl savedSearchService;
+
+    private Property property;
+    private SavedSearch savedSearch;
+
+    @BeforeEach
+    void setUp() {
+        // Percolates on the calling thread
+        savedSearchService = new SavedSearchServiceImpl(savedSearchRepository, matchRepository, propertyRepository,
+                propertyService, percolator, Runnable::run, transactionManager);
+        property = Property.builder()
+                .id(10L)
+                .address("25 Deansgate, Manchester")
+                .price(450000.0)
+                .bedrooms(2)
+                .bathrooms(1)
+                .squareFootage(900.0)
+                .build();
+        savedSearch = SavedSearch.of("alice", "Manchester flats",
+                PropertySearchCriteria.builder().address("Manchester").maxPrice(500000.0).build());
+        savedSearch.setId(1L);
+    }
+
+    private Property copyWith(String address, Double price) {
+        return Property.builder()
+                .id(property.getId())
+                .address(address)
+                .price(price)
+                .bedrooms(property.getBedrooms())
+                .bathrooms(property.getBathrooms())
+                .squareFootage(property.getSquareFootage())
+                .build();
+    }
+
+    @Test
+    void createSavedSearch_ShouldValidateNormalizeSaveAndIndex() {
+        // Arrange
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().address("Manchester").text(" ").build();
+        when(savedSearchRepository.save(any(SavedSearch.class))).thenAnswer(invocation -> {
+            SavedSearch search = invocation.getArgument(0);
+            search.setId(5L);
+            return search;
+        });
+
+        // Act
+        SavedSearch result = savedSearchService.createSavedSearch("alice", "Flats", criteria);
+
+        // Assert
+        verify(propertyService).validateSearchCriteria(criteria);
+        verify(percolator).add(result);
+        assertThat(result.getOwner()).isEqualTo("alice");
+        assertThat(result.getAddress()).isEqualTo("manchester");
+        assertThat(result.getText()).isNull();
+    }
+
+    @Test
+    void createSavedSearch_InATransaction_ShouldIndexOnlyOnceCommitted() {
+        when(savedSearchRepository.save(any(SavedSearch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            SavedSearch result = savedSearchService.createSavedSearch("alice", "Flats", new PropertySearchCriteria());
+            verifyNoInteractions(percolator);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            verify(percolator).add(result);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void createSavedSearch_WithoutNameOrCriteria_ShouldThrowException() {
+        PropertySearchCriteria criteria = new PropertySearchCriteria();
+
+        assertThatThrownBy(() -> savedSearchService.createSavedSearch("alice", " ", criteria))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Name is required");
+        assertThatThrownBy(() -> savedSearchService.createSavedSearch("alice", "Flats", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Search criteria are required");
+        verifyNoInteractions(savedSearchRepository, percolator);
+    }
+
+    @Test
+    void createSavedSearch_WithOverlongFilter_ShouldThrowException() {
+        PropertySearchCriteria criteria = PropertySearchCriteria.builder().address("a".repeat(1001)).build();
+
+        assertThatThrownBy(() -> savedSearchService.createSavedSearch("alice", "Flats", criteria))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Address filter must not exceed 1000 characters");
+        verifyNoInteractions(savedSearchRepository, percolator);
+    }
+
+    @Test
+    void getSavedSearches_ShouldReturnOwnersSearches() {
+        when(savedSearchRepository.findByOwnerOrderByIdDesc("alice")).thenReturn(List.of(savedSearch));
+
+        assertThat(savedSearchService.getSavedSearches("alice")).containsExactly(savedSearch);
+    }
+
+    @Test
+    void deleteSavedSearch_ShouldDeleteAndUnindex() {
+        when(savedSearchRepository.findById(1L)).thenReturn(Optional.of(savedSearch));
+
+        savedSearchService.deleteSavedSearch(1L, "alice");
+
+        verify(savedSearchRepository).delete(savedSearch);
+        verify(percolator).remove(1L);
+    }
+
+    @Test
+    void deleteSavedSearch_OwnedBySomeoneElse_ShouldThrowNotFound() {
+        when(savedSearchRepository.findById(1L)).thenReturn(Optional.of(savedSearch));
+
+        assertThatThrownBy(() -> savedSearchService.deleteSavedSearch(1L, "bob"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(savedSearchRepository, never()).delete(any(SavedSearch.class));
+    }
+
+    @Test
+    void getMatches_ShouldReturnPageForOwnedSearch() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(savedSearchRepository.findById(1L)).thenReturn(Optional.of(savedSearch));
+        when(matchRepository.findBySavedSearchIdOrderByMatchedAtDesc(1L, pageable))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        assertThat(savedSearchService.getMatches(1L, "alice", pageable)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onPropertyChanged_WhenCreated_ShouldRecordExactAndConfirmedMatches() {
+        // Arrange
+        SavedSearch textSearch = SavedSearch.of("alice", "Gardens", PropertySearchCriteria.builder().text("garden").build());
+        textSearch.setId(2L);
+        SavedSearch otherTextSearch = SavedSearch.of("bob", "Pools", PropertySearchCriteria.builder().text("pool").build());
+        otherTextSearch.setId(3L);
+        when(percolator.percolate(property))
+                .thenReturn(new SavedSearchPercolator.Percolation(List.of(1L), List.of(2L, 3L)));
+        when(savedSearchRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(textSearch, otherTextSearch));
+        when(propertyRepository.matches(10L, textSearch.toCriteria())).thenReturn(true);
+        when(propertyRepository.matches(10L, otherTextSearch.toCriteria())).thenReturn(false);
+        when(savedSearchRepository.getReferenceById(any(Long.class))).thenAnswer(invocation -> {
+            SavedSearch reference = new SavedSearch();
+            reference.setId(invocation.getArgument(0));
+            return reference;
+        });
+
+        // Act
+        savedSearchService.onPropertyChanged(PropertyChangedEvent.created(property));
+
+        // Assert
+        ArgumentCaptor<List<SavedSearchMatch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(matchRepository).saveAll(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(match -> match.getSavedSearch().getId())
+                .containsExactly(1L, 2L);
+        assertThat(captor.getValue())
+                .allSatisfy(match -> {
+                    assertThat(match.getReason()).isEqualTo(SavedSearchMatch.Reason.CREATED);
+                    assertThat(match.getPropertyId()).isEqualTo(10L);
+                    assertThat(match.getPrice()).isEqualTo(450000.0);
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onPropertyChanged_WhenRepriced_ShouldRecordRepricedMatches() {
+        Property previous = copyWith(property.getAddress(), 520000.0);
+        when(percolator.percolate(property)).thenReturn(new SavedSearchPercolator.Percolation(List.of(1L), List.of()));
+        when(savedSearchRepository.getReferenceById(1L)).thenReturn(savedSearch);
+
+        savedSearchService.onPropertyChanged(PropertyChangedEvent.updated(property, previous));
+
+        ArgumentCaptor<List<SavedSearchMatch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(matchRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(SavedSearchMatch::getReason)
+                .containsExactly(SavedSearchMatch.Reason.REPRICED);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onPropertiesChanged_ShouldRecordTheWholeBatchAtOnce() {
+        Property other = Property.builder().id(11L).address("3 Deansgate, Manchester").price(300000.0).build();
+        when(percolator.percolate(property)).thenReturn(new SavedSearchPercolator.Percolation(List.of(1L), List.of()));
+        when(percolator.percolate(other)).thenReturn(new SavedSearchPercolator.Percolation(List.of(1L), List.of()));
+        when(savedSearchRepository.getReferenceById(1L)).thenReturn(savedSearch);
+
+        savedSearchService.onPropertiesChanged(new PropertiesChangedEvent(List.of(
+                PropertyChangedEvent.created(property), PropertyChangedEvent.created(other))));
+
+        ArgumentCaptor<List<SavedSearchMatch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(matchRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(SavedSearchMatch::getPropertyId).containsExactly(10L, 11L);
+        verify(savedSearchRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void onPropertyChanged_WithoutPriceChangeOrMatches_ShouldRecordNothing() {
+        Property renamed = copyWith("26 Deansgate, Manchester", property.getPrice());
+        savedSearchService.onPropertyChanged(PropertyChangedEvent.updated(renamed, property));
+        savedSearchService.onPropertyChanged(PropertyChangedEvent.updated(property));
+        savedSearchService.onPropertyChanged(PropertyChangedEvent.deleted(10L, property));
+
+        when(percolator.percolate(property)).thenReturn(new SavedSearchPercolator.Percolation(List.of(), List.of()));
+        savedSearchService.onPropertyChanged(PropertyChangedEvent.created(property));
+
+        verify(percolator, times(1)).percolate(any(Property.class));
+        verify(matchRepository, never()).saveAll(any());
+        // Nothing could have matched, so no connection was taken
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -20,8 +20,21 @@ export const mockProperty = {
   ]
 };
 
+// Listing endpoints return summaries rather than full properties
+export const mockPropertySummary = {
+  id: mockProperty.id,
+  address: mockProperty.address,
+  descriptionPreview: mockProperty.description,
+  price: mockProperty.price,
+  bedrooms: mockProperty.bedrooms,
+  bathrooms: mockProperty.bathrooms,
+  squareFootage: mockProperty.squareFootage,
+  imageUrl: mockProperty.images[0].url,
+  imageCount: mockProperty.images.length
+};
+
 export const mockProperties = {
-  content: [mockProperty],
+  content: [mockPropertySummary],
   pageable: {
     pageNumber: 0,
     pageSize: 10,
@@ -2,7 +2,7 @@ import React from 'react';
 import { render, screen, fireEvent } from '@testing-library/react';
 import '@testing-library/jest-dom';
 import PropertyCard from './PropertyCard';
-import { Property } from '../../types/property';
+import { PropertySummary } from '../../types/property';
 import { BrowserRouter } from 'react-router-dom';
 
 // Mock the react-router-dom useNavigate hook
@@ -40,22 +40,16 @@ jest.mock('../../context/AuthContext', () => {
 });
 
 describe('PropertyCard Component', () => {
-  const mockProperty: Property = {
+  const mockProperty: PropertySummary = {
     id: 1,
     address: '123 Test Street',
     price: 250000,
-    description: 'A beautiful test property',
+    descriptionPreview: 'A beautiful test property',
     bedrooms: 3,
     bathrooms: 2,
     squareFootage: 1500,
-    images: [
-      { 
-        id: 1, 
-        url: 'test-image.jpg',
-        fileName: 'test-image.jpg',
-        contentType: 'image/jpeg'
-      }
-    ]
+    imageUrl: 'test-image.jpg',
+    imageCount: 1
   };
 
   beforeEach(() => {
@@ -85,7 +79,8 @@ describe('PropertyCard Component', () => {
   test('displays placeholder when no images', () => {
     const propertyNoImages = {
       ...mockProperty,
-      images: []
+      imageUrl: null,
+      imageCount: 0
     };
 
     render(
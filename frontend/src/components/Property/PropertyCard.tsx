@@ -1,6 +1,6 @@
 import React from 'react';
 import { FC, MouseEvent } from 'react';
-import { Property } from '../../types/property';
+import { PropertySummary } from '../../types/property';
 import { useNavigate } from 'react-router-dom';
 import { ROUTES } from '../../config/routes';
 import { FaBed, FaBath, FaRulerCombined, FaHome } from 'react-icons/fa';
@@ -8,7 +8,7 @@ import { getFullImageUrl } from '../../config/api';
 import { useAuth } from '../../context/AuthContext';
 
 interface PropertyCardProps {
-    property: Property;
+    property: PropertySummary;
 }
 
 const PropertyCard: FC<PropertyCardProps> = ({ property }) => {
@@ -16,12 +16,12 @@ const PropertyCard: FC<PropertyCardProps> = ({ property }) => {
     const { isAdmin } = useAuth();
 
     const handleViewDetails = () => {
-        navigate(ROUTES.PROPERTIES.DETAILS(property.id!));
+        navigate(ROUTES.PROPERTIES.DETAILS(property.id));
     };
 
     const handleEdit = (e: MouseEvent) => {
         e.stopPropagation();
-        navigate(ROUTES.PROPERTIES.EDIT(property.id!));
+        navigate(ROUTES.PROPERTIES.EDIT(property.id));
     };
 
     return (
@@ -32,9 +32,9 @@ const PropertyCard: FC<PropertyCardProps> = ({ property }) => {
         >
             {/* Image Section */}
             <div className="relative h-48 bg-gray-200 flex-shrink-0">
-                {property.images && property.images.length > 0 ? (
+                {property.imageUrl ? (
                     <img
-                        src={getFullImageUrl(property.images[0].url)}
+                        src={getFullImageUrl(property.imageUrl)}
                         alt={property.address}
                         className="w-full h-full object-cover rounded-t-xl"
                     />
@@ -93,10 +93,10 @@ const PropertyCard: FC<PropertyCardProps> = ({ property }) => {
                 </div>
 
                 {/* Description Preview */}
-                {property.description && (
+                {property.descriptionPreview && (
                     <div className="mt-4 border-t border-gray-100 pt-4 flex-grow">
                         <p className="text-[#666666] text-sm line-clamp-2">
-                            {property.description}
+                            {property.descriptionPreview}
                         </p>
                     </div>
                 )}
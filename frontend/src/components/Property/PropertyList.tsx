@@ -4,7 +4,7 @@ import { useQuery } from '@tanstack/react-query';
 import { useSearchParams } from 'react-router-dom';
 import PropertyCard from './PropertyCard';
 import Filter from './Filter';
-import { Property } from '../../types/property';
+import { PropertySummary } from '../../types/property';
 import { fetchProperties } from '../../services/api';
 
 // Validation and sanitization functions
@@ -86,7 +86,7 @@ const PropertyList: FC = () => {
       </div>
 
       <div data-testid="property-grid" className="mt-6 grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
-        {properties.map((property: Property) => (
+        {properties.map((property: PropertySummary) => (
           <PropertyCard key={property.id} property={property} />
         ))}
       </div>
@@ -1,4 +1,4 @@
-import { Property } from '../types/property';
+import { PropertySummary } from '../types/property';
 import { API_URL } from '../config/apiClient';
 
 interface Filters {
@@ -21,7 +21,7 @@ interface Page<T> {
   empty: boolean;
 }
 
-export const fetchProperties = async (filters: Filters): Promise<Page<Property>> => {
+export const fetchProperties = async (filters: Filters): Promise<Page<PropertySummary>> => {
   const params = new URLSearchParams();
   
   if (filters.address) params.append('address', filters.address);
@@ -55,7 +55,7 @@ export const fetchProperties = async (filters: Filters): Promise<Page<Property>>
 };
 
 export interface PropertyResponse {
-  content: Property[];
+  content: PropertySummary[];
   totalPages: number;
   totalElements: number;
   size: number;
@@ -1,5 +1,5 @@
 import { AxiosError } from 'axios';
-import { Property, Image } from '../types/property';
+import { Property, PropertySummary, Image } from '../types/property';
 import { api } from '../config/apiClient';
 
 // Define validation error type
@@ -25,28 +25,14 @@ api.interceptors.response.use(
 
 export const propertyService = {
     getAll: async () => {
-        const response = await api.get<Property[]>('/properties');
-        return response.data;
+        const response = await api.get<{content: PropertySummary[]}>('/properties');
+        return response.data.content;
     },
 
     getById: async (id: number) => {
-        try {
-            // Try the paginated endpoint first
-            const response = await api.get<Property>(`/properties/${id}`);
-            return response.data;
-        } catch (error) {
-            console.error("Failed to get property by ID from /properties/:id", error);
-            
-            // Fallback to get it from the list
-            const allProperties = await api.get<{content: Property[]}>('/properties');
-            const property = allProperties.data.content.find((p: Property) => p.id === id);
-            
-            if (!property) {
-                throw new Error(`Property with ID ${id} not found`);
-            }
-            
-            return property;
-        }
+        // Listing rows are summaries, so the detail endpoint is the only source of a full property
+        const response = await api.get<Property>(`/properties/${id}`);
+        return response.data;
     },
 
     create: async (property: Property) => {
@@ -13,9 +13,29 @@ export interface Property {
     bedrooms: number;
     bathrooms: number;
     squareFootage: number;
+    latitude?: number | null;
+    longitude?: number | null;
     images: Image[];
 }
 
+/**
+ * A row of the property listing: card fields only. The full record, with every
+ * image, comes from GET /properties/:id.
+ */
+export interface PropertySummary {
+    id: number;
+    address: string;
+    descriptionPreview: string | null;
+    price: number;
+    bedrooms: number;
+    bathrooms: number;
+    squareFootage: number;
+    latitude?: number | null;
+    longitude?: number | null;
+    imageUrl: string | null;
+    imageCount: number;
+}
+
 export enum PropertyType {
     HOUSE = 'HOUSE',
     APARTMENT = 'APARTMENT',